@@ -0,0 +1,267 @@
+package edu.minghualiu.oahspe.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import edu.minghualiu.oahspe.ingestion.runner.PDFExtractionException;
+import edu.minghualiu.oahspe.ingestion.runner.PdfDocumentSession;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs shared by the JMH benchmarks.
+ *
+ * Synthetic fixtures are generated or read from src/test/resources/golden;
+ * real-page fixtures come from the PDFs in src/test/resources, which the
+ * benchmark classpath (test scope) includes.
+ */
+public final class BenchmarkFixtures {
+
+    /** PDFs in src/test/resources used as real-page fixtures */
+    public static final List<String> TEST_PDFS = List.of("test-sample.pdf", "test-multipage.pdf", "test-runner.pdf");
+
+    private static final String GOLDEN_BOOK = "golden/oahspe-book-golden.txt";
+    private static final String PAGE_MARKER = "--- page ";
+
+    private static final String[] WORDS = (
+            "and the Jehovih spake saying unto man heaven earth angels Gods light dark corpor es "
+            + "spirit worlds hosts etherean atmospherean souls of in to with behold all was").split(" ");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Turns off logging. Parser debug logging would otherwise dominate the measurements.
+     */
+    public static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+    }
+
+    /**
+     * A page of lines with its source page number.
+     */
+    public record Page(int pageNumber, List<String> lines) {
+
+        public String text() {
+            return String.join("\n", lines);
+        }
+    }
+
+    /**
+     * The 50-page synthetic book used by the parser golden test.
+     */
+    public static List<Page> goldenBook() {
+        List<Page> pages = new ArrayList<>();
+        for (String line : readResource(GOLDEN_BOOK).lines().toList()) {
+            if (line.startsWith(PAGE_MARKER)) {
+                pages.add(new Page(Integer.parseInt(line.replaceAll("\\D", "")), new ArrayList<>()));
+            } else {
+                pages.get(pages.size() - 1).lines().add(line);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Book pages with unique verse, note and image keys, so they can be
+     * persisted: a book every 40 pages, a chapter every 4, 18 verses per page
+     * with a continuation line on every third, and a two-line note per page.
+     * Lines stay well under the 255-character text columns.
+     */
+    public static List<Page> storableBook(int pageCount) {
+        List<Page> pages = new ArrayList<>();
+        int book = 0;
+        int chapter = 0;
+        for (int p = 0; p < pageCount; p++) {
+            List<String> lines = new ArrayList<>();
+            if (p % 40 == 0) {
+                book++;
+                chapter = 0;
+                lines.add("Book of Benchmark " + book);
+            }
+            if (p % 4 == 0) {
+                chapter++;
+                lines.add("Chapter " + chapter);
+            }
+            for (int v = 1; v <= 18; v++) {
+                lines.add(book + "/" + chapter + "." + ((p % 4) * 18 + v) + " " + sentence(p + v, 12));
+                if (v % 3 == 0) {
+                    lines.add(sentence(p + v + 1, 8));
+                }
+            }
+            lines.add("(" + (p + 1) + ") " + sentence(p, 10));
+            lines.add(sentence(p + 2, 6));
+            if (p % 10 == 5) {
+                lines.add(String.format("i%03d %s", p / 10 + 1, sentence(p, 4)));
+            }
+            pages.add(new Page(p + 7, lines));
+        }
+        return pages;
+    }
+
+    /**
+     * Text of every page of the test PDFs, split into lines as the runner does.
+     */
+    public static List<Page> testPdfPages() {
+        List<Page> pages = new ArrayList<>();
+        for (String pdf : TEST_PDFS) {
+            try (PdfDocumentSession session = PdfDocumentSession.open(testResource(pdf).toString())) {
+                List<String> texts = session.extractAllPages();
+                for (int i = 0; i < texts.size(); i++) {
+                    pages.add(new Page(i + 1, List.of(texts.get(i).split("\n"))));
+                }
+            } catch (PDFExtractionException e) {
+                throw new IllegalStateException("Cannot read fixture " + pdf, e);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * A glossary page of "TERM: definition" entries, every other one with
+     * continuation lines.
+     */
+    public static String glossaryPage(int terms) {
+        StringBuilder page = new StringBuilder();
+        for (int i = 0; i < terms; i++) {
+            page.append("TERM ").append(letters(i)).append(": ").append(sentence(i, 10)).append('\n');
+            if (i % 2 == 0) {
+                page.append(sentence(i + 1, 12)).append('\n');
+                page.append(sentence(i + 2, 8)).append('\n');
+            }
+        }
+        return page.toString();
+    }
+
+    /**
+     * An index page of "Topic, 12, 40-42" entries with some cross-references
+     * and blank-line separated groups.
+     */
+    public static String indexPage(int entries) {
+        StringBuilder page = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            page.append(Character.toUpperCase(WORDS[i % WORDS.length].charAt(0)))
+                    .append(WORDS[i % WORDS.length].substring(1)).append(' ').append(letters(i));
+            if (i % 7 == 0) {
+                page.append(", see also ").append(WORDS[(i + 3) % WORDS.length]);
+            }
+            page.append(", ").append(10 + i).append(", ").append(200 + 3 * i).append('-').append(204 + 3 * i).append('\n');
+            if (i % 5 == 4) {
+                page.append('\n');
+            }
+        }
+        return page.toString();
+    }
+
+    /**
+     * Writes a PDF with one page per golden book page, up to the given count,
+     * cycling through the book if more pages are requested.
+     */
+    public static void writeSyntheticPdf(Path path, int pageCount) throws IOException {
+        writeSyntheticPdf(path, pageCount, 0);
+    }
+
+    /**
+     * Writes a synthetic PDF as {@link #writeSyntheticPdf(Path, int)} and
+     * draws a distinct 128x128 lossless image on every {@code imageEvery}-th
+     * page (0 = no images), so each image has to be encoded.
+     */
+    public static void writeSyntheticPdf(Path path, int pageCount, int imageEvery) throws IOException {
+        List<Page> book = goldenBook();
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pageCount; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, 9);
+                    stream.setLeading(11);
+                    stream.newLineAtOffset(40, 760);
+                    for (String line : book.get(p % book.size()).lines()) {
+                        // Standard 14 fonts only cover WinAnsi
+                        stream.showText(line.replaceAll("[^\\x20-\\x7E]", "?"));
+                        stream.newLine();
+                    }
+                    stream.endText();
+                    if (imageEvery > 0 && p % imageEvery == 0) {
+                        stream.drawImage(LosslessFactory.createFromImage(document, noiseImage(p)), 400, 40);
+                    }
+                }
+            }
+            document.save(path.toFile());
+        }
+    }
+
+    private static BufferedImage noiseImage(int seed) {
+        BufferedImage image = new BufferedImage(128, 128, BufferedImage.TYPE_INT_RGB);
+        int state = seed * 7919 + 1;
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                state = state * 1103515245 + 12345;
+                image.setRGB(x, y, state >>> 8);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Resolves a file in src/test/resources through the test classpath.
+     */
+    public static Path testResource(String name) {
+        URL url = BenchmarkFixtures.class.getClassLoader().getResource(name);
+        if (url == null) {
+            throw new IllegalStateException("Missing test resource " + name);
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readResource(String name) {
+        try (InputStream in = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing test resource " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sentence(int seed, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[(seed * 7 + i * 3) % WORDS.length]);
+        }
+        return sentence.toString();
+    }
+
+    // Upper-case letters only: glossary terms must match [A-Z\s'-]+
+    private static String letters(int n) {
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ('A' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return letters.toString();
+    }
+}
@@ -0,0 +1,172 @@
+package edu.minghualiu.oahspe.ingestion;
+
+import edu.minghualiu.oahspe.OahspeApplication;
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures;
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures.Page;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeParser;
+import edu.minghualiu.oahspe.ingestion.parser.ParserSession;
+import edu.minghualiu.oahspe.reader.VerseCache;
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.ImageRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import edu.minghualiu.oahspe.search.SearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OahspeIngestionService.ingestEvents for a pre-parsed 50-page book with
+ * unique keys ({@link BenchmarkFixtures#storableBook}, ~1,350 events), one op
+ * per book.
+ *
+ * <ul>
+ *   <li>inMemory: repositories are stubs whose save returns its argument, so
+ *       only the service's own event handling is measured</li>
+ *   <li>h2: the test-profile Spring context with in-memory H2; each op runs in
+ *       one transaction that is rolled back</li>
+ * </ul>
+ *
+ * Run: mvn -Pjmh test -Djmh.args="IngestEventsBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestEventsBenchmark {
+
+    private static final int BOOK_PAGES = 50;
+
+    @Param({"inMemory", "h2"})
+    private String repositories;
+
+    private final List<List<OahspeEvent>> pageEvents = new ArrayList<>();
+    private final List<Integer> pageNumbers = new ArrayList<>();
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+
+    private BookRepository bookRepository;
+    private ChapterRepository chapterRepository;
+    private VerseRepository verseRepository;
+    private NoteRepository noteRepository;
+    private ImageRepository imageRepository;
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+
+        OahspeParser parser = new OahspeParser();
+        ParserSession session = parser.newSession();
+        for (Page page : BenchmarkFixtures.storableBook(BOOK_PAGES)) {
+            pageEvents.add(parser.parse(session, page.lines(), page.pageNumber()));
+            pageNumbers.add(page.pageNumber());
+        }
+
+        if (repositories.equals("h2")) {
+            // Properties rather than arguments: IngestionCliRunner reads the arguments
+            context = new SpringApplicationBuilder(OahspeApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties("logging.level.root=OFF", "spring.jpa.show-sql=false")
+                    .run();
+            transactionTemplate = context.getBean(TransactionTemplate.class);
+            bookRepository = context.getBean(BookRepository.class);
+            chapterRepository = context.getBean(ChapterRepository.class);
+            verseRepository = context.getBean(VerseRepository.class);
+            noteRepository = context.getBean(NoteRepository.class);
+            imageRepository = context.getBean(ImageRepository.class);
+        } else {
+            bookRepository = stub(BookRepository.class);
+            chapterRepository = stub(ChapterRepository.class);
+            verseRepository = stub(VerseRepository.class);
+            noteRepository = stub(NoteRepository.class);
+            imageRepository = stub(ImageRepository.class);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        searchIndex.close();
+    }
+
+    @Benchmark
+    public OahspeIngestionService ingestBook() {
+        if (transactionTemplate == null) {
+            return ingestAllPages();
+        }
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return ingestAllPages();
+        });
+    }
+
+    private OahspeIngestionService ingestAllPages() {
+        // A fresh service per op: it carries the current book and chapter between pages
+        OahspeIngestionService service = new OahspeIngestionService(bookRepository, chapterRepository,
+                verseRepository, noteRepository, imageRepository,
+                new ImageNoteLinker(imageRepository, noteRepository),
+                new VerseCache(new SimpleMeterRegistry(), 1, 1), searchIndex);
+        for (int i = 0; i < pageEvents.size(); i++) {
+            service.ingestEvents(pageEvents.get(i), pageNumbers.get(i));
+        }
+        service.finishIngestion();
+        return service;
+    }
+
+    /**
+     * A repository whose save returns its argument and whose finders find nothing.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repositoryType) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] {repositoryType},
+                (proxy, method, args) -> {
+                    Class<?> returnType = method.getReturnType();
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    if (returnType == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (returnType == List.class) {
+                        return List.of();
+                    }
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == long.class || returnType == int.class) {
+                        return 0;
+                    }
+                    return null;
+                });
+    }
+}
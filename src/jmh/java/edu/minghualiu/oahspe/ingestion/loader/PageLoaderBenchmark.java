@@ -0,0 +1,128 @@
+package edu.minghualiu.oahspe.ingestion.loader;
+
+import edu.minghualiu.oahspe.OahspeApplication;
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures;
+import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
+import edu.minghualiu.oahspe.repositories.ImageBlobDataRepository;
+import edu.minghualiu.oahspe.repositories.ImageBlobRepository;
+import edu.minghualiu.oahspe.repositories.PageContentRepository;
+import edu.minghualiu.oahspe.repositories.PageImageRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageLoader.loadAllPages into the test-profile H2 database, one op per
+ * document. The loaded pages and image blobs are deleted before every op.
+ *
+ * <ul>
+ *   <li>sequential: one thread, the current default path</li>
+ *   <li>platform: {@value #WORKERS} extraction workers on platform threads</li>
+ *   <li>virtual: the same window of batches with
+ *       {@code oahspe.ingestion.virtual-threads=true}</li>
+ * </ul>
+ *
+ * Fixtures: "synthetic" is a 400-page PDF rendered from the golden book with
+ * a distinct image on every tenth page; the others are the PDFs in
+ * src/test/resources.
+ *
+ * Run: mvn -Pjmh test -Djmh.args="PageLoaderBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageLoaderBenchmark {
+
+    private static final int SYNTHETIC_PAGES = 400;
+    private static final int SYNTHETIC_IMAGE_EVERY = 10;
+    private static final int WORKERS = 4;
+
+    @Param({"sequential", "platform", "virtual"})
+    private String mode;
+
+    @Param({"synthetic", "test-multipage.pdf", "test-runner.pdf"})
+    private String fixture;
+
+    private ConfigurableApplicationContext context;
+    private PageLoader pageLoader;
+    private PageImageRepository pageImageRepository;
+    private PageContentRepository pageContentRepository;
+    private ImageBlobRepository imageBlobRepository;
+    private ImageBlobDataRepository imageBlobDataRepository;
+
+    private Path syntheticPdf;
+    private String pdfPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkFixtures.quietLogging();
+        if (fixture.equals("synthetic")) {
+            syntheticPdf = Files.createTempFile("oahspe-bench", ".pdf");
+            BenchmarkFixtures.writeSyntheticPdf(syntheticPdf, SYNTHETIC_PAGES, SYNTHETIC_IMAGE_EVERY);
+            pdfPath = syntheticPdf.toString();
+        } else {
+            pdfPath = BenchmarkFixtures.testResource(fixture).toString();
+        }
+
+        // Properties rather than arguments: IngestionCliRunner reads the arguments
+        context = new SpringApplicationBuilder(OahspeApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=OFF", "spring.jpa.show-sql=false",
+                        "oahspe.ingestion.virtual-threads=" + mode.equals("virtual"))
+                .run();
+        pageLoader = context.getBean(PageLoader.class);
+        pageImageRepository = context.getBean(PageImageRepository.class);
+        pageContentRepository = context.getBean(PageContentRepository.class);
+        imageBlobRepository = context.getBean(ImageBlobRepository.class);
+        imageBlobDataRepository = context.getBean(ImageBlobDataRepository.class);
+    }
+
+    /**
+     * Loaded pages are skipped and stored images are not encoded again, so
+     * every op starts from empty tables.
+     */
+    @Setup(Level.Invocation)
+    public void deleteLoadedPages() {
+        pageImageRepository.deleteAllInBatch();
+        pageContentRepository.deleteAllInBatch();
+        imageBlobDataRepository.deleteAllInBatch();
+        imageBlobRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (syntheticPdf != null) {
+            Files.deleteIfExists(syntheticPdf);
+        }
+    }
+
+    @Benchmark
+    public IngestionContext loadAllPages() {
+        return pageLoader.loadAllPages(pdfPath, null, mode.equals("sequential") ? 1 : WORKERS);
+    }
+}
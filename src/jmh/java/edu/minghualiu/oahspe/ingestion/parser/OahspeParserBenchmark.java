@@ -0,0 +1,78 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures;
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a set of pages with the line-classifying OahspeParser and with the
+ * original regex cascade. Both produce the same events; the difference is the
+ * cost per line. "streamingText" parses each page's raw text straight into a
+ * sink, without splitting it or collecting the events.
+ *
+ * Fixtures: "golden" is the 50-page synthetic book
+ * (golden/oahspe-book-golden.txt, ~1,200 lines); "testPdfs" is the text of
+ * every page of the PDFs in src/test/resources.
+ *
+ * Run: mvn -Pjmh test -Djmh.args="OahspeParserBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OahspeParserBenchmark {
+
+    @Param({"golden", "testPdfs"})
+    private String fixture;
+
+    private final OahspeParser parser = new OahspeParser();
+    private List<Page> pages;
+    private List<String> texts;
+
+    @Setup
+    public void loadPages() {
+        BenchmarkFixtures.quietLogging();
+        pages = fixture.equals("golden") ? BenchmarkFixtures.goldenBook() : BenchmarkFixtures.testPdfPages();
+        texts = pages.stream().map(Page::text).toList();
+    }
+
+    @Benchmark
+    public void lineClassifier(Blackhole blackhole) {
+        ParserSession session = parser.newSession();
+        for (Page page : pages) {
+            blackhole.consume(parser.parse(session, page.lines(), page.pageNumber()));
+        }
+    }
+
+    @Benchmark
+    public void streamingText(Blackhole blackhole) {
+        ParserSession session = parser.newSession();
+        for (int i = 0; i < pages.size(); i++) {
+            blackhole.consume(parser.parse(session, texts.get(i), pages.get(i).pageNumber(), blackhole::consume));
+        }
+    }
+
+    @Benchmark
+    public void regexCascade(Blackhole blackhole) {
+        RegexCascadeParser cascade = new RegexCascadeParser();
+        for (Page page : pages) {
+            blackhole.consume(cascade.parse(page.lines(), page.pageNumber()));
+        }
+    }
+}
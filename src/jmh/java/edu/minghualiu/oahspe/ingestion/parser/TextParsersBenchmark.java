@@ -0,0 +1,58 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GlossaryParser and IndexParser on one synthetic page each. A page holds
+ * {@code entries} glossary terms (half with two continuation lines) or index
+ * entries (every seventh a "see also" cross-reference).
+ *
+ * Run: mvn -Pjmh test -Djmh.args="TextParsersBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextParsersBenchmark {
+
+    @Param({"40"})
+    private int entries;
+
+    private final GlossaryParser glossaryParser = new GlossaryParser();
+    private final IndexParser indexParser = new IndexParser();
+    private String glossaryPage;
+    private String indexPage;
+
+    @Setup
+    public void buildPages() {
+        BenchmarkFixtures.quietLogging();
+        glossaryPage = BenchmarkFixtures.glossaryPage(entries);
+        indexPage = BenchmarkFixtures.indexPage(entries);
+    }
+
+    @Benchmark
+    public List<?> parseGlossaryPage() {
+        return glossaryParser.parseGlossaryPage(glossaryPage, 1668);
+    }
+
+    @Benchmark
+    public List<?> parseIndexPage() {
+        return indexParser.parseIndexPage(indexPage, 1700);
+    }
+}
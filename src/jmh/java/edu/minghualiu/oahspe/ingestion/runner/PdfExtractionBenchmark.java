@@ -0,0 +1,100 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction of every page of a PDF, one op per document.
+ *
+ * Fixtures: "synthetic" is a 100-page PDF rendered from the golden book;
+ * the others are the PDFs in src/test/resources.
+ *
+ * Run: mvn -Pjmh test -Djmh.args="PdfExtractionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    private static final int SYNTHETIC_PAGES = 100;
+
+    @Param({"synthetic", "test-sample.pdf", "test-multipage.pdf"})
+    private String fixture;
+
+    private final PDFTextExtractor extractor = new PDFTextExtractor();
+    private Path syntheticPdf;
+    private String pdfPath;
+    private int pageCount;
+
+    @Setup
+    public void preparePdf() throws IOException, PDFExtractionException {
+        BenchmarkFixtures.quietLogging();
+        if (fixture.equals("synthetic")) {
+            syntheticPdf = Files.createTempFile("oahspe-bench", ".pdf");
+            BenchmarkFixtures.writeSyntheticPdf(syntheticPdf, SYNTHETIC_PAGES);
+            pdfPath = syntheticPdf.toString();
+        } else {
+            pdfPath = BenchmarkFixtures.testResource(fixture).toString();
+        }
+        pageCount = extractor.getPageCount(pdfPath);
+    }
+
+    @TearDown
+    public void deletePdf() throws IOException {
+        if (syntheticPdf != null) {
+            Files.deleteIfExists(syntheticPdf);
+        }
+    }
+
+    /**
+     * PDFTextExtractor.extractText per page: loads the document for every page.
+     */
+    @Benchmark
+    public void extractTextPerPage(Blackhole blackhole) throws PDFExtractionException {
+        for (int page = 1; page <= pageCount; page++) {
+            blackhole.consume(extractor.extractText(pdfPath, page));
+        }
+    }
+
+    /**
+     * One session, one PDFTextStripper per page.
+     */
+    @Benchmark
+    public void sessionExtractText(Blackhole blackhole) throws PDFExtractionException {
+        try (PdfDocumentSession session = extractor.openSession(pdfPath)) {
+            for (int page = 1; page <= pageCount; page++) {
+                blackhole.consume(session.extractText(page));
+            }
+        }
+    }
+
+    /**
+     * One session, one stripper pass over all pages (the ingestion runner's path).
+     */
+    @Benchmark
+    public void sessionStreamPageText(Blackhole blackhole) throws PDFExtractionException {
+        try (PdfDocumentSession session = extractor.openSession(pdfPath)) {
+            session.streamPageText(1, pageCount, (pageNumber, text) -> blackhole.consume(text));
+        }
+    }
+}
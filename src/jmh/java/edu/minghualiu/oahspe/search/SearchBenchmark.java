@@ -0,0 +1,86 @@
+package edu.minghualiu.oahspe.search;
+
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures;
+import edu.minghualiu.oahspe.bench.BenchmarkFixtures.Page;
+import org.apache.lucene.document.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SearchIndex.search over a corpus the size of the book: 1831 storable pages,
+ * about 33,000 verses and 1,800 notes. Sample mode reports latency
+ * percentiles; p0.99 is the figure to watch.
+ *
+ * The fixture vocabulary has only 28 words, so every query matches a large
+ * share of the corpus. Real queries match far fewer documents.
+ *
+ * Run: mvn -Pjmh test -Djmh.args="SearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int PAGES = 1831;
+    private static final int LIMIT = 20;
+    private static final Pattern VERSE = Pattern.compile("^(\\d+/\\d+\\.\\d+) (.*)$");
+    private static final Pattern NOTE = Pattern.compile("^\\((\\d+)\\) (.*)$");
+
+    @Param({"jehovih", "\"jehovih unto earth\"", "atmos*", "\"jehovih unto\" ang*"})
+    private String query;
+
+    private SearchIndex searchIndex;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        List<Document> documents = new ArrayList<>();
+        int id = 0;
+        for (Page page : BenchmarkFixtures.storableBook(PAGES)) {
+            String verseKey = null;
+            for (String line : page.lines()) {
+                Matcher verse = VERSE.matcher(line);
+                Matcher note = NOTE.matcher(line);
+                if (verse.matches()) {
+                    verseKey = verse.group(1);
+                    documents.add(SearchIndex.verseDocument(++id, verseKey, verse.group(2), page.pageNumber()));
+                } else if (note.matches()) {
+                    documents.add(SearchIndex.noteDocument(++id, note.group(1), note.group(2),
+                            page.pageNumber(), verseKey));
+                }
+            }
+        }
+        searchIndex = new SearchIndex();
+        searchIndex.replaceAll(documents);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        return searchIndex.search(query, null, LIMIT);
+    }
+}
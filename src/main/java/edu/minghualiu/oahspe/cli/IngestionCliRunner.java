@@ -1,9 +1,15 @@
 package edu.minghualiu.oahspe.cli;
 
+import edu.minghualiu.oahspe.entities.CleanupResult;
 import edu.minghualiu.oahspe.entities.ContentLinkingReport;
 import edu.minghualiu.oahspe.entities.WorkflowState;
+import edu.minghualiu.oahspe.export.CorpusExporter;
+import edu.minghualiu.oahspe.export.ExportResult;
+import edu.minghualiu.oahspe.ingestion.image.ImageBlobService;
+import edu.minghualiu.oahspe.ingestion.image.ImageExtractionMode;
 import edu.minghualiu.oahspe.ingestion.linker.ContentPageLinkingService;
 import edu.minghualiu.oahspe.ingestion.linker.PageIngestionLinker;
+import edu.minghualiu.oahspe.ingestion.linker.PageReingestionService;
 import edu.minghualiu.oahspe.ingestion.loader.PageLoader;
 import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
 import edu.minghualiu.oahspe.ingestion.runner.OahspeIngestionRunner;
@@ -15,6 +21,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -22,12 +30,17 @@ import java.util.Scanner;
  * 
  * Phase 7 Enhanced Usage:
  *   --workflow <pdf>           Run complete 3-phase workflow
- *   --load-pages <pdf>         Phase 1: Load pages from PDF
+ *   --load-pages <pdf> [--threads N] [--render-images]
+ *                              Phase 1: Load pages from PDF (N extraction workers;
+ *                              --render-images re-encodes JPEGs as PNG instead of copying them)
  *   --ingest-pages             Phase 3: Ingest loaded pages
+ *   --reingest-changed         Rebuild only pages whose text or parser version changed
  *   --verify-links             Verify content-page linking
  *   --cleanup                  Phase 2: Delete old data (with confirmation)
- *   --resume <workflow-name>   Resume interrupted workflow
- *   <pdf>                      Legacy: Run old ingestion (backward compatible)
+ *   --resume <workflow-name>   Resume interrupted or failed workflow
+ *   --export <dir>             Export the corpus as JSONL and columnar files
+ *   <pdf> [--threads N]        Legacy: Run old ingestion (backward compatible;
+ *                              N workers extract ahead of the database writer)
  * 
  * Examples:
  *   mvn spring-boot:run -Dspring-boot.run.arguments="--workflow data/OAHSPE.pdf"
@@ -43,8 +56,11 @@ public class IngestionCliRunner implements CommandLineRunner {
     private final WorkflowOrchestrator workflowOrchestrator;
     private final PageLoader pageLoader;
     private final PageIngestionLinker pageIngestionLinker;
+    private final PageReingestionService pageReingestionService;
     private final IngestionDataCleanup dataCleanup;
     private final ContentPageLinkingService linkingService;
+    private final ImageBlobService imageBlobService;
+    private final CorpusExporter corpusExporter;
     
     @Override
     public void run(String... args) throws Exception {
@@ -67,16 +83,27 @@ public class IngestionCliRunner implements CommandLineRunner {
                 
             case "--load-pages":
                 if (args.length < 2) {
-                    log.error("Missing PDF path. Usage: --load-pages <pdf-path>");
+                    log.error("Missing PDF path. Usage: --load-pages <pdf-path> [--threads N] [--render-images]");
                     return;
                 }
-                runPageLoading(args[1]);
+                Integer threads = parseThreads(2, args);
+                if (threads == null) {
+                    return;
+                }
+                if (Arrays.asList(args).contains("--render-images")) {
+                    imageBlobService.setMode(ImageExtractionMode.RENDER);
+                }
+                runPageLoading(args[1], threads);
                 break;
                 
             case "--ingest-pages":
                 runIngestion();
                 break;
                 
+            case "--reingest-changed":
+                runReingestion();
+                break;
+                
             case "--verify-links":
                 runVerification();
                 break;
@@ -95,6 +122,14 @@ public class IngestionCliRunner implements CommandLineRunner {
                 resumeWorkflow(args[1]);
                 break;
                 
+            case "--export":
+                if (args.length < 2) {
+                    log.error("Missing export directory. Usage: --export <dir>");
+                    return;
+                }
+                runExport(Path.of(args[1]));
+                break;
+                
             case "--help":
             case "-h":
                 printHelp();
@@ -106,12 +141,46 @@ public class IngestionCliRunner implements CommandLineRunner {
                     log.error("Unknown command: {}", command);
                     printHelp();
                 } else {
-                    runLegacyIngestion(command);
+                    Integer legacyThreads = parseThreads(1, args);
+                    if (legacyThreads == null) {
+                        return;
+                    }
+                    runLegacyIngestion(command, legacyThreads);
                 }
                 break;
         }
     }
     
+    /**
+     * Reads the optional {@code --threads N} flag.
+     * 
+     * @param firstOption index of the first argument after the command's operands
+     * @return the worker count (1 if absent), or null if the value is invalid
+     */
+    private Integer parseThreads(int firstOption, String... args) {
+        for (int i = firstOption; i < args.length; i++) {
+            if (!"--threads".equals(args[i])) {
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                log.error("Missing thread count. Usage: --threads <N>");
+                return null;
+            }
+            try {
+                int threads = Integer.parseInt(args[i + 1]);
+                if (threads < 1) {
+                    log.error("Thread count must be at least 1, got {}", threads);
+                    return null;
+                }
+                return threads;
+            } catch (NumberFormatException e) {
+                log.error("Invalid thread count: {}", args[i + 1]);
+                return null;
+            }
+        }
+        return 1;
+    }
+    
     /**
      * Progress callback for workflow operations.
      */
@@ -172,10 +241,18 @@ public class IngestionCliRunner implements CommandLineRunner {
         log.info("");
         log.info("  --load-pages <pdf>         Phase 1: Load all pages from PDF into database");
         log.info("                             Creates PageContent and PageImage entities");
+        log.info("  --load-pages <pdf> --threads N");
+        log.info("                             Extract pages with N parallel workers");
+        log.info("  --load-pages <pdf> --render-images");
+        log.info("                             Decode every image and store it as PNG");
+        log.info("                             (default: copy browser-ready JPEG streams as is)");
         log.info("");
         log.info("  --ingest-pages             Phase 3: Ingest loaded pages into domain entities");
         log.info("                             Creates Books, Chapters, Verses, Notes, etc.");
         log.info("");
+        log.info("  --reingest-changed         Rebuild the entities of changed pages only");
+        log.info("                             (text hash or parser version differs from last ingestion)");
+        log.info("");
         log.info("  --verify-links             Verify content-page linking");
         log.info("                             Reports on pageNumber field population");
         log.info("");
@@ -183,10 +260,15 @@ public class IngestionCliRunner implements CommandLineRunner {
         log.info("                             (Requires confirmation, preserves PageContent)");
         log.info("  --cleanup --confirm        Skip interactive confirmation prompt");
         log.info("");
-        log.info("  --resume <workflow-name>   Resume an interrupted workflow");
+        log.info("  --resume <workflow-name>   Resume an interrupted or failed workflow");
+        log.info("");
+        log.info("  --export <dir>             Export books, chapters, verses, notes, glossary terms");
+        log.info("                             and index entries as gzipped JSONL and columnar files");
         log.info("");
         log.info("  <pdf>                      Legacy mode: Run old ingestion");
         log.info("                             (Backward compatible)");
+        log.info("  <pdf> --threads N          Legacy mode with N extraction workers feeding");
+        log.info("                             one ordered database writer");
         log.info("");
         log.info("  --help, -h                 Show this help message");
         log.info("");
@@ -198,13 +280,22 @@ public class IngestionCliRunner implements CommandLineRunner {
         log.info("  # Load pages only:");
         log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--load-pages data/OAHSPE.pdf\"");
         log.info("");
+        log.info("  # Load pages with 8 extraction workers:");
+        log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--load-pages data/OAHSPE.pdf --threads 8\"");
+        log.info("");
         log.info("  # Cleanup and re-ingest:");
         log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--cleanup\"");
         log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--ingest-pages\"");
         log.info("");
+        log.info("  # Re-ingest pages after a parser fix:");
+        log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--reingest-changed\"");
+        log.info("");
         log.info("  # Verify linking:");
         log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--verify-links\"");
         log.info("");
+        log.info("  # Export the corpus for translation tooling:");
+        log.info("  mvn spring-boot:run -Dspring-boot.run.arguments=\"--export export/\"");
+        log.info("");
         log.info("=".repeat(80));
         log.info("");
     }
@@ -250,17 +341,19 @@ public class IngestionCliRunner implements CommandLineRunner {
     /**
      * Runs Phase 1: Load pages from PDF.
      */
-    private void runPageLoading(String pdfPath) {
+    private void runPageLoading(String pdfPath, int threads) {
         log.info("=".repeat(80));
         log.info("PHASE 1: Loading Pages from PDF");
         log.info("=".repeat(80));
         log.info("PDF File: {}", pdfPath);
+        log.info("Threads: {}", threads);
+        log.info("Images: {}", imageBlobService.getMode());
         log.info("");
         
         long startTime = System.currentTimeMillis();
         
         try {
-            IngestionContext context = pageLoader.loadAllPages(pdfPath, createProgressCallback());
+            IngestionContext context = pageLoader.loadAllPages(pdfPath, createProgressCallback(), threads);
             
             long duration = System.currentTimeMillis() - startTime;
             
@@ -330,6 +423,47 @@ public class IngestionCliRunner implements CommandLineRunner {
         }
     }
     
+    /**
+     * Re-ingests the pages whose text or parser version changed since ingestion.
+     */
+    private void runReingestion() {
+        log.info("=".repeat(80));
+        log.info("RE-INGESTION: Rebuilding Changed Pages");
+        log.info("=".repeat(80));
+        log.info("");
+        
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            IngestionContext context = pageReingestionService.reingestChangedPages(createProgressCallback());
+            
+            long duration = System.currentTimeMillis() - startTime;
+            
+            log.info("");
+            log.info("=".repeat(80));
+            log.info("✓ RE-INGESTION COMPLETE!");
+            log.info("=".repeat(80));
+            log.info("Duration: {} ms ({} seconds)", duration, duration / 1000.0);
+            log.info("Pages Re-ingested: {}", context.getTotalPages());
+            log.info("Errors: {}", context.getTotalErrorsEncountered());
+            
+            if (!context.getPageErrors().isEmpty()) {
+                log.warn("");
+                log.warn("Errors encountered:");
+                context.getPageErrors().forEach(error -> log.warn("  {}", error));
+            }
+            
+            log.info("=".repeat(80));
+            
+        } catch (Exception e) {
+            log.error("=".repeat(80));
+            log.error("✗ RE-INGESTION FAILED!");
+            log.error("=".repeat(80));
+            log.error("Error: {}", e.getMessage(), e);
+            throw new RuntimeException("Re-ingestion failed", e);
+        }
+    }
+    
     /**
      * Runs verification of content-page linking.
      */
@@ -388,12 +522,14 @@ public class IngestionCliRunner implements CommandLineRunner {
         log.info("Proceeding with cleanup...");
         
         try {
-            dataCleanup.cleanupAllIngestedData();
+            CleanupResult result = dataCleanup.cleanupAllIngestedData();
             
             log.info("");
             log.info("=".repeat(80));
             log.info("✓ CLEANUP COMPLETE!");
             log.info("=".repeat(80));
+            log.info(result.getSummary());
+            log.info("=".repeat(80));
             
         } catch (Exception e) {
             log.error("=".repeat(80));
@@ -404,6 +540,35 @@ public class IngestionCliRunner implements CommandLineRunner {
         }
     }
     
+    /**
+     * Exports the ingested corpus to a directory.
+     */
+    private void runExport(Path directory) {
+        log.info("=".repeat(80));
+        log.info("EXPORT: Corpus to {}", directory.toAbsolutePath());
+        log.info("=".repeat(80));
+        
+        try {
+            ExportResult result = corpusExporter.export(directory);
+            
+            log.info("");
+            log.info("=".repeat(80));
+            log.info("✓ EXPORT COMPLETE!");
+            log.info("=".repeat(80));
+            result.rowCounts().forEach((table, rows) -> log.info("{}: {} rows", table, rows));
+            log.info("Total Rows: {}", result.totalRows());
+            log.info("Duration: {} ms ({} seconds)", result.durationMillis(), result.durationMillis() / 1000.0);
+            log.info("=".repeat(80));
+            
+        } catch (Exception e) {
+            log.error("=".repeat(80));
+            log.error("✗ EXPORT FAILED!");
+            log.error("=".repeat(80));
+            log.error("Error: {}", e.getMessage(), e);
+            throw new RuntimeException("Export failed", e);
+        }
+    }
+    
     /**
      * Resumes an interrupted workflow.
      */
@@ -414,10 +579,11 @@ public class IngestionCliRunner implements CommandLineRunner {
         log.info("");
         
         try {
-            WorkflowState workflow = workflowOrchestrator.resumeWorkflow(workflowName);
+            WorkflowState workflow = workflowOrchestrator.resumeWorkflow(workflowName, createProgressCallback());
             
-            log.info("Workflow resumed from phase: {}", workflow.getCurrentPhase());
-            log.info("Status: {}", workflow.getStatus());
+            log.info("Workflow: {}", workflow.getSummary());
+            log.info("PDF File: {}", workflow.getSourcePath());
+            log.info("Checkpoints: {}", workflow.getCheckpoints());
             log.info("=".repeat(80));
             
         } catch (Exception e) {
@@ -432,18 +598,19 @@ public class IngestionCliRunner implements CommandLineRunner {
     /**
      * Legacy ingestion mode for backward compatibility.
      */
-    private void runLegacyIngestion(String pdfPath) {
+    private void runLegacyIngestion(String pdfPath, int threads) {
         log.info("=".repeat(80));
         log.info("LEGACY MODE: Old Ingestion Runner");
         log.info("=".repeat(80));
         log.info("PDF File: {}", pdfPath);
+        log.info("Threads: {}", threads);
         log.warn("Note: Consider using --workflow for new Phase 7 workflow");
         log.info("");
         
         long startTime = System.currentTimeMillis();
         
         try {
-            IngestionContext context = ingestionRunner.ingestPdf(pdfPath);
+            IngestionContext context = ingestionRunner.ingestPdfWithProgress(pdfPath, null, threads);
             
             long duration = System.currentTimeMillis() - startTime;
             
@@ -21,7 +21,8 @@ import java.util.List;
 @Builder
 public class Chapter {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chapters_seq")
+    @SequenceGenerator(name = "chapters_seq", sequenceName = "chapters_seq", allocationSize = 50)
     private Long id;
 
     private String title;
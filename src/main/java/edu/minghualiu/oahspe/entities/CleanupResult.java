@@ -0,0 +1,44 @@
+package edu.minghualiu.oahspe.entities;
+
+import lombok.*;
+
+/**
+ * Exact row counts removed by a data cleanup, per table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CleanupResult {
+    private int noteImageLinks;     // rows removed from the note_images join table
+    private int pageImagesUnlinked; // PageImages whose linked_image_id was cleared (rows kept)
+    private int notes;
+    private int verses;
+    private int chapters;
+    private int books;
+    private int images;
+    private int imageBlobs;         // blobs no longer referenced by any PageImage or Image
+    private int indexPageRanges;    // rows removed from index_page_refs
+    private int indexEntries;
+    private int glossaryTerms;
+    
+    /**
+     * Returns the total number of rows deleted across all tables.
+     * Unlinked PageImages are updated, not deleted, and are not counted.
+     */
+    public int getTotalDeleted() {
+        return noteImageLinks + notes + verses + chapters + books + images + imageBlobs
+                + indexPageRanges + indexEntries + glossaryTerms;
+    }
+    
+    /**
+     * Returns a formatted summary string.
+     */
+    public String getSummary() {
+        return String.format("Deleted %d books, %d chapters, %d verses, %d notes, %d images, %d image blobs, "
+                        + "%d note-image links, %d glossary terms, %d index entries, %d index page ranges; unlinked %d page images",
+                books, chapters, verses, notes, images, imageBlobs,
+                noteImageLinks, glossaryTerms, indexEntries, indexPageRanges, pageImagesUnlinked);
+    }
+}
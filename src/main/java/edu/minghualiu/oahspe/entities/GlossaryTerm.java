@@ -26,7 +26,8 @@ import java.time.LocalDateTime;
 @Builder
 public class GlossaryTerm {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "glossary_terms_seq")
+    @SequenceGenerator(name = "glossary_terms_seq", sequenceName = "glossary_terms_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 255)
@@ -13,6 +13,10 @@ import java.util.List;
 @Table(name = "images",
 uniqueConstraints = {
 @UniqueConstraint(columnNames = {"imageKey"})
+    },
+    indexes = {
+        @Index(name = "idx_image_source_page", columnList = "sourcePage"),
+        @Index(name = "idx_image_blob_id", columnList = "blob_id")
     })
 @Getter
 @Setter
@@ -21,7 +25,8 @@ uniqueConstraints = {
 @Builder
 public class Image {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "images_seq")
+    @SequenceGenerator(name = "images_seq", sequenceName = "images_seq", allocationSize = 50)
     private int id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -37,8 +42,9 @@ public class Image {
     private String originalFilename;
   	
     private String contentType;
-    @Lob @Column(columnDefinition = "BLOB")
-    private byte[] data;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_id")
+    private ImageBlob blob;  // Null for images created from text references only
 
     @Builder.Default
     @ManyToMany(mappedBy = "images")
@@ -0,0 +1,49 @@
+package edu.minghualiu.oahspe.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Describes the encoded bytes of an image, stored once per content hash.
+ * PageImage and Image rows reference a blob instead of holding their own copy,
+ * so a decoration or plate repeated on many pages is stored a single time.
+ *
+ * The hash is taken over the image's PDF stream (raw bytes plus dictionary),
+ * not over the encoded output, so it is known before the image is decoded.
+ * The bytes themselves live in the ImageBlobStore named by {@code storage},
+ * keyed by the hash; this row never holds a LOB.
+ */
+@Entity
+@Table(name = "image_blobs",
+    indexes = {
+        @Index(name = "idx_image_blob_hash", columnList = "content_hash", unique = true)
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageBlob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_blobs_seq")
+    @SequenceGenerator(name = "image_blobs_seq", sequenceName = "image_blobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;  // SHA-256, lowercase hex
+
+    @Column(name = "mime_type", length = 50)
+    private String mimeType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Integer sizeBytes;
+
+    @Column(nullable = false, length = 16)
+    private String storage;  // ImageBlobStore name: "filesystem" or "database"
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
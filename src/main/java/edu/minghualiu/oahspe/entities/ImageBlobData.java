@@ -0,0 +1,25 @@
+package edu.minghualiu.oahspe.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Bytes of an ImageBlob kept in the database by DatabaseImageBlobStore.
+ * A table of its own, so ImageBlob, PageImage and Image rows never carry a LOB.
+ */
+@Entity
+@Table(name = "image_blob_data")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageBlobData {
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Lob
+    @Column(columnDefinition = "BLOB", nullable = false)
+    private byte[] data;
+}
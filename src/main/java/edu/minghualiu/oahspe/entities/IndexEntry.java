@@ -2,6 +2,10 @@ package edu.minghualiu.oahspe.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Stores index entries extracted from the Index section (pages 1691-1831).
@@ -20,7 +24,8 @@ import lombok.*;
 @Builder
 public class IndexEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "index_entries_seq")
+    @SequenceGenerator(name = "index_entries_seq", sequenceName = "index_entries_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 500)
@@ -33,6 +38,18 @@ public class IndexEntry {
     @Column(name = "page_references", columnDefinition = "TEXT")
     private String pageReferences;
 
+    /**
+     * The page references parsed into ranges, in citation order.
+     * Stored in {@code index_page_refs} and indexed by range, so entries can
+     * be looked up by the pages they cite.
+     */
+    @ElementCollection
+    @CollectionTable(name = "index_page_refs",
+        joinColumns = @JoinColumn(name = "entry_id"),
+        indexes = @Index(name = "idx_index_page_refs_range", columnList = "start_page, end_page"))
+    @Builder.Default
+    private List<PageRange> pageRanges = new ArrayList<>();
+
     /**
      * Link to glossary if this topic exists in the glossary.
      */
@@ -61,9 +78,13 @@ public class IndexEntry {
 
     /**
      * Returns a count of how many page references this entry has.
-     * Estimates by counting commas (rough approximation).
+     * Counts the parsed ranges if they are loaded; otherwise estimates by
+     * counting commas (rough approximation).
      */
     public int getEstimatedReferenceCount() {
+        if (Hibernate.isInitialized(pageRanges) && !pageRanges.isEmpty()) {
+            return pageRanges.size();
+        }
         if (pageReferences == null || pageReferences.isEmpty()) {
             return 0;
         }
@@ -4,18 +4,28 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 /**
  * Stores raw text content extracted from each PDF page.
  * Acts as the source of truth for page-by-page ingestion workflow.
+ * 
+ * {@code contentHash} is the SHA-256 of {@code rawText}, kept up to date
+ * whenever the page is saved. Ingestion records the hash it read and the
+ * parser version it used, so pages whose text or parser has changed since
+ * can be found without reading any text.
  */
 @Entity
 @Table(name = "page_contents",
     indexes = {
         @Index(name = "idx_page_number", columnList = "page_number", unique = true),
         @Index(name = "idx_category", columnList = "category"),
-        @Index(name = "idx_ingested", columnList = "ingested")
+        @Index(name = "idx_ingested", columnList = "ingested"),
+        @Index(name = "idx_category_ingested", columnList = "category, ingested, page_number")
     })
 @Getter
 @Setter
@@ -24,7 +34,8 @@ import java.time.LocalDateTime;
 @Builder
 public class PageContent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "page_contents_seq")
+    @SequenceGenerator(name = "page_contents_seq", sequenceName = "page_contents_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "page_number", nullable = false, unique = true)
@@ -42,10 +53,21 @@ public class PageContent {
     @Column(name = "extracted_at", nullable = false)
     private LocalDateTime extractedAt;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(nullable = false)
     @Builder.Default
     private Boolean ingested = false;
 
+    /** contentHash of the text the current entities were built from */
+    @Column(name = "ingested_hash", length = 64)
+    private String ingestedHash;
+
+    /** Parser version that built the current entities */
+    @Column(name = "parser_version", length = 50)
+    private String parserVersion;
+
     @Column(name = "ingested_at")
     private LocalDateTime ingestedAt;
 
@@ -68,6 +90,41 @@ public class PageContent {
         this.errorMessage = null;
     }
 
+    /**
+     * Marks this page as successfully ingested by the given parser version,
+     * recording the hash of the text that was ingested.
+     */
+    public void markIngested(String parserVersion) {
+        markIngested();
+        updateContentHash();
+        this.ingestedHash = contentHash;
+        this.parserVersion = parserVersion;
+    }
+
+    /**
+     * Returns true if this page was ingested from other text or by another
+     * parser version than the current one.
+     */
+    public boolean isChangedSinceIngestion(String currentParserVersion) {
+        updateContentHash();
+        return ingested && !(contentHash.equals(ingestedHash) && currentParserVersion.equals(parserVersion));
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateContentHash() {
+        this.contentHash = sha256(rawText != null ? rawText : "");
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Marks this page as failed with an error message.
      */
@@ -6,12 +6,14 @@ import lombok.*;
 /**
  * Stores embedded images extracted from PDF pages.
  * Links to both the source PageContent and the final Image entity after ingestion.
+ * The image bytes live in a shared ImageBlob, so repeated images are stored once.
  */
 @Entity
 @Table(name = "page_images",
     indexes = {
         @Index(name = "idx_page_content_id", columnList = "page_content_id"),
-        @Index(name = "idx_linked_image_id", columnList = "linked_image_id")
+        @Index(name = "idx_linked_image_id", columnList = "linked_image_id"),
+        @Index(name = "idx_page_image_blob_id", columnList = "blob_id")
     })
 @Getter
 @Setter
@@ -20,7 +22,8 @@ import lombok.*;
 @Builder
 public class PageImage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "page_images_seq")
+    @SequenceGenerator(name = "page_images_seq", sequenceName = "page_images_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,9 +33,9 @@ public class PageImage {
     @Column(name = "image_sequence", nullable = false)
     private Integer imageSequence;  // 1, 2, 3... for multiple images on same page
 
-    @Lob
-    @Column(name = "image_data", columnDefinition = "BLOB", nullable = false)
-    private byte[] imageData;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_id", nullable = false)
+    private ImageBlob blob;  // Shared with every other occurrence of the same image
 
     @Column(name = "mime_type", length = 50)
     private String mimeType;  // "image/jpeg", "image/png", etc.
@@ -62,7 +65,7 @@ public class PageImage {
         return String.format("PageImage[page=%d, seq=%d, size=%d bytes, linked=%s]",
                 getPageNumber(),
                 imageSequence,
-                imageData != null ? imageData.length : 0,
+                blob != null ? blob.getSizeBytes() : 0,
                 isLinked());
     }
 }
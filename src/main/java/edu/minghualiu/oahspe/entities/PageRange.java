@@ -0,0 +1,43 @@
+package edu.minghualiu.oahspe.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * An inclusive range of page numbers cited by an {@link IndexEntry}.
+ * A single page is a range whose start and end are equal.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PageRange {
+
+    @Column(name = "start_page", nullable = false)
+    private int startPage;
+
+    @Column(name = "end_page", nullable = false)
+    private int endPage;
+
+    /**
+     * Returns a range of one page.
+     */
+    public static PageRange of(int page) {
+        return new PageRange(page, page);
+    }
+
+    /**
+     * Returns true if the range includes the page.
+     */
+    public boolean contains(int page) {
+        return startPage <= page && page <= endPage;
+    }
+
+    @Override
+    public String toString() {
+        return startPage == endPage ? String.valueOf(startPage) : startPage + "-" + endPage;
+    }
+}
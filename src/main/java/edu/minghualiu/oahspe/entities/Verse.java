@@ -22,7 +22,8 @@ import java.util.List;
 @Builder
 public class Verse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "verses_seq")
+    @SequenceGenerator(name = "verses_seq", sequenceName = "verses_seq", allocationSize = 50)
     private int id;
 
     private String verseKey;
@@ -6,10 +6,17 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Tracks the state of multi-phase workflow executions.
  * Enables resume capability and progress monitoring.
+ * 
+ * The source PDF's path and SHA-256 hash are recorded so that a resumed run
+ * reads the same file. Phase 3 records, per category, the last page whose
+ * ingestion has been committed; the checkpoint is written in the same
+ * transaction as the page itself.
  */
 @Entity
 @Table(name = "workflow_states",
@@ -34,6 +41,21 @@ public class WorkflowState {
     @Column(name = "current_phase", nullable = false, length = 50)
     private WorkflowPhase currentPhase;
 
+    @Column(name = "source_path", length = 1024)
+    private String sourcePath;
+
+    @Column(name = "source_hash", length = 64)
+    private String sourceHash;
+
+    /** Last page committed in Phase 3, per category */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "workflow_checkpoints", joinColumns = @JoinColumn(name = "workflow_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "category", length = 50)
+    @Column(name = "last_ingested_page", nullable = false)
+    @Builder.Default
+    private Map<PageCategory, Integer> checkpoints = new EnumMap<>(PageCategory.class);
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     @Builder.Default
@@ -91,6 +113,35 @@ public class WorkflowState {
         this.status = WorkflowStatus.IN_PROGRESS;
     }
 
+    /**
+     * Returns the last page committed for a category, or 0 if none.
+     */
+    public int getCheckpoint(PageCategory category) {
+        return checkpoints.getOrDefault(category, 0);
+    }
+
+    /**
+     * Records that a page of a category has been committed.
+     */
+    public void recordCheckpoint(PageCategory category, int pageNumber) {
+        checkpoints.merge(category, pageNumber, Math::max);
+    }
+
+    /**
+     * Forgets all Phase 3 checkpoints, e.g. after the ingested data was removed.
+     */
+    public void clearCheckpoints() {
+        checkpoints.clear();
+    }
+
+    /**
+     * Returns true if this workflow can be resumed: it was started from a
+     * known PDF and has not completed successfully.
+     */
+    public boolean isResumable() {
+        return sourcePath != null && status != WorkflowStatus.COMPLETED;
+    }
+
     /**
      * Returns a brief summary for logging.
      */
@@ -0,0 +1,165 @@
+package edu.minghualiu.oahspe.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the rows of a file written by {@link ColumnarWriter}, one row group
+ * at a time.
+ */
+public class ColumnarReader implements Closeable {
+
+    private final InputStream in;
+    private final List<ExportColumn> columns;
+    private final Inflater inflater = new Inflater();
+    private Object[][] group = new Object[0][];
+    private int groupRows = 0;
+    private int position = 0;
+    private boolean ended = false;
+
+    /**
+     * Reads the header.
+     *
+     * @throws IOException if the stream is not a columnar export file
+     */
+    public ColumnarReader(InputStream in) throws IOException {
+        this.in = in;
+        byte[] magic = in.readNBytes(ColumnarWriter.MAGIC.length);
+        if (!Arrays.equals(magic, ColumnarWriter.MAGIC)) {
+            throw new IOException("Not a columnar export file");
+        }
+        int version = in.read();
+        if (version != ColumnarWriter.VERSION) {
+            throw new IOException("Unsupported columnar export version " + version);
+        }
+        int count = (int) readVarint(in);
+        List<ExportColumn> read = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExportColumn.Type type = ExportColumn.Type.fromCode(in.read());
+            read.add(new ExportColumn(readString(in), type));
+        }
+        this.columns = List.copyOf(read);
+    }
+
+    public List<ExportColumn> columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the next row, with values in column order, or null after the last row.
+     */
+    public Object[] next() throws IOException {
+        if (position == groupRows) {
+            if (ended || !readRowGroup()) {
+                return null;
+            }
+        }
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = group[i][position];
+        }
+        position++;
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private boolean readRowGroup() throws IOException {
+        int rows = (int) readVarint(in);
+        if (rows == 0) {
+            ended = true;
+            return false;
+        }
+        group = new Object[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            int rawLength = (int) readVarint(in);
+            byte[] deflated = readFully(in, (int) readVarint(in));
+            group[i] = decode(columns.get(i).type(), rows, inflate(deflated, rawLength));
+        }
+        groupRows = rows;
+        position = 0;
+        return true;
+    }
+
+    private byte[] inflate(byte[] deflated, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(deflated);
+        byte[] raw = new byte[rawLength];
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IOException("Column chunk is " + length + " bytes, expected " + rawLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column chunk", e);
+        }
+        return raw;
+    }
+
+    private static Object[] decode(ExportColumn.Type type, int rows, byte[] chunk) throws IOException {
+        int nulls = (rows + 7) / 8;
+        ByteArrayInputStream input = new ByteArrayInputStream(chunk, nulls, chunk.length - nulls);
+        Object[] values = new Object[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if ((chunk[i / 8] & (1 << (i % 8))) != 0) {
+                continue;
+            }
+            if (type == ExportColumn.Type.STRING) {
+                values[i] = readString(input);
+            } else {
+                long encoded = readVarint(input);
+                previous += (encoded >>> 1) ^ -(encoded & 1);
+                values[i] = type == ExportColumn.Type.INT ? (Object) (int) previous : (Object) previous;
+            }
+        }
+        return values;
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        return new String(readFully(in, (int) readVarint(in)), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Columnar export file is truncated");
+        }
+        return bytes;
+    }
+
+    static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Columnar export file is truncated");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,147 @@
+package edu.minghualiu.oahspe.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes rows in a compact columnar format, read back by {@link ColumnarReader}.
+ *
+ * Rows are buffered into row groups of {@link #ROW_GROUP_SIZE}; each group is
+ * stored column by column, and each column chunk is deflated on its own, so
+ * a reader can skip the columns it does not need. Only one row group is held
+ * in memory.
+ *
+ * <pre>
+ * file      = "OCOL" version:u8 columnCount:varint column* rowGroup* end
+ * column    = type:u8 nameLength:varint name:utf8
+ * rowGroup  = rowCount:varint chunk{columnCount}
+ * chunk     = rawLength:varint deflatedLength:varint deflated(nulls values)
+ * nulls     = one bit per row, set if null, least significant bit first
+ * values    = per non-null value, INT and LONG: zigzag varint of the
+ *             difference to the previous non-null value of the chunk;
+ *             STRING: byteLength:varint bytes:utf8
+ * end       = rowCount 0
+ * </pre>
+ *
+ * Ids are exported in ascending order, so their deltas fit in one byte.
+ */
+public class ColumnarWriter implements RowWriter {
+
+    static final byte[] MAGIC = {'O', 'C', 'O', 'L'};
+    static final int VERSION = 1;
+    static final int ROW_GROUP_SIZE = 4096;
+
+    private final OutputStream out;
+    private final List<ExportColumn> columns;
+    private final List<List<Object>> buffered;
+    private final Deflater deflater = new Deflater();
+    private final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+    private int rows = 0;
+
+    public ColumnarWriter(OutputStream out, List<ExportColumn> columns) throws IOException {
+        this.out = out;
+        this.columns = List.copyOf(columns);
+        this.buffered = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            buffered.add(new ArrayList<>(ROW_GROUP_SIZE));
+        }
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarint(out, columns.size());
+        for (ExportColumn column : columns) {
+            out.write(column.type().ordinal());
+            writeString(out, column.name());
+        }
+    }
+
+    @Override
+    public void write(Object[] row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            buffered.get(i).add(row[i]);
+        }
+        if (++rows == ROW_GROUP_SIZE) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Writes the buffered rows and the end marker, then closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushRowGroup();
+            writeVarint(out, 0);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        writeVarint(out, rows);
+        for (int i = 0; i < columns.size(); i++) {
+            raw.reset();
+            encode(columns.get(i).type(), buffered.get(i), raw);
+            deflated.reset();
+            deflater.reset();
+            try (DeflaterOutputStream compressor = new DeflaterOutputStream(deflated, deflater)) {
+                raw.writeTo(compressor);
+            }
+            writeVarint(out, raw.size());
+            writeVarint(out, deflated.size());
+            deflated.writeTo(out);
+            buffered.get(i).clear();
+        }
+        rows = 0;
+    }
+
+    private static void encode(ExportColumn.Type type, List<Object> values, ByteArrayOutputStream chunk)
+            throws IOException {
+        byte[] nulls = new byte[(values.size() + 7) / 8];
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null) {
+                nulls[i / 8] |= (byte) (1 << (i % 8));
+            }
+        }
+        chunk.write(nulls);
+        long previous = 0;
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (type == ExportColumn.Type.STRING) {
+                writeString(chunk, (String) value);
+            } else {
+                long number = ((Number) value).longValue();
+                long delta = number - previous;
+                writeVarint(chunk, (delta << 1) ^ (delta >> 63));
+                previous = number;
+            }
+        }
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,247 @@
+package edu.minghualiu.oahspe.export;
+
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.GlossaryTermRepository;
+import edu.minghualiu.oahspe.repositories.IndexEntryRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the ingested corpus to files for downstream tools.
+ *
+ * Each table (books, chapters, verses, notes, glossary terms, index entries)
+ * is written twice:
+ * <ul>
+ *   <li>{@code <table>.jsonl.gz}: gzip-compressed JSON Lines, one object per row</li>
+ *   <li>{@code <table>.ocol}: the columnar format of {@link ColumnarWriter}</li>
+ * </ul>
+ * plus a {@code manifest.json} listing the tables, their columns and row counts.
+ * Files are written under a temporary name and renamed when complete.
+ *
+ * Rows are read in keyset pages of {@code oahspe.export.page-size} rows, each
+ * in its own read-only transaction, as a stream of projections fetched in
+ * batches. Rows are written as they arrive and no entity is loaded, so memory
+ * stays flat whatever the size of the corpus. Pages see separate snapshots:
+ * export while no ingestion is running.
+ */
+@Slf4j
+@Service
+public class CorpusExporter {
+
+    public static final String JSONL_SUFFIX = ".jsonl.gz";
+    public static final String COLUMNAR_SUFFIX = ".ocol";
+    public static final String MANIFEST = "manifest.json";
+
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
+    private final List<ExportTable<?>> tables;
+
+    public CorpusExporter(BookRepository bookRepository,
+                          ChapterRepository chapterRepository,
+                          VerseRepository verseRepository,
+                          NoteRepository noteRepository,
+                          GlossaryTermRepository glossaryTermRepository,
+                          IndexEntryRepository indexEntryRepository,
+                          ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${oahspe.export.page-size:5000}") int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("oahspe.export.page-size must be positive: " + pageSize);
+        }
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pageSize = pageSize;
+        this.tables = List.of(
+                new ExportTable<BookRepository.ExportView>("books",
+                        List.of(ExportColumn.ofInt("id"), ExportColumn.ofString("title"),
+                                ExportColumn.ofString("description"), ExportColumn.ofString("titleInChinese"),
+                                ExportColumn.ofString("descriptionInChinese"), ExportColumn.ofInt("pageNumber")),
+                        (afterId, limit) -> bookRepository.streamExportViews((int) afterId, limit),
+                        book -> new Object[]{book.getId(), book.getTitle(), book.getDescription(),
+                                book.getTitleInChinese(), book.getDescriptionInChinese(), book.getPageNumber()},
+                        BookRepository.ExportView::getId),
+                new ExportTable<ChapterRepository.ExportView>("chapters",
+                        List.of(ExportColumn.ofLong("id"), ExportColumn.ofInt("bookId"), ExportColumn.ofString("title"),
+                                ExportColumn.ofString("description"), ExportColumn.ofString("titleInChinese"),
+                                ExportColumn.ofString("descriptionInChinese"), ExportColumn.ofInt("pageNumber")),
+                        chapterRepository::streamExportViews,
+                        chapter -> new Object[]{chapter.getId(), chapter.getBookId(), chapter.getTitle(),
+                                chapter.getDescription(), chapter.getTitleInChinese(),
+                                chapter.getDescriptionInChinese(), chapter.getPageNumber()},
+                        ChapterRepository.ExportView::getId),
+                new ExportTable<VerseRepository.ExportView>("verses",
+                        List.of(ExportColumn.ofInt("id"), ExportColumn.ofLong("chapterId"),
+                                ExportColumn.ofString("verseKey"), ExportColumn.ofString("text"),
+                                ExportColumn.ofString("textInChinese"), ExportColumn.ofInt("pageNumber")),
+                        (afterId, limit) -> verseRepository.streamExportViews((int) afterId, limit),
+                        verse -> new Object[]{verse.getId(), verse.getChapterId(), verse.getVerseKey(),
+                                verse.getText(), verse.getTextInChinese(), verse.getPageNumber()},
+                        VerseRepository.ExportView::getId),
+                new ExportTable<NoteRepository.ExportView>("notes",
+                        List.of(ExportColumn.ofInt("id"), ExportColumn.ofInt("verseId"),
+                                ExportColumn.ofString("noteKey"), ExportColumn.ofString("text"),
+                                ExportColumn.ofString("textInChinese"), ExportColumn.ofInt("pageNumber")),
+                        (afterId, limit) -> noteRepository.streamExportViews((int) afterId, limit),
+                        note -> new Object[]{note.getId(), note.getVerseId(), note.getNoteKey(),
+                                note.getText(), note.getTextInChinese(), note.getPageNumber()},
+                        NoteRepository.ExportView::getId),
+                new ExportTable<GlossaryTermRepository.ExportView>("glossary_terms",
+                        List.of(ExportColumn.ofLong("id"), ExportColumn.ofString("term"),
+                                ExportColumn.ofString("definition"), ExportColumn.ofString("termType"),
+                                ExportColumn.ofInt("pageNumber"), ExportColumn.ofInt("usageCount")),
+                        glossaryTermRepository::streamExportViews,
+                        term -> new Object[]{term.getId(), term.getTerm(), term.getDefinition(), term.getTermType(),
+                                term.getPageNumber(), term.getUsageCount()},
+                        GlossaryTermRepository.ExportView::getId),
+                new ExportTable<IndexEntryRepository.ExportView>("index_entries",
+                        List.of(ExportColumn.ofLong("id"), ExportColumn.ofString("topic"),
+                                ExportColumn.ofString("pageReferences"), ExportColumn.ofLong("glossaryTermId"),
+                                ExportColumn.ofInt("extractedFromPage")),
+                        indexEntryRepository::streamExportViews,
+                        entry -> new Object[]{entry.getId(), entry.getTopic(), entry.getPageReferences(),
+                                entry.getGlossaryTermId(), entry.getExtractedFromPage()},
+                        IndexEntryRepository.ExportView::getId));
+    }
+
+    /**
+     * Exports every table to a directory, replacing earlier export files.
+     *
+     * @param directory the export directory, created if missing
+     * @return rows written per table
+     * @throws IOException if a file cannot be written
+     */
+    public ExportResult export(Path directory) throws IOException {
+        long started = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        for (ExportTable<?> table : tables) {
+            rowCounts.put(table.name(), export(table, directory));
+        }
+        writeManifest(directory, rowCounts);
+        ExportResult result = new ExportResult(directory, rowCounts, System.currentTimeMillis() - started);
+        log.info(result.summary());
+        return result;
+    }
+
+    private <T> long export(ExportTable<T> table, Path directory) throws IOException {
+        Path jsonl = directory.resolve(table.name() + JSONL_SUFFIX);
+        Path columnar = directory.resolve(table.name() + COLUMNAR_SUFFIX);
+        Path jsonlPart = part(jsonl);
+        Path columnarPart = part(columnar);
+        long rows = 0;
+        int pages = 0;
+        try {
+            try (RowWriter jsonlWriter = new JsonlRowWriter(objectMapper, new GZIPOutputStream(
+                         Files.newOutputStream(jsonlPart), BUFFER_SIZE), table.columns());
+                 RowWriter columnarWriter = new ColumnarWriter(buffered(columnarPart), table.columns())) {
+                long afterId = 0;
+                long pageRows;
+                do {
+                    long[] page = exportPage(table, afterId, jsonlWriter, columnarWriter);
+                    pageRows = page[0];
+                    afterId = page[1];
+                    rows += pageRows;
+                    pages++;
+                } while (pageRows == pageSize);
+            }
+            Files.move(jsonlPart, jsonl, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(columnarPart, columnar, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(jsonlPart);
+            Files.deleteIfExists(columnarPart);
+            throw e;
+        }
+        log.debug("Exported {} {} in {} pages", rows, table.name(), pages);
+        return rows;
+    }
+
+    /**
+     * Writes one keyset page in a read-only transaction.
+     *
+     * @return the number of rows written and the id of the last one
+     */
+    private <T> long[] exportPage(ExportTable<T> table, long afterId, RowWriter... writers) throws IOException {
+        try {
+            return readOnlyTransaction.execute(status -> {
+                long[] page = {0, afterId};
+                try (Stream<T> rows = table.pages().after(afterId, Limit.of(pageSize))) {
+                    rows.forEach(row -> {
+                        Object[] values = table.row().apply(row);
+                        try {
+                            for (RowWriter writer : writers) {
+                                writer.write(values);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        page[0]++;
+                        page[1] = table.id().applyAsLong(row);
+                    });
+                }
+                return page;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeManifest(Path directory, Map<String, Long> rowCounts) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>(tables.size());
+        for (ExportTable<?> table : tables) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", table.name());
+            entry.put("rows", rowCounts.get(table.name()));
+            entry.put("files", List.of(table.name() + JSONL_SUFFIX, table.name() + COLUMNAR_SUFFIX));
+            entry.put("columns", table.columns().stream()
+                    .map(column -> Map.of("name", column.name(), "type", column.type().name()))
+                    .toList());
+            entries.add(entry);
+        }
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("exportedAt", Instant.now().toString());
+        manifest.put("tables", entries);
+
+        Path file = directory.resolve(MANIFEST);
+        Path part = part(file);
+        try (OutputStream out = buffered(part)) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, manifest);
+        }
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path part(Path file) {
+        return file.resolveSibling(file.getFileName() + PART_SUFFIX);
+    }
+
+    private static OutputStream buffered(Path file) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,42 @@
+package edu.minghualiu.oahspe.export;
+
+/**
+ * A named, typed column of an exported table. Every column is nullable.
+ *
+ * @param name the column name, also the JSON property name
+ * @param type the value type
+ */
+public record ExportColumn(String name, Type type) {
+
+    /**
+     * Value types, with their code in {@link ColumnarWriter} files.
+     */
+    public enum Type {
+        /** {@link Integer} values */
+        INT,
+        /** {@link Long} values */
+        LONG,
+        /** {@link String} values */
+        STRING;
+
+        static Type fromCode(int code) {
+            Type[] types = values();
+            if (code < 0 || code >= types.length) {
+                throw new IllegalArgumentException("Unknown column type code " + code);
+            }
+            return types[code];
+        }
+    }
+
+    public static ExportColumn ofInt(String name) {
+        return new ExportColumn(name, Type.INT);
+    }
+
+    public static ExportColumn ofLong(String name) {
+        return new ExportColumn(name, Type.LONG);
+    }
+
+    public static ExportColumn ofString(String name) {
+        return new ExportColumn(name, Type.STRING);
+    }
+}
@@ -0,0 +1,28 @@
+package edu.minghualiu.oahspe.export;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Row counts written by a corpus export.
+ *
+ * @param directory the export directory
+ * @param rowCounts rows written per table, in export order
+ * @param durationMillis the time the export took
+ */
+public record ExportResult(Path directory, Map<String, Long> rowCounts, long durationMillis) {
+
+    public long totalRows() {
+        return rowCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Returns a formatted summary string.
+     */
+    public String summary() {
+        return rowCounts.entrySet().stream()
+                .map(entry -> entry.getValue() + " " + entry.getKey())
+                .collect(Collectors.joining(", ", "Exported ", " to " + directory + " in " + durationMillis + " ms"));
+    }
+}
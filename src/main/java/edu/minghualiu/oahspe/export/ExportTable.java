@@ -0,0 +1,32 @@
+package edu.minghualiu.oahspe.export;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * A table exported by {@link CorpusExporter}: its columns and how to read
+ * its rows in keyset pages.
+ *
+ * @param name the table name, also the file name
+ * @param columns the columns, in file order
+ * @param pages streams up to a limit of rows with an id above a key, in id order
+ * @param row returns a row's values in column order
+ * @param id returns a row's id, the key of the next page
+ * @param <T> the row type
+ */
+record ExportTable<T>(String name, List<ExportColumn> columns, PageQuery<T> pages,
+                      Function<T, Object[]> row, ToLongFunction<T> id) {
+
+    /**
+     * Reads one keyset page. Ids are sequence-generated and positive, so the
+     * first page is read after id 0.
+     */
+    @FunctionalInterface
+    interface PageQuery<T> {
+        Stream<T> after(long afterId, Limit limit);
+    }
+}
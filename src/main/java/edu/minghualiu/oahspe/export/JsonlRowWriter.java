@@ -0,0 +1,51 @@
+package edu.minghualiu.oahspe.export;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes rows as JSON Lines: one object per line, with a property per
+ * column in column order. Null values are written as JSON null.
+ */
+class JsonlRowWriter implements RowWriter {
+
+    private final List<ExportColumn> columns;
+    private final JsonGenerator generator;
+    private boolean empty = true;
+
+    JsonlRowWriter(ObjectMapper objectMapper, OutputStream out, List<ExportColumn> columns) {
+        this.columns = columns;
+        this.generator = objectMapper.writer().withRootValueSeparator("\n").createGenerator(out);
+    }
+
+    @Override
+    public void write(Object[] row) {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).name();
+            Object value = row[i];
+            switch (value) {
+                case null -> generator.writeNullProperty(name);
+                case Integer number -> generator.writeNumberProperty(name, number);
+                case Long number -> generator.writeNumberProperty(name, number);
+                default -> generator.writeStringProperty(name, value.toString());
+            }
+        }
+        generator.writeEndObject();
+        empty = false;
+    }
+
+    /**
+     * Ends the last line and closes the stream.
+     */
+    @Override
+    public void close() {
+        if (!empty) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,13 @@
+package edu.minghualiu.oahspe.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes the rows of one exported table to a file format.
+ * Values are given in column order and match the column types.
+ */
+interface RowWriter extends Closeable {
+
+    void write(Object[] row) throws IOException;
+}
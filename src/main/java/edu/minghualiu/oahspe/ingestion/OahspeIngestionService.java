@@ -2,12 +2,17 @@ package edu.minghualiu.oahspe.ingestion;
 
 import edu.minghualiu.oahspe.entities.*;
 import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeEventSink;
+import edu.minghualiu.oahspe.ingestion.parser.ParserState;
+import edu.minghualiu.oahspe.reader.VerseCache;
 import edu.minghualiu.oahspe.repositories.*;
+import edu.minghualiu.oahspe.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * Oahspe Ingestion Service - Core orchestrator for event-to-entity transformation.
@@ -19,7 +24,8 @@ import java.util.List;
  * <ul>
  *   <li>Maintains context state across event sequence (currentBook, currentChapter, currentVerse, currentNote)</li>
  *   <li>Dispatches events to specialized handlers via pattern matching</li>
- *   <li>Persists entities eagerly to maintain referential integrity</li>
+ *   <li>Persists books and chapters eagerly to maintain referential integrity</li>
+ *   <li>Buffers verse and note text so each entity is written once, when complete</li>
  *   <li>Manages image-note relationships via {@link ImageNoteLinker} component</li>
  * </ul></p>
  *
@@ -27,6 +33,7 @@ import java.util.List;
  * <pre>
  * List&lt;OahspeEvent&gt; events = parser.parsePage(pdfText);
  * service.ingestEvents(events, pageNumber);
+ * // or, streaming: service.ingestPage(pageNumber, sink -&gt; parser.parse(session, text, pageNumber, sink));
  * service.saveCurrentBook();  // persist after batch
  * service.finishIngestion();  // reset state before next book
  * </pre>
@@ -46,6 +53,10 @@ public class OahspeIngestionService {
     private final NoteRepository noteRepository;
     private final ImageRepository imageRepository;
     private final ImageNoteLinker imageNoteLinker;
+    private final VerseCache verseCache;
+    private final SearchIndex searchIndex;
+    
+    private static final String INTRODUCTION_CHAPTER_TITLE = "Preface";
     
     private Book currentBook;
     private Chapter currentChapter;
@@ -54,6 +65,13 @@ public class OahspeIngestionService {
     private int currentPageNumber;
     private boolean introductionChapterCreated = false;
     
+    /** Text of currentVerse, including continuation lines not yet written */
+    private final StringBuilder verseText = new StringBuilder();
+    /** Text of currentNote, including continuation lines not yet written */
+    private final StringBuilder noteText = new StringBuilder();
+    private boolean versePending = false;
+    private boolean notePending = false;
+    
     /**
      * Ingests a batch of events from the parser and updates entity context.
      *
@@ -63,8 +81,11 @@ public class OahspeIngestionService {
      * <p><b>Continuation Lines:</b> Verse and Note events with null keys represent
      * continuation lines from the previous verse/note and are concatenated with a space separator.</p>
      *
-     * <p><b>Persistence:</b> Book, Chapter, and Verse entities are persisted immediately
-     * to maintain referential integrity. Call {@link #saveCurrentBook()} to flush remaining updates.</p>
+     * <p><b>Persistence:</b> Book and Chapter entities are persisted immediately
+     * to maintain referential integrity. Verse and Note text is buffered and each entity is
+     * saved once, when the next keyed verse/note, chapter, book, image or page break arrives,
+     * and at the end of the batch. A continuation on a later page re-opens the entity and
+     * saves it again. Call {@link #saveCurrentBook()} to flush remaining updates.</p>
      *
      * @param events List of OahspeEvent objects from the parser
      * @param pageNumber Current page number (stored with image references for tracking)
@@ -78,23 +99,83 @@ public class OahspeIngestionService {
      * @see OahspeEvent
      */
     public void ingestEvents(List<OahspeEvent> events, int pageNumber) {
+        ingestPage(pageNumber, sink -> {
+            events.forEach(sink::accept);
+            return events.size();
+        });
+    }
+    
+    /**
+     * Ingests the events of one page as a source produces them, without an
+     * intermediate event list.
+     *
+     * <p>The source is called once with a sink that handles each event
+     * immediately, exactly as {@link #ingestEvents} does for a list. Buffered
+     * verse and note text is written when the source returns.</p>
+     *
+     * @param pageNumber Current page number (stored with image references for tracking)
+     * @param source emits the page's events to the sink and returns how many it emitted
+     * @return the number of events the source emitted
+     *
+     * @example
+     * <pre>
+     * int count = service.ingestPage(pageNumber,
+     *         sink -&gt; parser.parse(session, rawText, pageNumber, sink));
+     * </pre>
+     */
+    public int ingestPage(int pageNumber, ToIntFunction<OahspeEventSink> source) {
         this.currentPageNumber = pageNumber;
         
         // Recover state if needed - handles case where previous transaction rolled back
         recoverStateIfNeeded();
         
-        for (OahspeEvent event : events) {
-            switch (event) {
-                case OahspeEvent.BookStart book -> handleBookStart(book);
-                case OahspeEvent.ChapterStart chapter -> handleChapterStart(chapter);
-                case OahspeEvent.Verse verse -> handleVerse(verse);
-                case OahspeEvent.Note note -> handleNote(note);
-                case OahspeEvent.ImageRef image -> handleImageRef(image);
-                case OahspeEvent.PageBreak page -> log.trace("Page {} complete", page.pageNumber());
+        int events = source.applyAsInt(this::handleEvent);
+        
+        // Page boundary: nothing may stay buffered past this page's transaction
+        flushPendingText();
+        return events;
+    }
+    
+    /**
+     * Dispatches one event to its handler.
+     */
+    private void handleEvent(OahspeEvent event) {
+        switch (event) {
+            case OahspeEvent.BookStart book -> handleBookStart(book);
+            case OahspeEvent.ChapterStart chapter -> handleChapterStart(chapter);
+            case OahspeEvent.Verse verse -> handleVerse(verse);
+            case OahspeEvent.Note note -> handleNote(note);
+            case OahspeEvent.ImageRef image -> handleImageRef(image);
+            case OahspeEvent.PageBreak page -> {
+                flushPendingText();
+                log.trace("Page {} complete", page.pageNumber());
             }
         }
     }
     
+    /**
+     * Writes the buffered verse and note text, if any.
+     * The verse goes first so that a pending note never references an unsaved verse.
+     */
+    private void flushPendingText() {
+        if (versePending) {
+            currentVerse.setText(verseText.toString());
+            currentVerse = verseRepository.save(currentVerse);
+            verseCache.invalidate(currentVerse.getVerseKey());
+            searchIndex.index(currentVerse);
+            versePending = false;
+        }
+        if (notePending) {
+            currentNote.setText(noteText.toString());
+            currentNote = noteRepository.save(currentNote);
+            if (currentNote.getVerse() != null) {
+                verseCache.invalidate(currentNote.getVerse().getVerseKey());
+            }
+            searchIndex.index(currentNote);
+            notePending = false;
+        }
+    }
+    
     /**
      * Recover state from database. Always re-fetches entities to handle detachment
      * due to transaction boundaries or rollbacks.
@@ -132,7 +213,101 @@ public class OahspeIngestionService {
         }
     }
     
+    /**
+     * Rebuilds the context from the entities already in the database, so that
+     * a resumed run continues exactly where the last committed page ended.
+     *
+     * @return the parser state that corresponds to the restored context
+     * @see #restoreContext(int)
+     */
+    @Transactional(readOnly = true)
+    public ParserState restoreContext() {
+        return restoreContext(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Rebuilds the context that a continuous run holds when it reaches a page,
+     * from the entities started on earlier pages.
+     *
+     * <p>The current book is the last book started before the page, the current
+     * chapter the last chapter of that book, and so on down to the note. This
+     * matches the context a continuous run would hold, because starting a book
+     * clears the chapter, starting a chapter clears the verse, and starting a
+     * verse clears the note. Continuation lines on the page are appended to the
+     * restored verse or note text.</p>
+     *
+     * <p>Entities are ordered by page and then by id, so entities rebuilt by a
+     * re-ingestion keep their place in reading order.</p>
+     *
+     * @param beforePage the first page that will be ingested next
+     * @return the parser state that corresponds to the restored context
+     */
+    @Transactional(readOnly = true)
+    public ParserState restoreContext(int beforePage) {
+        currentBook = bookRepository.findFirstByPageNumberLessThanOrderByPageNumberDescIdDesc(beforePage)
+                .orElse(null);
+        currentChapter = currentBook == null ? null
+                : chapterRepository.findFirstByBookIdAndPageNumberLessThanOrderByPageNumberDescIdDesc(
+                        currentBook.getId(), beforePage).orElse(null);
+        currentVerse = currentChapter == null ? null
+                : verseRepository.findFirstByChapterIdAndPageNumberLessThanOrderByPageNumberDescIdDesc(
+                        currentChapter.getId(), beforePage).orElse(null);
+        currentNote = currentVerse == null ? null
+                : noteRepository.findFirstByVerseIdAndPageNumberLessThanOrderByPageNumberDescIdDesc(
+                        currentVerse.getId(), beforePage).orElse(null);
+
+        verseText.setLength(0);
+        if (currentVerse != null) verseText.append(currentVerse.getText());
+        noteText.setLength(0);
+        if (currentNote != null) noteText.append(currentNote.getText());
+        versePending = false;
+        notePending = false;
+        introductionChapterCreated = chapterRepository.existsByTitleAndPageNumberLessThan(
+                INTRODUCTION_CHAPTER_TITLE, beforePage);
+
+        log.info("Restored ingestion context before page {}: book={}, chapter={}, verse={}, note={}",
+                beforePage == Integer.MAX_VALUE ? "end" : beforePage,
+                currentBook != null ? currentBook.getTitle() : "null",
+                currentChapter != null ? currentChapter.getTitle() : "null",
+                currentVerse != null ? currentVerse.getVerseKey() : "null",
+                currentNote != null ? currentNote.getNoteKey() : "null");
+
+        if (currentNote != null) return ParserState.IN_NOTE;
+        if (currentVerse != null) return ParserState.IN_VERSE;
+        if (currentChapter != null) return ParserState.IN_CHAPTER;
+        if (currentBook != null) return ParserState.IN_BOOK;
+        return ParserState.OUTSIDE_BOOK;
+    }
+
+    /**
+     * Returns the book that ingested content is currently added to.
+     *
+     * @return the current book, or null outside any book
+     */
+    public Book getCurrentBook() {
+        return currentBook;
+    }
+
+    /**
+     * Returns the chapter that ingested verses are currently added to.
+     *
+     * @return the current chapter, or null before the first chapter of a book
+     */
+    public Chapter getCurrentChapter() {
+        return currentChapter;
+    }
+
+    /**
+     * Returns the verse that ingested notes are currently attached to.
+     *
+     * @return the current verse, or null before the first verse of a chapter
+     */
+    public Verse getCurrentVerse() {
+        return currentVerse;
+    }
+
     private void handleBookStart(OahspeEvent.BookStart event) {
+        flushPendingText();
         currentBook = Book.builder()
                 .title(event.title())
                 .pageNumber(currentPageNumber)
@@ -145,6 +320,7 @@ public class OahspeIngestionService {
     }
     
     private void handleChapterStart(OahspeEvent.ChapterStart event) {
+        flushPendingText();
         currentChapter = Chapter.builder()
                 .title(event.title())
                 .book(currentBook)
@@ -164,42 +340,49 @@ public class OahspeIngestionService {
         }
         
         if (event.verseKey() != null) {
+            flushPendingText();
+            // Don't manipulate collections - just save with the FK reference once complete
             currentVerse = Verse.builder()
                     .verseKey(event.verseKey())
-                    .text(event.text())
                     .chapter(currentChapter)
                     .pageNumber(currentPageNumber)
                     .build();
-            // Don't manipulate collections - just save with the FK reference
-            currentVerse = verseRepository.save(currentVerse);
+            verseText.setLength(0);
+            verseText.append(event.text());
+            versePending = true;
             currentNote = null;
-            log.trace("Saved verse: {} on page {}", event.verseKey(), currentPageNumber);
+            noteText.setLength(0);
+            log.trace("Started verse: {} on page {}", event.verseKey(), currentPageNumber);
         } else if (currentVerse != null) {
             // Continuation line - append text
-            currentVerse.setText(currentVerse.getText() + " " + event.text());
-            currentVerse = verseRepository.save(currentVerse);
+            verseText.append(' ').append(event.text());
+            versePending = true;
         }
     }
     
     private void handleNote(OahspeEvent.Note event) {
         if (event.noteKey() != null) {
+            flushPendingText();
+            // Don't manipulate collections - just save with the FK reference once complete
             currentNote = Note.builder()
                     .noteKey(event.noteKey())
-                    .text(event.text())
                     .verse(currentVerse)
                     .pageNumber(currentPageNumber)
                     .build();
-            // Don't manipulate collections - just save with the FK reference
-            currentNote = noteRepository.save(currentNote);
-            log.trace("Saved note: {} on page {}", event.noteKey(), currentPageNumber);
+            noteText.setLength(0);
+            noteText.append(event.text());
+            notePending = true;
+            log.trace("Started note: {} on page {}", event.noteKey(), currentPageNumber);
         } else if (currentNote != null) {
             // Continuation line - append text
-            currentNote.setText(currentNote.getText() + " " + event.text());
-            currentNote = noteRepository.save(currentNote);
+            noteText.append(' ').append(event.text());
+            notePending = true;
         }
     }
     
     private void handleImageRef(OahspeEvent.ImageRef event) {
+        // The linker saves the note, so it must carry its complete text first
+        flushPendingText();
         Image image = Image.builder()
                 .imageKey(event.imageKey())
                 .title(event.caption())
@@ -224,6 +407,7 @@ public class OahspeIngestionService {
      *
      * <p><b>Operations:</b>
      * <ol>
+     *   <li>Writes any buffered verse and note text</li>
      *   <li>Persists current book via {@link #saveCurrentBook()}</li>
      *   <li>Nullifies all context fields (Book, Chapter, Verse, Note)</li>
      *   <li>Resets page number to 0</li>
@@ -244,11 +428,14 @@ public class OahspeIngestionService {
      */
     @Transactional
     public void finishIngestion() {
+        flushPendingText();
         saveCurrentBook();
         currentBook = null;
         currentChapter = null;
         currentVerse = null;
         currentNote = null;
+        verseText.setLength(0);
+        noteText.setLength(0);
         introductionChapterCreated = false;
     }
     
@@ -279,7 +466,7 @@ public class OahspeIngestionService {
             
             // Create introduction chapter - don't manipulate collections
             currentChapter = Chapter.builder()
-                    .title("Preface")
+                    .title(INTRODUCTION_CHAPTER_TITLE)
                     .description("Content before first formal chapter")
                     .book(currentBook)
                     .pageNumber(currentPageNumber)
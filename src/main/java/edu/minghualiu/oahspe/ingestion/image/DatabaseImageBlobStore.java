@@ -0,0 +1,70 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import edu.minghualiu.oahspe.entities.ImageBlobData;
+import edu.minghualiu.oahspe.repositories.ImageBlobDataRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+
+/**
+ * Stores image bytes in the {@code image_blob_data} table.
+ *
+ * The fallback when no local directory should be used, e.g. for the
+ * in-memory database. Bytes are only loaded when a blob is opened; rows in
+ * image_blobs, page_images and images never reference the LOB directly.
+ * Writes and deletes take part in the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseImageBlobStore implements ImageBlobStore {
+
+    public static final String NAME = "database";
+
+    private final ImageBlobDataRepository imageBlobDataRepository;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void put(String contentHash, byte[] data) {
+        if (!imageBlobDataRepository.existsById(contentHash)) {
+            imageBlobDataRepository.save(new ImageBlobData(contentHash, data));
+        }
+    }
+
+    @Override
+    public InputStream open(String contentHash) throws IOException {
+        return new ByteArrayInputStream(load(contentHash));
+    }
+
+    @Override
+    public long transferTo(String contentHash, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(load(contentHash));
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        return buffer.capacity();
+    }
+
+    @Override
+    public void delete(Collection<String> contentHashes) {
+        if (!contentHashes.isEmpty()) {
+            imageBlobDataRepository.deleteByContentHashIn(contentHashes);
+        }
+    }
+
+    private byte[] load(String contentHash) throws IOException {
+        return imageBlobDataRepository.findById(contentHash)
+                .map(ImageBlobData::getData)
+                .orElseThrow(() -> new FileNotFoundException("No image data for " + contentHash));
+    }
+}
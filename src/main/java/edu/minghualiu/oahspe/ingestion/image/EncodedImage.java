@@ -0,0 +1,19 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+/**
+ * An image ready to be stored, identified by its content hash.
+ *
+ * @param contentHash SHA-256 of the image's PDF stream, see {@link ImageDigest}
+ * @param mimeType MIME type of the encoded bytes
+ * @param data encoded bytes, or null if a blob with this hash is already stored
+ *             and the image was not encoded again
+ */
+public record EncodedImage(String contentHash, String mimeType, byte[] data) {
+
+    /**
+     * Returns true if the image was not encoded because its blob already exists.
+     */
+    public boolean isStored() {
+        return data == null;
+    }
+}
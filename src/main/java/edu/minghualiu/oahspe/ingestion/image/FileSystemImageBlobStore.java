@@ -0,0 +1,126 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Stores image bytes as files under a local directory.
+ *
+ * Files are sharded by the first two hash bytes, e.g.
+ * {@code <root>/3f/a2/3fa2...e1}, so no directory holds more than a few
+ * hundred entries. A put writes a temporary file in the target directory and
+ * renames it atomically, so a reader never sees a partial file. Reads go
+ * through {@link FileChannel#transferTo}, which lets the kernel copy the file
+ * to the target without passing it through the heap.
+ *
+ * A put is not undone if the surrounding transaction rolls back; the file is
+ * simply reused by the next put of the same hash. Deletes wait for the commit.
+ */
+@Slf4j
+@Component
+public class FileSystemImageBlobStore implements ImageBlobStore {
+
+    public static final String NAME = "filesystem";
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public FileSystemImageBlobStore(@Value("${oahspe.images.directory:./data/images}") Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void put(String contentHash, byte[] data) throws IOException {
+        Path target = path(contentHash);
+        if (Files.exists(target) && Files.size(target) == data.length) {
+            return;
+        }
+
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, contentHash, ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String contentHash) throws IOException {
+        return Files.newInputStream(path(contentHash));
+    }
+
+    @Override
+    public long transferTo(String contentHash, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(contentHash), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    @Override
+    public void delete(Collection<String> contentHashes) throws IOException {
+        List<Path> paths = contentHashes.stream().map(this::path).toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFiles(paths);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    deleteFiles(paths);
+                } catch (IOException e) {
+                    log.warn("Failed to delete image files after commit: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the file for a hash.
+     *
+     * @throws IllegalArgumentException if the hash is not 64 lowercase hex characters
+     */
+    Path path(String contentHash) {
+        if (contentHash == null || !SHA256_HEX.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hex hash: " + contentHash);
+        }
+        return root.resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash);
+    }
+
+    private static void deleteFiles(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
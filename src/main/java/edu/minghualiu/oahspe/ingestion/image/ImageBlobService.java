@@ -0,0 +1,301 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import edu.minghualiu.oahspe.entities.ImageBlob;
+import edu.minghualiu.oahspe.repositories.ImageBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed storage for extracted images.
+ *
+ * Images are identified by {@link ImageDigest#sha256 the hash of their PDF
+ * stream}. {@link #encode} skips decoding and PNG encoding for hashes that
+ * are already stored, and {@link #store} writes a blob only the first time a
+ * hash is seen; later PageImages and Images reference the same row.
+ *
+ * In {@link ImageExtractionMode#PASSTHROUGH} mode (the default) a JPEG
+ * stream that browsers display correctly is stored byte for byte, keeping its
+ * original quality and size; only other images are decoded and encoded as PNG.
+ *
+ * The bytes go to the {@link ImageBlobStore} named by the
+ * {@code oahspe.images.store} property ({@code database} by default,
+ * {@code filesystem} for the persistent profile). They are read only through
+ * {@link #open} and {@link #transferTo}, never with the entity.
+ *
+ * Stored hashes are cached in memory. {@link #encode} may be called from
+ * extraction worker threads; {@link #store} must run on the writing thread,
+ * normally inside its transaction. A blob written in a transaction enters the
+ * cache only when that transaction commits, so a rolled-back batch never
+ * leaves a hash that points at a missing row.
+ *
+ * Usage:
+ * <pre>
+ * imageBlobService.loadStoredHashes();                 // once per run
+ * EncodedImage encoded = imageBlobService.encode(xobject);   // any thread
+ * ImageBlob blob = imageBlobService.store(encoded);          // writer, in transaction
+ * </pre>
+ */
+@Slf4j
+@Service
+public class ImageBlobService {
+
+    private static final String PNG_MIME_TYPE = "image/png";
+    private static final String JPEG_MIME_TYPE = "image/jpeg";
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final Map<String, ImageBlobStore> stores;
+    private final ImageBlobStore activeStore;
+
+    /** Committed blobs by content hash */
+    private final Map<String, StoredBlob> storedBlobs = new ConcurrentHashMap<>();
+
+    private volatile ImageExtractionMode mode = ImageExtractionMode.PASSTHROUGH;
+
+    public ImageBlobService(ImageBlobRepository imageBlobRepository, List<ImageBlobStore> stores,
+                            @Value("${oahspe.images.store:" + DatabaseImageBlobStore.NAME + "}") String activeStore) {
+        this.imageBlobRepository = imageBlobRepository;
+        this.stores = stores.stream().collect(Collectors.toMap(ImageBlobStore::getName, Function.identity()));
+        this.activeStore = this.stores.get(activeStore);
+        if (this.activeStore == null) {
+            throw new IllegalArgumentException("Unknown image store '" + activeStore
+                    + "', expected one of " + this.stores.keySet());
+        }
+    }
+
+    /**
+     * Returns how new images are turned into stored bytes.
+     */
+    public ImageExtractionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets how new images are turned into stored bytes. Blobs already stored
+     * keep their encoding.
+     *
+     * @param mode the extraction mode
+     */
+    public void setMode(ImageExtractionMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Replaces the cache with the hashes currently in the database, so images
+     * stored by earlier runs are not encoded again. Reads no image data.
+     */
+    public void loadStoredHashes() {
+        storedBlobs.clear();
+        for (ImageBlobRepository.HashView view : imageBlobRepository.findAllViews()) {
+            storedBlobs.put(view.getContentHash(), new StoredBlob(view.getId(), view.getMimeType()));
+        }
+        log.info("Loaded {} stored image hashes", storedBlobs.size());
+    }
+
+    /**
+     * Returns true if a blob with this hash is known to be stored.
+     *
+     * @param contentHash the image hash
+     * @return true if the image does not need to be encoded
+     */
+    public boolean isStored(String contentHash) {
+        return storedBlobs.containsKey(contentHash);
+    }
+
+    /**
+     * Hashes an image and encodes it unless its blob is already stored.
+     * Thread-safe as long as the image's document is not used concurrently.
+     *
+     * @param image the PDFBox image
+     * @return the hash with either the encoded bytes or, if stored, no data
+     * @throws IOException if the image stream cannot be read or decoded
+     */
+    public EncodedImage encode(PDImageXObject image) throws IOException {
+        String contentHash = ImageDigest.sha256(image);
+        StoredBlob stored = storedBlobs.get(contentHash);
+        if (stored != null) {
+            return new EncodedImage(contentHash, stored.mimeType(), null);
+        }
+
+        if (mode == ImageExtractionMode.PASSTHROUGH && isBrowserJpeg(image)) {
+            try (InputStream raw = image.getCOSObject().createRawInputStream()) {
+                return new EncodedImage(contentHash, JPEG_MIME_TYPE, raw.readAllBytes());
+            }
+        }
+
+        BufferedImage bufferedImage = image.getImage();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(bufferedImage, "PNG", baos);
+        return new EncodedImage(contentHash, PNG_MIME_TYPE, baos.toByteArray());
+    }
+
+    /**
+     * Returns the blob for an encoded image, writing it if its hash is new.
+     * A cached blob is returned as a reference without reading anything.
+     *
+     * @param image an image from {@link #encode}
+     * @return the stored or newly saved blob
+     * @throws IllegalStateException if the image carries no data and no blob
+     *         with its hash exists, e.g. after the blobs were deleted
+     * @throws UncheckedIOException if the store cannot write the bytes
+     */
+    public ImageBlob store(EncodedImage image) {
+        String contentHash = image.contentHash();
+        StoredBlob stored = storedBlobs.get(contentHash);
+        if (stored != null) {
+            return imageBlobRepository.getReferenceById(stored.id());
+        }
+
+        // Written earlier in the current transaction, or by another process
+        var existing = imageBlobRepository.findViewByContentHash(contentHash);
+        if (existing.isPresent()) {
+            remember(contentHash, new StoredBlob(existing.get().getId(), existing.get().getMimeType()));
+            return imageBlobRepository.getReferenceById(existing.get().getId());
+        }
+
+        if (image.isStored()) {
+            throw new IllegalStateException("Image blob " + contentHash + " is not stored and has no data");
+        }
+
+        try {
+            activeStore.put(contentHash, image.data());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store image blob " + contentHash, e);
+        }
+        ImageBlob blob = imageBlobRepository.save(ImageBlob.builder()
+                .contentHash(contentHash)
+                .mimeType(image.mimeType())
+                .sizeBytes(image.data().length)
+                .storage(activeStore.getName())
+                .build());
+        remember(contentHash, new StoredBlob(blob.getId(), blob.getMimeType()));
+        log.debug("Stored image blob {} ({} bytes)", contentHash, image.data().length);
+        return blob;
+    }
+
+    /**
+     * Opens a blob's bytes for reading. Nothing is read until the stream is.
+     *
+     * @param blob the blob, possibly an uninitialized reference
+     * @return a stream the caller must close
+     * @throws IOException if the bytes are missing or cannot be read
+     */
+    public InputStream open(ImageBlob blob) throws IOException {
+        return storeOf(blob).open(blob.getContentHash());
+    }
+
+    /**
+     * Copies a blob's bytes to a channel; file-backed blobs are copied by the
+     * kernel without passing through the heap.
+     *
+     * @param blob the blob, possibly an uninitialized reference
+     * @param target the channel to write to; left open
+     * @return number of bytes written
+     * @throws IOException if the bytes are missing or cannot be copied
+     */
+    public long transferTo(ImageBlob blob, WritableByteChannel target) throws IOException {
+        return storeOf(blob).transferTo(blob.getContentHash(), target);
+    }
+
+    /**
+     * Deletes blobs that no PageImage or Image references, with their bytes,
+     * and clears the cache. Must be called within a transaction.
+     *
+     * @return number of blobs deleted
+     */
+    public int deleteUnreferenced() {
+        List<ImageBlobRepository.HashView> orphans = imageBlobRepository.findUnreferencedViews();
+        storedBlobs.clear();
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = imageBlobRepository.deleteByIdIn(
+                orphans.stream().map(ImageBlobRepository.HashView::getId).toList());
+        Map<String, List<String>> hashesByStore = orphans.stream().collect(Collectors.groupingBy(
+                ImageBlobRepository.HashView::getStorage,
+                Collectors.mapping(ImageBlobRepository.HashView::getContentHash, Collectors.toList())));
+        for (Map.Entry<String, List<String>> entry : hashesByStore.entrySet()) {
+            try {
+                store(entry.getKey()).delete(entry.getValue());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete image blobs from " + entry.getKey(), e);
+            }
+        }
+        return deleted;
+    }
+
+    private ImageBlobStore storeOf(ImageBlob blob) {
+        return store(blob.getStorage());
+    }
+
+    private ImageBlobStore store(String name) {
+        ImageBlobStore store = stores.get(name);
+        if (store == null) {
+            throw new IllegalStateException("Image store '" + name + "' is not available");
+        }
+        return store;
+    }
+
+    /**
+     * Whether the raw stream is a JPEG file that renders the same in a browser
+     * as in the PDF: DCTDecode as the only filter, gray or RGB, and nothing in
+     * the image dictionary (masks, Decode array, decode parameters) that the
+     * JPEG file itself does not carry.
+     */
+    static boolean isBrowserJpeg(PDImageXObject image) throws IOException {
+        List<COSName> filters = image.getStream().getFilters();
+        if (filters == null || filters.size() != 1 || !COSName.DCT_DECODE.equals(filters.get(0))) {
+            return false;
+        }
+
+        COSStream stream = image.getCOSObject();
+        if (image.isStencil()
+                || stream.containsKey(COSName.SMASK)
+                || stream.containsKey(COSName.MASK)
+                || stream.containsKey(COSName.DECODE)
+                || stream.containsKey(COSName.DECODE_PARMS)) {
+            return false;
+        }
+
+        // CMYK and Lab JPEGs render with wrong colors in browsers
+        PDColorSpace colorSpace = image.getColorSpace();
+        int components = colorSpace.getNumberOfComponents();
+        return components == 1 || components == 3 && !"Lab".equals(colorSpace.getName());
+    }
+
+    private void remember(String contentHash, StoredBlob blob) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            storedBlobs.put(contentHash, blob);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                storedBlobs.put(contentHash, blob);
+            }
+        });
+    }
+
+    private record StoredBlob(Long id, String mimeType) {
+    }
+}
@@ -0,0 +1,63 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+
+/**
+ * Where the bytes of an {@link edu.minghualiu.oahspe.entities.ImageBlob} live.
+ *
+ * Bytes are addressed by content hash, so a put of a hash that is already
+ * present is a no-op and concurrent puts of the same hash are harmless. The
+ * ImageBlob row records the {@link #getName() store name}, so blobs written
+ * under one configuration stay readable after switching to another.
+ *
+ * @see FileSystemImageBlobStore
+ * @see DatabaseImageBlobStore
+ */
+public interface ImageBlobStore {
+
+    /**
+     * Returns the name stored in {@code image_blobs.storage} and used in
+     * the {@code oahspe.images.store} property.
+     */
+    String getName();
+
+    /**
+     * Stores the bytes for a hash unless they are already present.
+     *
+     * @param contentHash the image hash
+     * @param data encoded image bytes
+     * @throws IOException if the bytes cannot be written
+     */
+    void put(String contentHash, byte[] data) throws IOException;
+
+    /**
+     * Opens the bytes for reading. Nothing is read until the stream is.
+     *
+     * @param contentHash the image hash
+     * @return a stream the caller must close
+     * @throws IOException if the bytes are missing or cannot be read
+     */
+    InputStream open(String contentHash) throws IOException;
+
+    /**
+     * Copies the bytes to a channel, zero-copy where the store supports it.
+     *
+     * @param contentHash the image hash
+     * @param target the channel to write to; left open
+     * @return number of bytes written
+     * @throws IOException if the bytes are missing or cannot be copied
+     */
+    long transferTo(String contentHash, WritableByteChannel target) throws IOException;
+
+    /**
+     * Deletes the bytes for the given hashes. Missing hashes are ignored.
+     * Inside a transaction, stores outside the database wait for the commit.
+     *
+     * @param contentHashes the hashes to delete
+     * @throws IOException if the bytes cannot be deleted
+     */
+    void delete(Collection<String> contentHashes) throws IOException;
+}
@@ -0,0 +1,113 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content hash of an embedded PDF image, computed without decoding it.
+ *
+ * The SHA-256 covers the raw (still filtered) stream bytes and every
+ * dictionary entry that affects the decoded pixels: size, filters, decode
+ * parameters, the color space with its palette or ICC profile, and any soft
+ * mask or stencil mask, all resolved through indirect references. Two images
+ * with the same hash therefore decode to the same raster, whichever document
+ * or object number they came from.
+ */
+public final class ImageDigest {
+
+    /** Guards against pathological reference chains; image dictionaries are shallow */
+    private static final int MAX_DEPTH = 32;
+
+    private ImageDigest() {
+    }
+
+    /**
+     * Computes the content hash of an image XObject.
+     *
+     * @param image the PDFBox image
+     * @return SHA-256 as 64 lowercase hex characters
+     * @throws IOException if the stream cannot be read
+     */
+    public static String sha256(PDImageXObject image) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, image.getCOSObject(), Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, COSBase value, Set<COSBase> visiting, int depth)
+            throws IOException {
+        if (value instanceof COSObject reference) {
+            value = reference.getObject();
+        }
+        if (value == null) {
+            digest.update((byte) 'n');
+            return;
+        }
+        if (depth > MAX_DEPTH || !visiting.add(value)) {
+            digest.update((byte) 'r');
+            return;
+        }
+
+        if (value instanceof COSDictionary dictionary) {
+            digest.update((byte) (value instanceof COSStream ? 's' : 'd'));
+            for (Map.Entry<COSName, COSBase> entry : dictionary.entrySet()) {
+                if (COSName.LENGTH.equals(entry.getKey())) {
+                    continue;   // implied by the raw bytes
+                }
+                text(digest, entry.getKey().getName());
+                update(digest, entry.getValue(), visiting, depth + 1);
+            }
+            if (value instanceof COSStream stream) {
+                try (InputStream raw = new DigestInputStream(stream.createRawInputStream(), digest)) {
+                    raw.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+            digest.update((byte) 'e');
+        } else if (value instanceof COSArray array) {
+            digest.update((byte) 'a');
+            for (COSBase element : array) {
+                update(digest, element, visiting, depth + 1);
+            }
+            digest.update((byte) 'e');
+        } else {
+            text(digest, value.toString());
+        }
+
+        visiting.remove(value);
+    }
+
+    // Length-prefixed, so adjacent strings cannot run together
+    private static void text(MessageDigest digest, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            digest.update((byte) (bytes.length >>> shift));
+        }
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
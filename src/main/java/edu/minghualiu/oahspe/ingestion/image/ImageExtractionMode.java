@@ -0,0 +1,17 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+/**
+ * How {@link ImageBlobService} turns an embedded PDF image into stored bytes.
+ */
+public enum ImageExtractionMode {
+    /**
+     * Copy the original encoded stream when a browser can display it as is
+     * (baseline JPEG in gray or RGB); render everything else to PNG.
+     */
+    PASSTHROUGH,
+
+    /**
+     * Always decode the image and encode it as PNG.
+     */
+    RENDER
+}
@@ -0,0 +1,135 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.repositories.GlossaryTermRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map from glossary term to its id, so glossary and index pages
+ * are ingested without one {@code findByTerm} query per term.
+ *
+ * Terms are matched after {@link #normalize normalization}: surrounding
+ * whitespace is ignored and case does not matter.
+ *
+ * {@link #load} reads every term once per run; {@link #addAll} records the
+ * terms a page inserts. Terms added in a transaction are visible at once to
+ * later pages of the same transaction, and are removed again if it rolls
+ * back, so the cache never holds an id that is not in the database.
+ *
+ * Usage:
+ * <pre>
+ * glossaryTermCache.load();                              // once per run
+ * Optional&lt;Long&gt; id = glossaryTermCache.findId(topic);
+ * glossaryTermCache.addAll(glossaryTermRepository.saveAll(newTerms));
+ * </pre>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GlossaryTermCache {
+
+    private final GlossaryTermRepository glossaryTermRepository;
+
+    /** Term ids by normalized term */
+    private final Map<String, Long> termIds = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Replaces the cache with the terms currently in the database.
+     * Reads only ids and terms, never definitions.
+     */
+    public void load() {
+        termIds.clear();
+        for (GlossaryTermRepository.TermView view : glossaryTermRepository.findAllTermViews()) {
+            termIds.putIfAbsent(normalize(view.getTerm()), view.getId());
+        }
+        loaded = true;
+        log.info("Loaded {} glossary terms", termIds.size());
+    }
+
+    /**
+     * Loads the cache unless a run has already loaded it.
+     */
+    public void loadIfNeeded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Returns the id of the glossary term matching a text, if known.
+     *
+     * @param term the term or index topic
+     * @return the term's id, or empty if no term matches
+     */
+    public Optional<Long> findId(String term) {
+        if (term == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(termIds.get(normalize(term)));
+    }
+
+    /**
+     * Returns true if a glossary term matching the text is known.
+     */
+    public boolean contains(String term) {
+        return findId(term).isPresent();
+    }
+
+    /**
+     * Records saved terms. Within a transaction, the terms are forgotten
+     * again if it does not commit.
+     *
+     * @param terms terms that have been assigned their ids
+     */
+    public void addAll(Collection<GlossaryTerm> terms) {
+        List<String> added = new ArrayList<>(terms.size());
+        for (GlossaryTerm term : terms) {
+            String key = normalize(term.getTerm());
+            if (termIds.putIfAbsent(key, term.getId()) == null) {
+                added.add(key);
+            }
+        }
+        if (added.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    added.forEach(termIds::remove);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of cached terms.
+     */
+    public int size() {
+        return termIds.size();
+    }
+
+    /**
+     * Returns the key a term is cached under: trimmed and lower-cased.
+     *
+     * @param term the term
+     * @return the normalized term
+     */
+    static String normalize(String term) {
+        return term.strip().toLowerCase(Locale.ROOT);
+    }
+}
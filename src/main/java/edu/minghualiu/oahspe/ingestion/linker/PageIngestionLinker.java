@@ -2,21 +2,27 @@ package edu.minghualiu.oahspe.ingestion.linker;
 
 import edu.minghualiu.oahspe.entities.*;
 import edu.minghualiu.oahspe.ingestion.OahspeIngestionService;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionMetrics;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionStep;
 import edu.minghualiu.oahspe.ingestion.parser.GlossaryParser;
 import edu.minghualiu.oahspe.ingestion.parser.IndexParser;
-import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
 import edu.minghualiu.oahspe.ingestion.parser.OahspeParser;
+import edu.minghualiu.oahspe.ingestion.parser.ParserSession;
 import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
 import edu.minghualiu.oahspe.ingestion.runner.ProgressCallback;
 import edu.minghualiu.oahspe.repositories.*;
+import edu.minghualiu.oahspe.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * Service for ingesting PageContent into domain entities.
@@ -41,9 +47,15 @@ public class PageIngestionLinker {
     private final IndexEntryRepository indexEntryRepository;
     private final PageImageRepository pageImageRepository;
     private final ImageRepository imageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestionMetrics ingestionMetrics;
+    private final GlossaryTermCache glossaryTermCache;
+    private final SearchIndex searchIndex;
     
     /**
      * Ingests all PageContent entities that should be ingested.
+     * Each page runs in its own transaction, so its inserts are flushed
+     * as JDBC batches on commit and a failing page only rolls back itself.
      * 
      * @param callback optional progress callback
      * @return ingestion context with statistics
@@ -51,9 +63,6 @@ public class PageIngestionLinker {
     public IngestionContext ingestAllPageContents(ProgressCallback callback) {
         log.info("Starting content ingestion from PageContent entities");
         
-        // Reset parser state at start of ingestion
-        oahspeParser.resetState();
-        
         List<PageContent> allPages = pageContentRepository.findByIngestedFalseOrderByPageNumberAsc();
         
         // Filter to only pages that should be ingested
@@ -63,6 +72,9 @@ public class PageIngestionLinker {
         
         IngestionContext context = new IngestionContext();
         context.setTotalPages(pagesToIngest.size());
+        // Fresh parser state for this run
+        context.setParserSession(oahspeParser.newSession());
+        glossaryTermCache.load();
         
         for (PageContent pageContent : pagesToIngest) {
             context.setCurrentPageNumber(pageContent.getPageNumber());
@@ -72,7 +84,15 @@ public class PageIngestionLinker {
                     callback.onPageStart(pageContent.getPageNumber(), pagesToIngest.size());
                 }
                 
-                ingestSinglePageContent(pageContent, context);
+                // Called through the template: a self-invocation would bypass
+                // the @Transactional proxy and run every save in its own transaction
+                long statementsBefore = ingestionMetrics.statementCount();
+                try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PERSIST)) {
+                    transactionTemplate.executeWithoutResult(
+                            status -> ingestSinglePageContent(pageContent, context));
+                }
+                ingestionMetrics.pagesCompleted(WorkflowPhase.CONTENT_INGESTION, 1,
+                        ingestionMetrics.statementCount() - statementsBefore);
                 
                 if (callback != null && pageContent.getPageNumber() % 50 == 0) {
                     callback.onPageComplete(pageContent.getPageNumber(), 1);
@@ -105,6 +125,16 @@ public class PageIngestionLinker {
      */
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
     public void ingestSinglePageContent(PageContent pageContent, IngestionContext context) {
+        ingestPage(pageContent, context, true);
+    }
+    
+    /**
+     * Parses and persists one page.
+     * 
+     * @param linkImages whether to link the page's PageImages now; category runs
+     *                   link the whole category in one statement afterwards
+     */
+    private void ingestPage(PageContent pageContent, IngestionContext context, boolean linkImages) {
         log.debug("Ingesting page {} [{}]", 
                 pageContent.getPageNumber(), pageContent.getCategory());
         
@@ -157,10 +187,14 @@ public class PageIngestionLinker {
         }
         
         // Link PageImages to Image entities
-        linkPageImagesToImageEntities(pageContent);
+        if (linkImages) {
+            try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.LINK)) {
+                linkPageImagesToImageEntities(pageContent);
+            }
+        }
         
-        // Mark page as ingested
-        pageContent.markIngested();
+        // Mark page as ingested, recording what it was ingested from
+        pageContent.markIngested(parserVersion(pageNumber, category));
         pageContentRepository.save(pageContent);
         
         context.setTotalEventsProcessed(context.getTotalEventsProcessed() + 1);
@@ -168,6 +202,7 @@ public class PageIngestionLinker {
     
     /**
      * Ingests all pages in a specific category.
+     * PageImages are linked for the whole category in one statement after the pages are processed.
      * 
      * @param category the category to ingest
      * @param callback optional progress callback
@@ -182,6 +217,9 @@ public class PageIngestionLinker {
         
         IngestionContext context = new IngestionContext();
         context.setTotalPages(pages.size());
+        context.setParserSession(oahspeParser.newSession());
+        glossaryTermCache.load();
+        long statementsBefore = ingestionMetrics.statementCount();
         
         for (PageContent pageContent : pages) {
             try {
@@ -189,7 +227,9 @@ public class PageIngestionLinker {
                     callback.onPageStart(pageContent.getPageNumber(), pages.size());
                 }
                 
-                ingestSinglePageContent(pageContent, context);
+                try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PERSIST)) {
+                    ingestPage(pageContent, context, false);
+                }
                 
                 if (callback != null && pageContent.getPageNumber() % 50 == 0) {
                     callback.onPageComplete(pageContent.getPageNumber(), 1);
@@ -201,99 +241,242 @@ public class PageIngestionLinker {
             }
         }
         
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.LINK)) {
+            linkPageImagesForCategory(category);
+        }
+        // Inserts still pending until the caller's commit are not counted
+        ingestionMetrics.pagesCompleted(WorkflowPhase.CONTENT_INGESTION, pages.size(),
+                ingestionMetrics.statementCount() - statementsBefore);
+        
         return context;
     }
     
+    /**
+     * Ingests the remaining pages of a category with one transaction per page,
+     * so that a crash loses at most the page being written.
+     *
+     * The checkpoint is called inside each page's transaction, after the page
+     * is marked ingested, and commits with it. Ingestion stops at the first
+     * failing page: the committed pages are always the category's first pages,
+     * and a resumed run continues with the page that failed.
+     *
+     * Pages already marked ingested are not read. If some were committed by an
+     * earlier run, the book context and the parser state are rebuilt from the
+     * database instead of replaying those pages.
+     *
+     * @param category the category to ingest
+     * @param callback optional progress callback
+     * @param checkpoint receives the number of each page as it is committed
+     * @return ingestion context
+     */
+    public IngestionContext ingestCategoryPages(PageCategory category, ProgressCallback callback,
+                                                IntConsumer checkpoint) {
+        List<PageContent> pages = pageContentRepository
+                .findByCategoryAndIngestedFalseOrderByPageNumberAsc(category);
+        long committed = pageContentRepository.countByCategoryAndIngestedTrue(category);
+        log.info("Ingesting pages for category: {} ({} remaining, {} already committed)",
+                category, pages.size(), committed);
+
+        IngestionContext context = new IngestionContext();
+        context.setTotalPages(pages.size());
+        if (committed > 0 && !category.requiresSpecialParser()) {
+            context.setParserSession(new ParserSession(oahspeIngestionService.restoreContext()));
+        } else {
+            context.setParserSession(oahspeParser.newSession());
+        }
+        glossaryTermCache.load();
+
+        for (PageContent pageContent : pages) {
+            int pageNumber = pageContent.getPageNumber();
+            context.setCurrentPageNumber(pageNumber);
+            try {
+                if (callback != null && pageNumber % 50 == 0) {
+                    callback.onPageStart(pageNumber, pages.size());
+                }
+
+                long statementsBefore = ingestionMetrics.statementCount();
+                try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PERSIST)) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        ingestPage(pageContent, context, false);
+                        checkpoint.accept(pageNumber);
+                    });
+                }
+                ingestionMetrics.pagesCompleted(WorkflowPhase.CONTENT_INGESTION, 1,
+                        ingestionMetrics.statementCount() - statementsBefore);
+
+                if (callback != null && pageNumber % 50 == 0) {
+                    callback.onPageComplete(pageNumber, 1);
+                }
+            } catch (Exception e) {
+                context.addPageError(pageNumber, e.getMessage());
+                log.error("Failed to ingest page {}, stopping category {}: {}",
+                        pageNumber, category, e.getMessage(), e);
+                break;
+            }
+        }
+
+        // Through the template: a self-invocation would bypass the @Transactional proxy
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.LINK)) {
+            transactionTemplate.executeWithoutResult(status -> linkPageImagesForCategory(category));
+        }
+
+        return context;
+    }
+
+    /**
+     * Ingests consecutive pages into an existing context, linking each page's
+     * images. Must be called within a transaction.
+     * 
+     * @param pages the pages, in page order
+     * @param context the context, with its parser session already positioned
+     */
+    void ingestPages(List<PageContent> pages, IngestionContext context) {
+        for (PageContent pageContent : pages) {
+            context.setCurrentPageNumber(pageContent.getPageNumber());
+            ingestPage(pageContent, context, true);
+        }
+    }
+    
+    /**
+     * Returns the version of the parsers that ingest a page, e.g. {@code oahspe-1}.
+     * Page 1668 is read by both the book and the glossary parser.
+     * 
+     * @param pageNumber the page number
+     * @param category the page's category
+     * @return the parser version to record with the page
+     */
+    static String parserVersion(int pageNumber, PageCategory category) {
+        if (pageNumber == 1668) {
+            return "oahspe-" + OahspeParser.VERSION + "+glossary-" + GlossaryParser.VERSION;
+        }
+        return switch (category) {
+            case GLOSSARIES -> "glossary-" + GlossaryParser.VERSION;
+            case INDEX -> "index-" + IndexParser.VERSION;
+            default -> "oahspe-" + OahspeParser.VERSION;
+        };
+    }
+    
     /**
      * Ingests a glossary page using GlossaryParser.
+     * Terms already known to the cache, or repeated on the page, are skipped;
+     * the new terms are inserted as one JDBC batch.
      */
     private void ingestGlossaryPage(String rawText, int pageNumber, IngestionContext context) {
-        List<GlossaryTerm> terms = glossaryParser.parseGlossaryPage(rawText, pageNumber);
+        List<GlossaryTerm> terms;
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PARSE)) {
+            terms = glossaryParser.parseGlossaryPage(rawText, pageNumber);
+        }
+        glossaryTermCache.loadIfNeeded();
         
+        Map<String, GlossaryTerm> newTerms = new LinkedHashMap<>();
         for (GlossaryTerm term : terms) {
-            try {
-                // Check if term already exists (avoid duplicates)
-                glossaryTermRepository.findByTerm(term.getTerm())
-                        .ifPresentOrElse(
-                                existing -> log.debug("Glossary term already exists: {}", 
-                                        term.getTerm()),
-                                () -> {
-                                    glossaryTermRepository.save(term);
-                                    log.debug("Saved glossary term: {}", term.getTerm());
-                                }
-                        );
-            } catch (Exception e) {
-                log.warn("Failed to save glossary term {}: {}", 
-                        term.getTerm(), e.getMessage());
+            if (glossaryTermCache.contains(term.getTerm())) {
+                log.debug("Glossary term already exists: {}", term.getTerm());
+            } else {
+                newTerms.putIfAbsent(GlossaryTermCache.normalize(term.getTerm()), term);
             }
         }
         
+        if (!newTerms.isEmpty()) {
+            List<GlossaryTerm> saved = glossaryTermRepository.saveAll(newTerms.values());
+            glossaryTermCache.addAll(saved);
+            searchIndex.indexGlossaryTerms(saved);
+            log.debug("Saved {} glossary terms from page {}", newTerms.size(), pageNumber);
+        }
+        
         context.setTotalEventsProcessed(context.getTotalEventsProcessed() + terms.size());
     }
     
     /**
      * Ingests an index page using IndexParser.
+     * Glossary links are resolved from the cache and the entries are inserted
+     * as one JDBC batch.
      */
     private void ingestIndexPage(String rawText, int pageNumber, IngestionContext context) {
-        List<IndexEntry> entries = indexParser.parseIndexPage(rawText, pageNumber);
+        List<IndexEntry> entries;
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PARSE)) {
+            entries = indexParser.parseIndexPage(rawText, pageNumber);
+        }
+        glossaryTermCache.loadIfNeeded();
         
         for (IndexEntry entry : entries) {
-            try {
-                // Try to link to glossary term if exists
-                glossaryTermRepository.findByTerm(entry.getTopic())
-                        .ifPresent(entry::setGlossaryTerm);
-                
-                indexEntryRepository.save(entry);
-                log.debug("Saved index entry: {}", entry.getTopic());
-                
-            } catch (Exception e) {
-                log.warn("Failed to save index entry {}: {}", 
-                        entry.getTopic(), e.getMessage());
-            }
+            // A reference carries only the id: linking reads nothing
+            glossaryTermCache.findId(entry.getTopic())
+                    .map(glossaryTermRepository::getReferenceById)
+                    .ifPresent(entry::setGlossaryTerm);
         }
+        indexEntryRepository.saveAll(entries);
+        log.debug("Saved {} index entries from page {}", entries.size(), pageNumber);
         
         context.setTotalEventsProcessed(context.getTotalEventsProcessed() + entries.size());
     }
     
     /**
      * Ingests an Oahspe book page using OahspeParser.
+     * The parser reads the text in place and hands each event straight to the
+     * ingestion service, so neither a line array nor an event list is built.
+     * The parse step therefore includes handling the events; their inserts
+     * are batched until the page's flush and are not part of it.
      */
     private void ingestOahspePage(String rawText, int pageNumber, IngestionContext context) {
-        // Split by any combination of \r and \n
-        List<String> lines = Arrays.asList(rawText.split("\\r?\\n"));
-        List<OahspeEvent> events = oahspeParser.parse(lines, pageNumber);
-        
-        // Ingest events through existing service (will be enhanced in Task 7.5)
-        oahspeIngestionService.ingestEvents(events, pageNumber);
+        ParserSession session = parserSession(context);
+        int events;
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PARSE)) {
+            events = oahspeIngestionService.ingestPage(pageNumber,
+                    sink -> oahspeParser.parse(session, rawText, pageNumber, sink));
+        }
         
-        context.setTotalEventsProcessed(context.getTotalEventsProcessed() + events.size());
+        context.setTotalEventsProcessed(context.getTotalEventsProcessed() + events);
+    }
+    
+    /**
+     * Returns the run's parser session, creating one for contexts built by callers
+     * of {@link #ingestSinglePageContent} that did not set it.
+     */
+    private ParserSession parserSession(IngestionContext context) {
+        if (context.getParserSession() == null) {
+            context.setParserSession(oahspeParser.newSession());
+        }
+        return context.getParserSession();
     }
     
     /**
      * Links PageImage entities to their corresponding Image entities.
-     * Updates the linkedImageId field.
+     * The n-th embedded image of the page (by imageSequence) is linked to the
+     * n-th Image created for that source page. Only ids are read, never image data.
      * 
      * @param pageContent the page whose images should be linked
      */
+    @Transactional
     public void linkPageImagesToImageEntities(PageContent pageContent) {
-        List<PageImage> pageImages = pageImageRepository
-                .findByPageContentId(pageContent.getId());
+        List<PageImageRepository.SequenceView> pageImages = pageImageRepository
+                .findByPageContentIdAndLinkedImageIsNullOrderByImageSequenceAsc(pageContent.getId());
+        if (pageImages.isEmpty()) {
+            return;
+        }
         
-        for (PageImage pageImage : pageImages) {
-            // Find corresponding Image entity by source page and sequence
-            // This assumes Image entities have already been created during initial ingestion
-            List<Image> matchingImages = imageRepository.findAll().stream()
-                    .filter(img -> img.getSourcePage() != null && 
-                                   img.getSourcePage().equals(pageContent.getPageNumber()))
-                    .toList();
-            
-            if (!matchingImages.isEmpty()) {
-                // Link to first matching image (could be enhanced with better matching logic)
-                pageImage.setLinkedImage(matchingImages.get(0));
-                pageImageRepository.save(pageImage);
+        List<Integer> imageIds = imageRepository.findIdsBySourcePage(pageContent.getPageNumber());
+        
+        for (PageImageRepository.SequenceView pageImage : pageImages) {
+            int index = pageImage.getImageSequence() - 1;
+            if (index >= 0 && index < imageIds.size()) {
+                pageImageRepository.linkToImage(pageImage.getId(), imageIds.get(index));
                 log.debug("Linked PageImage {} to Image {}", 
-                        pageImage.getId(), matchingImages.get(0).getId());
+                        pageImage.getId(), imageIds.get(index));
             }
         }
     }
+    
+    /**
+     * Links all unlinked PageImages of a category in a single set-based update.
+     * 
+     * @param category the category whose pages should be linked
+     * @return number of PageImages linked
+     */
+    @Transactional
+    public int linkPageImagesForCategory(PageCategory category) {
+        int linked = pageImageRepository.linkUnlinkedByCategory(category.name());
+        log.info("Linked {} page images for category {}", linked, category);
+        return linked;
+    }
 }
@@ -0,0 +1,259 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.PageCategory;
+import edu.minghualiu.oahspe.entities.PageContent;
+import edu.minghualiu.oahspe.ingestion.OahspeIngestionService;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeParser;
+import edu.minghualiu.oahspe.ingestion.parser.ParserSession;
+import edu.minghualiu.oahspe.ingestion.parser.ParserState;
+import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
+import edu.minghualiu.oahspe.ingestion.runner.ProgressCallback;
+import edu.minghualiu.oahspe.reader.VerseCache;
+import edu.minghualiu.oahspe.repositories.*;
+import edu.minghualiu.oahspe.search.SearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Re-ingests only the pages whose text or parser version changed since they
+ * were ingested, instead of clearing and rebuilding the whole corpus.
+ *
+ * A page is changed when the hash of its current text differs from the hash
+ * recorded at ingestion, or when it was ingested by another parser version
+ * (see {@link PageContent#isChangedSinceIngestion}). Pages ingested before
+ * hashes were recorded count as changed.
+ *
+ * Changed pages are grouped into ranges of consecutive ingested pages. Each
+ * range is rebuilt in its own transaction:
+ * <ol>
+ *   <li>the verses, notes, images, glossary terms and index entries started
+ *       on the range's pages are deleted;</li>
+ *   <li>the book context before the range is restored from the database and
+ *       the range's pages are ingested again;</li>
+ *   <li>later entities that pointed at deleted books, chapters or verses are
+ *       moved to the entities that now end the range, and the old books and
+ *       chapters are deleted.</li>
+ * </ol>
+ *
+ * Book pages depend on the page before them: a verse or note can continue on
+ * the next page. A book range is therefore widened to structural boundaries:
+ * it starts at an unchanged page that opens with a book, chapter, verse or
+ * note, and it ends before such a page, so no entity outside the range holds
+ * text from inside it. Glossary and index pages are independent and are
+ * rebuilt exactly.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PageReingestionService {
+
+    private final PageContentRepository pageContentRepository;
+    private final PageIngestionLinker pageIngestionLinker;
+    private final OahspeIngestionService oahspeIngestionService;
+    private final OahspeParser oahspeParser;
+    private final BookRepository bookRepository;
+    private final ChapterRepository chapterRepository;
+    private final VerseRepository verseRepository;
+    private final NoteRepository noteRepository;
+    private final ImageRepository imageRepository;
+    private final PageImageRepository pageImageRepository;
+    private final GlossaryTermRepository glossaryTermRepository;
+    private final IndexEntryRepository indexEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GlossaryTermCache glossaryTermCache;
+    private final VerseCache verseCache;
+    private final SearchIndex searchIndex;
+
+    /**
+     * Finds the changed pages and rebuilds their entities.
+     * A failing range is rolled back and reported; the other ranges are still rebuilt.
+     *
+     * @param callback optional progress callback, called once per range
+     * @return context with the number of re-ingested pages and any range errors
+     */
+    public IngestionContext reingestChangedPages(ProgressCallback callback) {
+        Map<PageCategory, List<PageContent>> ingestedPages = pageContentRepository
+                .findByIngestedTrueOrderByPageNumberAsc().stream()
+                .collect(Collectors.groupingBy(PageContent::getCategory, TreeMap::new, Collectors.toList()));
+
+        List<List<PageContent>> ranges = new ArrayList<>();
+        for (Map.Entry<PageCategory, List<PageContent>> entry : ingestedPages.entrySet()) {
+            ranges.addAll(findChangedRanges(entry.getKey(), entry.getValue()));
+        }
+
+        IngestionContext context = new IngestionContext();
+        context.setTotalPages(ranges.stream().mapToInt(List::size).sum());
+        log.info("Re-ingesting {} pages in {} ranges", context.getTotalPages(), ranges.size());
+        if (!ranges.isEmpty()) {
+            glossaryTermCache.load();
+        }
+
+        for (List<PageContent> range : ranges) {
+            int startPage = range.getFirst().getPageNumber();
+            int endPage = range.getLast().getPageNumber();
+            try {
+                if (callback != null) {
+                    callback.onPageStart(startPage, context.getTotalPages());
+                }
+
+                transactionTemplate.executeWithoutResult(status -> reingestRange(range, context));
+
+                if (callback != null) {
+                    callback.onPageComplete(endPage, range.size());
+                }
+            } catch (Exception e) {
+                // The rolled-back range may have removed terms from the cache
+                glossaryTermCache.load();
+                context.addPageError(startPage, e.getMessage());
+                if (callback != null) {
+                    callback.onPageError(startPage, e);
+                }
+                log.error("Failed to re-ingest pages {}-{}: {}", startPage, endPage, e.getMessage(), e);
+            }
+        }
+
+        log.info("Re-ingestion complete. Ranges: {}, Errors: {}",
+                ranges.size(), context.getTotalErrorsEncountered());
+        if (callback != null) {
+            callback.onIngestionComplete(context);
+        }
+        return context;
+    }
+
+    /**
+     * Groups the changed pages of a category into the ranges to rebuild.
+     *
+     * @param category the category
+     * @param pages the category's ingested pages, in page order
+     * @return ranges of consecutive ingested pages, in page order
+     */
+    List<List<PageContent>> findChangedRanges(PageCategory category, List<PageContent> pages) {
+        boolean[] changed = new boolean[pages.size()];
+        for (int i = 0; i < pages.size(); i++) {
+            PageContent page = pages.get(i);
+            changed[i] = page.isChangedSinceIngestion(
+                    PageIngestionLinker.parserVersion(page.getPageNumber(), category));
+        }
+
+        List<List<PageContent>> ranges = new ArrayList<>();
+        int i = 0;
+        while (i < pages.size()) {
+            if (!changed[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int end = i;
+            if (category.requiresSpecialParser()) {
+                while (end + 1 < pages.size() && changed[end + 1]) {
+                    end++;
+                }
+            } else {
+                while (start > 0 && (changed[start] || !startsWithStructure(pages.get(start)))) {
+                    start--;
+                }
+                while (end + 1 < pages.size() && (changed[end + 1] || !startsWithStructure(pages.get(end + 1)))) {
+                    end++;
+                }
+            }
+            ranges.add(pages.subList(start, end + 1));
+            i = end + 1;
+        }
+        return ranges;
+    }
+
+    /**
+     * Returns true if the page's first content opens a book, chapter, keyed
+     * verse or keyed note, so that nothing on it continues the page before.
+     */
+    private boolean startsWithStructure(PageContent page) {
+        List<OahspeEvent> events = new ArrayList<>();
+        oahspeParser.parse(new ParserSession(ParserState.IN_VERSE), page.getRawText(), page.getPageNumber(),
+                events::add);
+        if (events.size() < 2) {
+            return false;
+        }
+        return switch (events.get(1)) {
+            case OahspeEvent.BookStart book -> true;
+            case OahspeEvent.ChapterStart chapter -> true;
+            case OahspeEvent.Verse verse -> verse.verseKey() != null;
+            case OahspeEvent.Note note -> note.noteKey() != null;
+            case OahspeEvent.ImageRef image -> false;
+            case OahspeEvent.PageBreak pageBreak -> false;
+        };
+    }
+
+    /**
+     * Deletes and rebuilds the entities of one range. Must be called within a transaction.
+     */
+    private void reingestRange(List<PageContent> range, IngestionContext context) {
+        int startPage = range.getFirst().getPageNumber();
+        int endPage = range.getLast().getPageNumber();
+        log.info("Re-ingesting pages {}-{}", startPage, endPage);
+
+        // Notes after the range may belong to the range's last verse; keep them
+        List<Integer> laterNoteIds = noteRepository.findIdsAfterRangeWithVerseInRange(startPage, endPage);
+        if (!laterNoteIds.isEmpty()) {
+            noteRepository.assignVerse(laterNoteIds, null);
+        }
+        List<Long> oldChapterIds = chapterRepository.findIdsByPageNumberBetween(startPage, endPage);
+        List<Integer> oldBookIds = bookRepository.findIdsByPageNumberBetween(startPage, endPage);
+
+        pageImageRepository.unlinkImagesBetween(startPage, endPage);
+        noteRepository.deleteImageLinksBetween(startPage, endPage);
+        noteRepository.deleteByPageNumberBetween(startPage, endPage);
+        imageRepository.deleteBySourcePageBetween(startPage, endPage);
+        verseRepository.deleteByPageNumberBetween(startPage, endPage);
+        verseCache.invalidateAll();
+        searchIndex.deletePages(startPage, endPage);
+        indexEntryRepository.unlinkGlossaryTermsBetween(startPage, endPage);
+        indexEntryRepository.deletePageRangesByExtractedFromPageBetween(startPage, endPage);
+        indexEntryRepository.deleteByExtractedFromPageBetween(startPage, endPage);
+        if (glossaryTermRepository.deleteByPageNumberBetween(startPage, endPage) > 0) {
+            glossaryTermCache.load();
+        }
+
+        context.setParserSession(new ParserSession(oahspeIngestionService.restoreContext(startPage)));
+        pageIngestionLinker.ingestPages(range, context);
+
+        // Later entities continue from the context that now ends the range
+        if (!laterNoteIds.isEmpty()) {
+            noteRepository.assignVerse(laterNoteIds, oahspeIngestionService.getCurrentVerse());
+            noteRepository.findWithVerseByIdIn(laterNoteIds).forEach(searchIndex::index);
+        }
+        if (!oldChapterIds.isEmpty()) {
+            Chapter chapter = oahspeIngestionService.getCurrentChapter();
+            if (verseRepository.countByChapterIdIn(oldChapterIds) > 0) {
+                if (chapter == null) {
+                    throw new IllegalStateException("Pages " + startPage + "-" + endPage
+                            + " no longer end inside a chapter, but later verses belong to one of them");
+                }
+                verseRepository.reassignChapter(oldChapterIds, chapter);
+            }
+            chapterRepository.deleteByIdIn(oldChapterIds);
+        }
+        if (!oldBookIds.isEmpty()) {
+            Book book = oahspeIngestionService.getCurrentBook();
+            if (chapterRepository.countByBookIdIn(oldBookIds) > 0) {
+                if (book == null) {
+                    throw new IllegalStateException("Pages " + startPage + "-" + endPage
+                            + " no longer end inside a book, but later chapters belong to one of them");
+                }
+                chapterRepository.reassignBook(oldBookIds, book);
+            }
+            bookRepository.deleteByIdIn(oldBookIds);
+        }
+        indexEntryRepository.linkUnlinkedGlossaryTerms();
+    }
+}
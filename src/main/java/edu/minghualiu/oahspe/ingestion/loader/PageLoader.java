@@ -4,32 +4,37 @@ import edu.minghualiu.oahspe.entities.PageCategory;
 import edu.minghualiu.oahspe.entities.PageContent;
 import edu.minghualiu.oahspe.entities.PageImage;
 import edu.minghualiu.oahspe.entities.PageRangeContentSummary;
+import edu.minghualiu.oahspe.entities.WorkflowPhase;
+import edu.minghualiu.oahspe.ingestion.image.EncodedImage;
+import edu.minghualiu.oahspe.ingestion.image.ImageBlobService;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionMetrics;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionStep;
 import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
 import edu.minghualiu.oahspe.ingestion.runner.PDFExtractionException;
 import edu.minghualiu.oahspe.ingestion.runner.PDFTextExtractor;
+import edu.minghualiu.oahspe.ingestion.runner.PageTaskExecutor;
+import edu.minghualiu.oahspe.ingestion.runner.PdfDocumentSession;
 import edu.minghualiu.oahspe.ingestion.runner.ProgressCallback;
 import edu.minghualiu.oahspe.repositories.PageContentRepository;
 import edu.minghualiu.oahspe.repositories.PageImageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.graphics.PDXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.cos.COSName;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * Service for loading PDF pages into PageContent entities.
@@ -44,63 +49,129 @@ public class PageLoader {
     private final PageContentRepository pageContentRepository;
     private final PageImageRepository pageImageRepository;
     private final TransactionTemplate transactionTemplate;
+    private final IngestionMetrics ingestionMetrics;
+    private final ImageBlobService imageBlobService;
+    private final PageTaskExecutor pageTaskExecutor;
     
     private static final int BATCH_SIZE = 100;  // Commit every 100 pages
     
-    /**Uses batch commits every 100 pages for progress visibility.
+    /**
+     * Loads all pages from the PDF into PageContent entities.
+     * The PDF is opened once for the whole run; each batch's text is extracted
+     * in a single PDFTextStripper pass.
+     * Uses batch commits every 100 pages for progress visibility.
      * 
      * @param pdfPath absolute path to the PDF file
      * @param callback optional progress callback
      * @return ingestion context with statistics
      */
     public IngestionContext loadAllPages(String pdfPath, ProgressCallback callback) {
-        log.info("Starting page loading from PDF: {}", pdfPath);
+        return loadAllPages(pdfPath, callback, 1);
+    }
+    
+    /**
+     * Loads all pages from the PDF into PageContent entities using a pool of
+     * extraction workers.
+     * 
+     * The page range is split into 100-page batches. Each worker opens its own
+     * copy of the PDF and extracts text and encodes images for one batch at a
+     * time; the calling thread writes the batches back in page order, one
+     * transaction per batch, so commit boundaries and progress callbacks are
+     * the same as in the single-threaded mode.
+     * 
+     * Batches whose pages are all loaded already are skipped in both modes, so
+     * loading again after an interruption only extracts the missing batches.
+     * 
+     * Workers are platform or virtual threads as configured in
+     * {@link PageTaskExecutor}. With virtual threads, {@code threads} still
+     * bounds the batches in flight and so the number of open PDF copies.
+     * 
+     * @param pdfPath absolute path to the PDF file
+     * @param callback optional progress callback
+     * @param threads number of extraction workers (1 = single-threaded)
+     * @return ingestion context with statistics
+     */
+    public IngestionContext loadAllPages(String pdfPath, ProgressCallback callback, int threads) {
+        log.info("Starting page loading from PDF: {} ({} threads)", pdfPath, Math.max(threads, 1));
         
-        int totalPages;
+        // Images already stored by earlier runs are referenced, not encoded again
+        imageBlobService.loadStoredHashes();
+        
+        PdfDocumentSession session;
         try {
-            totalPages = pdfTextExtractor.getPageCount(pdfPath);
+            session = pdfTextExtractor.openSession(pdfPath);
         } catch (PDFExtractionException e) {
-            log.error("Failed to get page count: {}", e.getMessage());
+            log.error("Failed to open PDF: {}", e.getMessage());
             throw new RuntimeException("Cannot load pages: " + e.getMessage(), e);
         }
         
-        IngestionContext context = new IngestionContext(pdfPath, totalPages);
-        List<Integer> batch = new ArrayList<>();
+        if (threads <= 1) {
+            try (session) {
+                return loadAllPages(session, callback);
+            }
+        }
+        return loadAllPagesParallel(session, callback, threads);
+    }
+    
+    private IngestionContext loadAllPages(PdfDocumentSession session, ProgressCallback callback) {
+        int totalPages = session.getPageCount();
+        IngestionContext context = new IngestionContext(session.getPdfFilePath(), totalPages);
         
-        for (int pageNum = 1; pageNum <= totalPages; pageNum++) {
-            context.setCurrentPageNumber(pageNum);
-            batch.add(pageNum);
+        for (int batchStart = 1; batchStart <= totalPages; batchStart += BATCH_SIZE) {
+            final int firstPage = batchStart;
+            final int lastPage = Math.min(batchStart + BATCH_SIZE - 1, totalPages);
+            if (skipLoadedBatch(context, firstPage, lastPage)) {
+                continue;
+            }
+            final List<String> batchTexts = extractBatchText(session, firstPage, lastPage);
             
-            // Commit batch every BATCH_SIZE pages or at the end
-            if (batch.size() >= BATCH_SIZE || pageNum == totalPages) {
-                final List<Integer> pagesToLoad = new ArrayList<>(batch);
-                
-                transactionTemplate.executeWithoutResult(status -> {
-                    for (Integer page : pagesToLoad) {
-                        try {
-                            if (callback != null && page % 50 == 0) {
-                                callback.onPageStart(page, totalPages);
-                            }
-                            
-                            PageContent pageContent = loadSinglePage(pdfPath, page);
-                            context.setTotalEventsProcessed(context.getTotalEventsProcessed() + 1);
-                            
-                            if (callback != null && page % 50 == 0) {
-                                callback.onPageComplete(page, 1);
-                            }
-                        } catch (Exception e) {
-                            context.addPageError(page, e.getMessage());
-                            log.error("Failed to load page {}: {}", page, e.getMessage(), e);
+            writeBatch(context, callback, firstPage, lastPage,
+                    page -> batchTexts.get(page - firstPage),
+                    page -> encodePageImages(session, page));
+        }
+        
+        log.info("Page loading complete. Pages: {}, Errors: {}", 
+                totalPages, context.getTotalErrorsEncountered());
+        
+        return context;
+    }
+    
+    /**
+     * Runs extraction on a worker pool and writes batches in page order.
+     * The given session becomes the first worker session and is closed
+     * together with the others.
+     */
+    private IngestionContext loadAllPagesParallel(PdfDocumentSession firstSession,
+                                                  ProgressCallback callback, int threads) {
+        int totalPages = firstSession.getPageCount();
+        IngestionContext context = new IngestionContext(firstSession.getPdfFilePath(), totalPages);
+        
+        pageTaskExecutor.runPdfBatches("page-loader", threads, firstSession, pdfTextExtractor, BATCH_SIZE,
+                new PageTaskExecutor.BatchHandler<List<ExtractedPage>>() {
+                    @Override
+                    public boolean skip(int firstPage, int lastPage) {
+                        return skipLoadedBatch(context, firstPage, lastPage);
+                    }
+                    
+                    @Override
+                    public List<ExtractedPage> extract(PdfDocumentSession session, int firstPage, int lastPage) {
+                        return extractBatch(session, firstPage, lastPage);
+                    }
+                    
+                    @Override
+                    public void write(int firstPage, int lastPage, List<ExtractedPage> pages) {
+                        writeBatch(context, callback, firstPage, lastPage,
+                                page -> pages.get(page - firstPage).rawText(),
+                                page -> pages.get(page - firstPage).images());
+                    }
+                    
+                    @Override
+                    public void failed(int firstPage, int lastPage, Throwable cause) {
+                        for (int page = firstPage; page <= lastPage; page++) {
+                            context.addPageError(page, "Batch extraction failed");
                         }
                     }
                 });
-                
-                log.info("Committed batch: pages {}-{}", 
-                        pagesToLoad.get(0), 
-                        pagesToLoad.get(pagesToLoad.size() - 1));
-                batch.clear();
-            }
-        }
         
         log.info("Page loading complete. Pages: {}, Errors: {}", 
                 totalPages, context.getTotalErrorsEncountered());
@@ -108,29 +179,132 @@ public class PageLoader {
         return context;
     }
     
+    /**
+     * Returns true if every page of a batch is already loaded, counting the
+     * pages as processed; such a batch is neither extracted nor written.
+     * Batches commit atomically, so after an interrupted run every batch up to
+     * the interrupted one is skipped without opening its pages.
+     */
+    private boolean skipLoadedBatch(IngestionContext context, int firstPage, int lastPage) {
+        long loaded = pageContentRepository.countByPageNumberBetween(firstPage, lastPage);
+        if (loaded < lastPage - firstPage + 1) {
+            return false;
+        }
+        context.setTotalEventsProcessed(context.getTotalEventsProcessed() + (int) loaded);
+        log.info("Skipping pages {}-{}: already loaded", firstPage, lastPage);
+        return true;
+    }
+    
+    /**
+     * Worker task: extracts text and encodes images for one batch.
+     * Images are skipped for pages that are already loaded, since the writer
+     * will keep the existing rows.
+     */
+    private List<ExtractedPage> extractBatch(PdfDocumentSession session, int firstPage, int lastPage) {
+        Set<Integer> loadedPages = new HashSet<>(pageTaskExecutor.database(
+                () -> pageContentRepository.findPageNumbersBetween(firstPage, lastPage)));
+        List<String> texts = extractBatchText(session, firstPage, lastPage);
+        
+        List<ExtractedPage> pages = new ArrayList<>(texts.size());
+        for (int page = firstPage; page <= lastPage; page++) {
+            List<EncodedImage> images = loadedPages.contains(page)
+                    ? List.of()
+                    : encodePageImages(session, page);
+            pages.add(new ExtractedPage(texts.get(page - firstPage), images));
+        }
+        return pages;
+    }
+    
+    /**
+     * Writes one batch of pages in a single transaction.
+     * 
+     * @param context the ingestion context to update
+     * @param callback optional progress callback
+     * @param firstPage first page of the batch (inclusive)
+     * @param lastPage last page of the batch (inclusive)
+     * @param textSource page number to extracted text
+     * @param imageSource page number to encoded images; only called for new pages
+     */
+    private void writeBatch(IngestionContext context, ProgressCallback callback,
+                            int firstPage, int lastPage,
+                            IntFunction<String> textSource,
+                            IntFunction<List<EncodedImage>> imageSource) {
+        int totalPages = context.getTotalPages();
+        long statementsBefore = ingestionMetrics.statementCount();
+        
+        // Exclusive timing: images encoded inside the transaction count as IMAGE_ENCODE
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PERSIST)) {
+            pageTaskExecutor.database(() -> transactionTemplate.execute(status -> {
+                for (int page = firstPage; page <= lastPage; page++) {
+                    context.setCurrentPageNumber(page);
+                    try {
+                        if (callback != null && page % 50 == 0) {
+                            callback.onPageStart(page, totalPages);
+                        }
+                    
+                        final int pageNumber = page;
+                        loadSinglePage(page, textSource.apply(page), () -> imageSource.apply(pageNumber));
+                        context.setTotalEventsProcessed(context.getTotalEventsProcessed() + 1);
+                    
+                        if (callback != null && page % 50 == 0) {
+                            callback.onPageComplete(page, 1);
+                        }
+                    } catch (Exception e) {
+                        context.addPageError(page, e.getMessage());
+                        log.error("Failed to load page {}: {}", page, e.getMessage(), e);
+                    }
+                }
+                return null;
+            }));
+        }
+        ingestionMetrics.pagesCompleted(WorkflowPhase.PAGE_LOADING, lastPage - firstPage + 1,
+                ingestionMetrics.statementCount() - statementsBefore);
+        
+        log.info("Committed batch: pages {}-{}", firstPage, lastPage);
+    }
+    
+    /**
+     * Extracts the text of one batch in a single stripper pass.
+     * Falls back to page-by-page extraction if the pass fails, so one bad page
+     * only blanks its own text.
+     */
+    private List<String> extractBatchText(PdfDocumentSession session, int firstPage, int lastPage) {
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.TEXT_EXTRACTION)) {
+            try {
+                return session.extractPageRange(firstPage, lastPage);
+            } catch (PDFExtractionException e) {
+                log.warn("Batch text extraction failed for pages {}-{}, retrying page by page: {}",
+                        firstPage, lastPage, e.getMessage());
+            }
+            
+            List<String> texts = new ArrayList<>();
+            for (int page = firstPage; page <= lastPage; page++) {
+                try {
+                    texts.add(session.extractText(page));
+                } catch (PDFExtractionException e) {
+                    log.error("Text extraction failed for page {}: {}", page, e.getMessage());
+                    texts.add("");
+                }
+            }
+            return texts;
+        }
+    }
+    
     /**
      * Loads a single page from the PDF.
      * Must be called within a transaction context.
      * 
-     * @param pdfPath absolute path to the PDF file
      * @param pageNumber 1-based page number
+     * @param rawText the already extracted page text
+     * @param images supplies the encoded images; not called if the page already exists
      * @return the created PageContent entity
      */
-    private PageContent loadSinglePage(String pdfPath, int pageNumber) {
+    private PageContent loadSinglePage(int pageNumber, String rawText, Supplier<List<EncodedImage>> images) {
         log.debug("Loading page {}", pageNumber);
         
         // Check if page already exists
         return pageContentRepository.findByPageNumber(pageNumber)
                 .orElseGet(() -> {
-                    // Extract text
-                    String rawText;
-                    try {
-                        rawText = pdfTextExtractor.extractText(pdfPath, pageNumber);
-                    } catch (PDFExtractionException e) {
-                        log.error("Text extraction failed for page {}: {}", pageNumber, e.getMessage());
-                        rawText = "";
-                    }
-                    
                     // Determine category
                     PageCategory category = PageCategory.fromPageNumber(pageNumber);
                     
@@ -145,48 +319,56 @@ public class PageLoader {
                     
                     pageContent = pageContentRepository.save(pageContent);
                     
-                    // Extract images
-                    List<PageImage> images = extractImagesFromPage(pdfPath, pageNumber, pageContent);
-                    pageImageRepository.saveAll(images);
+                    // Attach images
+                    List<PageImage> pageImages = toPageImages(pageContent, images.get());
+                    pageImageRepository.saveAll(pageImages);
                     
                     log.debug("Loaded page {} [{}] - {} chars, {} images", 
-                            pageNumber, category, rawText.length(), images.size());
+                            pageNumber, category, rawText.length(), pageImages.size());
                     
                     return pageContent;
                 });
     }
     
     /**
-     * Extracts images from a PDF page as PageImage objects.
+     * Builds PageImage entities for encoded images, numbered in page order.
+     * Each image references the blob for its content hash, which is written
+     * only if no earlier image had the same hash.
+     */
+    private List<PageImage> toPageImages(PageContent pageContent, List<EncodedImage> images) {
+        List<PageImage> pageImages = new ArrayList<>(images.size());
+        int sequence = 1;
+        for (EncodedImage image : images) {
+            pageImages.add(PageImage.builder()
+                    .pageContent(pageContent)
+                    .imageSequence(sequence++)
+                    .blob(imageBlobService.store(image))
+                    .mimeType(image.mimeType())
+                    .build());
+        }
+        return pageImages;
+    }
+    
+    /**
+     * Hashes the images of a PDF page and encodes the ones not stored yet:
+     * browser-ready JPEG streams are copied as is, other images become PNG.
+     * Safe to call from a worker thread as long as the session is not shared.
      * 
-     * @param pdfPath path to PDF
+     * @param session the open PDF document
      * @param pageNumber 1-based page number
-     * @param pageContent the parent PageContent entity
-     * @return list of PageImage objects
+     * @return one encoded image per image XObject, in resource order
      */
-    private List<PageImage> extractImagesFromPage(String pdfPath, int pageNumber, PageContent pageContent) {
-        List<PageImage> pageImages = new ArrayList<>();
-        
-        File file = new File(pdfPath);
-        if (!file.exists()) {
-            log.warn("PDF file not found for image extraction: {}", pdfPath);
-            return pageImages;
-        }
+    private List<EncodedImage> encodePageImages(PdfDocumentSession session, int pageNumber) {
+        List<EncodedImage> encoded = new ArrayList<>();
         
-        try (PDDocument document = PDDocument.load(file)) {
-            if (pageNumber < 1 || pageNumber > document.getNumberOfPages()) {
-                log.warn("Page number {} out of range", pageNumber);
-                return pageImages;
-            }
-            
-            PDPage page = document.getPage(pageNumber - 1); // 0-indexed
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.IMAGE_ENCODE)) {
+            PDPage page = session.getPage(pageNumber);
             PDResources resources = page.getResources();
             
             if (resources == null) {
-                return pageImages;
+                return encoded;
             }
             
-            int sequence = 1;
             for (COSName name : resources.getXObjectNames()) {
                 PDXObject xObject = resources.getXObject(name);
                 
@@ -194,32 +376,27 @@ public class PageLoader {
                     PDImageXObject image = (PDImageXObject) xObject;
                     
                     try {
-                        BufferedImage bufferedImage = image.getImage();
-                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                        ImageIO.write(bufferedImage, "PNG", baos);
-                        
-                        PageImage pageImage = PageImage.builder()
-                                .pageContent(pageContent)
-                                .imageSequence(sequence++)
-                                .imageData(baos.toByteArray())
-                                .mimeType("image/png")
-                                .build();
-                        
-                        pageImages.add(pageImage);
+                        encoded.add(pageTaskExecutor.encode(() -> imageBlobService.encode(image)));
                         
                     } catch (IOException e) {
                         log.warn("Failed to extract image {} from page {}: {}", 
-                                sequence, pageNumber, e.getMessage());
+                                encoded.size() + 1, pageNumber, e.getMessage());
                     }
                 }
             }
             
+        } catch (PDFExtractionException e) {
+            log.warn("Page number {} out of range", pageNumber);
         } catch (IOException e) {
-            log.error("Failed to load PDF for image extraction page {}: {}", 
+            log.error("Failed to read images for page {}: {}", 
                     pageNumber, e.getMessage());
         }
         
-        return pageImages;
+        return encoded;
+    }
+    
+    /** Text and encoded images of one page, produced by a worker. */
+    private record ExtractedPage(String rawText, List<EncodedImage> images) {
     }
     
     /**
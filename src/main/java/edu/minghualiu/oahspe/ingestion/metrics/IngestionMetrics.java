@@ -0,0 +1,235 @@
+package edu.minghualiu.oahspe.ingestion.metrics;
+
+import edu.minghualiu.oahspe.entities.WorkflowPhase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation for the ingestion pipeline.
+ *
+ * <h2>Meters</h2>
+ * <ul>
+ *   <li>{@code oahspe.ingestion.phase} (timer, tag {@code phase}): each workflow phase</li>
+ *   <li>{@code oahspe.ingestion.step} (timer, tag {@code step}): per-page steps, see {@link IngestionStep}</li>
+ *   <li>{@code oahspe.ingestion.pages} (counter, tag {@code phase}): pages processed</li>
+ *   <li>{@code oahspe.ingestion.page.statements} (distribution summary, tag {@code phase}):
+ *       JDBC statements per page, counted by {@link StatementCounter}</li>
+ * </ul>
+ *
+ * Step timers record exclusive time: when a step runs inside another on the
+ * same thread (for example image encoding inside a page write), its duration
+ * is subtracted from the outer step, so the step totals add up to the time
+ * actually spent.
+ *
+ * Meters are cumulative for the lifetime of the application, which for the
+ * CLI is one run. {@link #summary()} renders them for the actuator endpoint
+ * and for {@code WorkflowState.statistics}.
+ *
+ * Usage:
+ * <pre>
+ * try (IngestionMetrics.StepTimer timer = metrics.step(IngestionStep.PARSE)) {
+ *     events = parser.parse(session, lines, pageNumber);
+ * }
+ * </pre>
+ */
+@Component
+public class IngestionMetrics {
+
+    public static final String PHASE_TIMER = "oahspe.ingestion.phase";
+    public static final String STEP_TIMER = "oahspe.ingestion.step";
+    public static final String PAGES_COUNTER = "oahspe.ingestion.pages";
+    public static final String STATEMENTS_SUMMARY = "oahspe.ingestion.page.statements";
+
+    private final MeterRegistry registry;
+    private final Map<IngestionStep, Timer> stepTimers = new EnumMap<>(IngestionStep.class);
+
+    /** Child time of the steps open on this thread, innermost first */
+    private final ThreadLocal<Deque<long[]>> openSteps = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public IngestionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (IngestionStep step : IngestionStep.values()) {
+            stepTimers.put(step, Timer.builder(STEP_TIMER)
+                    .description("Exclusive time per ingestion step")
+                    .tag("step", step.getTag())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Starts timing a workflow phase. Close the returned timer when the phase ends.
+     *
+     * @param phase the phase being run
+     * @return an open timer
+     */
+    public PhaseTimer phase(WorkflowPhase phase) {
+        return new PhaseTimer(Timer.builder(PHASE_TIMER)
+                .description("Duration of each workflow phase")
+                .tag("phase", tag(phase))
+                .register(registry));
+    }
+
+    /**
+     * Starts timing a per-page step on the current thread. Close the returned
+     * timer on the same thread, in reverse order of nesting.
+     *
+     * @param step the step being run
+     * @return an open timer
+     */
+    public StepTimer step(IngestionStep step) {
+        long[] childNanos = new long[1];
+        openSteps.get().push(childNanos);
+        return new StepTimer(stepTimers.get(step), childNanos);
+    }
+
+    /**
+     * Returns the number of JDBC statements prepared on this thread so far.
+     * Take the difference across a unit of work, including its commit.
+     *
+     * @return statement count for the current thread
+     */
+    public long statementCount() {
+        return StatementCounter.current();
+    }
+
+    /**
+     * Records pages processed and the statements they took.
+     *
+     * When several pages share one transaction, their inserts are flushed
+     * together at commit, so the statements are spread evenly over the pages.
+     *
+     * @param phase the phase the pages belong to
+     * @param pages number of pages in the unit of work
+     * @param statements statements prepared for the unit of work, including its commit
+     */
+    public void pagesCompleted(WorkflowPhase phase, int pages, long statements) {
+        if (pages <= 0) {
+            return;
+        }
+        Counter.builder(PAGES_COUNTER)
+                .description("Pages processed")
+                .tag("phase", tag(phase))
+                .register(registry)
+                .increment(pages);
+        DistributionSummary perPage = DistributionSummary.builder(STATEMENTS_SUMMARY)
+                .description("JDBC statements prepared per page")
+                .tag("phase", tag(phase))
+                .register(registry);
+        double share = (double) statements / pages;
+        for (int i = 0; i < pages; i++) {
+            perPage.record(share);
+        }
+    }
+
+    /**
+     * Renders the ingestion meters as nested maps, ready for JSON.
+     *
+     * @return phases, steps (with each step's share of the step total), pages
+     *         and statements per page
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (Timer timer : registry.find(PHASE_TIMER).timers()) {
+            phases.put(timer.getId().getTag("phase"), Map.of(
+                    "count", timer.count(),
+                    "totalMs", Math.round(timer.totalTime(TimeUnit.MILLISECONDS))));
+        }
+
+        double stepTotal = stepTimers.values().stream()
+                .mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS))
+                .sum();
+        Map<String, Object> steps = new LinkedHashMap<>();
+        for (Map.Entry<IngestionStep, Timer> entry : stepTimers.entrySet()) {
+            Timer timer = entry.getValue();
+            double totalMs = timer.totalTime(TimeUnit.MILLISECONDS);
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("count", timer.count());
+            step.put("totalMs", Math.round(totalMs));
+            step.put("meanMs", round(timer.mean(TimeUnit.MILLISECONDS)));
+            step.put("share", stepTotal > 0 ? round(totalMs / stepTotal) : 0.0);
+            steps.put(entry.getKey().getTag(), step);
+        }
+
+        Map<String, Object> pages = new LinkedHashMap<>();
+        for (Counter counter : registry.find(PAGES_COUNTER).counters()) {
+            pages.put(counter.getId().getTag("phase"), Math.round(counter.count()));
+        }
+
+        Map<String, Object> statements = new LinkedHashMap<>();
+        for (DistributionSummary perPage : registry.find(STATEMENTS_SUMMARY).summaries()) {
+            statements.put(perPage.getId().getTag("phase"), Map.of(
+                    "total", Math.round(perPage.totalAmount()),
+                    "meanPerPage", round(perPage.mean())));
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("phases", phases);
+        summary.put("steps", steps);
+        summary.put("pages", pages);
+        summary.put("statementsPerPage", statements);
+        return summary;
+    }
+
+    private static String tag(WorkflowPhase phase) {
+        return phase.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * An open workflow phase measurement.
+     */
+    public static final class PhaseTimer implements AutoCloseable {
+        private final Timer timer;
+        private final long start = System.nanoTime();
+
+        private PhaseTimer(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public void close() {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * An open step measurement. Records the elapsed time minus the time of
+     * steps nested inside it.
+     */
+    public final class StepTimer implements AutoCloseable {
+        private final Timer timer;
+        private final long[] childNanos;
+        private final long start = System.nanoTime();
+
+        private StepTimer(Timer timer, long[] childNanos) {
+            this.timer = timer;
+            this.childNanos = childNanos;
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - start;
+            Deque<long[]> stack = openSteps.get();
+            stack.remove(childNanos);
+            long[] parent = stack.peek();
+            if (parent != null) {
+                parent[0] += elapsed;
+            }
+            timer.record(Math.max(0, elapsed - childNanos[0]), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package edu.minghualiu.oahspe.ingestion.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code /actuator/ingestion}: the ingestion meters as one
+ * JSON document. Individual meters are also available under
+ * {@code /actuator/metrics/oahspe.ingestion.*}.
+ *
+ * @see IngestionMetrics#summary()
+ */
+@Component
+@Endpoint(id = "ingestion")
+@RequiredArgsConstructor
+public class IngestionMetricsEndpoint {
+
+    private final IngestionMetrics ingestionMetrics;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return ingestionMetrics.summary();
+    }
+}
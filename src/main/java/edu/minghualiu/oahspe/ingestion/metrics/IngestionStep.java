@@ -0,0 +1,25 @@
+package edu.minghualiu.oahspe.ingestion.metrics;
+
+/**
+ * Per-page steps timed by {@link IngestionMetrics}.
+ */
+public enum IngestionStep {
+    TEXT_EXTRACTION("text-extraction"),
+    IMAGE_ENCODE("image-encode"),
+    PARSE("parse"),
+    PERSIST("persist"),
+    LINK("link");
+
+    private final String tag;
+
+    IngestionStep(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @return the value of the {@code step} tag on the step timer
+     */
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,31 @@
+package edu.minghualiu.oahspe.ingestion.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the JDBC statements Hibernate prepares, per thread.
+ *
+ * Registered through {@code hibernate.session_factory.statement_inspector},
+ * so Hibernate creates the instance; the count is static and thread-local.
+ * With JDBC batching a statement is prepared once per batch, so the count
+ * approximates database round trips rather than rows.
+ *
+ * @see IngestionMetrics#statementCount()
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return statements prepared on the current thread since it started
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
@@ -17,6 +17,12 @@ import java.util.regex.Pattern;
 @Service
 public class GlossaryParser {
     
+    /**
+     * Version of the parsing rules, recorded with every ingested page.
+     * Increment it whenever a change can alter the terms parsed from a page.
+     */
+    public static final int VERSION = 1;
+    
     // Pattern for glossary entries - typically term in uppercase/bold followed by definition
     // Example: "JEHOVIH: The Creator; the Supreme Being"
     private static final Pattern TERM_DEFINITION_PATTERN = 
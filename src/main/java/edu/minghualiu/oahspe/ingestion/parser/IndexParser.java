@@ -1,11 +1,14 @@
 package edu.minghualiu.oahspe.ingestion.parser;
 
 import edu.minghualiu.oahspe.entities.IndexEntry;
+import edu.minghualiu.oahspe.entities.PageRange;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -17,6 +20,12 @@ import java.util.regex.Pattern;
 @Service
 public class IndexParser {
     
+    /**
+     * Version of the parsing rules, recorded with every ingested page.
+     * Increment it whenever a change can alter the entries parsed from a page.
+     */
+    public static final int VERSION = 2;
+    
     // Pattern for index entries - topic followed by page numbers
     // Example: "Angels, 42, 108, 234-240"
     // Example: "Creation story, see also Genesis, 15, 67"
@@ -27,6 +36,11 @@ public class IndexParser {
     private static final Pattern CROSS_REF_PATTERN = 
             Pattern.compile("(.+?),\\s*see\\s+also\\s+(.+?),\\s*([0-9,\\s-]+)$", Pattern.CASE_INSENSITIVE);
     
+    // Pattern for one page reference: a page or a range of pages
+    // Example: "42", "234-240", "234-40" (end abbreviated as in printed indexes)
+    private static final Pattern PAGE_REFERENCE_PATTERN =
+            Pattern.compile("(\\d+)(?:\\s*[-\u2013]\\s*(\\d+))?");
+    
     /**
      * Parses an index page and extracts topic-page mappings.
      * 
@@ -131,6 +145,7 @@ public class IndexParser {
             return IndexEntry.builder()
                     .topic(fullTopic)
                     .pageReferences(pageRefs)
+                    .pageRanges(parsePageReferences(pageRefs))
                     .build();
         }
         
@@ -143,6 +158,7 @@ public class IndexParser {
             return IndexEntry.builder()
                     .topic(topic)
                     .pageReferences(pageRefs)
+                    .pageRanges(parsePageReferences(pageRefs))
                     .build();
         }
         
@@ -169,7 +185,51 @@ public class IndexParser {
         return IndexEntry.builder()
                 .topic(topic.trim())
                 .pageReferences(references.trim())
+                .pageRanges(parsePageReferences(references))
                 .extractedFromPage(pageNumber)
                 .build();
     }
+    
+    /**
+     * Parses comma-separated page references into ranges.
+     * An abbreviated range end takes the leading digits of its start
+     * ("234-40" is 234-240). Duplicates and references that are not pages,
+     * or whose end precedes their start, are dropped.
+     * 
+     * @param references the page references, e.g. "42, 108, 234-240"
+     * @return the ranges in citation order; empty if there are none
+     */
+    public List<PageRange> parsePageReferences(String references) {
+        Set<PageRange> ranges = new LinkedHashSet<>();
+        if (references == null) {
+            return new ArrayList<>();
+        }
+        
+        for (String reference : references.split(",")) {
+            Matcher matcher = PAGE_REFERENCE_PATTERN.matcher(reference.trim());
+            if (!matcher.matches()) {
+                if (!reference.isBlank()) {
+                    log.debug("Skipping page reference '{}'", reference.trim());
+                }
+                continue;
+            }
+            String start = matcher.group(1);
+            String end = matcher.group(2);
+            if (end != null && end.length() < start.length()) {
+                end = start.substring(0, start.length() - end.length()) + end;
+            }
+            try {
+                int startPage = Integer.parseInt(start);
+                int endPage = end != null ? Integer.parseInt(end) : startPage;
+                if (endPage < startPage) {
+                    log.debug("Skipping reversed page range '{}'", reference.trim());
+                    continue;
+                }
+                ranges.add(new PageRange(startPage, endPage));
+            } catch (NumberFormatException e) {
+                log.debug("Skipping page reference '{}': {}", reference.trim(), e.getMessage());
+            }
+        }
+        return new ArrayList<>(ranges);
+    }
 }
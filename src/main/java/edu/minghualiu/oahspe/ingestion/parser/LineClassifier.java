@@ -0,0 +1,95 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+/**
+ * Allocation-free pre-classification of trimmed OAHSPE text lines.
+ *
+ * Looks only at the first characters (and, for Chinese book titles, the last
+ * character) of a line to decide which single OahspeParser pattern could
+ * possibly match it. The checks are necessary conditions of the corresponding
+ * regex: a line rejected here can never match that pattern, so the parser
+ * only runs the regex to confirm a candidate. Most lines in the corpus are
+ * continuation text and are rejected without creating a Matcher.
+ *
+ * <h2>Candidate Rules</h2>
+ * <ul>
+ *   <li>Book: starts with "Book of ", or ends with 书 and contains 之</li>
+ *   <li>Chapter: starts with "Chapter", or starts with 第 and ends with 章</li>
+ *   <li>Verse: leading digits followed by '/'</li>
+ *   <li>Note: starts with '(', or one digit followed by ')'</li>
+ *   <li>Image: starts with 'i' followed by a digit</li>
+ * </ul>
+ *
+ * The book check is separate because a Chinese book title can start with any
+ * character; the parser tests it before dispatching on the first character,
+ * keeping the Book → Chapter → Verse → Note → Image precedence.
+ *
+ * @see OahspeParser
+ */
+final class LineClassifier {
+
+    /**
+     * The one pattern, besides Book, that a line may match.
+     */
+    enum Rule {
+        CHAPTER,
+        VERSE,
+        NOTE,
+        IMAGE,
+        /** No pattern can match; the line is continuation text */
+        TEXT
+    }
+
+    private static final String BOOK_PREFIX = "Book of ";
+    private static final String CHAPTER_PREFIX = "Chapter";
+
+    private LineClassifier() {
+    }
+
+    /**
+     * Whether the line could be a book title.
+     *
+     * @param line a trimmed, non-empty line
+     * @return false if BOOK_PATTERN cannot match
+     */
+    static boolean isBookCandidate(String line) {
+        if (line.length() > BOOK_PREFIX.length() && line.startsWith(BOOK_PREFIX)) {
+            return true;
+        }
+        return line.charAt(line.length() - 1) == '书' && line.indexOf('之') >= 0;
+    }
+
+    /**
+     * Picks the only non-book pattern that could match the line.
+     *
+     * @param line a trimmed, non-empty line
+     * @return the candidate rule, or TEXT if no pattern can match
+     */
+    static Rule candidate(String line) {
+        char first = line.charAt(0);
+        int length = line.length();
+
+        if (isDigit(first)) {
+            if (length > 1 && line.charAt(1) == ')') {
+                return Rule.NOTE;
+            }
+            int i = 1;
+            while (i < length && isDigit(line.charAt(i))) {
+                i++;
+            }
+            return i < length && line.charAt(i) == '/' ? Rule.VERSE : Rule.TEXT;
+        }
+
+        return switch (first) {
+            case '(' -> Rule.NOTE;
+            case 'C' -> line.startsWith(CHAPTER_PREFIX) ? Rule.CHAPTER : Rule.TEXT;
+            case '第' -> line.charAt(length - 1) == '章' ? Rule.CHAPTER : Rule.TEXT;
+            case 'i' -> length > 1 && isDigit(line.charAt(1)) ? Rule.IMAGE : Rule.TEXT;
+            default -> Rule.TEXT;
+        };
+    }
+
+    // Same set as the regex \d (ASCII digits only)
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
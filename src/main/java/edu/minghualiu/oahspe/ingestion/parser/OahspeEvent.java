@@ -24,7 +24,7 @@ package edu.minghualiu.oahspe.ingestion.parser;
  * <pre>{@code
  * OahspeParser parser = new OahspeParser();
  * List<String> lines = Arrays.asList("Book of Apollo", "Chapter 7", "14/7.1 Text...");
- * List<OahspeEvent> events = parser.parse(lines, 1);
+ * List<OahspeEvent> events = parser.parse(parser.newSession(), lines, 1);
  * 
  * events.forEach(event -> {
  *     switch (event) {
@@ -0,0 +1,28 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+/**
+ * Receives the events of a page as {@link OahspeParser} detects them.
+ *
+ * Passing a sink to {@link OahspeParser#parse(ParserSession, String, int, OahspeEventSink)}
+ * lets the consumer act on each event while the page is being parsed,
+ * without an intermediate event list.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * int count = parser.parse(session, page.getRawText(), page.getPageNumber(),
+ *         event -> log.debug("Event: {}", event));
+ * }</pre>
+ *
+ * @see OahspeParser
+ * @see OahspeEvent
+ */
+@FunctionalInterface
+public interface OahspeEventSink {
+
+    /**
+     * Called once per event, in the order the events are detected.
+     *
+     * @param event the event
+     */
+    void accept(OahspeEvent event);
+}
@@ -25,15 +25,40 @@ import java.util.regex.Pattern;
  * the same output. It also handles continuation lines intelligently based on
  * the current parsing state.
  * 
- * Thread safety: Each call to parse() resets internal state, making the
- * parser safe for concurrent use across different parse jobs.
+ * Each line is first classified by its leading characters
+ * ({@link LineClassifier}); only the single candidate pattern is then
+ * confirmed with its regex. Continuation lines, the bulk of the text,
+ * never reach a regex.
+ * 
+ * Streaming: {@link #parse(ParserSession, String, int, OahspeEventSink)}
+ * reads the lines of a page's text in place and hands each event to a sink
+ * as soon as it is detected, so no line array or event list is built. The
+ * list-based {@link #parse(ParserSession, List, int)} is a thin adapter over
+ * the same state machine.
+ * 
+ * Thread safety: The parser holds no mutable state of its own. State that
+ * carries across pages lives in a {@link ParserSession}; each ingestion run
+ * creates one with {@link #newSession()} and passes it to
+ * {@link #parse(ParserSession, List, int)}. Runs with separate sessions can
+ * use the same parser instance concurrently.
+ * 
+ * The session-less methods ({@link #parse(List, int)}, {@link #getState()},
+ * {@link #setState(ParserState)}, {@link #resetState()}) operate on a single
+ * shared default session and are not safe for concurrent use.
  */
 @Component
 public class OahspeParser {
 
     private static final Logger log = LoggerFactory.getLogger(OahspeParser.class);
 
-    // Regex Patterns (precompiled for performance)
+    /**
+     * Version of the parsing rules, recorded with every ingested page.
+     * Increment it whenever a change can alter the events produced for a page,
+     * so that {@code --reingest-changed} rebuilds the affected pages.
+     */
+    public static final int VERSION = 1;
+
+    // Regex Patterns (precompiled; each runs only to confirm a LineClassifier candidate)
     
     /**
      * Pattern for detecting book titles.
@@ -79,14 +104,40 @@ public class OahspeParser {
     private static final Pattern IMAGE_PATTERN = 
         Pattern.compile("^i(\\d{3})\\s+(.*)$");
 
-    // Parser state (reset on each parse call)
-    private ParserState state = ParserState.OUTSIDE_BOOK;
+    // Backs the legacy session-less methods only
+    private final ParserSession defaultSession = new ParserSession();
+
+    /**
+     * Creates a new parsing session starting in OUTSIDE_BOOK.
+     * Each ingestion run should own exactly one session.
+     * 
+     * @return a fresh session
+     */
+    public ParserSession newSession() {
+        return new ParserSession();
+    }
+
+    /**
+     * Parse a list of text lines using the parser's shared default session.
+     * 
+     * @param lines the text lines to parse (typically one page from PDF)
+     * @param pageNumber the source page number (included in PageBreak event)
+     * @return list of OahspeEvent objects emitted during parsing, in order
+     * @throws IllegalArgumentException if lines is null
+     * @deprecated The default session is shared by all callers of this instance.
+     *             Use {@link #parse(ParserSession, List, int)} with a session from {@link #newSession()}.
+     */
+    @Deprecated
+    public List<OahspeEvent> parse(List<String> lines, int pageNumber) {
+        return parse(defaultSession, lines, pageNumber);
+    }
 
     /**
      * Parse a list of text lines from a PDF page and emit OahspeEvent stream.
      * 
-     * The parser resets its state on each call, making it safe for processing
-     * multiple pages independently. Events are emitted in the order detected.
+     * State is read from and written back to the session, so context carries
+     * over from the previous page of the same run. Events are emitted in the
+     * order detected.
      * 
      * The parser implements a deterministic finite state machine:
      * <ul>
@@ -108,7 +159,8 @@ public class OahspeParser {
      *     "(1) This refers to creation",
      *     "i003 Divine throne"
      * );
-     * List<OahspeEvent> events = parser.parse(lines, 1);
+     * ParserSession session = parser.newSession();
+     * List<OahspeEvent> events = parser.parse(session, lines, 1);
      * 
      * // Process events using pattern matching (Java 17+)
      * events.forEach(event -> {
@@ -134,171 +186,308 @@ public class OahspeParser {
      * });
      * }</pre>
      * 
+     * @param session the run's parsing session (state is preserved across pages)
      * @param lines the text lines to parse (typically one page from PDF)
      * @param pageNumber the source page number (included in PageBreak event)
      * @return list of OahspeEvent objects emitted during parsing, in order
-     * @throws IllegalArgumentException if lines is null
+     * @throws IllegalArgumentException if session or lines is null
      * 
      * @see OahspeEvent
      * @see ParserState
+     * @see ParserSession
      */
-    public List<OahspeEvent> parse(List<String> lines, int pageNumber) {
+    public List<OahspeEvent> parse(ParserSession session, List<String> lines, int pageNumber) {
         if (lines == null) {
             throw new IllegalArgumentException("lines cannot be null");
         }
-
         List<OahspeEvent> events = new ArrayList<>();
-        // Do NOT reset state - preserve context across pages
-        // state = ParserState.OUTSIDE_BOOK;
+        parse(session, lines, pageNumber, events::add);
+        return events;
+    }
 
-        // Always emit page break first
-        events.add(new OahspeEvent.PageBreak(pageNumber));
-        log.debug("Processing page {} with {} lines, starting in state {}", pageNumber, lines.size(), state);
+    /**
+     * Parse a list of text lines, handing each event to a sink as it is detected.
+     * 
+     * Behaves exactly like {@link #parse(ParserSession, List, int)}; the
+     * events go to the sink instead of a list.
+     * 
+     * @param session the run's parsing session (state is preserved across pages)
+     * @param lines the text lines to parse (typically one page from PDF)
+     * @param pageNumber the source page number (included in PageBreak event)
+     * @param sink receives the events, in order
+     * @return number of events emitted
+     * @throws IllegalArgumentException if session, lines or sink is null
+     */
+    public int parse(ParserSession session, List<String> lines, int pageNumber, OahspeEventSink sink) {
+        if (lines == null) {
+            throw new IllegalArgumentException("lines cannot be null");
+        }
+        PageParse page = startPage(session, pageNumber, sink);
+        log.debug("Processing page {} with {} lines, starting in state {}", pageNumber, lines.size(), page.state);
 
         for (String line : lines) {
             line = line.trim();
             
             // Skip empty lines
-            if (line.isEmpty()) {
-                continue;
+            if (!line.isEmpty()) {
+                page.line(line);
             }
+        }
 
-            log.trace("Processing line: {}", line);
+        return finishPage(session, pageNumber, page);
+    }
 
-            // Try patterns in order: Book → Chapter → Verse → Note → Image → Continuation
+    /**
+     * Parse the text of a page, handing each event to a sink as it is detected.
+     * 
+     * Lines are read from the text in place: it is split at {@code \n} (a
+     * preceding {@code \r} is trimmed with the rest of the surrounding
+     * whitespace), and only non-empty lines are copied out. The result is the
+     * same as passing {@code text.split("\\r?\\n")} to
+     * {@link #parse(ParserSession, List, int, OahspeEventSink)}.
+     * 
+     * <h2>Usage Example</h2>
+     * <pre>{@code
+     * ParserSession session = parser.newSession();
+     * for (PageContent page : pages) {
+     *     parser.parse(session, page.getRawText(), page.getPageNumber(), ingestionSink);
+     * }
+     * }</pre>
+     * 
+     * @param session the run's parsing session (state is preserved across pages)
+     * @param text the page text
+     * @param pageNumber the source page number (included in PageBreak event)
+     * @param sink receives the events, in order
+     * @return number of events emitted
+     * @throws IllegalArgumentException if session, text or sink is null
+     */
+    public int parse(ParserSession session, String text, int pageNumber, OahspeEventSink sink) {
+        if (text == null) {
+            throw new IllegalArgumentException("text cannot be null");
+        }
+        PageParse page = startPage(session, pageNumber, sink);
+        log.debug("Processing page {} with {} chars, starting in state {}", pageNumber, text.length(), page.state);
 
-            // Pattern 1: Book Title
-            Matcher bookMatcher = BOOK_PATTERN.matcher(line);
-            if (bookMatcher.matches()) {
-                state = ParserState.IN_BOOK;
-                OahspeEvent.BookStart event = new OahspeEvent.BookStart(line);
-                events.add(event);
-                log.debug("Detected book: {}", line);
-                continue;
+        int length = text.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
             }
+            int next = lineEnd + 1;
 
-            // Pattern 2: Chapter Header
-            Matcher chapterMatcher = CHAPTER_PATTERN.matcher(line);
-            if (chapterMatcher.matches()) {
-                ParserState oldState = state;
-                state = ParserState.IN_CHAPTER;
-                OahspeEvent.ChapterStart event = new OahspeEvent.ChapterStart(line);
-                events.add(event);
-                log.debug("State transition: {} -> {}", oldState, state);
-                log.debug("Detected chapter: {}", line);
-                continue;
+            // Same bounds as String.trim(), without creating the untrimmed line
+            while (lineStart < lineEnd && text.charAt(lineStart) <= ' ') {
+                lineStart++;
             }
-
-            // Pattern 3: Verse (with marker)
-            Matcher verseMatcher = VERSE_PATTERN.matcher(line);
-            if (verseMatcher.matches()) {
-                String verseKey = verseMatcher.group(1);
-                String verseText = verseMatcher.group(2);
-                ParserState oldState = state;
-                state = ParserState.IN_VERSE;
-                OahspeEvent.Verse event = new OahspeEvent.Verse(verseKey, verseText);
-                events.add(event);
-                log.debug("State transition: {} -> {}", oldState, state);
-                log.debug("Detected verse: {} with {} chars", verseKey, verseText.length());
-                continue;
+            while (lineEnd > lineStart && text.charAt(lineEnd - 1) <= ' ') {
+                lineEnd--;
             }
-
-            // Pattern 4: Note (with number)
-            Matcher noteMatcher = NOTE_PATTERN.matcher(line);
-            if (noteMatcher.matches()) {
-                String noteKey = noteMatcher.group(1);
-                String noteText = noteMatcher.group(2);
-                // Avoid matching false positives: notes should start with (N) or N)
-                // Check if line actually starts with note marker pattern
-                if (line.startsWith("(") || (line.charAt(0) >= '0' && line.charAt(0) <= '9' && line.length() > 1 && line.charAt(1) == ')')) {
-                    ParserState oldState = state;
-                    state = ParserState.IN_NOTE;
-                    OahspeEvent.Note event = new OahspeEvent.Note(noteKey, noteText);
-                    events.add(event);
-                    log.debug("State transition: {} -> {}", oldState, state);
-                    continue;
-                }
+            
+            // Skip empty lines
+            if (lineStart < lineEnd) {
+                page.line(text.substring(lineStart, lineEnd));
             }
+            lineStart = next;
+        }
 
-            // Pattern 5: Image Reference
-            Matcher imageMatcher = IMAGE_PATTERN.matcher(line);
-            if (imageMatcher.matches()) {
-                String imageNumber = imageMatcher.group(1);
-                String caption = imageMatcher.group(2);
-                String imageKey = "IMG" + imageNumber; // Add IMG prefix
-                OahspeEvent.ImageRef event = new OahspeEvent.ImageRef(imageKey, caption);
-                events.add(event);
-                log.debug("Detected image: i{} - {}", imageNumber, caption);
-                continue;
-            }
+        return finishPage(session, pageNumber, page);
+    }
 
-            // Pattern 6: Continuation lines (context-dependent)
-            handleContinuationLine(line, events);
+    /**
+     * Reads the session's state and emits the page break that starts every page.
+     */
+    private PageParse startPage(ParserSession session, int pageNumber, OahspeEventSink sink) {
+        if (session == null) {
+            throw new IllegalArgumentException("session cannot be null");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("sink cannot be null");
         }
+        // Do NOT reset state - preserve context across pages
+        PageParse page = new PageParse(session.getState(), sink);
 
-        log.debug("Completed parsing page {} - emitted {} events", pageNumber, events.size());
-        return events;
+        // Always emit page break first
+        page.emit(new OahspeEvent.PageBreak(pageNumber));
+        return page;
     }
 
     /**
-     * Handle continuation lines based on parser state.
-     * 
-     * Continuation lines are text that doesn't match any pattern but belongs to
-     * the current context (e.g., multi-line verses or multi-line notes).
-     * 
-     * <h2>Behavior by State</h2>
-     * <ul>
-     *   <li>IN_VERSE: Creates Verse event with null verseKey (continuation marker)</li>
-     *   <li>IN_NOTE: Creates Note event with null noteKey (continuation marker)</li>
-     *   <li>OUTSIDE_BOOK, IN_BOOK, IN_CHAPTER: Lines are logged as unexpected</li>
-     * </ul>
-     * 
-     * @param line the continuation line text
-     * @param events the event list to append to
+     * Writes the page's final state back to the session.
      */
-    private void handleContinuationLine(String line, List<OahspeEvent> events) {
-        switch (state) {
-            case IN_VERSE -> {
-                OahspeEvent.Verse event = new OahspeEvent.Verse(null, line);
-                events.add(event);
-                log.trace("Continuation verse: {}", line);
+    private int finishPage(ParserSession session, int pageNumber, PageParse page) {
+        session.setState(page.state);
+        session.setLastPageNumber(pageNumber);
+        log.debug("Completed parsing page {} - emitted {} events", pageNumber, page.events);
+        return page.events;
+    }
+
+    /**
+     * State machine position and event count while one page is parsed.
+     */
+    private static final class PageParse {
+
+        private final OahspeEventSink sink;
+        private ParserState state;
+        private int events;
+
+        PageParse(ParserState state, OahspeEventSink sink) {
+            this.state = state;
+            this.sink = sink;
+        }
+
+        void emit(OahspeEvent event) {
+            sink.accept(event);
+            events++;
+        }
+
+        /**
+         * Classifies one line and emits its event, if any.
+         * 
+         * @param line a trimmed, non-empty line
+         */
+        void line(String line) {
+            log.trace("Processing line: {}", line);
+
+            // Try patterns in order: Book → Chapter → Verse → Note → Image → Continuation.
+            // The classifier rules out every pattern but one without running a regex.
+
+            // Pattern 1: Book Title
+            if (LineClassifier.isBookCandidate(line) && BOOK_PATTERN.matcher(line).matches()) {
+                state = ParserState.IN_BOOK;
+                emit(new OahspeEvent.BookStart(line));
+                log.debug("Detected book: {}", line);
+                return;
             }
-            case IN_NOTE -> {
-                OahspeEvent.Note event = new OahspeEvent.Note(null, line);
-                events.add(event);
-                log.trace("Continuation note: {}", line);
+
+            switch (LineClassifier.candidate(line)) {
+                // Pattern 2: Chapter Header
+                case CHAPTER -> {
+                    if (CHAPTER_PATTERN.matcher(line).matches()) {
+                        ParserState oldState = state;
+                        state = ParserState.IN_CHAPTER;
+                        emit(new OahspeEvent.ChapterStart(line));
+                        log.debug("State transition: {} -> {}", oldState, state);
+                        log.debug("Detected chapter: {}", line);
+                        return;
+                    }
+                }
+
+                // Pattern 3: Verse (with marker)
+                case VERSE -> {
+                    Matcher verseMatcher = VERSE_PATTERN.matcher(line);
+                    if (verseMatcher.matches()) {
+                        String verseKey = verseMatcher.group(1);
+                        String verseText = verseMatcher.group(2);
+                        ParserState oldState = state;
+                        state = ParserState.IN_VERSE;
+                        emit(new OahspeEvent.Verse(verseKey, verseText));
+                        log.debug("State transition: {} -> {}", oldState, state);
+                        log.debug("Detected verse: {} with {} chars", verseKey, verseText.length());
+                        return;
+                    }
+                }
+
+                // Pattern 4: Note (with number). The classifier only offers lines
+                // starting with (N) or N), which rules out false positives like "12 men"
+                case NOTE -> {
+                    Matcher noteMatcher = NOTE_PATTERN.matcher(line);
+                    if (noteMatcher.matches()) {
+                        String noteKey = noteMatcher.group(1);
+                        String noteText = noteMatcher.group(2);
+                        ParserState oldState = state;
+                        state = ParserState.IN_NOTE;
+                        emit(new OahspeEvent.Note(noteKey, noteText));
+                        log.debug("State transition: {} -> {}", oldState, state);
+                        return;
+                    }
+                }
+
+                // Pattern 5: Image Reference
+                case IMAGE -> {
+                    Matcher imageMatcher = IMAGE_PATTERN.matcher(line);
+                    if (imageMatcher.matches()) {
+                        String imageNumber = imageMatcher.group(1);
+                        String caption = imageMatcher.group(2);
+                        String imageKey = "IMG" + imageNumber; // Add IMG prefix
+                        emit(new OahspeEvent.ImageRef(imageKey, caption));
+                        log.debug("Detected image: i{} - {}", imageNumber, caption);
+                        return;
+                    }
+                }
+
+                case TEXT -> {
+                }
             }
-            case OUTSIDE_BOOK, IN_BOOK, IN_CHAPTER -> {
-                log.warn("Unexpected line content in state {}: {}", state, line);
+
+            // Pattern 6: Continuation lines (context-dependent)
+            continuationLine(line);
+        }
+
+        /**
+         * Handle continuation lines based on parser state.
+         * 
+         * Continuation lines are text that doesn't match any pattern but belongs to
+         * the current context (e.g., multi-line verses or multi-line notes).
+         * 
+         * <h2>Behavior by State</h2>
+         * <ul>
+         *   <li>IN_VERSE: Creates Verse event with null verseKey (continuation marker)</li>
+         *   <li>IN_NOTE: Creates Note event with null noteKey (continuation marker)</li>
+         *   <li>OUTSIDE_BOOK, IN_BOOK, IN_CHAPTER: Lines are logged as unexpected</li>
+         * </ul>
+         * 
+         * @param line the continuation line text
+         */
+        private void continuationLine(String line) {
+            switch (state) {
+                case IN_VERSE -> {
+                    emit(new OahspeEvent.Verse(null, line));
+                    log.trace("Continuation verse: {}", line);
+                }
+                case IN_NOTE -> {
+                    emit(new OahspeEvent.Note(null, line));
+                    log.trace("Continuation note: {}", line);
+                }
+                case OUTSIDE_BOOK, IN_BOOK, IN_CHAPTER -> {
+                    log.warn("Unexpected line content in state {}: {}", state, line);
+                }
             }
         }
     }
 
     /**
-     * Get the current parser state. Primarily for testing.
+     * Get the state of the default session. Primarily for testing.
      * 
      * @return the current parsing state
+     * @deprecated Use {@link ParserSession#getState()}.
      */
+    @Deprecated
     public ParserState getState() {
-        return state;
+        return defaultSession.getState();
     }
     
     /**
-     * Reset the parser state to OUTSIDE_BOOK.
-     * Call this at the start of a new ingestion session.
+     * Reset the default session to OUTSIDE_BOOK.
+     * 
+     * @deprecated Create a new session with {@link #newSession()} for each run.
      */
+    @Deprecated
     public void resetState() {
-        state = ParserState.OUTSIDE_BOOK;
+        defaultSession.reset();
         log.debug("Parser state reset to OUTSIDE_BOOK");
     }
     
     /**
-     * Set the parser state. Used for resuming from a known state.
+     * Set the state of the default session. Used for resuming from a known state.
      * 
      * @param newState the state to set
+     * @deprecated Use {@link ParserSession#setState(ParserState)}.
      */
+    @Deprecated
     public void setState(ParserState newState) {
-        state = newState;
-        log.debug("Parser state set to {}", state);
+        defaultSession.setState(newState);
+        log.debug("Parser state set to {}", newState);
     }
 }
@@ -0,0 +1,88 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+/**
+ * Mutable parsing context for one ingestion run.
+ * 
+ * OahspeParser itself is stateless; everything that must survive from one
+ * page to the next (the state machine position, the last page seen) lives
+ * here. Each run obtains its own session from {@link OahspeParser#newSession()}
+ * and passes it to every {@link OahspeParser#parse(ParserSession, java.util.List, int)}
+ * call, so independent runs can share the singleton parser across threads.
+ * 
+ * A session is not thread-safe: pages of one run must be parsed in order by
+ * one thread at a time.
+ * 
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * ParserSession session = parser.newSession();
+ * for (PageContent page : pages) {
+ *     List<OahspeEvent> events = parser.parse(session, lines(page), page.getPageNumber());
+ *     ...
+ * }
+ * }</pre>
+ * 
+ * @see OahspeParser
+ * @see ParserState
+ */
+public class ParserSession {
+
+    private ParserState state = ParserState.OUTSIDE_BOOK;
+
+    /** Last page parsed in this session, 0 if none */
+    private int lastPageNumber;
+
+    /**
+     * Creates a session starting in OUTSIDE_BOOK.
+     * Prefer {@link OahspeParser#newSession()}.
+     */
+    public ParserSession() {
+    }
+
+    /**
+     * Creates a session resuming from a known state.
+     * 
+     * @param state the state to resume from
+     */
+    public ParserSession(ParserState state) {
+        this.state = state;
+    }
+
+    /**
+     * Get the current parser state.
+     * 
+     * @return the current parsing state
+     */
+    public ParserState getState() {
+        return state;
+    }
+
+    /**
+     * Set the parser state. Used for resuming from a known state.
+     * 
+     * @param state the state to set
+     */
+    public void setState(ParserState state) {
+        this.state = state;
+    }
+
+    /**
+     * Get the last page parsed in this session.
+     * 
+     * @return the page number, or 0 if no page has been parsed
+     */
+    public int getLastPageNumber() {
+        return lastPageNumber;
+    }
+
+    void setLastPageNumber(int lastPageNumber) {
+        this.lastPageNumber = lastPageNumber;
+    }
+
+    /**
+     * Reset the session to OUTSIDE_BOOK, as if newly created.
+     */
+    public void reset() {
+        state = ParserState.OUTSIDE_BOOK;
+        lastPageNumber = 0;
+    }
+}
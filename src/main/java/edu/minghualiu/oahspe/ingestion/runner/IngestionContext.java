@@ -1,5 +1,6 @@
 package edu.minghualiu.oahspe.ingestion.runner;
 
+import edu.minghualiu.oahspe.ingestion.parser.ParserSession;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -48,6 +49,9 @@ public class IngestionContext {
     /** List of error messages per page (format: "Page N: error description") */
     private List<String> pageErrors;
 
+    /** Parser state carried across the pages of this run, owned by this context */
+    private ParserSession parserSession;
+
     /**
      * Constructs an empty IngestionContext.
      * Fields should be populated before/during ingestion process.
@@ -1,18 +1,19 @@
 package edu.minghualiu.oahspe.ingestion.runner;
 
 import edu.minghualiu.oahspe.entities.Image;
+import edu.minghualiu.oahspe.entities.WorkflowPhase;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionMetrics;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionStep;
 import edu.minghualiu.oahspe.ingestion.parser.OahspeParser;
-import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
 import edu.minghualiu.oahspe.ingestion.OahspeIngestionService;
+import edu.minghualiu.oahspe.ingestion.runner.PDFImageExtractor.EncodedPageImage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.annotation.Propagation;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.Arrays;
 
 /**
  * Main orchestrator service for end-to-end PDF ingestion workflow.
@@ -37,6 +38,16 @@ import java.util.Arrays;
  *   - Creates/persists Book, Chapter, Verse, Note, Image entities
  *   - Manages entity relationships and state transitions
  *
+ * Pipelined mode ({@link #ingestPdfWithProgress(String, ProgressCallback, int)}):
+ *   - A pool of workers extracts text and encodes images, each with its own
+ *     copy of the PDF, in small page batches. Workers are platform or virtual
+ *     threads as configured in {@link PageTaskExecutor}
+ *   - The calling thread is the only database writer: it parses each page and
+ *     saves its images and entities strictly in page order, because the parser
+ *     state carries over from one page to the next
+ *   - At most two batches per worker wait for the writer, so extraction
+ *     pauses when the database falls behind
+ *
  * Page-by-page processing allows:
  * - Memory-efficient handling of large PDFs
  * - Per-page error tracking and recovery
@@ -53,10 +64,19 @@ import java.util.Arrays;
 @Service
 @RequiredArgsConstructor
 public class OahspeIngestionRunner {
+
+    /** Pages handed to a worker at a time in pipelined mode */
+    private static final int PIPELINE_BATCH_SIZE = 20;
+
+    /** Pages stripped in one pass in sequential mode */
+    private static final int SEQUENTIAL_RANGE_SIZE = 50;
+
     private final PDFTextExtractor pdfExtractor;
     private final PDFImageExtractor imageExtractor;
     private final OahspeParser parser;
     private final OahspeIngestionService ingestionService;
+    private final IngestionMetrics ingestionMetrics;
+    private final PageTaskExecutor pageTaskExecutor;
 
     /**
      * Ingests a PDF file into the database end-to-end.
@@ -113,60 +133,144 @@ public class OahspeIngestionRunner {
             String pdfFilePath,
             ProgressCallback progressCallback) throws PDFExtractionException {
 
-        IngestionContext context = new IngestionContext(
-                pdfFilePath,
-                pdfExtractor.getPageCount(pdfFilePath)
-        );
+        try (PdfDocumentSession session = pdfExtractor.openSession(pdfFilePath)) {
+            IngestionContext context = new IngestionContext(
+                    pdfFilePath,
+                    session.getPageCount()
+            );
+            context.setParserSession(parser.newSession());
 
-        log.info("Starting PDF ingestion: {} ({} pages)", pdfFilePath, context.getTotalPages());
-        
-        // Initialize image counter from database for idempotent restart
-        imageExtractor.initializeImageCounter();
+            log.info("Starting PDF ingestion: {} ({} pages)", pdfFilePath, context.getTotalPages());
+
+            // Initialize image counter from database for idempotent restart
+            imageExtractor.initializeImageCounter();
 
-        for (int pageNum = 1; pageNum <= context.getTotalPages(); pageNum++) {
-            context.setCurrentPageNumber(pageNum);
+            for (int firstPage = 1; firstPage <= context.getTotalPages(); firstPage += SEQUENTIAL_RANGE_SIZE) {
+                int lastPage = Math.min(firstPage + SEQUENTIAL_RANGE_SIZE - 1, context.getTotalPages());
+                ingestPageRange(session, firstPage, lastPage, context, progressCallback);
+            }
 
-            // Notify callback of page start
+            // Notify callback of completion
             if (progressCallback != null) {
                 try {
-                    progressCallback.onPageStart(pageNum, context.getTotalPages());
+                    progressCallback.onIngestionComplete(context);
                 } catch (Exception e) {
-                    log.warn("Progress callback onPageStart failed", e);
+                    log.warn("Progress callback onIngestionComplete failed", e);
                 }
             }
 
-            try {
-                processSinglePage(pageNum, context);
-
-                // Notify callback of success
-                if (progressCallback != null) {
-                    try {
-                        progressCallback.onPageComplete(pageNum, 
-                                context.getTotalEventsProcessed());
-                    } catch (Exception e) {
-                        log.warn("Progress callback onPageComplete failed", e);
-                    }
-                }
-            } catch (Exception e) {
-                String errorMsg = String.format("Page %d processing failed: %s", 
-                        pageNum, e.getMessage());
-                context.addPageError(pageNum, e.getMessage());
-                log.warn(errorMsg, e);
-
-                // Notify callback of error
-                if (progressCallback != null) {
-                    try {
-                        progressCallback.onPageError(pageNum, e);
-                    } catch (Exception callbackErr) {
-                        log.warn("Progress callback onPageError failed", callbackErr);
-                    }
+            log.info("PDF ingestion complete: {} - Events: {}, Images: {}, Errors: {}, Time: {}ms",
+                    pdfFilePath,
+                    context.getTotalEventsProcessed(),
+                    context.getTotalImagesExtracted(),
+                    context.getTotalErrorsEncountered(),
+                    context.getElapsedTime());
+
+            return context;
+        }
+    }
+
+    /**
+     * Sequential mode: strips a page range in one pass and processes each page
+     * as soon as its text is available. The page steps are timed separately
+     * and subtracted from the extraction time.
+     *
+     * If the pass fails, the pages it did not reach are extracted and
+     * processed one by one, so an unreadable page is recorded as a page error
+     * and the pages after it still run.
+     */
+    private void ingestPageRange(PdfDocumentSession session, int firstPage, int lastPage,
+                                 IngestionContext context, ProgressCallback progressCallback) {
+        int[] nextPage = {firstPage};
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.TEXT_EXTRACTION)) {
+            session.streamPageText(firstPage, lastPage, (pageNum, pageText) -> {
+                processPage(session, pageNum, pageText, context, progressCallback);
+                nextPage[0] = pageNum + 1;
+            });
+            return;
+        } catch (PDFExtractionException e) {
+            log.warn("Text extraction failed for pages {}-{}, retrying pages {}-{} one by one: {}",
+                    firstPage, lastPage, nextPage[0], lastPage, e.getMessage());
+        }
+
+        for (int pageNum = nextPage[0]; pageNum <= lastPage; pageNum++) {
+            final int pageNumber = pageNum;
+            processPage(pageNum, context, progressCallback, () -> {
+                String pageText;
+                try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.TEXT_EXTRACTION)) {
+                    pageText = session.extractText(pageNumber);
                 }
-            }
+                processSinglePage(session, pageNumber, pageText, context);
+            });
+        }
+    }
 
-            // Reset for next book in case multiple books in PDF
-            ingestionService.finishIngestion();
+    /**
+     * Ingests a PDF file with extraction running ahead of the database writes.
+     *
+     * Workers extract the text and encode the images of {@value #PIPELINE_BATCH_SIZE}-page
+     * batches, each with its own open copy of the PDF. The calling thread
+     * writes the pages in order: it saves each page's images, parses its text
+     * and ingests the events, exactly as the sequential mode does, so the
+     * results are the same. At most two batches per worker are extracted ahead
+     * of the writer.
+     *
+     * A page whose extraction fails is recorded with
+     * {@link IngestionContext#addPageError} and skipped; the other pages still run.
+     *
+     * @param pdfFilePath path to the PDF file to ingest
+     * @param progressCallback optional callback for progress monitoring (can be null)
+     * @param threads number of extraction workers (1 = sequential mode)
+     * @return IngestionContext with completion status and metrics
+     * @throws PDFExtractionException if PDF file invalid or inaccessible
+     */
+    @Transactional
+    public IngestionContext ingestPdfWithProgress(
+            String pdfFilePath,
+            ProgressCallback progressCallback,
+            int threads) throws PDFExtractionException {
+        if (threads <= 1) {
+            return ingestPdfWithProgress(pdfFilePath, progressCallback);
         }
 
+        PdfDocumentSession firstSession = pdfExtractor.openSession(pdfFilePath);
+        int totalPages = firstSession.getPageCount();
+        IngestionContext context = new IngestionContext(pdfFilePath, totalPages);
+        context.setParserSession(parser.newSession());
+
+        log.info("Starting pipelined PDF ingestion: {} ({} pages, {} workers)",
+                pdfFilePath, totalPages, threads);
+
+        // Initialize image counter from database for idempotent restart
+        imageExtractor.initializeImageCounter();
+
+        pageTaskExecutor.runPdfBatches("pdf-extractor", threads, firstSession, pdfExtractor, PIPELINE_BATCH_SIZE,
+                new PageTaskExecutor.BatchHandler<List<ExtractedPage>>() {
+                    @Override
+                    public List<ExtractedPage> extract(PdfDocumentSession session, int firstPage, int lastPage) {
+                        return extractBatch(session, firstPage, lastPage);
+                    }
+
+                    @Override
+                    public void write(int firstPage, int lastPage, List<ExtractedPage> pages) {
+                        for (ExtractedPage page : pages) {
+                            processPage(page.pageNumber(), context, progressCallback,
+                                    () -> writeExtractedPage(page, context));
+                        }
+                    }
+
+                    @Override
+                    public void failed(int firstPage, int lastPage, Throwable cause) {
+                        for (int pageNum = firstPage; pageNum <= lastPage; pageNum++) {
+                            final int pageNumber = pageNum;
+                            processPage(pageNum, context, progressCallback, () -> {
+                                throw new PDFExtractionException(pdfFilePath, pageNumber,
+                                        "Extraction of pages " + firstPage + "-" + lastPage + " failed");
+                            });
+                        }
+                    }
+                });
+
         // Notify callback of completion
         if (progressCallback != null) {
             try {
@@ -176,7 +280,7 @@ public class OahspeIngestionRunner {
             }
         }
 
-        log.info("PDF ingestion complete: {} - Events: {}, Images: {}, Errors: {}, Time: {}ms",
+        log.info("Pipelined PDF ingestion complete: {} - Events: {}, Images: {}, Errors: {}, Time: {}ms",
                 pdfFilePath,
                 context.getTotalEventsProcessed(),
                 context.getTotalImagesExtracted(),
@@ -186,33 +290,165 @@ public class OahspeIngestionRunner {
         return context;
     }
 
+    /**
+     * Worker task: extracts the text and encodes the images of one batch.
+     * Touches no database state, so it can run ahead of the writer.
+     * If the batch's text cannot be extracted in one pass, its pages are
+     * extracted one by one and each failed page carries its own error.
+     */
+    private List<ExtractedPage> extractBatch(PdfDocumentSession session, int firstPage, int lastPage) {
+        List<String> texts = null;
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.TEXT_EXTRACTION)) {
+            texts = session.extractPageRange(firstPage, lastPage);
+        } catch (PDFExtractionException e) {
+            log.warn("Text extraction failed for pages {}-{}, retrying one by one: {}",
+                    firstPage, lastPage, e.getMessage());
+        }
+
+        List<ExtractedPage> pages = new ArrayList<>(lastPage - firstPage + 1);
+        for (int pageNum = firstPage; pageNum <= lastPage; pageNum++) {
+            String text;
+            if (texts != null) {
+                text = texts.get(pageNum - firstPage);
+            } else {
+                try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.TEXT_EXTRACTION)) {
+                    text = session.extractText(pageNum);
+                } catch (PDFExtractionException e) {
+                    pages.add(new ExtractedPage(pageNum, null, List.of(), e));
+                    continue;
+                }
+            }
+
+            List<EncodedPageImage> images;
+            try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.IMAGE_ENCODE)) {
+                images = imageExtractor.encodeImagesFromPage(session, pageNum);
+            } catch (Exception e) {
+                log.warn("Image extraction failed for page {}: {}", pageNum, e.getMessage());
+                images = List.of();
+            }
+            pages.add(new ExtractedPage(pageNum, text, images, null));
+        }
+        return pages;
+    }
+
+    /**
+     * Writer step for one extracted page: saves its images, then parses and
+     * ingests its text.
+     */
+    private void writeExtractedPage(ExtractedPage page, IngestionContext context) throws PDFExtractionException {
+        if (page.error() != null) {
+            throw page.error();
+        }
+
+        int pageNumber = page.pageNumber();
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PERSIST)) {
+            List<Image> images = imageExtractor.saveImages(pageNumber, page.images(), context);
+            context.addExtractedImages(images.size());
+        } catch (Exception e) {
+            log.warn("Image extraction failed for page {}: {}", pageNumber, e.getMessage());
+            // Continue processing text even if image extraction fails
+        }
+
+        ingestPageText(pageNumber, page.text(), context);
+    }
+
+    /** Text and encoded images of one page, produced by a worker, or the error that prevented it. */
+    private record ExtractedPage(int pageNumber, String text, List<EncodedPageImage> images,
+                                 PDFExtractionException error) {
+    }
+
+    /** The part of a page's processing that may fail without stopping the run. */
+    @FunctionalInterface
+    private interface PageWork {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs one page through the pipeline with callback notifications.
+     * Errors are recorded on the context so the remaining pages still run.
+     */
+    private void processPage(PdfDocumentSession session, int pageNum, String pageText,
+                             IngestionContext context, ProgressCallback progressCallback) {
+        processPage(pageNum, context, progressCallback,
+                () -> processSinglePage(session, pageNum, pageText, context));
+    }
+
+    /**
+     * Runs a page's work with callback notifications and per-page error isolation.
+     */
+    private void processPage(int pageNum, IngestionContext context, ProgressCallback progressCallback,
+                             PageWork work) {
+        context.setCurrentPageNumber(pageNum);
+
+        // Notify callback of page start
+        if (progressCallback != null) {
+            try {
+                progressCallback.onPageStart(pageNum, context.getTotalPages());
+            } catch (Exception e) {
+                log.warn("Progress callback onPageStart failed", e);
+            }
+        }
+
+        long statementsBefore = ingestionMetrics.statementCount();
+        try {
+            work.run();
+
+            // Notify callback of success
+            if (progressCallback != null) {
+                try {
+                    progressCallback.onPageComplete(pageNum, 
+                            context.getTotalEventsProcessed());
+                } catch (Exception e) {
+                    log.warn("Progress callback onPageComplete failed", e);
+                }
+            }
+        } catch (Exception e) {
+            String errorMsg = String.format("Page %d processing failed: %s", 
+                    pageNum, e.getMessage());
+            context.addPageError(pageNum, e.getMessage());
+            log.warn(errorMsg, e);
+
+            // Notify callback of error
+            if (progressCallback != null) {
+                try {
+                    progressCallback.onPageError(pageNum, e);
+                } catch (Exception callbackErr) {
+                    log.warn("Progress callback onPageError failed", callbackErr);
+                }
+            }
+        }
+
+        // Reset for next book in case multiple books in PDF
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PERSIST)) {
+            ingestionService.finishIngestion();
+        }
+        ingestionMetrics.pagesCompleted(WorkflowPhase.CONTENT_INGESTION, 1,
+                ingestionMetrics.statementCount() - statementsBefore);
+    }
+
     /**
      * Processes a single page of the PDF.
      * Internal method that orchestrates the extraction → parsing → ingestion flow.
      *
      * Process:
-     * 1. Extract page text using PDFTextExtractor
-     * 2. Extract images using PDFImageExtractor
-     * 3. Parse text using OahspeParser.parse()
-     * 4. Ingest events using OahspeIngestionService.ingestEvents()
+     * 1. Receive page text from the session's streaming stripper pass
+     * 2. Extract images using PDFImageExtractor on the shared session
+     * 3. Parse text using OahspeParser.parse(), streaming each event to
+     * 4. OahspeIngestionService.ingestPage()
      * 5. Update context with event and image counts
      *
-     * Note: The ingestEvents() method is transactional, so each page's database
-     * operations run in their own transaction automatically.
-     *
+     * @param session the open PDF document
      * @param pageNumber the page number to process (1-indexed)
+     * @param pageText the already extracted page text
      * @param context the IngestionContext to update with progress
      * @throws Exception if extraction, parsing, or ingestion fails
      */
-    private void processSinglePage(int pageNumber, IngestionContext context) 
-            throws Exception {
-        // Stage 1: Extract text
-        String pageText = pdfExtractor.extractText(context.getPdfFilePath(), pageNumber);
-
+    private void processSinglePage(PdfDocumentSession session, int pageNumber, String pageText,
+                                   IngestionContext context) throws Exception {
         // Stage 2: Extract images
-        try {
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.IMAGE_ENCODE)) {
             List<Image> images = imageExtractor.extractImagesFromPage(
-                    context.getPdfFilePath(), pageNumber, context);
+                    session, pageNumber, context);
             context.addExtractedImages(images.size());
             if (!images.isEmpty()) {
                 log.debug("Page {} extracted {} images", pageNumber, images.size());
@@ -222,25 +458,28 @@ public class OahspeIngestionRunner {
             // Continue processing text even if image extraction fails
         }
 
+        ingestPageText(pageNumber, pageText, context);
+    }
+
+    /**
+     * Stages 3 and 4: parses a page's text and ingests the events as they are
+     * detected, then updates the context's event count.
+     */
+    private void ingestPageText(int pageNumber, String pageText, IngestionContext context) {
         if (pageText.isEmpty()) {
             log.debug("Page {} is empty or contains no text", pageNumber);
             return;
         }
 
-        // Stage 3: Parse text into events
-        List<String> lines = Arrays.asList(pageText.split("\n"));
-        List<OahspeEvent> events = parser.parse(lines, pageNumber);
-
-        if (events.isEmpty()) {
-            log.debug("Page {} produced no events", pageNumber);
-            return;
+        // The parser hands each event straight to the ingestion service
+        int events;
+        try (IngestionMetrics.StepTimer timer = ingestionMetrics.step(IngestionStep.PARSE)) {
+            events = ingestionService.ingestPage(pageNumber,
+                    sink -> parser.parse(context.getParserSession(), pageText, pageNumber, sink));
         }
 
-        // Stage 4: Ingest events into database
-        ingestionService.ingestEvents(events, pageNumber);
-
         // Update context
-        context.setTotalEventsProcessed(context.getTotalEventsProcessed() + events.size());
-        log.debug("Page {} processed: {} events", pageNumber, events.size());
+        context.setTotalEventsProcessed(context.getTotalEventsProcessed() + events);
+        log.debug("Page {} processed: {} events", pageNumber, events);
     }
 }
@@ -3,6 +3,8 @@ package edu.minghualiu.oahspe.ingestion.runner;
 import edu.minghualiu.oahspe.entities.Image;
 import edu.minghualiu.oahspe.entities.PageContent;
 import edu.minghualiu.oahspe.entities.PageImage;
+import edu.minghualiu.oahspe.ingestion.image.EncodedImage;
+import edu.minghualiu.oahspe.ingestion.image.ImageBlobService;
 import edu.minghualiu.oahspe.repositories.ImageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,10 +16,6 @@ import org.apache.pdfbox.pdmodel.graphics.PDXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.springframework.stereotype.Component;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +26,7 @@ import java.util.List;
  *
  * This component handles:
  * - Extracting embedded images from PDF pages using PDFBox
- * - Converting images to byte arrays with proper format detection
+ * - Storing image bytes once per content hash via {@link ImageBlobService}
  * - Generating sequential image keys (i001, i002, i003, etc.)
  * - Idempotent persistence (no duplicates on re-run)
  * - Skipping front matter and back matter pages
@@ -50,6 +48,9 @@ import java.util.List;
 public class PDFImageExtractor {
 
     private final ImageRepository imageRepository;
+    private final PDFTextExtractor pdfTextExtractor;
+    private final ImageBlobService imageBlobService;
+    private final PageTaskExecutor pageTaskExecutor;
     
     // Extract images only from main content pages
     private static final int DEFAULT_START_PAGE = 7;    // First page of main content
@@ -110,42 +111,96 @@ public class PDFImageExtractor {
                                              IngestionContext context,
                                              int startPage, int endPage)
             throws PDFExtractionException {
-
-        File file = new File(pdfFilePath);
-        if (!file.exists()) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    String.format("File not found: %s", pdfFilePath)
-            );
+        try (PdfDocumentSession session = pdfTextExtractor.openSession(pdfFilePath)) {
+            return extractImagesFromPage(session, pageNumber, context, startPage, endPage);
         }
+    }
 
-        List<Image> extractedImages = new ArrayList<>();
+    /**
+     * Extracts all images from a page of an already open document.
+     * Uses the default main-content page range.
+     *
+     * @param session the open document session
+     * @param pageNumber the page number to extract images from (1-indexed)
+     * @param context the ingestion context to update with duplicate metrics (optional)
+     * @return list of extracted and persisted Image entities
+     * @throws PDFExtractionException if the page is out of range or extraction fails
+     */
+    public List<Image> extractImagesFromPage(PdfDocumentSession session, int pageNumber,
+                                             IngestionContext context)
+            throws PDFExtractionException {
+        return extractImagesFromPage(session, pageNumber, context,
+                                   DEFAULT_START_PAGE, DEFAULT_END_PAGE);
+    }
+
+    /**
+     * Extracts all images from a page of an already open document
+     * with configurable page range.
+     *
+     * @param session the open document session
+     * @param pageNumber the page number to extract images from (1-indexed)
+     * @param context the ingestion context (optional)
+     * @param startPage first page to extract images from
+     * @param endPage last page to extract images from
+     * @return list of extracted and persisted Image entities
+     * @throws PDFExtractionException if the page is out of range or extraction fails
+     */
+    public List<Image> extractImagesFromPage(PdfDocumentSession session, int pageNumber,
+                                             IngestionContext context,
+                                             int startPage, int endPage)
+            throws PDFExtractionException {
+        return saveImages(pageNumber, encodeImagesFromPage(session, pageNumber, startPage, endPage), context);
+    }
+
+    /**
+     * Reads and encodes the images of a page without saving anything, using
+     * the default main-content page range.
+     *
+     * Safe to call from a worker thread as long as the session is not shared;
+     * pass the result to {@link #saveImages} on the writing thread, in page order.
+     *
+     * @param session the open document session
+     * @param pageNumber the page number to read images from (1-indexed)
+     * @return the page's images in resource order; empty outside the range
+     * @throws PDFExtractionException if the page is out of range or cannot be read
+     */
+    public List<EncodedPageImage> encodeImagesFromPage(PdfDocumentSession session, int pageNumber)
+            throws PDFExtractionException {
+        return encodeImagesFromPage(session, pageNumber, DEFAULT_START_PAGE, DEFAULT_END_PAGE);
+    }
+
+    /**
+     * Reads and encodes the images of a page without saving anything.
+     *
+     * @param session the open document session
+     * @param pageNumber the page number to read images from (1-indexed)
+     * @param startPage first page to extract images from
+     * @param endPage last page to extract images from
+     * @return the page's images in resource order; empty outside the range
+     * @throws PDFExtractionException if the page is out of range or cannot be read
+     */
+    public List<EncodedPageImage> encodeImagesFromPage(PdfDocumentSession session, int pageNumber,
+                                                       int startPage, int endPage)
+            throws PDFExtractionException {
+
+        String pdfFilePath = session.getPdfFilePath();
+        List<EncodedPageImage> encodedImages = new ArrayList<>();
+
+        try {
+            PDPage page = session.getPage(pageNumber);
 
-        try (PDDocument document = PDDocument.load(file)) {
-            int totalPages = document.getNumberOfPages();
-            
-            if (pageNumber < 1 || pageNumber > totalPages) {
-                throw new PDFExtractionException(
-                        pdfFilePath,
-                        pageNumber,
-                        String.format("Page number out of range. Document has %d pages.",
-                                totalPages)
-                );
-            }
-            
             // Skip pages outside the configured range
             if (pageNumber < startPage || pageNumber > endPage) {
                 log.debug("Skipping page {} (outside range {}-{})", 
                          pageNumber, startPage, endPage);
-                return extractedImages;
+                return encodedImages;
             }
 
-            PDPage page = document.getPage(pageNumber - 1); // PDFBox uses 0-indexed
             PDResources resources = page.getResources();
 
             if (resources == null) {
                 log.debug("Page {} has no resources", pageNumber);
-                return extractedImages;
+                return encodedImages;
             }
 
             // Iterate through all XObjects (potential images) on the page
@@ -154,11 +209,7 @@ public class PDFImageExtractor {
                     PDXObject xobject = resources.getXObject(name);
 
                     if (xobject instanceof PDImageXObject imageXObject) {
-                        Image image = extractAndSaveImage(imageXObject, name.getName(), 
-                                                         pageNumber, context);
-                        if (image != null) {
-                            extractedImages.add(image);
-                        }
+                        encodedImages.add(new EncodedPageImage(name.getName(), encode(imageXObject, pageNumber)));
                     }
                 } catch (Exception e) {
                     log.warn("Failed to extract image {} from page {}: {}",
@@ -167,21 +218,8 @@ public class PDFImageExtractor {
                 }
             }
 
-            if (!extractedImages.isEmpty()) {
-                log.info("Extracted {} images from page {}", extractedImages.size(), pageNumber);
-            } else {
-                log.debug("No images found on page {}", pageNumber);
-            }
-
         } catch (PDFExtractionException e) {
             throw e;
-        } catch (IOException e) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    pageNumber,
-                    "Failed to extract images from page",
-                    e
-            );
         } catch (Exception e) {
             throw new PDFExtractionException(
                     pdfFilePath,
@@ -191,21 +229,60 @@ public class PDFImageExtractor {
             );
         }
 
-        return extractedImages;
+        return encodedImages;
     }
 
     /**
-     * Extracts a single image from a PDImageXObject and persists it.
+     * Saves the encoded images of a page as Image entities with the next
+     * sequential keys. Must be called in page order, on one thread.
+     *
+     * Every image takes a key, including one whose data could not be encoded,
+     * so keys stay the same however the images were encoded.
+     *
+     * @param pageNumber the page the images come from
+     * @param images the page's images from {@link #encodeImagesFromPage}
+     * @param context the ingestion context to update with duplicate metrics (optional)
+     * @return list of persisted Image entities
+     */
+    public List<Image> saveImages(int pageNumber, List<EncodedPageImage> images, IngestionContext context) {
+        List<Image> savedImages = new ArrayList<>();
+        for (EncodedPageImage image : images) {
+            Image saved = saveImage(image, pageNumber, context);
+            if (saved != null) {
+                savedImages.add(saved);
+            }
+        }
+
+        if (!savedImages.isEmpty()) {
+            log.info("Extracted {} images from page {}", savedImages.size(), pageNumber);
+        } else {
+            log.debug("No images found on page {}", pageNumber);
+        }
+        return savedImages;
+    }
+
+    /**
+     * Encodes one image, or returns null if its data cannot be read.
+     */
+    private EncodedImage encode(PDImageXObject imageXObject, int pageNumber) {
+        try {
+            return pageTaskExecutor.encode(() -> imageBlobService.encode(imageXObject));
+        } catch (IOException e) {
+            log.error("Failed to extract image data on page {}: {}", pageNumber, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Persists a single encoded image.
      * Uses idempotent save strategy to prevent duplicates on restart.
      *
-     * @param imageXObject the PDFBox image object
-     * @param objectName the PDF object name (e.g., "Im0", "Image1")
+     * @param image the encoded image and its PDF object name (e.g., "Im0", "Image1")
      * @param pageNumber the page number (for key generation and tracking)
      * @param context the ingestion context to update with duplicate metrics (optional)
      * @return the persisted Image entity, or null if extraction failed
      */
-    private Image extractAndSaveImage(PDImageXObject imageXObject, String objectName,
-                                      int pageNumber, IngestionContext context) {
+    private Image saveImage(EncodedPageImage image, int pageNumber, IngestionContext context) {
         try {
             // Generate sequential key
             String imageKey = generateImageKey();
@@ -220,63 +297,46 @@ public class PDFImageExtractor {
                 return existingImage.get();
             }
 
-            // Extract and save new image
-            try {
-                // Extract image data
-                byte[] imageData = extractImageBytes(imageXObject);
-                String format = imageXObject.getSuffix();
-                if (format == null || format.isEmpty()) {
-                    format = "png"; // Default format
-                }
-                String contentType = "image/" + format.toLowerCase();
-
-                // Create new image entity
-                Image image = Image.builder()
-                        .imageKey(imageKey)
-                        .title("Image " + imageKey)
-                        .description("Extracted from page " + pageNumber)
-                        .sourcePage(pageNumber)
-                        .originalFilename(objectName + "." + format)
-                        .contentType(contentType)
-                        .data(imageData)
-                        .build();
-
-                Image saved = imageRepository.save(image);
-                log.debug("Saved new image: {} (page {}, {} bytes, {})",
-                        imageKey, pageNumber, imageData.length, contentType);
-                return saved;
-
-            } catch (IOException e) {
-                log.error("Failed to extract image data for {}: {}",
-                        imageKey, e.getMessage());
+            EncodedImage encoded = image.encoded();
+            if (encoded == null) {
+                log.error("Failed to extract image data for {}", imageKey);
                 return null;
             }
 
+            // Save new image; identical images share one blob
+            String format = encoded.mimeType().substring(encoded.mimeType().indexOf('/') + 1);
+
+            // Create new image entity
+            Image entity = Image.builder()
+                    .imageKey(imageKey)
+                    .title("Image " + imageKey)
+                    .description("Extracted from page " + pageNumber)
+                    .sourcePage(pageNumber)
+                    .originalFilename(image.objectName() + "." + format)
+                    .contentType(encoded.mimeType())
+                    .blob(imageBlobService.store(encoded))
+                    .build();
+
+            Image saved = imageRepository.save(entity);
+            log.debug("Saved new image: {} (page {}, {}, blob {})",
+                    imageKey, pageNumber, encoded.mimeType(),
+                    encoded.isStored() ? "reused" : "new");
+            return saved;
+
         } catch (Exception e) {
             log.error("Error processing image {} on page {}: {}",
-                    objectName, pageNumber, e.getMessage());
+                    image.objectName(), pageNumber, e.getMessage());
             return null;
         }
     }
 
     /**
-     * Extracts image bytes from a PDImageXObject.
-     * Renders the image to a BufferedImage and converts to byte array.
+     * An image read from a page but not yet saved.
      *
-     * @param imageXObject the PDFBox image object
-     * @return byte array of the image data
-     * @throws IOException if image extraction fails
+     * @param objectName the PDF object name (e.g., "Im0")
+     * @param encoded the encoded image, or null if its data could not be read
      */
-    private byte[] extractImageBytes(PDImageXObject imageXObject) throws IOException {
-        BufferedImage bufferedImage = imageXObject.getImage();
-        String format = imageXObject.getSuffix();
-        if (format == null || format.isEmpty()) {
-            format = "png";
-        }
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(bufferedImage, format, baos);
-        return baos.toByteArray();
+    public record EncodedPageImage(String objectName, EncodedImage encoded) {
     }
 
     /**
@@ -308,6 +368,7 @@ public class PDFImageExtractor {
     /**
      * Extracts images from a PDF page as PageImage objects (without persisting to Image table).
      * This is the new Phase 7 method that returns PageImage entities instead of Image entities.
+     * The PageImages are not persisted, but the blobs they reference are.
      * 
      * @param document the loaded PDDocument
      * @param pageNum the 1-based page number
@@ -342,23 +403,18 @@ public class PDFImageExtractor {
                     PDXObject xObject = resources.getXObject(name);
                     
                     if (xObject instanceof PDImageXObject imageXObject) {
-                        byte[] imageData = extractImageBytes(imageXObject);
-                        String format = imageXObject.getSuffix();
-                        if (format == null || format.isEmpty()) {
-                            format = "png";
-                        }
-                        String mimeType = "image/" + format.toLowerCase();
+                        EncodedImage encoded = pageTaskExecutor.encode(() -> imageBlobService.encode(imageXObject));
                         
                         PageImage pageImage = PageImage.builder()
                                 .pageContent(pageContent)
                                 .imageSequence(sequence++)
-                                .imageData(imageData)
-                                .mimeType(mimeType)
+                                .blob(imageBlobService.store(encoded))
+                                .mimeType(encoded.mimeType())
                                 .build();
                         
                         pageImages.add(pageImage);
-                        log.debug("Extracted PageImage sequence {} from page {} ({} bytes)", 
-                                sequence - 1, pageNum, imageData.length);
+                        log.debug("Extracted PageImage sequence {} from page {} (hash {})", 
+                                sequence - 1, pageNum, encoded.contentHash());
                     }
                 } catch (Exception e) {
                     log.warn("Failed to extract image {} from page {}: {}", 
@@ -381,6 +437,7 @@ public class PDFImageExtractor {
     /**
      * Extracts all images from all pages of a PDF file.
      * Useful for bulk extraction operations.
+     * The document is loaded once and shared by all pages.
      *
      * @param pdfFilePath the path to the PDF file
      * @return list of all extracted images from all pages
@@ -389,21 +446,13 @@ public class PDFImageExtractor {
     public List<Image> extractAllImages(String pdfFilePath) throws PDFExtractionException {
         List<Image> allImages = new ArrayList<>();
 
-        File file = new File(pdfFilePath);
-        if (!file.exists()) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    String.format("File not found: %s", pdfFilePath)
-            );
-        }
-
-        try (PDDocument document = PDDocument.load(file)) {
-            int pageCount = document.getNumberOfPages();
+        try (PdfDocumentSession session = pdfTextExtractor.openSession(pdfFilePath)) {
+            int pageCount = session.getPageCount();
             log.info("Starting image extraction from {} pages", pageCount);
 
             for (int pageNum = 1; pageNum <= pageCount; pageNum++) {
                 try {
-                    List<Image> pageImages = extractImagesFromPage(pdfFilePath, pageNum, null);
+                    List<Image> pageImages = extractImagesFromPage(session, pageNum, null);
                     allImages.addAll(pageImages);
                 } catch (PDFExtractionException e) {
                     log.warn("Failed to extract images from page {}: {}",
@@ -414,13 +463,6 @@ public class PDFImageExtractor {
 
             log.info("Extracted {} total images from {} pages",
                     allImages.size(), pageCount);
-
-        } catch (IOException e) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    "Failed to load PDF document for image extraction",
-                    e
-            );
         }
 
         return allImages;
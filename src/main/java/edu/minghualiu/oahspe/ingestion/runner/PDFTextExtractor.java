@@ -1,13 +1,14 @@
 package edu.minghualiu.oahspe.ingestion.runner;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * PDF text extraction component using Apache PDFBox.
@@ -20,15 +21,85 @@ import java.util.List;
  * - Per-page text extraction
  * - Page count retrieval
  * - Bulk extraction of all pages
+ * - Reusable document sessions for multi-page runs
  * - Proper resource management (PDDocument closing)
  * - Clear error messages for file/format issues
  *
+ * The path-based methods open and close the document on every call and are
+ * meant for one-off lookups. Code that visits many pages should open a
+ * {@link PdfDocumentSession} once and extract from it instead.
+ *
+ * Every session opened here uses the same {@link PdfLoadOptions}:
+ * <ul>
+ *   <li>{@code oahspe.pdf.loading}: memory (default), mixed or mapped, see {@link PdfLoadingMode}</li>
+ *   <li>{@code oahspe.pdf.max-main-memory}: heap budget for decoded streams
+ *       in mixed and mapped mode (default 64MB)</li>
+ *   <li>{@code oahspe.pdf.temp-directory}: where streams over the budget
+ *       spill (default java.io.tmpdir)</li>
+ *   <li>{@code oahspe.pdf.cache-resources}: keep page resources for the
+ *       lifetime of a document (default true)</li>
+ * </ul>
+ *
+ * @see PdfDocumentSession
  * @see PDFExtractionException
  * @see IngestionContext
  */
 @Component
 public class PDFTextExtractor {
 
+    private final PdfLoadOptions loadOptions;
+
+    /**
+     * Creates an extractor that loads documents with {@link PdfLoadOptions#DEFAULT}.
+     */
+    public PDFTextExtractor() {
+        this(PdfLoadOptions.DEFAULT);
+    }
+
+    public PDFTextExtractor(PdfLoadOptions loadOptions) {
+        this.loadOptions = loadOptions;
+    }
+
+    @Autowired
+    public PDFTextExtractor(@Value("${oahspe.pdf.loading:memory}") String mode,
+                            @Value("${oahspe.pdf.max-main-memory:64MB}") DataSize maxMainMemory,
+                            @Value("${oahspe.pdf.temp-directory:}") String tempDirectory,
+                            @Value("${oahspe.pdf.cache-resources:true}") boolean cacheResources) {
+        this(new PdfLoadOptions(
+                parseMode(mode),
+                maxMainMemory.toBytes(),
+                tempDirectory.isBlank() ? null : Path.of(tempDirectory),
+                cacheResources));
+    }
+
+    /**
+     * Returns how this extractor loads documents.
+     */
+    public PdfLoadOptions getLoadOptions() {
+        return loadOptions;
+    }
+
+    private static PdfLoadingMode parseMode(String mode) {
+        try {
+            return PdfLoadingMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown PDF loading mode '" + mode
+                    + "', expected one of " + Arrays.toString(PdfLoadingMode.values()), e);
+        }
+    }
+
+    /**
+     * Opens a PDF file for repeated extraction.
+     * The caller owns the returned session and must close it.
+     *
+     * @param pdfFilePath the path to the PDF file
+     * @return an open document session
+     * @throws PDFExtractionException if file not found or invalid PDF
+     */
+    public PdfDocumentSession openSession(String pdfFilePath) throws PDFExtractionException {
+        return PdfDocumentSession.open(pdfFilePath, loadOptions);
+    }
+
     /**
      * Extracts text from a specific page of a PDF file.
      * Page numbers are 1-indexed (user-friendly).
@@ -39,45 +110,8 @@ public class PDFTextExtractor {
      * @throws PDFExtractionException if file not found, invalid PDF, or extraction fails
      */
     public String extractText(String pdfFilePath, int pageNumber) throws PDFExtractionException {
-        File file = new File(pdfFilePath);
-        if (!file.exists()) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    String.format("File not found: %s", pdfFilePath)
-            );
-        }
-
-        try (PDDocument document = PDDocument.load(file)) {
-            if (pageNumber < 1 || pageNumber > document.getNumberOfPages()) {
-                throw new PDFExtractionException(
-                        pdfFilePath,
-                        pageNumber,
-                        String.format("Page number out of range. Document has %d pages.", 
-                                document.getNumberOfPages())
-                );
-            }
-
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setStartPage(pageNumber);
-            stripper.setEndPage(pageNumber);
-
-            return stripper.getText(document).trim();
-        } catch (PDFExtractionException e) {
-            throw e;
-        } catch (IOException e) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    pageNumber,
-                    "Failed to extract text from page",
-                    e
-            );
-        } catch (Exception e) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    pageNumber,
-                    "Unexpected error during PDF text extraction",
-                    e
-            );
+        try (PdfDocumentSession session = openSession(pdfFilePath)) {
+            return session.extractText(pageNumber);
         }
     }
 
@@ -89,53 +123,23 @@ public class PDFTextExtractor {
      * @throws PDFExtractionException if file not found, invalid PDF, or operation fails
      */
     public int getPageCount(String pdfFilePath) throws PDFExtractionException {
-        File file = new File(pdfFilePath);
-        if (!file.exists()) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    String.format("File not found: %s", pdfFilePath)
-            );
-        }
-
-        try (PDDocument document = PDDocument.load(file)) {
-            return document.getNumberOfPages();
-        } catch (IOException e) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    "Failed to load PDF document",
-                    e
-            );
-        } catch (Exception e) {
-            throw new PDFExtractionException(
-                    pdfFilePath,
-                    "Unexpected error reading PDF page count",
-                    e
-            );
+        try (PdfDocumentSession session = openSession(pdfFilePath)) {
+            return session.getPageCount();
         }
     }
 
     /**
      * Extracts text from all pages of a PDF file.
      * Returns a list of strings, one per page. Empty pages return empty strings.
+     * The document is loaded once and stripped in a single pass.
      *
      * @param pdfFilePath the path to the PDF file
      * @return a list of page texts (index 0 = page 1)
      * @throws PDFExtractionException if file not found, invalid PDF, or extraction fails
      */
     public List<String> extractAllPages(String pdfFilePath) throws PDFExtractionException {
-        int pageCount = getPageCount(pdfFilePath);
-        List<String> allPages = new ArrayList<>();
-
-        for (int pageNum = 1; pageNum <= pageCount; pageNum++) {
-            try {
-                String pageText = extractText(pdfFilePath, pageNum);
-                allPages.add(pageText);
-            } catch (PDFExtractionException e) {
-                // Re-throw to caller - don't silently ignore extraction failures
-                throw e;
-            }
+        try (PdfDocumentSession session = openSession(pdfFilePath)) {
+            return session.extractAllPages();
         }
-
-        return allPages;
     }
 }
@@ -0,0 +1,329 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the per-page extraction work of {@code PageLoader} and
+ * {@link OahspeIngestionRunner} off the writing thread, and limits how much
+ * of it runs at once.
+ *
+ * The thread model is chosen with {@code oahspe.ingestion.virtual-threads}:
+ * <ul>
+ *   <li>false (default): each run gets a fixed pool of daemon platform
+ *       threads, one per requested worker</li>
+ *   <li>true: each task runs on its own virtual thread, from a Spring
+ *       {@link AsyncTaskExecutor} backed by
+ *       {@link Executors#newVirtualThreadPerTaskExecutor()}. Tasks blocked on
+ *       file reads or JDBC no longer hold a carrier thread.</li>
+ * </ul>
+ *
+ * In both modes two semaphores bound the shared resources:
+ * image encoding (CPU-bound) runs on at most one task per core, and database
+ * work on at most as many tasks as the connection pool has connections, so
+ * workers queue on a permit rather than on Hikari's connection timeout.
+ *
+ * Usage:
+ * <pre>
+ * try (PageTaskExecutor.Workers workers = pageTaskExecutor.openWorkers("page-loader", threads)) {
+ *     Future&lt;List&lt;String&gt;&gt; texts = workers.submit(() -&gt; session.extractPageRange(1, 100));
+ * }
+ * EncodedImage encoded = pageTaskExecutor.encode(() -&gt; imageBlobService.encode(image));
+ * </pre>
+ *
+ * Both callers extract a PDF in page batches ahead of a single writer with
+ * {@link #runPdfBatches}.
+ */
+@Slf4j
+@Component
+public class PageTaskExecutor {
+
+    /** Connection limit assumed when the data source is not a Hikari pool */
+    static final int DEFAULT_POOL_SIZE = 10;
+
+    private final boolean virtualThreads;
+    private final Semaphore encodePermits;
+    private final Semaphore databasePermits;
+
+    @Autowired
+    public PageTaskExecutor(@Value("${oahspe.ingestion.virtual-threads:false}") boolean virtualThreads,
+                            DataSource dataSource) {
+        this(virtualThreads, Runtime.getRuntime().availableProcessors(), poolSize(dataSource));
+    }
+
+    PageTaskExecutor(boolean virtualThreads, int encodePermits, int databasePermits) {
+        this.virtualThreads = virtualThreads;
+        this.encodePermits = new Semaphore(encodePermits);
+        this.databasePermits = new Semaphore(databasePermits);
+        log.info("Page workers: {} threads, {} concurrent image encodes, {} concurrent database tasks",
+                virtualThreads ? "virtual" : "platform", encodePermits, databasePermits);
+    }
+
+    /**
+     * Returns true if workers run on virtual threads.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Starts the workers for one run. Close them when the run ends; closing
+     * interrupts unfinished tasks and waits for them to stop.
+     *
+     * @param name thread name prefix, e.g. "page-loader"
+     * @param threads number of platform threads; ignored with virtual threads,
+     *                where every task gets its own thread
+     * @return the run's workers
+     */
+    public Workers openWorkers(String name, int threads) {
+        if (virtualThreads) {
+            return new Workers(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new Workers(Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Extracts a PDF in page batches on the workers and hands the batches to
+     * the calling thread strictly in page order.
+     *
+     * Each worker extracts with its own copy of the PDF; the given session is
+     * the first copy, and all copies are closed when the run ends. At most two
+     * batches per worker are extracted ahead of the writer, so extraction
+     * pauses when the writer falls behind.
+     *
+     * @param name thread name prefix, e.g. "page-loader"
+     * @param threads number of workers
+     * @param firstSession an open session on the PDF; closed by this method
+     * @param pdfExtractor opens further copies of the PDF for the workers
+     * @param batchSize pages per batch
+     * @param handler extracts the batches on the workers and writes them on the calling thread
+     */
+    public <T> void runPdfBatches(String name, int threads, PdfDocumentSession firstSession,
+                                  PDFTextExtractor pdfExtractor, int batchSize, BatchHandler<T> handler) {
+        String pdfPath = firstSession.getPdfFilePath();
+        int totalPages = firstSession.getPageCount();
+
+        // Sessions are not thread-safe; a worker takes one for the duration of a batch
+        Queue<PdfDocumentSession> idleSessions = new ConcurrentLinkedQueue<>();
+        idleSessions.add(firstSession);
+
+        Workers workers = openWorkers(name, threads);
+        Deque<PendingBatch<T>> inFlight = new ArrayDeque<>();
+        int nextBatchStart = 1;
+
+        try {
+            while (nextBatchStart <= totalPages || !inFlight.isEmpty()) {
+                while (nextBatchStart <= totalPages && inFlight.size() < threads * 2) {
+                    final int firstPage = nextBatchStart;
+                    final int lastPage = Math.min(nextBatchStart + batchSize - 1, totalPages);
+                    nextBatchStart += batchSize;
+                    if (handler.skip(firstPage, lastPage)) {
+                        continue;
+                    }
+                    inFlight.add(new PendingBatch<>(firstPage, lastPage, workers.submit(() -> {
+                        PdfDocumentSession session = idleSessions.poll();
+                        if (session == null) {
+                            session = pdfExtractor.openSession(pdfPath);
+                        }
+                        try {
+                            return handler.extract(session, firstPage, lastPage);
+                        } finally {
+                            idleSessions.add(session);
+                        }
+                    })));
+                }
+
+                PendingBatch<T> pending = inFlight.poll();
+                if (pending == null) {
+                    // Every remaining batch was skipped
+                    break;
+                }
+                T batch;
+                try {
+                    batch = pending.result().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for pages "
+                            + pending.firstPage() + "-" + pending.lastPage(), e);
+                } catch (ExecutionException e) {
+                    log.error("Failed to extract pages {}-{}: {}",
+                            pending.firstPage(), pending.lastPage(), e.getCause().getMessage(), e.getCause());
+                    handler.failed(pending.firstPage(), pending.lastPage(), e.getCause());
+                    continue;
+                }
+                handler.write(pending.firstPage(), pending.lastPage(), batch);
+            }
+        } finally {
+            workers.close();
+            idleSessions.forEach(PdfDocumentSession::close);
+        }
+    }
+
+    /**
+     * Runs an image encode while holding one of the per-core permits.
+     *
+     * @param task the encode
+     * @return the task's result
+     * @throws E if the task fails
+     * @throws CancellationException if interrupted while waiting for a permit
+     */
+    public <T, E extends Exception> T encode(PermitTask<T, E> task) throws E {
+        return withPermit(encodePermits, task);
+    }
+
+    /**
+     * Runs database work while holding one of the connection pool's permits.
+     *
+     * @param task the database work
+     * @return the task's result
+     * @throws E if the task fails
+     * @throws CancellationException if interrupted while waiting for a permit
+     */
+    public <T, E extends Exception> T database(PermitTask<T, E> task) throws E {
+        return withPermit(databasePermits, task);
+    }
+
+    private static <T, E extends Exception> T withPermit(Semaphore permits, PermitTask<T, E> task) throws E {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a permit");
+        }
+        try {
+            return task.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the maximum pool size of a Hikari data source, or
+     * {@link #DEFAULT_POOL_SIZE} for any other data source.
+     */
+    static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (Exception e) {
+            log.warn("Cannot read the connection pool size: {}", e.getMessage());
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * Work run under a permit.
+     */
+    @FunctionalInterface
+    public interface PermitTask<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * The work on each batch of {@link #runPdfBatches}.
+     *
+     * @param <T> the extracted batch
+     */
+    public interface BatchHandler<T> {
+
+        /**
+         * Returns true if a batch needs neither extraction nor writing.
+         * Called on the calling thread, in page order, before the batch is submitted.
+         */
+        default boolean skip(int firstPage, int lastPage) {
+            return false;
+        }
+
+        /**
+         * Extracts a batch on a worker. Must not write to the database.
+         *
+         * @param session the worker's own copy of the PDF
+         */
+        T extract(PdfDocumentSession session, int firstPage, int lastPage) throws Exception;
+
+        /**
+         * Writes an extracted batch on the calling thread, in page order.
+         */
+        void write(int firstPage, int lastPage, T batch);
+
+        /**
+         * Records a batch whose extraction threw, on the calling thread, in page order.
+         */
+        void failed(int firstPage, int lastPage, Throwable cause);
+    }
+
+    /** A batch submitted to the workers, in write order. */
+    private record PendingBatch<T>(int firstPage, int lastPage, Future<T> result) {
+    }
+
+    /**
+     * The workers of one run, as a Spring task executor.
+     */
+    public static final class Workers implements AutoCloseable {
+
+        private final ExecutorService executorService;
+        private final AsyncTaskExecutor taskExecutor;
+
+        private Workers(ExecutorService executorService) {
+            this.executorService = executorService;
+            this.taskExecutor = new TaskExecutorAdapter(executorService);
+        }
+
+        /**
+         * Returns the workers as a Spring task executor.
+         */
+        public AsyncTaskExecutor taskExecutor() {
+            return taskExecutor;
+        }
+
+        /**
+         * Submits a task.
+         *
+         * @param task the task
+         * @return the task's future
+         */
+        public <T> Future<T> submit(Callable<T> task) {
+            return taskExecutor.submit(task);
+        }
+
+        /**
+         * Interrupts unfinished tasks and waits up to a minute for them to stop,
+         * so resources they use can be released afterwards.
+         */
+        @Override
+        public void close() {
+            executorService.shutdownNow();
+            try {
+                executorService.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
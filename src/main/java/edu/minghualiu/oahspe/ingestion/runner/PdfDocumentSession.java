@@ -0,0 +1,369 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An open PDF document shared by all extraction steps of a single run.
+ *
+ * Loading a PDF with PDFBox parses the cross-reference table and page tree,
+ * which for the 1,831-page OAHSPE PDF dominates the cost of extracting any one
+ * page. A session loads the document once and hands out text and page objects
+ * until it is closed.
+ *
+ * Text extraction over a page range runs a single PDFTextStripper pass and
+ * reports each page as soon as it has been stripped, so extracting the whole
+ * document is linear in its size.
+ *
+ * A session wraps one PDDocument and is not thread-safe; workers that need
+ * concurrent access must open their own session.
+ *
+ * How the file is read and where decoded streams are buffered is set by
+ * {@link PdfLoadOptions}; see {@link PdfLoadingMode}.
+ *
+ * Usage:
+ * <pre>
+ * try (PdfDocumentSession session = pdfTextExtractor.openSession(pdfPath)) {
+ *     session.streamPageText(1, session.getPageCount(),
+ *             (pageNumber, text) -> process(pageNumber, text));
+ * }
+ * </pre>
+ *
+ * @see PDFTextExtractor#openSession(String)
+ * @see PDFExtractionException
+ */
+public class PdfDocumentSession implements AutoCloseable {
+
+    /** The path to the PDF file backing this session */
+    private final String pdfFilePath;
+
+    /** The loaded document, closed together with the session */
+    private final PDDocument document;
+
+    /**
+     * Receives the text of each page during a streaming extraction pass.
+     */
+    @FunctionalInterface
+    public interface PageTextConsumer {
+
+        /**
+         * Called once per page, in page order.
+         *
+         * @param pageNumber the page number (1-indexed)
+         * @param text the trimmed page text, or empty string if page is blank
+         */
+        void accept(int pageNumber, String text);
+    }
+
+    private PdfDocumentSession(String pdfFilePath, PDDocument document) {
+        this.pdfFilePath = pdfFilePath;
+        this.document = document;
+    }
+
+    /**
+     * Opens a PDF file with {@link PdfLoadOptions#DEFAULT} and keeps it loaded
+     * until the session is closed.
+     *
+     * @param pdfFilePath the path to the PDF file
+     * @return an open session
+     * @throws PDFExtractionException if file not found or not a valid PDF
+     */
+    public static PdfDocumentSession open(String pdfFilePath) throws PDFExtractionException {
+        return open(pdfFilePath, PdfLoadOptions.DEFAULT);
+    }
+
+    /**
+     * Opens a PDF file and keeps it loaded until the session is closed.
+     *
+     * @param pdfFilePath the path to the PDF file
+     * @param options how the document is loaded
+     * @return an open session
+     * @throws PDFExtractionException if file not found or not a valid PDF
+     */
+    public static PdfDocumentSession open(String pdfFilePath, PdfLoadOptions options)
+            throws PDFExtractionException {
+        File file = new File(pdfFilePath);
+        if (!file.exists()) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    String.format("File not found: %s", pdfFilePath)
+            );
+        }
+
+        try {
+            PDDocument document = load(file, options);
+            if (!options.cacheResources()) {
+                document.setResourceCache(null);
+            }
+            return new PdfDocumentSession(pdfFilePath, document);
+        } catch (IOException e) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    "Failed to load PDF document",
+                    e
+            );
+        } catch (Exception e) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    "Unexpected error loading PDF document",
+                    e
+            );
+        }
+    }
+
+    /**
+     * Loads a document as the options' mode requires. Memory and mixed mode
+     * read through PDFBox's buffered file input; mapped mode parses from a
+     * read-only mapping, which the document closes together with itself.
+     */
+    private static PDDocument load(File file, PdfLoadOptions options) throws IOException {
+        if (options.tempDirectory() != null) {
+            // PDFBox refuses to spill into a missing directory
+            Files.createDirectories(options.tempDirectory());
+        }
+        if (options.mode() != PdfLoadingMode.MAPPED) {
+            return PDDocument.load(file, options.memoryUsageSetting());
+        }
+
+        RandomAccessRead source = new MappedFileRandomAccessRead(file);
+        ScratchFile scratchFile = new ScratchFile(options.memoryUsageSetting());
+        try {
+            PDFParser parser = new PDFParser(source, "", scratchFile);
+            parser.parse();
+            return parser.getPDDocument();
+        } catch (IOException | RuntimeException e) {
+            // Without a document, nothing else releases the scratch file and the mapping
+            closeQuietly(scratchFile, e);
+            closeQuietly(source, e);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(Closeable resource, Exception failure) {
+        try {
+            resource.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Returns the path to the PDF file backing this session.
+     *
+     * @return the PDF file path
+     */
+    public String getPdfFilePath() {
+        return pdfFilePath;
+    }
+
+    /**
+     * Returns the underlying PDFBox document.
+     * The document is owned by the session and must not be closed by callers.
+     *
+     * @return the loaded document
+     */
+    public PDDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Returns the total number of pages in the document.
+     *
+     * @return the number of pages
+     */
+    public int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    /**
+     * Returns a page of the document.
+     *
+     * @param pageNumber the page number (1-indexed)
+     * @return the PDFBox page
+     * @throws PDFExtractionException if the page number is out of range
+     */
+    public PDPage getPage(int pageNumber) throws PDFExtractionException {
+        checkPageNumber(pageNumber);
+        return document.getPage(pageNumber - 1); // PDFBox uses 0-indexed
+    }
+
+    /**
+     * Extracts text from a single page.
+     *
+     * @param pageNumber the page number to extract (1-indexed)
+     * @return the extracted text from the page, or empty string if page is blank
+     * @throws PDFExtractionException if the page is out of range or extraction fails
+     */
+    public String extractText(int pageNumber) throws PDFExtractionException {
+        checkPageNumber(pageNumber);
+
+        try {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(pageNumber);
+            stripper.setEndPage(pageNumber);
+
+            return stripper.getText(document).trim();
+        } catch (IOException e) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    pageNumber,
+                    "Failed to extract text from page",
+                    e
+            );
+        } catch (Exception e) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    pageNumber,
+                    "Unexpected error during PDF text extraction",
+                    e
+            );
+        }
+    }
+
+    /**
+     * Extracts the text of a page range in one PDFTextStripper pass,
+     * handing each page to the consumer as soon as it is stripped.
+     * Exceptions thrown by the consumer propagate unchanged.
+     *
+     * @param startPage first page to extract (1-indexed, inclusive)
+     * @param endPage last page to extract (1-indexed, inclusive)
+     * @param consumer receives each page's text, in page order
+     * @throws PDFExtractionException if the range is invalid or extraction fails
+     */
+    public void streamPageText(int startPage, int endPage, PageTextConsumer consumer)
+            throws PDFExtractionException {
+        if (startPage > endPage) {
+            return;
+        }
+        checkPageNumber(startPage);
+        checkPageNumber(endPage);
+
+        try {
+            PageStreamingStripper stripper = new PageStreamingStripper(consumer);
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            stripper.writeText(document, stripper.buffer);
+        } catch (ConsumerFailure e) {
+            // The consumer's own errors are not extraction errors
+            throw e.getCause();
+        } catch (IOException e) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    startPage,
+                    String.format("Failed to extract text from pages %d-%d", startPage, endPage),
+                    e
+            );
+        } catch (Exception e) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    startPage,
+                    String.format("Unexpected error during PDF text extraction of pages %d-%d",
+                            startPage, endPage),
+                    e
+            );
+        }
+    }
+
+    /**
+     * Extracts the text of a page range in one PDFTextStripper pass.
+     *
+     * @param startPage first page to extract (1-indexed, inclusive)
+     * @param endPage last page to extract (1-indexed, inclusive)
+     * @return a list of page texts (index 0 = startPage)
+     * @throws PDFExtractionException if the range is invalid or extraction fails
+     */
+    public List<String> extractPageRange(int startPage, int endPage) throws PDFExtractionException {
+        List<String> pages = new ArrayList<>(Math.max(0, endPage - startPage + 1));
+        streamPageText(startPage, endPage, (pageNumber, text) -> pages.add(text));
+        return pages;
+    }
+
+    /**
+     * Extracts text from all pages in one PDFTextStripper pass.
+     *
+     * @return a list of page texts (index 0 = page 1)
+     * @throws PDFExtractionException if extraction fails
+     */
+    public List<String> extractAllPages() throws PDFExtractionException {
+        return extractPageRange(1, getPageCount());
+    }
+
+    /**
+     * Closes the underlying document.
+     */
+    @Override
+    public void close() {
+        try {
+            document.close();
+        } catch (IOException e) {
+            // Nothing was written; a failed close only leaks the scratch buffers
+        }
+    }
+
+    private void checkPageNumber(int pageNumber) throws PDFExtractionException {
+        if (pageNumber < 1 || pageNumber > document.getNumberOfPages()) {
+            throw new PDFExtractionException(
+                    pdfFilePath,
+                    pageNumber,
+                    String.format("Page number out of range. Document has %d pages.",
+                            document.getNumberOfPages())
+            );
+        }
+    }
+
+    /**
+     * PDFTextStripper that collects each page's output separately instead of
+     * concatenating the whole range into one string.
+     */
+    private static final class PageStreamingStripper extends PDFTextStripper {
+        private final StringWriter buffer = new StringWriter();
+        private final PageTextConsumer consumer;
+
+        PageStreamingStripper(PageTextConsumer consumer) throws IOException {
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            buffer.getBuffer().setLength(0);
+            super.startPage(page);
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            try {
+                consumer.accept(getCurrentPageNo(), buffer.toString().trim());
+            } catch (RuntimeException e) {
+                throw new ConsumerFailure(e);
+            }
+            buffer.getBuffer().setLength(0);
+        }
+    }
+
+    /**
+     * Carries an exception thrown by a {@link PageTextConsumer} out of the stripper.
+     */
+    private static final class ConsumerFailure extends RuntimeException {
+        ConsumerFailure(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+}
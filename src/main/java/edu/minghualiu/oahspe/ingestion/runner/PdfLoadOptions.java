@@ -0,0 +1,53 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+import java.nio.file.Path;
+
+/**
+ * How PDF documents are loaded for extraction.
+ *
+ * Configured with the {@code oahspe.pdf.*} properties, see {@link PDFTextExtractor}.
+ *
+ * @param mode how the file is read and decoded streams are buffered
+ * @param maxMainMemoryBytes heap budget for decoded streams in {@link PdfLoadingMode#MIXED}
+ *                           and {@link PdfLoadingMode#MAPPED} mode
+ * @param tempDirectory directory for scratch files; null for java.io.tmpdir
+ * @param cacheResources whether PDFBox keeps fonts, images and other page
+ *                       resources for the lifetime of the document. Turning the
+ *                       cache off keeps the heap flat over a long run at the cost
+ *                       of parsing shared resources again on every page.
+ */
+public record PdfLoadOptions(PdfLoadingMode mode, long maxMainMemoryBytes, Path tempDirectory,
+                             boolean cacheResources) {
+
+    /** Heap budget for decoded streams unless configured */
+    public static final long DEFAULT_MAX_MAIN_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    /** PDFBox's defaults: everything on the heap, resources cached */
+    public static final PdfLoadOptions DEFAULT =
+            new PdfLoadOptions(PdfLoadingMode.MEMORY, DEFAULT_MAX_MAIN_MEMORY_BYTES, null, true);
+
+    public PdfLoadOptions {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode cannot be null");
+        }
+        if (maxMainMemoryBytes <= 0) {
+            throw new IllegalArgumentException("maxMainMemoryBytes must be positive");
+        }
+    }
+
+    /**
+     * Returns the PDFBox scratch-file setting for this mode.
+     */
+    public MemoryUsageSetting memoryUsageSetting() {
+        if (mode == PdfLoadingMode.MEMORY) {
+            return MemoryUsageSetting.setupMainMemoryOnly();
+        }
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+        if (tempDirectory != null) {
+            setting.setTempDir(tempDirectory.toFile());
+        }
+        return setting;
+    }
+}
@@ -0,0 +1,29 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+/**
+ * How {@link PdfDocumentSession} reads a PDF file and where PDFBox buffers
+ * the streams it decodes.
+ *
+ * @see PdfLoadOptions
+ */
+public enum PdfLoadingMode {
+    /**
+     * Read the file through PDFBox's buffered file input and keep decoded
+     * streams on the heap. PDFBox's default; fastest for small documents.
+     */
+    MEMORY,
+
+    /**
+     * Read the file through PDFBox's buffered file input and keep decoded
+     * streams on the heap up to {@link PdfLoadOptions#maxMainMemoryBytes()},
+     * spilling the rest to a scratch file in {@link PdfLoadOptions#tempDirectory()}.
+     */
+    MIXED,
+
+    /**
+     * Map the file read-only into memory, so file pages live in the OS page
+     * cache instead of the heap, and buffer decoded streams as in {@link #MIXED}.
+     * Limited to files under 2 GB.
+     */
+    MAPPED
+}
@@ -1,6 +1,11 @@
 package edu.minghualiu.oahspe.ingestion.workflow;
 
+import edu.minghualiu.oahspe.entities.CleanupResult;
+import edu.minghualiu.oahspe.ingestion.image.ImageBlobService;
+import edu.minghualiu.oahspe.reader.VerseCache;
 import edu.minghualiu.oahspe.repositories.*;
+import edu.minghualiu.oahspe.search.SearchHit;
+import edu.minghualiu.oahspe.search.SearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -9,7 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Service for cleaning up ingested data before re-ingestion.
  * Phase 2 of the workflow - removes old Books/Chapters/Verses/Notes/Images/Glossary/Index
- * while preserving PageContent and PageImage entities.
+ * while preserving PageContent and PageImage entities and the image blobs they reference.
  */
 @Slf4j
 @Service
@@ -25,76 +30,91 @@ public class IngestionDataCleanup {
     private final IndexEntryRepository indexEntryRepository;
     private final PageContentRepository pageContentRepository;
     private final PageImageRepository pageImageRepository;
+    private final ImageBlobService imageBlobService;
+    private final VerseCache verseCache;
+    private final SearchIndex searchIndex;
     
     /**
      * Deletes all ingested domain entities.
      * Preserves PageContent and PageImage for re-ingestion.
      * 
+     * Uses one bulk DELETE per table in foreign key order, so no entity or
+     * image BLOB is loaded. PageImage links to Images are cleared, not deleted.
+     * 
      * WARNING: This is destructive! All books, chapters, verses, notes, 
      * glossary terms, and index entries will be permanently deleted.
+     * 
+     * @return exact number of rows removed per table
      */
     @Transactional
-    public void cleanupAllIngestedData() {
+    public CleanupResult cleanupAllIngestedData() {
         log.warn("=== STARTING DATA CLEANUP ===");
         log.warn("This will delete all ingested content!");
         
-        // Delete in order to respect foreign key constraints
+        CleanupResult result = deleteContent();
         
-        // 1. Delete Notes (has FK to Verse and Images)
-        long noteCount = noteRepository.count();
-        if (noteCount > 0) {
-            noteRepository.deleteAll();
-            log.info("Deleted {} notes", noteCount);
-        }
+        // 9. Delete Index Entries (has FK to Glossary Terms) after their page references
+        result.setIndexPageRanges(indexEntryRepository.deleteAllPageRangesInBulk());
+        result.setIndexEntries(indexEntryRepository.deleteAllInBulk());
+        log.info("Deleted {} index entries", result.getIndexEntries());
         
-        // 2. Delete Verses (has FK to Chapter)
-        long verseCount = verseRepository.count();
-        if (verseCount > 0) {
-            verseRepository.deleteAll();
-            log.info("Deleted {} verses", verseCount);
-        }
+        // 10. Delete Glossary Terms
+        result.setGlossaryTerms(glossaryTermRepository.deleteAllInBulk());
+        searchIndex.deleteTypes(SearchHit.Type.GLOSSARY_TERM);
+        log.info("Deleted {} glossary terms", result.getGlossaryTerms());
         
-        // 3. Delete Chapters (has FK to Book)
-        long chapterCount = chapterRepository.count();
-        if (chapterCount > 0) {
-            chapterRepository.deleteAll();
-            log.info("Deleted {} chapters", chapterCount);
-        }
+        // Verify PageContent is preserved
+        preservePageContents();
         
-        // 4. Delete Books
-        long bookCount = bookRepository.count();
-        if (bookCount > 0) {
-            bookRepository.deleteAll();
-            log.info("Deleted {} books", bookCount);
-        }
+        log.warn("=== CLEANUP COMPLETE ===");
+        log.info("Summary: {}", result.getSummary());
         
-        // 5. Delete Images (orphaned after notes deleted)
-        long imageCount = imageRepository.count();
-        if (imageCount > 0) {
-            imageRepository.deleteAll();
-            log.info("Deleted {} images", imageCount);
-        }
+        return result;
+    }
+    
+    /**
+     * Deletes the book content tables in foreign key order.
+     * Must be called within a transaction.
+     */
+    private CleanupResult deleteContent() {
+        CleanupResult result = new CleanupResult();
         
-        // 6. Delete Glossary Terms
-        long glossaryCount = glossaryTermRepository.count();
-        if (glossaryCount > 0) {
-            glossaryTermRepository.deleteAll();
-            log.info("Deleted {} glossary terms", glossaryCount);
-        }
+        // 1. Delete note-image links (join table has FKs to Notes and Images)
+        result.setNoteImageLinks(noteRepository.deleteAllImageLinks());
+        log.info("Deleted {} note-image links", result.getNoteImageLinks());
         
-        // 7. Delete Index Entries
-        long indexCount = indexEntryRepository.count();
-        if (indexCount > 0) {
-            indexEntryRepository.deleteAll();
-            log.info("Deleted {} index entries", indexCount);
-        }
+        // 2. Unlink PageImages (FK to Images); the PageImage rows are preserved
+        result.setPageImagesUnlinked(pageImageRepository.unlinkAllImages());
+        log.info("Unlinked {} page images", result.getPageImagesUnlinked());
         
-        // Verify PageContent is preserved
-        preservePageContents();
+        // 3. Delete Notes (has FK to Verse)
+        result.setNotes(noteRepository.deleteAllInBulk());
+        log.info("Deleted {} notes", result.getNotes());
         
-        log.warn("=== CLEANUP COMPLETE ===");
-        log.info("Summary: Deleted {} books, {} chapters, {} verses, {} notes, {} images, {} glossary terms, {} index entries",
-                bookCount, chapterCount, verseCount, noteCount, imageCount, glossaryCount, indexCount);
+        // 4. Delete Verses (has FK to Chapter)
+        result.setVerses(verseRepository.deleteAllInBulk());
+        log.info("Deleted {} verses", result.getVerses());
+        
+        // 5. Delete Chapters (has FK to Book)
+        result.setChapters(chapterRepository.deleteAllInBulk());
+        log.info("Deleted {} chapters", result.getChapters());
+        
+        // 6. Delete Books
+        result.setBooks(bookRepository.deleteAllInBulk());
+        log.info("Deleted {} books", result.getBooks());
+        
+        // 7. Delete Images (unreferenced after steps 1 and 2)
+        result.setImages(imageRepository.deleteAllInBulk());
+        log.info("Deleted {} images", result.getImages());
+        
+        // 8. Delete image blobs only the deleted Images referenced
+        result.setImageBlobs(imageBlobService.deleteUnreferenced());
+        log.info("Deleted {} unreferenced image blobs", result.getImageBlobs());
+        
+        verseCache.invalidateAll();
+        searchIndex.deleteTypes(SearchHit.Type.VERSE, SearchHit.Type.NOTE);
+        
+        return result;
     }
     
     /**
@@ -119,29 +139,21 @@ public class IngestionDataCleanup {
     }
     
     /**
-     * Deletes only content entities (Books/Chapters/Verses/Notes/Images).
+     * Deletes only content entities (Books/Chapters/Verses/Notes/Images and their unshared blobs).
      * Preserves Glossary and Index for reference.
+     * 
+     * @return exact number of rows removed per table
      */
     @Transactional
-    public void cleanupContentOnly() {
+    public CleanupResult cleanupContentOnly() {
         log.info("Cleaning up content entities only (preserving Glossary and Index)");
         
-        long noteCount = noteRepository.count();
-        noteRepository.deleteAll();
-        
-        long verseCount = verseRepository.count();
-        verseRepository.deleteAll();
-        
-        long chapterCount = chapterRepository.count();
-        chapterRepository.deleteAll();
-        
-        long bookCount = bookRepository.count();
-        bookRepository.deleteAll();
-        
-        long imageCount = imageRepository.count();
-        imageRepository.deleteAll();
+        CleanupResult result = deleteContent();
         
         log.info("Content cleanup complete: {} books, {} chapters, {} verses, {} notes, {} images deleted",
-                bookCount, chapterCount, verseCount, noteCount, imageCount);
+                result.getBooks(), result.getChapters(), result.getVerses(),
+                result.getNotes(), result.getImages());
+        
+        return result;
     }
 }
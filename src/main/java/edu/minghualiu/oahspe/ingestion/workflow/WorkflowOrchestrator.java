@@ -1,20 +1,35 @@
 package edu.minghualiu.oahspe.ingestion.workflow;
 
+import edu.minghualiu.oahspe.entities.PageCategory;
 import edu.minghualiu.oahspe.entities.WorkflowPhase;
 import edu.minghualiu.oahspe.entities.WorkflowState;
 import edu.minghualiu.oahspe.entities.WorkflowStatus;
 import edu.minghualiu.oahspe.ingestion.linker.PageIngestionLinker;
 import edu.minghualiu.oahspe.ingestion.loader.PageLoader;
+import edu.minghualiu.oahspe.ingestion.metrics.IngestionMetrics;
 import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
 import edu.minghualiu.oahspe.ingestion.runner.ProgressCallback;
+import edu.minghualiu.oahspe.reader.CorpusSnapshotService;
 import edu.minghualiu.oahspe.repositories.PageContentRepository;
 import edu.minghualiu.oahspe.repositories.WorkflowStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * Orchestrates the complete 3-phase ingestion workflow.
@@ -26,6 +41,16 @@ import java.util.List;
  * 4. Gate 2: Verify cleanup complete
  * 5. Phase 3: Ingest PageContent → domain entities
  * 6. Gate 3: Verify ingestion complete
+ * 
+ * Each phase is timed through {@link IngestionMetrics}; the metrics summary is
+ * stored as JSON in {@code WorkflowState.statistics} when the workflow ends.
+ * 
+ * The workflow state records the PDF and, during Phase 3, the last committed
+ * page of each category, so {@link #resumeWorkflow} can continue an
+ * interrupted run without repeating finished work.
+ * 
+ * A completed workflow rebuilds the reader's corpus snapshot, so reads are
+ * served without the database again.
  */
 @Slf4j
 @Service
@@ -37,6 +62,9 @@ public class WorkflowOrchestrator {
     private final PageIngestionLinker pageIngestionLinker;
     private final WorkflowStateRepository workflowStateRepository;
     private final PageContentRepository pageContentRepository;
+    private final IngestionMetrics ingestionMetrics;
+    private final ObjectMapper objectMapper;
+    private final CorpusSnapshotService corpusSnapshotService;
     
     private static final String DEFAULT_WORKFLOW_NAME = "oahspe-ingestion";
     private static final int EXPECTED_TOTAL_PAGES = 1831;
@@ -44,13 +72,19 @@ public class WorkflowOrchestrator {
     /**
      * Executes the complete 3-phase workflow.
      * 
+     * An unfinished workflow continues from its saved phase and checkpoints,
+     * provided the PDF is the one it was started with.
+     * 
      * @param pdfPath absolute path to the PDF file
      * @param callback optional progress callback
      * @return final workflow state
+     * @throws IllegalStateException if an unfinished workflow was started from a different PDF
      */
     public WorkflowState executeFullWorkflow(String pdfPath, ProgressCallback callback) {
         log.info("Starting full ingestion workflow for PDF: {}", pdfPath);
         
+        String sourceHash = hashSource(pdfPath);
+        
         // Initialize or resume workflow
         WorkflowState workflow = workflowStateRepository
                 .findByWorkflowName(DEFAULT_WORKFLOW_NAME)
@@ -60,6 +94,22 @@ public class WorkflowOrchestrator {
                         .status(WorkflowStatus.NOT_STARTED)
                         .build());
         
+        if (workflow.isResumable() && workflow.getSourceHash() != null
+                && !workflow.getSourceHash().equals(sourceHash)) {
+            throw new IllegalStateException(String.format(
+                    "Workflow %s was started from a different PDF (%s); run --cleanup before switching files",
+                    workflow.getWorkflowName(), workflow.getSourcePath()));
+        }
+        workflow.setSourcePath(Path.of(pdfPath).toAbsolutePath().toString());
+        workflow.setSourceHash(sourceHash);
+        
+        return runWorkflow(workflow, workflow.getSourcePath(), callback);
+    }
+    
+    /**
+     * Runs the phases from the workflow's current phase onwards.
+     */
+    private WorkflowState runWorkflow(WorkflowState workflow, String pdfPath, ProgressCallback callback) {
         try {
             // Phase 1: Load pages from PDF
             if (workflow.getCurrentPhase().ordinal() <= WorkflowPhase.PAGE_LOADING.ordinal()) {
@@ -92,6 +142,7 @@ public class WorkflowOrchestrator {
             workflow.markCompleted();
             workflow.setStatistics(generateStatistics());
             workflowStateRepository.save(workflow);
+            corpusSnapshotService.rebuild();
             
             log.info("Full workflow completed successfully");
             return workflow;
@@ -99,6 +150,7 @@ public class WorkflowOrchestrator {
         } catch (Exception e) {
             log.error("Workflow failed: {}", e.getMessage(), e);
             workflow.markFailed(e.getMessage());
+            workflow.setStatistics(generateStatistics());
             workflowStateRepository.save(workflow);
             throw new RuntimeException("Workflow execution failed", e);
         }
@@ -112,7 +164,10 @@ public class WorkflowOrchestrator {
         workflow.updatePhase(WorkflowPhase.PAGE_LOADING);
         workflowStateRepository.save(workflow);
         
-        IngestionContext context = pageLoader.loadAllPages(pdfPath, callback);
+        IngestionContext context;
+        try (IngestionMetrics.PhaseTimer timer = ingestionMetrics.phase(WorkflowPhase.PAGE_LOADING)) {
+            context = pageLoader.loadAllPages(pdfPath, callback);
+        }
         
         if (!context.isSuccessful()) {
             throw new RuntimeException(String.format(
@@ -128,9 +183,12 @@ public class WorkflowOrchestrator {
     private void executePhase2(WorkflowState workflow, ProgressCallback callback) {
         log.info("=== Phase 2: Cleaning up old data ===");
         workflow.updatePhase(WorkflowPhase.CLEANUP);
+        workflow.clearCheckpoints();
         workflowStateRepository.save(workflow);
         
-        dataCleanup.cleanupAllIngestedData();
+        try (IngestionMetrics.PhaseTimer timer = ingestionMetrics.phase(WorkflowPhase.CLEANUP)) {
+            dataCleanup.cleanupAllIngestedData();
+        }
         
         log.info("Phase 2 complete: Old data cleaned up");
     }
@@ -138,16 +196,26 @@ public class WorkflowOrchestrator {
     /**
      * Phase 3: Ingest content from PageContent entities.
      * Processes each category separately with its appropriate parser.
+     * Each page commits together with its checkpoint in the workflow state.
      */
     private void executePhase3(WorkflowState workflow, ProgressCallback callback) {
         log.info("=== Phase 3: Ingesting content ===");
         workflow.updatePhase(WorkflowPhase.CONTENT_INGESTION);
         workflowStateRepository.save(workflow);
         
+        try (IngestionMetrics.PhaseTimer timer = ingestionMetrics.phase(WorkflowPhase.CONTENT_INGESTION)) {
+            ingestAllCategories(workflow, callback);
+        }
+    }
+    
+    /**
+     * Runs the three Phase 3 sub-phases, one category each.
+     */
+    private void ingestAllCategories(WorkflowState workflow, ProgressCallback callback) {
         // Phase 3a: Ingest OAHSPE_BOOKS (pages 7-1668) using OahspeParser
         log.info("Phase 3a: Ingesting OAHSPE_BOOKS (main content)");
         IngestionContext booksContext = pageIngestionLinker.ingestCategoryPages(
-                edu.minghualiu.oahspe.entities.PageCategory.OAHSPE_BOOKS, callback);
+                PageCategory.OAHSPE_BOOKS, callback, checkpoint(workflow, PageCategory.OAHSPE_BOOKS));
         
         if (!booksContext.isSuccessful()) {
             throw new RuntimeException(String.format(
@@ -159,7 +227,7 @@ public class WorkflowOrchestrator {
         // Phase 3b: Ingest GLOSSARIES (pages 1668-1690) using GlossaryParser
         log.info("Phase 3b: Ingesting GLOSSARIES");
         IngestionContext glossariesContext = pageIngestionLinker.ingestCategoryPages(
-                edu.minghualiu.oahspe.entities.PageCategory.GLOSSARIES, callback);
+                PageCategory.GLOSSARIES, callback, checkpoint(workflow, PageCategory.GLOSSARIES));
         
         if (!glossariesContext.isSuccessful()) {
             throw new RuntimeException(String.format(
@@ -171,7 +239,7 @@ public class WorkflowOrchestrator {
         // Phase 3c: Ingest INDEX (pages 1691-1831) using IndexParser
         log.info("Phase 3c: Ingesting INDEX");
         IngestionContext indexContext = pageIngestionLinker.ingestCategoryPages(
-                edu.minghualiu.oahspe.entities.PageCategory.INDEX, callback);
+                PageCategory.INDEX, callback, checkpoint(workflow, PageCategory.INDEX));
         
         if (!indexContext.isSuccessful()) {
             throw new RuntimeException(String.format(
@@ -255,39 +323,103 @@ public class WorkflowOrchestrator {
     }
     
     /**
-     * Resumes an interrupted workflow from its last saved state.
+     * Returns the checkpoint writer for a category. It runs inside each page's
+     * transaction, so the checkpoint commits or rolls back with the page.
+     */
+    private IntConsumer checkpoint(WorkflowState workflow, PageCategory category) {
+        return pageNumber -> {
+            workflow.recordCheckpoint(category, pageNumber);
+            workflowStateRepository.save(workflow);
+        };
+    }
+    
+    /**
+     * Resumes an interrupted or failed workflow from its last saved state.
+     * 
+     * Page loading skips the batches already written, cleanup is not repeated
+     * once ingestion has started, and ingestion continues after each category's
+     * last committed page, so the time spent is proportional to the remaining work.
      * 
      * @param workflowName the workflow to resume
      * @return workflow state
      */
-    @Transactional
     public WorkflowState resumeWorkflow(String workflowName) {
+        return resumeWorkflow(workflowName, null);
+    }
+    
+    /**
+     * Resumes an interrupted or failed workflow from its last saved state.
+     * 
+     * @param workflowName the workflow to resume
+     * @param callback optional progress callback
+     * @return workflow state
+     * @throws IllegalStateException if the workflow did not record its PDF,
+     *         or the PDF has changed since the workflow started
+     */
+    public WorkflowState resumeWorkflow(String workflowName, ProgressCallback callback) {
         WorkflowState workflow = workflowStateRepository
                 .findByWorkflowName(workflowName)
                 .orElseThrow(() -> new RuntimeException(
                         "No workflow found with name: " + workflowName));
         
-        if (workflow.isTerminal()) {
+        if (workflow.getStatus() == WorkflowStatus.COMPLETED) {
             log.warn("Workflow {} is already in terminal state: {}", 
                     workflowName, workflow.getStatus());
             return workflow;
         }
         
-        log.info("Resuming workflow from phase: {}", workflow.getCurrentPhase());
+        if (!workflow.isResumable()) {
+            throw new IllegalStateException(
+                    "Workflow " + workflowName + " did not record its PDF; start it again with --workflow <pdf>");
+        }
+        
+        String sourceHash = hashSource(workflow.getSourcePath());
+        if (!sourceHash.equals(workflow.getSourceHash())) {
+            throw new IllegalStateException(
+                    "PDF has changed since workflow " + workflowName + " started: " + workflow.getSourcePath());
+        }
         
-        // Resume from current phase (pdfPath would need to be stored in statistics)
-        throw new UnsupportedOperationException(
-                "Resume not yet implemented - need to store pdfPath in workflow state");
+        log.info("Resuming workflow from phase: {} (checkpoints: {})", 
+                workflow.getCurrentPhase(), workflow.getCheckpoints());
+        return runWorkflow(workflow, workflow.getSourcePath(), callback);
     }
     
     /**
-     * Generates statistics summary for completed workflow.
+     * Computes the SHA-256 hash of the source PDF, hex encoded.
      */
-    private String generateStatistics() {
+    private static String hashSource(String pdfPath) {
+        try (InputStream in = Files.newInputStream(Path.of(pdfPath))) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read PDF: " + pdfPath, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Generates the statistics JSON for a finished workflow: page counts plus
+     * the {@link IngestionMetrics#summary() metrics summary}.
+     */
+    String generateStatistics() {
         long totalPages = pageContentRepository.count();
-        long ingestedPages = pageContentRepository.findByIngestedFalse().size();
+        long ingestedPages = pageContentRepository.countByIngestedTrue();
         
-        return String.format("Total pages: %d, Ingested: %d", 
-                totalPages, EXPECTED_TOTAL_PAGES - ingestedPages);
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalPages", totalPages);
+        statistics.put("ingestedPages", ingestedPages);
+        statistics.put("metrics", ingestionMetrics.summary());
+        try {
+            return objectMapper.writeValueAsString(statistics);
+        } catch (JacksonException e) {
+            log.warn("Could not serialize workflow statistics: {}", e.getMessage());
+            return String.format("Total pages: %d, Ingested: %d", 
+                    totalPages, ingestedPages);
+        }
     }
 }
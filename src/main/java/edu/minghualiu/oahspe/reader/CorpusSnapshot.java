@@ -0,0 +1,378 @@
+package edu.minghualiu.oahspe.reader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable, compact copy of every verse and its notes, read by
+ * {@link VerseReadService} without the database or any locking.
+ *
+ * Layout:
+ * <ul>
+ *   <li>Strings: every key, text and title concatenated into one
+ *       {@code String}. A string is referred to by its index in
+ *       {@code stringEnds}, or -1 for null.</li>
+ *   <li>Keys: the chapter keys ("14/7") sorted in {@code chapterKeys}; the
+ *       verses of chapter key i are the slice {@code keyVerseStart[i]} to
+ *       {@code keyVerseStart[i + 1]} of the verse arrays, sorted by verse
+ *       number. A lookup is two binary searches.</li>
+ *   <li>Hierarchy: Book → Chapter → Verse → Note as int indexes: each verse's
+ *       chapter, each chapter's book, and each verse's notes as a slice of
+ *       the note arrays, in note key order.</li>
+ * </ul>
+ *
+ * A snapshot records the {@link VerseCache#generation() write generation} it
+ * was read at, so {@link CorpusSnapshotService} serves it only while nothing
+ * has been written since.
+ *
+ * Usage:
+ * <pre>
+ * CorpusSnapshot snapshot = CorpusSnapshot.builder(verseCache.generation())
+ *         .addBook(1, "Book of Jehovih")
+ *         .addChapter(10L, "Chapter 7", 1)
+ *         .addVerse(100, "14/7.1", "In the beginning...", null, 20, 10L)
+ *         .addNote(100, "42", "A note", null)
+ *         .build();
+ * Optional&lt;VerseView&gt; verse = snapshot.findVerse(VerseKey.parse("14/7.1"));
+ * </pre>
+ */
+public final class CorpusSnapshot {
+
+    /** Index meaning "none": a null string or a chapter without a book */
+    private static final int NONE = -1;
+
+    /** Page value meaning "no page number" */
+    private static final int NO_PAGE = Integer.MIN_VALUE;
+
+    private final long generation;
+
+    private final String strings;
+    private final int[] stringEnds;
+
+    private final String[] chapterKeys;
+    private final int[] keyVerseStart;
+
+    private final int[] verseNumbers;
+    private final int[] verseKeys;
+    private final int[] verseTexts;
+    private final int[] verseTextsInChinese;
+    private final int[] versePages;
+    private final int[] verseChapters;
+    private final int[] verseNoteStart;
+
+    private final int[] chapterTitles;
+    private final int[] chapterBooks;
+    private final int[] bookTitles;
+
+    private final int[] noteKeys;
+    private final int[] noteTexts;
+    private final int[] noteTextsInChinese;
+
+    private CorpusSnapshot(Builder builder, List<Builder.VerseEntry> verses, int noteCount) {
+        this.generation = builder.generation;
+        Strings pool = new Strings();
+
+        bookTitles = new int[builder.books.size()];
+        Map<Integer, Integer> bookIndexes = new HashMap<>();
+        for (Map.Entry<Integer, String> book : builder.books.entrySet()) {
+            bookTitles[bookIndexes.size()] = pool.add(book.getValue());
+            bookIndexes.put(book.getKey(), bookIndexes.size());
+        }
+
+        chapterTitles = new int[builder.chapters.size()];
+        chapterBooks = new int[builder.chapters.size()];
+        for (Builder.ChapterEntry chapter : builder.chapters.values()) {
+            chapterTitles[chapter.index()] = pool.add(chapter.title());
+            chapterBooks[chapter.index()] = bookIndexes.getOrDefault(chapter.bookId(), NONE);
+        }
+
+        int verseCount = verses.size();
+        verseNumbers = new int[verseCount];
+        verseKeys = new int[verseCount];
+        verseTexts = new int[verseCount];
+        verseTextsInChinese = new int[verseCount];
+        versePages = new int[verseCount];
+        verseChapters = new int[verseCount];
+        verseNoteStart = new int[verseCount + 1];
+        noteKeys = new int[noteCount];
+        noteTexts = new int[noteCount];
+        noteTextsInChinese = new int[noteCount];
+
+        List<String> keys = new ArrayList<>();
+        int[] starts = new int[verseCount + 1];
+        int note = 0;
+        for (int v = 0; v < verseCount; v++) {
+            Builder.VerseEntry verse = verses.get(v);
+            String chapterKey = verse.key().chapterKey();
+            if (keys.isEmpty() || !keys.getLast().equals(chapterKey)) {
+                starts[keys.size()] = v;
+                keys.add(chapterKey);
+            }
+            verseNumbers[v] = verse.key().verse();
+            verseKeys[v] = pool.add(verse.verseKey());
+            verseTexts[v] = pool.add(verse.text());
+            verseTextsInChinese[v] = pool.add(verse.textInChinese());
+            versePages[v] = verse.pageNumber() != null ? verse.pageNumber() : NO_PAGE;
+            verseChapters[v] = verse.chapter();
+            verseNoteStart[v] = note;
+            for (VerseView.NoteView noteView : builder.notes.getOrDefault(verse.id(), List.of())) {
+                noteKeys[note] = pool.add(noteView.noteKey());
+                noteTexts[note] = pool.add(noteView.text());
+                noteTextsInChinese[note] = pool.add(noteView.textInChinese());
+                note++;
+            }
+        }
+        verseNoteStart[verseCount] = note;
+        starts[keys.size()] = verseCount;
+
+        chapterKeys = keys.toArray(String[]::new);
+        keyVerseStart = Arrays.copyOf(starts, keys.size() + 1);
+        strings = pool.buffer.toString();
+        stringEnds = Arrays.copyOf(pool.ends, pool.count);
+    }
+
+    /**
+     * Starts a snapshot of data read at a write generation.
+     *
+     * @param generation the {@link VerseCache#generation()} read before the data
+     * @return a builder
+     */
+    public static Builder builder(long generation) {
+        return new Builder(generation);
+    }
+
+    /**
+     * Returns the write generation the snapshot was read at.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of verses.
+     */
+    public int verseCount() {
+        return verseNumbers.length;
+    }
+
+    /**
+     * Returns the number of notes attached to verses.
+     */
+    public int noteCount() {
+        return noteKeys.length;
+    }
+
+    /**
+     * Returns the number of characters of all strings together.
+     */
+    public int textLength() {
+        return strings.length();
+    }
+
+    /**
+     * Returns a verse with its notes.
+     *
+     * @param key the verse key
+     * @return the verse, or empty if there is none
+     */
+    public Optional<VerseView> findVerse(VerseKey key) {
+        int chapter = Arrays.binarySearch(chapterKeys, key.chapterKey());
+        if (chapter < 0) {
+            return Optional.empty();
+        }
+        int verse = Arrays.binarySearch(verseNumbers, keyVerseStart[chapter], keyVerseStart[chapter + 1], key.verse());
+        return verse >= 0 ? Optional.of(view(verse)) : Optional.empty();
+    }
+
+    /**
+     * Returns the verses of a range in verse order.
+     *
+     * @param range the range
+     * @return the verses found
+     */
+    public List<VerseView> findRange(VerseKey.Range range) {
+        int chapter = Arrays.binarySearch(chapterKeys, range.first().chapterKey());
+        if (chapter < 0) {
+            return List.of();
+        }
+        int end = keyVerseStart[chapter + 1];
+        int from = firstAbove(keyVerseStart[chapter], end, range.first().verse() - 1L);
+        int to = firstAbove(from, end, range.last().verse());
+        List<VerseView> result = new ArrayList<>(to - from);
+        for (int verse = from; verse < to; verse++) {
+            result.add(view(verse));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first index in [from, to) whose verse number exceeds a value, or to.
+     */
+    private int firstAbove(int from, int to, long value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (verseNumbers[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private VerseView view(int verse) {
+        int firstNote = verseNoteStart[verse];
+        int endNote = verseNoteStart[verse + 1];
+        List<VerseView.NoteView> notes = new ArrayList<>(endNote - firstNote);
+        for (int note = firstNote; note < endNote; note++) {
+            notes.add(new VerseView.NoteView(string(noteKeys[note]), string(noteTexts[note]),
+                    string(noteTextsInChinese[note])));
+        }
+        int chapter = verseChapters[verse];
+        int book = chapterBooks[chapter];
+        return new VerseView(string(verseKeys[verse]), string(verseTexts[verse]),
+                string(verseTextsInChinese[verse]),
+                versePages[verse] != NO_PAGE ? versePages[verse] : null,
+                book != NONE ? string(bookTitles[book]) : null,
+                string(chapterTitles[chapter]), notes);
+    }
+
+    private String string(int index) {
+        if (index == NONE) {
+            return null;
+        }
+        int start = index == 0 ? 0 : stringEnds[index - 1];
+        return strings.substring(start, stringEnds[index]);
+    }
+
+    /**
+     * Concatenates strings into one buffer, recording where each ends.
+     */
+    private static final class Strings {
+        private final StringBuilder buffer = new StringBuilder();
+        private int[] ends = new int[1024];
+        private int count = 0;
+
+        int add(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            buffer.append(value);
+            if (count == ends.length) {
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            ends[count] = buffer.length();
+            return count++;
+        }
+    }
+
+    /**
+     * Collects books, chapters, verses and notes in any order. Add a verse's
+     * chapter, and a chapter's book, before the verse; repeated book and
+     * chapter ids are ignored.
+     */
+    public static final class Builder {
+
+        private static final Comparator<VerseEntry> VERSE_ORDER = Comparator
+                .comparing((VerseEntry verse) -> verse.key().chapterKey())
+                .thenComparingInt(verse -> verse.key().verse());
+
+        private final long generation;
+        private final Map<Integer, String> books = new LinkedHashMap<>();
+        private final Map<Long, ChapterEntry> chapters = new LinkedHashMap<>();
+        private final List<VerseEntry> verses = new ArrayList<>();
+        private final Map<Integer, List<VerseView.NoteView>> notes = new HashMap<>();
+        private int skippedVerses = 0;
+
+        private Builder(long generation) {
+            this.generation = generation;
+        }
+
+        public Builder addBook(int id, String title) {
+            books.putIfAbsent(id, title);
+            return this;
+        }
+
+        /**
+         * @param bookId the chapter's book, or null if it has none
+         */
+        public Builder addChapter(long id, String title, Integer bookId) {
+            chapters.computeIfAbsent(id, key -> new ChapterEntry(chapters.size(), title, bookId));
+            return this;
+        }
+
+        /**
+         * Adds a verse. Verses whose key does not parse are skipped and counted.
+         *
+         * @throws IllegalArgumentException if the chapter was not added
+         */
+        public Builder addVerse(int id, String verseKey, String text, String textInChinese,
+                                Integer pageNumber, long chapterId) {
+            ChapterEntry chapter = chapters.get(chapterId);
+            if (chapter == null) {
+                throw new IllegalArgumentException("Verse " + verseKey + " refers to unknown chapter " + chapterId);
+            }
+            VerseKey key = VerseKey.tryParse(verseKey);
+            if (key == null) {
+                skippedVerses++;
+                return this;
+            }
+            verses.add(new VerseEntry(id, key, verseKey, text, textInChinese, pageNumber, chapter.index()));
+            return this;
+        }
+
+        /**
+         * Adds a note to a verse. Notes of verses that are never added are dropped.
+         */
+        public Builder addNote(int verseId, String noteKey, String text, String textInChinese) {
+            notes.computeIfAbsent(verseId, key -> new ArrayList<>())
+                    .add(new VerseView.NoteView(noteKey, text, textInChinese));
+            return this;
+        }
+
+        /**
+         * Returns the number of verses skipped for a malformed key.
+         */
+        public int skippedVerses() {
+            return skippedVerses;
+        }
+
+        /**
+         * Builds the snapshot. Of two verses with the same chapter and verse
+         * number ("14/7.1" and "14/7.01") only the first is kept.
+         */
+        public CorpusSnapshot build() {
+            List<VerseEntry> sorted = new ArrayList<>(verses);
+            sorted.sort(VERSE_ORDER);
+            List<VerseEntry> unique = new ArrayList<>(sorted.size());
+            int noteCount = 0;
+            for (VerseEntry verse : sorted) {
+                if (!unique.isEmpty() && VERSE_ORDER.compare(unique.getLast(), verse) == 0) {
+                    continue;
+                }
+                unique.add(verse);
+                List<VerseView.NoteView> verseNotes = notes.get(verse.id());
+                if (verseNotes != null) {
+                    verseNotes.sort(VerseReadService.NOTE_ORDER);
+                    noteCount += verseNotes.size();
+                }
+            }
+            return new CorpusSnapshot(this, unique, noteCount);
+        }
+
+        private record ChapterEntry(int index, String title, Integer bookId) {
+        }
+
+        private record VerseEntry(int id, VerseKey key, String verseKey, String text, String textInChinese,
+                                  Integer pageNumber, int chapter) {
+        }
+    }
+}
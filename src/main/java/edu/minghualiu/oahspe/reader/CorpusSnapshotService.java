@@ -0,0 +1,99 @@
+package edu.minghualiu.oahspe.reader;
+
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CorpusSnapshot}.
+ *
+ * The snapshot is built when the application is ready and again when
+ * {@code WorkflowOrchestrator} finishes a workflow; a rebuilt snapshot
+ * replaces the old one atomically, so readers never wait.
+ *
+ * A snapshot is served only while the {@link VerseCache#generation() write
+ * generation} it was read at is still current. Any write through the
+ * ingestion services makes it stale, and reads go to {@link VerseCache} and
+ * the database until the next rebuild.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CorpusSnapshotService {
+
+    private final VerseRepository verseRepository;
+    private final NoteRepository noteRepository;
+    private final VerseCache verseCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<CorpusSnapshot> snapshot = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Returns the snapshot if nothing has been written since it was read.
+     */
+    public Optional<CorpusSnapshot> current() {
+        CorpusSnapshot current = snapshot.get();
+        if (current == null || current.generation() != verseCache.generation()) {
+            return Optional.empty();
+        }
+        return Optional.of(current);
+    }
+
+    /**
+     * Reads every verse and note in one transaction and replaces the snapshot.
+     * On failure the old snapshot is kept, and reads fall back to the
+     * database once it is stale.
+     *
+     * @return the new snapshot, or empty if it could not be read
+     */
+    public Optional<CorpusSnapshot> rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            CorpusSnapshot built = transactionTemplate.execute(status -> read());
+            snapshot.set(built);
+            log.info("Corpus snapshot: {} verses, {} notes, {} characters in {} ms",
+                    built.verseCount(), built.noteCount(), built.textLength(),
+                    System.currentTimeMillis() - started);
+            return Optional.of(built);
+        } catch (RuntimeException e) {
+            log.warn("Could not build the corpus snapshot: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private CorpusSnapshot read() {
+        // Read the generation first: a write during the read makes the snapshot stale
+        CorpusSnapshot.Builder builder = CorpusSnapshot.builder(verseCache.generation());
+        for (VerseRepository.CorpusVerseView verse : verseRepository.findAllCorpusViews()) {
+            if (verse.getBookId() != null) {
+                builder.addBook(verse.getBookId(), verse.getBookTitle());
+            }
+            builder.addChapter(verse.getChapterId(), verse.getChapterTitle(), verse.getBookId())
+                    .addVerse(verse.getId(), verse.getVerseKey(), verse.getText(), verse.getTextInChinese(),
+                            verse.getPageNumber(), verse.getChapterId());
+        }
+        for (NoteRepository.CorpusNoteView note : noteRepository.findAllCorpusViews()) {
+            if (note.getVerseId() == null) {
+                continue;
+            }
+            builder.addNote(note.getVerseId(), note.getNoteKey(), note.getText(), note.getTextInChinese());
+        }
+        if (builder.skippedVerses() > 0) {
+            log.warn("Corpus snapshot skipped {} verses with malformed keys", builder.skippedVerses());
+        }
+        return builder.build();
+    }
+}
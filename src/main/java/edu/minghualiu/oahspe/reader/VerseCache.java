@@ -0,0 +1,186 @@
+package edu.minghualiu.oahspe.reader;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Two-tier, size-bounded cache of verses for {@link VerseReadService}.
+ *
+ * <ul>
+ *   <li>Tier 1, {@code oahspe.reader.verses}: single verses by verse key,
+ *       at most {@code oahspe.reader.cache.max-verses} entries</li>
+ *   <li>Tier 2, {@code oahspe.reader.chapters}: every verse of a chapter in
+ *       verse order by chapter key ("14/7"), at most
+ *       {@code oahspe.reader.cache.max-chapters} entries. Range reads are
+ *       served from here, and a tier-1 miss is filled from here, so a
+ *       missing chapter is read with one query.</li>
+ * </ul>
+ *
+ * Both tiers evict by size (Caffeine's W-TinyLFU) and record hits, misses and
+ * evictions as the Micrometer {@code cache.*} meters, tagged with the cache
+ * name above.
+ *
+ * Writers call {@link #invalidate} for every verse or note they save and
+ * {@link #invalidateAll} after bulk deletes. Entries are evicted at once and,
+ * inside a transaction, again when it completes: a reader that loaded the old
+ * row before the commit cannot leave it cached. Every eviction also advances
+ * the {@link #generation() write generation}, which tells {@link CorpusSnapshot}s
+ * built earlier that they are out of date.
+ */
+@Slf4j
+@Component
+public class VerseCache {
+
+    public static final String VERSES_CACHE = "oahspe.reader.verses";
+    public static final String CHAPTERS_CACHE = "oahspe.reader.chapters";
+
+    private final Cache<String, VerseView> verses;
+    private final Cache<String, List<VerseView>> chapters;
+    private final AtomicLong generation = new AtomicLong();
+
+    public VerseCache(MeterRegistry registry,
+                      @Value("${oahspe.reader.cache.max-verses:20000}") long maxVerses,
+                      @Value("${oahspe.reader.cache.max-chapters:1000}") long maxChapters) {
+        this.verses = Caffeine.newBuilder().maximumSize(maxVerses).recordStats().build();
+        this.chapters = Caffeine.newBuilder().maximumSize(maxChapters).recordStats().build();
+        CaffeineCacheMetrics.monitor(registry, verses, VERSES_CACHE);
+        CaffeineCacheMetrics.monitor(registry, chapters, CHAPTERS_CACHE);
+    }
+
+    /**
+     * Returns a verse from tier 1, or computes it and caches a non-null result.
+     *
+     * @param verseKey the verse key
+     * @param loader computes the verse on a miss; may return null if there is none
+     * @return the verse, or empty if the loader found none
+     */
+    public Optional<VerseView> getVerse(String verseKey, Function<String, VerseView> loader) {
+        return Optional.ofNullable(verses.get(verseKey, loader));
+    }
+
+    /**
+     * Returns a chapter's verses from tier 2, or loads and caches them.
+     * A chapter without verses is cached as an empty list.
+     *
+     * @param chapterKey the chapter key, e.g. "14/7"
+     * @param loader loads the chapter's verses in verse order on a miss
+     * @return the chapter's verses in verse order
+     */
+    public List<VerseView> getChapter(String chapterKey, Function<String, List<VerseView>> loader) {
+        return chapters.get(chapterKey, loader);
+    }
+
+    /**
+     * Evicts a verse and its chapter, now and when the current transaction completes.
+     *
+     * @param verseKey the key of a verse that was written
+     */
+    public void invalidate(String verseKey) {
+        if (verseKey == null) {
+            return;
+        }
+        evict(verseKey);
+        Pending pending = pending();
+        if (pending != null) {
+            pending.verseKeys.add(verseKey);
+        }
+    }
+
+    /**
+     * Empties both tiers, now and when the current transaction completes.
+     */
+    public void invalidateAll() {
+        evictAll();
+        Pending pending = pending();
+        if (pending != null) {
+            pending.all = true;
+        }
+    }
+
+    /**
+     * Returns the write generation: a counter advanced by every eviction.
+     * Data read while it stays unchanged reflects every write since.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Returns tier-1 hit and miss counts.
+     */
+    public CacheStats verseStats() {
+        return verses.stats();
+    }
+
+    /**
+     * Returns tier-2 hit and miss counts.
+     */
+    public CacheStats chapterStats() {
+        return chapters.stats();
+    }
+
+    private void evict(String verseKey) {
+        generation.incrementAndGet();
+        verses.invalidate(verseKey);
+        VerseKey key = VerseKey.tryParse(verseKey);
+        if (key != null) {
+            chapters.invalidate(key.chapterKey());
+        }
+    }
+
+    private void evictAll() {
+        generation.incrementAndGet();
+        verses.invalidateAll();
+        chapters.invalidateAll();
+        log.debug("Verse cache cleared");
+    }
+
+    /**
+     * Returns the keys to evict again when the current transaction completes,
+     * registering one synchronization per transaction, or null outside one.
+     */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VerseCache.this);
+                    if (created.all) {
+                        evictAll();
+                    } else {
+                        created.verseKeys.forEach(VerseCache.this::evict);
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    /** Evictions to repeat when a transaction completes */
+    private static final class Pending {
+        private final Set<String> verseKeys = new HashSet<>();
+        private boolean all = false;
+    }
+}
@@ -0,0 +1,55 @@
+package edu.minghualiu.oahspe.reader;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Read-only REST API for verses.
+ *
+ * <ul>
+ *   <li>{@code GET /verses/14/7.1}: one verse with its notes; 404 if there is none</li>
+ *   <li>{@code GET /verses?range=14/7.1..14/7.40}: the verses of a range
+ *       within one chapter, in verse order</li>
+ * </ul>
+ *
+ * Malformed keys and ranges are answered with 400.
+ *
+ * @see VerseReadService
+ */
+@RestController
+@RequestMapping("/verses")
+@RequiredArgsConstructor
+public class VerseController {
+
+    private final VerseReadService verseReadService;
+
+    /**
+     * The verse key contains a slash, so book and chapter.verse are separate path segments.
+     */
+    @GetMapping("/{book}/{chapterVerse}")
+    public VerseView getVerse(@PathVariable String book, @PathVariable String chapterVerse) {
+        String verseKey = book + "/" + chapterVerse;
+        return verseReadService.findVerse(verseKey)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No verse " + verseKey));
+    }
+
+    @GetMapping(params = "range")
+    public List<VerseView> getRange(@RequestParam String range) {
+        return verseReadService.findRange(range);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -0,0 +1,105 @@
+package edu.minghualiu.oahspe.reader;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A parsed verse key such as {@code 14/7.1}: book 14, chapter 7, verse 1.
+ *
+ * The format is the one {@code OahspeParser} extracts from verse lines.
+ * Chapters may be alphanumeric; verses are numbered.
+ *
+ * @param book the book number
+ * @param chapter the chapter within the book
+ * @param verse the verse number within the chapter
+ */
+public record VerseKey(String book, String chapter, int verse) {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("^(\\d+)/([A-Za-z0-9]+)\\.(\\d+)$");
+
+    /** Separator between the first and last key of a range */
+    public static final String RANGE_SEPARATOR = "..";
+
+    /**
+     * Parses a verse key.
+     *
+     * @param key the key, e.g. "14/7.1"
+     * @return the parsed key
+     * @throws IllegalArgumentException if the key is not in book/chapter.verse form
+     */
+    public static VerseKey parse(String key) {
+        Matcher matcher = key == null ? null : KEY_PATTERN.matcher(key.strip());
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException("Invalid verse key '" + key + "', expected book/chapter.verse");
+        }
+        try {
+            return new VerseKey(matcher.group(1), matcher.group(2), Integer.parseInt(matcher.group(3)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid verse number in '" + key + "'", e);
+        }
+    }
+
+    /**
+     * Parses a key, returning null instead of throwing if it is malformed.
+     */
+    static VerseKey tryParse(String key) {
+        try {
+            return parse(key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the key of the chapter this verse belongs to, e.g. "14/7".
+     */
+    public String chapterKey() {
+        return book + "/" + chapter;
+    }
+
+    @Override
+    public String toString() {
+        return chapterKey() + "." + verse;
+    }
+
+    /**
+     * An inclusive range of verses within one chapter.
+     *
+     * @param first the first verse of the range
+     * @param last the last verse of the range
+     */
+    public record Range(VerseKey first, VerseKey last) {
+
+        /**
+         * Parses a range such as {@code 14/7.1..14/7.40}. Both ends must be in
+         * the same chapter; a single key is a range of one verse.
+         *
+         * @param range the range
+         * @return the parsed range
+         * @throws IllegalArgumentException if the range is malformed, spans
+         *                                  chapters or ends before it starts
+         */
+        public static Range parse(String range) {
+            if (range == null) {
+                throw new IllegalArgumentException("Verse range cannot be null");
+            }
+            int separator = range.indexOf(RANGE_SEPARATOR);
+            VerseKey first = VerseKey.parse(separator < 0 ? range : range.substring(0, separator));
+            VerseKey last = separator < 0 ? first : VerseKey.parse(range.substring(separator + RANGE_SEPARATOR.length()));
+            if (!first.chapterKey().equals(last.chapterKey())) {
+                throw new IllegalArgumentException("Verse range '" + range + "' spans chapters");
+            }
+            if (last.verse() < first.verse()) {
+                throw new IllegalArgumentException("Verse range '" + range + "' ends before it starts");
+            }
+            return new Range(first, last);
+        }
+
+        /**
+         * Returns true if a verse number lies within the range.
+         */
+        public boolean contains(int verse) {
+            return verse >= first.verse() && verse <= last.verse();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.minghualiu.oahspe.reader;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read path for verses and their notes by verse key.
+ *
+ * Reads are served from the current {@link CorpusSnapshot} when there is
+ * one, without the database. Otherwise, e.g. after a write and until the
+ * snapshot is rebuilt, they go through {@link VerseCache}: a single verse is
+ * looked up in tier 1, then in its cached chapter; only a chapter that is not
+ * cached is read from the database, with one query for its verses, notes,
+ * chapter and book. Cached values are immutable {@link VerseView}s and are
+ * shared between callers.
+ *
+ * Usage:
+ * <pre>
+ * Optional&lt;VerseView&gt; verse = verseReadService.findVerse("14/7.1");
+ * List&lt;VerseView&gt; verses = verseReadService.findRange("14/7.1..14/7.40");
+ * </pre>
+ *
+ * @see VerseKey
+ * @see CorpusSnapshotService
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VerseReadService {
+
+    static final Comparator<VerseView.NoteView> NOTE_ORDER =
+            Comparator.comparing(VerseView.NoteView::noteKey, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final VerseRepository verseRepository;
+    private final VerseCache verseCache;
+    private final CorpusSnapshotService corpusSnapshotService;
+
+    /**
+     * Returns a verse with its notes.
+     *
+     * @param verseKey the verse key, e.g. "14/7.1"
+     * @return the verse, or empty if there is none
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    public Optional<VerseView> findVerse(String verseKey) {
+        VerseKey key = VerseKey.parse(verseKey);
+        Optional<CorpusSnapshot> snapshot = corpusSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().findVerse(key);
+        }
+        return verseCache.getVerse(key.toString(), k -> findInChapter(key));
+    }
+
+    /**
+     * Returns the verses of an inclusive range within one chapter, in verse
+     * order. Verses missing from the range are skipped.
+     *
+     * @param range the range, e.g. "14/7.1..14/7.40"
+     * @return the verses found
+     * @throws IllegalArgumentException if the range is malformed or spans chapters
+     */
+    public List<VerseView> findRange(String range) {
+        VerseKey.Range parsed = VerseKey.Range.parse(range);
+        Optional<CorpusSnapshot> snapshot = corpusSnapshotService.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().findRange(parsed);
+        }
+        List<VerseView> result = new ArrayList<>();
+        for (VerseView verse : chapter(parsed.first().chapterKey())) {
+            VerseKey key = VerseKey.tryParse(verse.verseKey());
+            if (parsed.contains(key.verse())) {
+                result.add(verse);
+            }
+        }
+        return result;
+    }
+
+    private VerseView findInChapter(VerseKey key) {
+        for (VerseView verse : chapter(key.chapterKey())) {
+            if (VerseKey.tryParse(verse.verseKey()).verse() == key.verse()) {
+                return verse;
+            }
+        }
+        return null;
+    }
+
+    private List<VerseView> chapter(String chapterKey) {
+        return verseCache.getChapter(chapterKey, this::loadChapter);
+    }
+
+    /**
+     * Reads a chapter's verses in verse order. Keys that do not parse, or
+     * belong to a chapter whose key merely shares the prefix, are skipped.
+     */
+    private List<VerseView> loadChapter(String chapterKey) {
+        List<Verse> verses = verseRepository.findWithNotesByVerseKeyPrefix(chapterKey + ".");
+        List<VerseView> views = new ArrayList<>(verses.size());
+        for (Verse verse : verses) {
+            VerseKey key = VerseKey.tryParse(verse.getVerseKey());
+            if (key != null && key.chapterKey().equals(chapterKey)) {
+                views.add(toView(verse));
+            }
+        }
+        views.sort(Comparator.comparingInt(view -> VerseKey.tryParse(view.verseKey()).verse()));
+        log.debug("Loaded chapter {}: {} verses", chapterKey, views.size());
+        return List.copyOf(views);
+    }
+
+    private static VerseView toView(Verse verse) {
+        List<VerseView.NoteView> notes = new ArrayList<>(verse.getNotes().size());
+        for (Note note : verse.getNotes()) {
+            notes.add(new VerseView.NoteView(note.getNoteKey(), note.getText(), note.getTextInChinese()));
+        }
+        notes.sort(NOTE_ORDER);
+        Book book = verse.getChapter().getBook();
+        return new VerseView(verse.getVerseKey(), verse.getText(), verse.getTextInChinese(),
+                verse.getPageNumber(), book != null ? book.getTitle() : null,
+                verse.getChapter().getTitle(), notes);
+    }
+}
@@ -0,0 +1,33 @@
+package edu.minghualiu.oahspe.reader;
+
+import java.util.List;
+
+/**
+ * An immutable, cacheable copy of a verse with its notes, as returned by
+ * {@link VerseReadService} and {@code GET /verses}.
+ *
+ * @param verseKey the verse key, e.g. "14/7.1"
+ * @param text the verse text
+ * @param textInChinese the Chinese translation, if any
+ * @param pageNumber the page the verse starts on
+ * @param bookTitle title of the verse's book
+ * @param chapterTitle title of the verse's chapter
+ * @param notes the verse's notes in key order
+ */
+public record VerseView(String verseKey, String text, String textInChinese, Integer pageNumber,
+                        String bookTitle, String chapterTitle, List<NoteView> notes) {
+
+    public VerseView {
+        notes = List.copyOf(notes);
+    }
+
+    /**
+     * A note attached to a verse.
+     *
+     * @param noteKey the note key
+     * @param text the note text
+     * @param textInChinese the Chinese translation, if any
+     */
+    public record NoteView(String noteKey, String text, String textInChinese) {
+    }
+}
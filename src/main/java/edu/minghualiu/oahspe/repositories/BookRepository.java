@@ -1,10 +1,20 @@
 package edu.minghualiu.oahspe.repositories;
 
 import edu.minghualiu.oahspe.entities.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Integer> {
@@ -23,4 +33,61 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
      * Count books that do not have a pageNumber assigned.
      */
     long countByPageNumberIsNull();
+    
+    /**
+     * Find the last book started before a page, in reading order.
+     */
+    Optional<Book> findFirstByPageNumberLessThanOrderByPageNumberDescIdDesc(Integer pageNumber);
+    
+    /**
+     * Find the ids of the books started within a page range.
+     */
+    @Query("SELECT b.id FROM Book b WHERE b.pageNumber BETWEEN :startPage AND :endPage")
+    List<Integer> findIdsByPageNumberBetween(@Param("startPage") Integer startPage,
+                                             @Param("endPage") Integer endPage);
+    
+    /**
+     * Deletes books by id with a single bulk statement.
+     * Callers must remove or reassign their chapters first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Book b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * Deletes every Book with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Book")
+    int deleteAllInBulk();
+    
+    /**
+     * One row of the corpus export, without loading the entity.
+     */
+    interface ExportView {
+        Integer getId();
+        String getTitle();
+        String getDescription();
+        String getTitleInChinese();
+        String getDescriptionInChinese();
+        Integer getPageNumber();
+    }
+    
+    /**
+     * Streams the books with an id above a key, in id order, for keyset-paginated export.
+     * Rows are fetched from the database in batches as the stream is read;
+     * the stream must be closed, inside the transaction that opened it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id AS id, b.title AS title, b.description AS description, "
+            + "b.titleInChinese AS titleInChinese, "
+            + "b.descriptionInChinese AS descriptionInChinese, b.pageNumber AS pageNumber "
+            + "FROM Book b "
+            + "WHERE b.id > :afterId ORDER BY b.id")
+    Stream<ExportView> streamExportViews(@Param("afterId") Integer afterId, Limit limit);
 }
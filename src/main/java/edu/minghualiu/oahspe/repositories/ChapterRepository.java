@@ -1,10 +1,21 @@
 package edu.minghualiu.oahspe.repositories;
 
+import edu.minghualiu.oahspe.entities.Book;
 import edu.minghualiu.oahspe.entities.Chapter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ChapterRepository extends JpaRepository<Chapter,Long> {
@@ -23,4 +34,82 @@ public interface ChapterRepository extends JpaRepository<Chapter,Long> {
      * Count chapters that do not have a pageNumber assigned.
      */
     long countByPageNumberIsNull();
+    
+    /**
+     * Find the last chapter of a book started before a page, in reading order.
+     */
+    Optional<Chapter> findFirstByBookIdAndPageNumberLessThanOrderByPageNumberDescIdDesc(Integer bookId,
+                                                                                         Integer pageNumber);
+    
+    /**
+     * Find the ids of the chapters started within a page range.
+     */
+    @Query("SELECT c.id FROM Chapter c WHERE c.pageNumber BETWEEN :startPage AND :endPage")
+    List<Long> findIdsByPageNumberBetween(@Param("startPage") Integer startPage,
+                                          @Param("endPage") Integer endPage);
+    
+    /**
+     * Count chapters that belong to any of the given books.
+     */
+    long countByBookIdIn(Collection<Integer> bookIds);
+    
+    /**
+     * Moves chapters from the given books to another book.
+     * 
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Chapter c SET c.book = :book WHERE c.book.id IN :bookIds")
+    int reassignBook(@Param("bookIds") Collection<Integer> bookIds, @Param("book") Book book);
+    
+    /**
+     * Deletes chapters by id with a single bulk statement.
+     * Callers must remove or reassign their verses first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Chapter c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Check whether a chapter with the given title was started before a page.
+     */
+    boolean existsByTitleAndPageNumberLessThan(String title, Integer pageNumber);
+    
+    /**
+     * Deletes every Chapter with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Chapter")
+    int deleteAllInBulk();
+    
+    /**
+     * One row of the corpus export, without loading the entity.
+     */
+    interface ExportView {
+        Long getId();
+        Integer getBookId();
+        String getTitle();
+        String getDescription();
+        String getTitleInChinese();
+        String getDescriptionInChinese();
+        Integer getPageNumber();
+    }
+    
+    /**
+     * Streams the chapters with an id above a key, in id order, for keyset-paginated export.
+     * Rows are fetched from the database in batches as the stream is read;
+     * the stream must be closed, inside the transaction that opened it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, b.id AS bookId, c.title AS title, "
+            + "c.description AS description, c.titleInChinese AS titleInChinese, "
+            + "c.descriptionInChinese AS descriptionInChinese, c.pageNumber AS pageNumber "
+            + "FROM Chapter c LEFT JOIN c.book b "
+            + "WHERE c.id > :afterId ORDER BY c.id")
+    Stream<ExportView> streamExportViews(@Param("afterId") Long afterId, Limit limit);
 }
@@ -1,11 +1,19 @@
 package edu.minghualiu.oahspe.repositories;
 
 import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for GlossaryTerm entities.
@@ -13,6 +21,20 @@ import java.util.Optional;
 @Repository
 public interface GlossaryTermRepository extends JpaRepository<GlossaryTerm, Long> {
     
+    /**
+     * Id and term of a glossary term.
+     */
+    interface TermView {
+        Long getId();
+        String getTerm();
+    }
+    
+    /**
+     * Find the id and term of every glossary term, without definitions.
+     */
+    @Query("SELECT g.id AS id, g.term AS term FROM GlossaryTerm g ORDER BY g.id")
+    List<TermView> findAllTermViews();
+    
     /**
      * Find a glossary term by its exact term.
      */
@@ -32,4 +54,48 @@ public interface GlossaryTermRepository extends JpaRepository<GlossaryTerm, Long
      * Find glossary terms containing a search string (case-insensitive).
      */
     List<GlossaryTerm> findByTermContainingIgnoreCase(String searchTerm);
+    
+    /**
+     * Deletes every GlossaryTerm with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM GlossaryTerm")
+    int deleteAllInBulk();
+    
+    /**
+     * Deletes the glossary terms extracted from a page range with a single bulk statement.
+     * Callers must unlink index entries first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM GlossaryTerm g WHERE g.pageNumber BETWEEN :startPage AND :endPage")
+    int deleteByPageNumberBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
+    
+    /**
+     * One row of the corpus export, without loading the entity.
+     */
+    interface ExportView {
+        Long getId();
+        String getTerm();
+        String getDefinition();
+        String getTermType();
+        Integer getPageNumber();
+        Integer getUsageCount();
+    }
+    
+    /**
+     * Streams the glossary terms with an id above a key, in id order, for keyset-paginated export.
+     * Rows are fetched from the database in batches as the stream is read;
+     * the stream must be closed, inside the transaction that opened it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT g.id AS id, g.term AS term, g.definition AS definition, "
+            + "g.termType AS termType, g.pageNumber AS pageNumber, g.usageCount AS usageCount "
+            + "FROM GlossaryTerm g "
+            + "WHERE g.id > :afterId ORDER BY g.id")
+    Stream<ExportView> streamExportViews(@Param("afterId") Long afterId, Limit limit);
 }
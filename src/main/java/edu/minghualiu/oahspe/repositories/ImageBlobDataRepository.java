@@ -0,0 +1,26 @@
+package edu.minghualiu.oahspe.repositories;
+
+import edu.minghualiu.oahspe.entities.ImageBlobData;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Repository for ImageBlobData entities.
+ */
+@Repository
+public interface ImageBlobDataRepository extends JpaRepository<ImageBlobData, String> {
+    
+    /**
+     * Deletes the bytes of the given hashes in one statement.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ImageBlobData d WHERE d.contentHash IN :contentHashes")
+    int deleteByContentHashIn(@Param("contentHashes") Collection<String> contentHashes);
+}
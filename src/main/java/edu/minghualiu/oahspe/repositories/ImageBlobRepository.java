@@ -0,0 +1,61 @@
+package edu.minghualiu.oahspe.repositories;
+
+import edu.minghualiu.oahspe.entities.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for ImageBlob entities.
+ */
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, Long> {
+    
+    /**
+     * Id, hash, MIME type and store of a blob.
+     */
+    interface HashView {
+        Long getId();
+        String getContentHash();
+        String getMimeType();
+        String getStorage();
+    }
+    
+    /**
+     * Find a blob's lightweight view by content hash.
+     */
+    Optional<HashView> findViewByContentHash(String contentHash);
+    
+    /**
+     * Find the lightweight views of all stored blobs.
+     */
+    @Query("SELECT b.id AS id, b.contentHash AS contentHash, b.mimeType AS mimeType, b.storage AS storage "
+            + "FROM ImageBlob b")
+    List<HashView> findAllViews();
+    
+    /**
+     * Find the blobs that no PageImage or Image references any more.
+     */
+    @Query("""
+            SELECT b.id AS id, b.contentHash AS contentHash, b.mimeType AS mimeType, b.storage AS storage
+              FROM ImageBlob b
+             WHERE NOT EXISTS (SELECT 1 FROM PageImage pi WHERE pi.blob = b)
+               AND NOT EXISTS (SELECT 1 FROM Image i WHERE i.blob = b)
+            """)
+    List<HashView> findUnreferencedViews();
+    
+    /**
+     * Deletes the given blob rows in one statement. The bytes are deleted
+     * separately through their ImageBlobStore.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ImageBlob b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
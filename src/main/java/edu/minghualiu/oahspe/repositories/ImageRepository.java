@@ -2,14 +2,28 @@ package edu.minghualiu.oahspe.repositories;
 
 import edu.minghualiu.oahspe.entities.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
     Optional<Image> findByImageKey(String imageKey);
     
+    /**
+     * Finds the ids of the images on a source page, in creation order.
+     * The n-th id belongs to the page's n-th embedded image (PageImage.imageSequence = n).
+     * Only ids are selected, so the image data LOB is never read.
+     * 
+     * @param sourcePage the PDF page number
+     * @return image ids ordered by id, empty if the page has no images
+     */
+    @Query("SELECT i.id FROM Image i WHERE i.sourcePage = :sourcePage ORDER BY i.id")
+    List<Integer> findIdsBySourcePage(@Param("sourcePage") Integer sourcePage);
+    
     /**
      * Finds the maximum numeric portion of image keys matching pattern 'i###'.
      * Used to resume sequential numbering after restart.
@@ -22,4 +36,24 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
            "FROM Image i WHERE i.imageKey LIKE 'i%' " +
            "AND LENGTH(i.imageKey) > 1")
     Integer findMaxImageKeyNumber();
+    
+    /**
+     * Deletes every Image with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Image")
+    int deleteAllInBulk();
+    
+    /**
+     * Deletes the images extracted from a page range with a single bulk statement.
+     * Callers must remove note and page-image links first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Image i WHERE i.sourcePage BETWEEN :startPage AND :endPage")
+    int deleteBySourcePageBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
 }
@@ -1,13 +1,21 @@
 package edu.minghualiu.oahspe.repositories;
 
 import edu.minghualiu.oahspe.entities.IndexEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for IndexEntry entities.
@@ -34,4 +42,113 @@ public interface IndexEntryRepository extends JpaRepository<IndexEntry, Long> {
      * Find index entries containing a search string (case-insensitive).
      */
     List<IndexEntry> findByTopicContainingIgnoreCase(String searchTopic);
+    
+    /**
+     * Find the index entries citing any page of a range, by topic.
+     * Uses the range index on index_page_refs rather than the reference text.
+     */
+    @Query("SELECT DISTINCT e FROM IndexEntry e JOIN e.pageRanges r "
+            + "WHERE r.startPage <= :endPage AND r.endPage >= :startPage ORDER BY e.topic")
+    List<IndexEntry> findCitingPagesBetween(@Param("startPage") int startPage, @Param("endPage") int endPage);
+    
+    /**
+     * Find the index entries citing a page, by topic.
+     */
+    default List<IndexEntry> findCitingPage(int pageNumber) {
+        return findCitingPagesBetween(pageNumber, pageNumber);
+    }
+    
+    /**
+     * Deletes every parsed page reference with a single bulk statement.
+     * Must run before {@link #deleteAllInBulk()}.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM index_page_refs", nativeQuery = true)
+    int deleteAllPageRangesInBulk();
+    
+    /**
+     * Deletes every IndexEntry with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first, including {@link #deleteAllPageRangesInBulk()}.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM IndexEntry")
+    int deleteAllInBulk();
+    
+    /**
+     * Clears index entry links to the glossary terms extracted from a page range.
+     * 
+     * @return number of entries unlinked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IndexEntry e SET e.glossaryTerm = NULL " +
+           "WHERE e.glossaryTerm.id IN (SELECT g.id FROM GlossaryTerm g " +
+           "WHERE g.pageNumber BETWEEN :startPage AND :endPage)")
+    int unlinkGlossaryTermsBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
+    
+    /**
+     * Links every unlinked index entry to the glossary term with the same text, if any.
+     * Terms match like in GlossaryTermCache: trimmed and ignoring case.
+     * 
+     * @return number of entries examined
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE index_entries e
+               SET glossary_term_id = (SELECT MIN(g.id) FROM glossary_terms g
+                                        WHERE LOWER(TRIM(g.term)) = LOWER(TRIM(e.topic)))
+             WHERE e.glossary_term_id IS NULL
+            """, nativeQuery = true)
+    int linkUnlinkedGlossaryTerms();
+    
+    /**
+     * Deletes the parsed page references of the index entries extracted from a page range.
+     * Must run before {@link #deleteByExtractedFromPageBetween}.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            DELETE FROM index_page_refs
+             WHERE entry_id IN (SELECT e.id FROM index_entries e
+                                 WHERE e.extracted_from_page BETWEEN :startPage AND :endPage)
+            """, nativeQuery = true)
+    int deletePageRangesByExtractedFromPageBetween(@Param("startPage") Integer startPage,
+                                                   @Param("endPage") Integer endPage);
+    
+    /**
+     * Deletes the index entries extracted from a page range with a single bulk statement.
+     * Callers must delete their page references first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM IndexEntry e WHERE e.extractedFromPage BETWEEN :startPage AND :endPage")
+    int deleteByExtractedFromPageBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
+    
+    /**
+     * One row of the corpus export, without loading the entity.
+     */
+    interface ExportView {
+        Long getId();
+        String getTopic();
+        String getPageReferences();
+        Long getGlossaryTermId();
+        Integer getExtractedFromPage();
+    }
+    
+    /**
+     * Streams the index entries with an id above a key, in id order, for keyset-paginated export.
+     * Rows are fetched from the database in batches as the stream is read;
+     * the stream must be closed, inside the transaction that opened it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id AS id, e.topic AS topic, e.pageReferences AS pageReferences, "
+            + "g.id AS glossaryTermId, e.extractedFromPage AS extractedFromPage "
+            + "FROM IndexEntry e LEFT JOIN e.glossaryTerm g "
+            + "WHERE e.id > :afterId ORDER BY e.id")
+    Stream<ExportView> streamExportViews(@Param("afterId") Long afterId, Limit limit);
 }
@@ -1,14 +1,38 @@
 package edu.minghualiu.oahspe.repositories;
 
 import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
     
+    /**
+     * A note with the id and key of its verse, if it has one.
+     */
+    interface CorpusNoteView {
+        Integer getId();
+        Integer getVerseId();
+        String getVerseKey();
+        String getNoteKey();
+        String getText();
+        String getTextInChinese();
+        Integer getPageNumber();
+    }
+    
     /**
      * Find all notes on a specific page.
      */
@@ -18,4 +42,107 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
      * Count notes that do not have a pageNumber assigned.
      */
     long countByPageNumberIsNull();
+    
+    /**
+     * Find every note as a flat row, without loading entities.
+     */
+    @Query("SELECT n.id AS id, v.id AS verseId, v.verseKey AS verseKey, n.noteKey AS noteKey, n.text AS text, "
+            + "n.textInChinese AS textInChinese, n.pageNumber AS pageNumber FROM Note n LEFT JOIN n.verse v")
+    List<CorpusNoteView> findAllCorpusViews();
+    
+    /**
+     * Find the last note of a verse started before a page, in reading order.
+     */
+    Optional<Note> findFirstByVerseIdAndPageNumberLessThanOrderByPageNumberDescIdDesc(Integer verseId,
+                                                                                       Integer pageNumber);
+    
+    /**
+     * Find notes after a page range that belong to verses started within it.
+     */
+    @Query("SELECT n.id FROM Note n WHERE n.pageNumber > :endPage " +
+           "AND n.verse.pageNumber BETWEEN :startPage AND :endPage")
+    List<Integer> findIdsAfterRangeWithVerseInRange(@Param("startPage") Integer startPage,
+                                                    @Param("endPage") Integer endPage);
+    
+    /**
+     * Find notes by id with their verse.
+     */
+    @Query("SELECT n FROM Note n LEFT JOIN FETCH n.verse WHERE n.id IN :ids")
+    List<Note> findWithVerseByIdIn(@Param("ids") Collection<Integer> ids);
+    
+    /**
+     * Sets the verse of the given notes; null detaches them.
+     * 
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Note n SET n.verse = :verse WHERE n.id IN :ids")
+    int assignVerse(@Param("ids") Collection<Integer> ids, @Param("verse") Verse verse);
+    
+    /**
+     * Removes the note-image links of notes started, or images referenced,
+     * within a page range.
+     * 
+     * @return number of links deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            DELETE FROM note_images
+             WHERE note_id IN (SELECT id FROM notes WHERE page_number BETWEEN :startPage AND :endPage)
+                OR image_id IN (SELECT id FROM images WHERE source_page BETWEEN :startPage AND :endPage)
+            """, nativeQuery = true)
+    int deleteImageLinksBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
+    
+    /**
+     * Deletes the notes started within a page range with a single bulk statement.
+     * Callers must remove their image links first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Note n WHERE n.pageNumber BETWEEN :startPage AND :endPage")
+    int deleteByPageNumberBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
+    
+    /**
+     * Removes every note-image link from the note_images join table.
+     * 
+     * @return number of links deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM note_images", nativeQuery = true)
+    int deleteAllImageLinks();
+    
+    /**
+     * Deletes every Note with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Note")
+    int deleteAllInBulk();
+    
+    /**
+     * One row of the corpus export, without loading the entity.
+     */
+    interface ExportView {
+        Integer getId();
+        Integer getVerseId();
+        String getNoteKey();
+        String getText();
+        String getTextInChinese();
+        Integer getPageNumber();
+    }
+    
+    /**
+     * Streams the notes with an id above a key, in id order, for keyset-paginated export.
+     * Rows are fetched from the database in batches as the stream is read;
+     * the stream must be closed, inside the transaction that opened it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT n.id AS id, v.id AS verseId, n.noteKey AS noteKey, n.text AS text, "
+            + "n.textInChinese AS textInChinese, n.pageNumber AS pageNumber "
+            + "FROM Note n LEFT JOIN n.verse v "
+            + "WHERE n.id > :afterId ORDER BY n.id")
+    Stream<ExportView> streamExportViews(@Param("afterId") Integer afterId, Limit limit);
 }
@@ -3,6 +3,8 @@ package edu.minghualiu.oahspe.repositories;
 import edu.minghualiu.oahspe.entities.PageCategory;
 import edu.minghualiu.oahspe.entities.PageContent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -47,11 +49,21 @@ public interface PageContentRepository extends JpaRepository<PageContent, Long>
      */
     List<PageContent> findByIngestedFalse();
     
+    /**
+     * Find all ingested pages, ordered by page number.
+     */
+    List<PageContent> findByIngestedTrueOrderByPageNumberAsc();
+    
     /**
      * Count pages in a specific category.
      */
     long countByCategory(PageCategory category);
     
+    /**
+     * Count ingested pages.
+     */
+    long countByIngestedTrue();
+    
     /**
      * Count ingested pages in a specific category.
      */
@@ -62,6 +74,18 @@ public interface PageContentRepository extends JpaRepository<PageContent, Long>
      */
     List<PageContent> findByPageNumberBetween(Integer startPage, Integer endPage);
     
+    /**
+     * Find the page numbers already loaded within a range, without fetching page text.
+     */
+    @Query("SELECT p.pageNumber FROM PageContent p WHERE p.pageNumber BETWEEN :startPage AND :endPage")
+    List<Integer> findPageNumbersBetween(@Param("startPage") Integer startPage,
+                                         @Param("endPage") Integer endPage);
+    
+    /**
+     * Count pages already loaded within a range.
+     */
+    long countByPageNumberBetween(Integer startPage, Integer endPage);
+    
     /**
      * Find all pages with errors.
      */
@@ -2,7 +2,11 @@ package edu.minghualiu.oahspe.repositories;
 
 import edu.minghualiu.oahspe.entities.PageImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -26,4 +30,83 @@ public interface PageImageRepository extends JpaRepository<PageImage, Long> {
      * Count images for a specific PageContent.
      */
     long countByPageContentId(Long pageContentId);
+    
+    /**
+     * Id and sequence of a PageImage, without the image data LOB.
+     */
+    interface SequenceView {
+        Long getId();
+        Integer getImageSequence();
+    }
+    
+    /**
+     * Find the unlinked images of a page as lightweight views, in sequence order.
+     */
+    List<SequenceView> findByPageContentIdAndLinkedImageIsNullOrderByImageSequenceAsc(Long pageContentId);
+    
+    /**
+     * Links a single PageImage to an Image by id.
+     * 
+     * @return number of rows updated (0 or 1)
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE page_images SET linked_image_id = :imageId WHERE id = :pageImageId",
+           nativeQuery = true)
+    int linkToImage(@Param("pageImageId") Long pageImageId, @Param("imageId") Integer imageId);
+    
+    /**
+     * Links every unlinked PageImage of a category in one statement.
+     * The n-th image of a page (by imageSequence) is linked to the n-th Image
+     * created for that source page (by id). PageImages without a counterpart
+     * stay unlinked. Only ids and page numbers are read; no LOB is touched.
+     * 
+     * @param category the PageCategory name
+     * @return number of PageImages linked
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE page_images pi
+               SET linked_image_id = (
+                   SELECT i.id
+                     FROM images i
+                     JOIN page_contents pc ON pc.page_number = i.source_page
+                    WHERE pc.id = pi.page_content_id
+                      AND (SELECT COUNT(*) FROM images j
+                            WHERE j.source_page = i.source_page AND j.id <= i.id) = pi.image_sequence)
+             WHERE pi.linked_image_id IS NULL
+               AND pi.page_content_id IN (SELECT id FROM page_contents WHERE category = :category)
+               AND EXISTS (
+                   SELECT 1
+                     FROM images i
+                     JOIN page_contents pc ON pc.page_number = i.source_page
+                    WHERE pc.id = pi.page_content_id
+                      AND (SELECT COUNT(*) FROM images j
+                            WHERE j.source_page = i.source_page AND j.id <= i.id) = pi.image_sequence)
+            """, nativeQuery = true)
+    int linkUnlinkedByCategory(@Param("category") String category);
+    
+    /**
+     * Clears every PageImage link to an Image so that images can be deleted.
+     * PageImage rows and their data are kept.
+     * 
+     * @return number of PageImages unlinked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE page_images SET linked_image_id = NULL WHERE linked_image_id IS NOT NULL",
+           nativeQuery = true)
+    int unlinkAllImages();
+    
+    /**
+     * Clears PageImage links to the images extracted from a page range.
+     * 
+     * @return number of PageImages unlinked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE page_images SET linked_image_id = NULL
+             WHERE linked_image_id IN (SELECT id FROM images WHERE source_page BETWEEN :startPage AND :endPage)
+            """, nativeQuery = true)
+    int unlinkImagesBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
 }
@@ -1,14 +1,40 @@
 package edu.minghualiu.oahspe.repositories;
 
+import edu.minghualiu.oahspe.entities.Chapter;
 import edu.minghualiu.oahspe.entities.Verse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface VerseRepository extends JpaRepository<Verse, Long> {
     
+    /**
+     * A verse with the titles and ids of its chapter and book.
+     */
+    interface CorpusVerseView {
+        Integer getId();
+        String getVerseKey();
+        String getText();
+        String getTextInChinese();
+        Integer getPageNumber();
+        Long getChapterId();
+        String getChapterTitle();
+        Integer getBookId();
+        String getBookTitle();
+    }
+    
     /**
      * Find all verses on a specific page.
      */
@@ -19,8 +45,97 @@ public interface VerseRepository extends JpaRepository<Verse, Long> {
      */
     List<Verse> findByPageNumberBetween(Integer startPage, Integer endPage);
     
+    /**
+     * Find the verses whose key starts with a prefix, with their chapter, book
+     * and notes in the same query. Used to read a whole chapter by its key
+     * prefix, e.g. "14/7.".
+     */
+    @Query("SELECT DISTINCT v FROM Verse v JOIN FETCH v.chapter c LEFT JOIN FETCH c.book "
+            + "LEFT JOIN FETCH v.notes WHERE v.verseKey LIKE CONCAT(:prefix, '%')")
+    List<Verse> findWithNotesByVerseKeyPrefix(@Param("prefix") String prefix);
+    
+    /**
+     * Find the verses on the pages an index entry cites, in page order.
+     */
+    @Query("SELECT DISTINCT v FROM IndexEntry e JOIN e.pageRanges r JOIN Verse v "
+            + "ON v.pageNumber BETWEEN r.startPage AND r.endPage "
+            + "WHERE e.id = :entryId ORDER BY v.pageNumber, v.id")
+    List<Verse> findCitedByIndexEntry(@Param("entryId") Long entryId);
+    
+    /**
+     * Find every verse as a flat row, without loading entities.
+     */
+    @Query("SELECT v.id AS id, v.verseKey AS verseKey, v.text AS text, v.textInChinese AS textInChinese, "
+            + "v.pageNumber AS pageNumber, c.id AS chapterId, c.title AS chapterTitle, "
+            + "b.id AS bookId, b.title AS bookTitle FROM Verse v JOIN v.chapter c LEFT JOIN c.book b")
+    List<CorpusVerseView> findAllCorpusViews();
+    
     /**
      * Count verses that do not have a pageNumber assigned.
      */
     long countByPageNumberIsNull();
+    
+    /**
+     * Find the last verse of a chapter started before a page, in reading order.
+     */
+    Optional<Verse> findFirstByChapterIdAndPageNumberLessThanOrderByPageNumberDescIdDesc(Long chapterId,
+                                                                                          Integer pageNumber);
+    
+    /**
+     * Count verses that belong to any of the given chapters.
+     */
+    long countByChapterIdIn(Collection<Long> chapterIds);
+    
+    /**
+     * Moves verses from the given chapters to another chapter.
+     * 
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Verse v SET v.chapter = :chapter WHERE v.chapter.id IN :chapterIds")
+    int reassignChapter(@Param("chapterIds") Collection<Long> chapterIds, @Param("chapter") Chapter chapter);
+    
+    /**
+     * Deletes the verses started within a page range with a single bulk statement.
+     * Callers must remove or detach their notes first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Verse v WHERE v.pageNumber BETWEEN :startPage AND :endPage")
+    int deleteByPageNumberBetween(@Param("startPage") Integer startPage, @Param("endPage") Integer endPage);
+    
+    /**
+     * Deletes every Verse with a single bulk statement, bypassing entity loading and cascades.
+     * Callers must remove dependent rows first.
+     * 
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Verse")
+    int deleteAllInBulk();
+    
+    /**
+     * One row of the corpus export, without loading the entity.
+     */
+    interface ExportView {
+        Integer getId();
+        Long getChapterId();
+        String getVerseKey();
+        String getText();
+        String getTextInChinese();
+        Integer getPageNumber();
+    }
+    
+    /**
+     * Streams the verses with an id above a key, in id order, for keyset-paginated export.
+     * Rows are fetched from the database in batches as the stream is read;
+     * the stream must be closed, inside the transaction that opened it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.id AS id, c.id AS chapterId, v.verseKey AS verseKey, v.text AS text, "
+            + "v.textInChinese AS textInChinese, v.pageNumber AS pageNumber "
+            + "FROM Verse v JOIN v.chapter c "
+            + "WHERE v.id > :afterId ORDER BY v.id")
+    Stream<ExportView> streamExportViews(@Param("afterId") Integer afterId, Limit limit);
 }
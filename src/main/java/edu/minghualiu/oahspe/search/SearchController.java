@@ -0,0 +1,46 @@
+package edu.minghualiu.oahspe.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Read-only REST API for full-text search.
+ *
+ * <ul>
+ *   <li>{@code GET /search?q=angel*}: hits of every type, best first</li>
+ *   <li>{@code GET /search?q="voice of jehovih"&type=verse&limit=50}: verse
+ *       hits only; type is verse, note or glossary_term</li>
+ * </ul>
+ *
+ * Queries without searchable words, unknown types and limits outside 1 to
+ * {@value SearchService#MAX_LIMIT} are answered with 400.
+ *
+ * @see SearchService
+ */
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public List<SearchHit> search(@RequestParam String q,
+                                  @RequestParam(required = false) String type,
+                                  @RequestParam(defaultValue = "20") int limit) {
+        return searchService.search(q, type != null ? SearchHit.Type.parse(type) : null, limit);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail badRequest(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -0,0 +1,39 @@
+package edu.minghualiu.oahspe.search;
+
+import java.util.Locale;
+
+/**
+ * One result of {@link SearchService#search}, ranked by score.
+ *
+ * @param type what kind of text matched
+ * @param key the verse key, note key or glossary term
+ * @param verseKey the verse the hit belongs to: the verse itself, or a
+ *                 note's verse; null for glossary terms and orphaned notes
+ * @param pageNumber the page the text starts on
+ * @param snippet the text, or the part around the first match if it is long,
+ *                with matches in {@code <b>} tags
+ * @param score the relevance score (BM25)
+ */
+public record SearchHit(Type type, String key, String verseKey, Integer pageNumber, String snippet, float score) {
+
+    /**
+     * The kinds of searchable text.
+     */
+    public enum Type {
+        VERSE, NOTE, GLOSSARY_TERM;
+
+        /**
+         * Parses a type name, ignoring case: "verse", "note" or "glossary_term".
+         *
+         * @throws IllegalArgumentException if the name is not a type
+         */
+        public static Type parse(String name) {
+            try {
+                return valueOf(name.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown search type '" + name
+                        + "', expected verse, note or glossary_term", e);
+            }
+        }
+    }
+}
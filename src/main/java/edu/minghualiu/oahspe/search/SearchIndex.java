@@ -0,0 +1,341 @@
+package edu.minghualiu.oahspe.search;
+
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory Lucene index over verse, note and glossary term text.
+ *
+ * Each entity is one document, identified by type and database id, with its
+ * text analyzed by {@link StandardAnalyzer} and its key, verse key, page and
+ * text stored. Hits are ranked by BM25 and highlighted by
+ * {@link SnippetHighlighter}.
+ *
+ * Writers call {@link #index(Verse)}, {@link #index(Note)} and
+ * {@link #indexGlossaryTerms} after saving, and {@link #deletePages} or
+ * {@link #deleteTypes} after deleting. Inside a transaction the changes are
+ * applied when it commits and dropped if it rolls back, so the index never
+ * shows uncommitted rows. Searchers are refreshed after every applied change.
+ *
+ * Query syntax, all parts required:
+ * <ul>
+ *   <li>{@code word}: the word, in any case</li>
+ *   <li>{@code "several words"}: the words in this order</li>
+ *   <li>{@code prefix*}: any word starting with the prefix</li>
+ * </ul>
+ *
+ * @see SearchService
+ */
+@Slf4j
+@Component
+public class SearchIndex implements AutoCloseable {
+
+    static final String ID = "id";
+    static final String TYPE = "type";
+    static final String KEY = "key";
+    static final String VERSE_KEY = "verseKey";
+    static final String PAGE = "page";
+    static final String TEXT = "text";
+
+    /** A quoted phrase, or a run of non-blank characters */
+    private static final Pattern QUERY_PART = Pattern.compile("\"([^\"]*)\"?|(\\S+)");
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+    private final Directory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public SearchIndex() {
+        try {
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the search index", e);
+        }
+    }
+
+    /**
+     * Adds or replaces a saved verse.
+     */
+    public void index(Verse verse) {
+        Document document = verseDocument(verse.getId(), verse.getVerseKey(), verse.getText(), verse.getPageNumber());
+        apply(writer -> writer.updateDocument(idTerm(document), document));
+    }
+
+    /**
+     * Adds or replaces a saved note. Its verse must be loaded, or null.
+     */
+    public void index(Note note) {
+        Document document = noteDocument(note.getId(), note.getNoteKey(), note.getText(), note.getPageNumber(),
+                note.getVerse() != null ? note.getVerse().getVerseKey() : null);
+        apply(writer -> writer.updateDocument(idTerm(document), document));
+    }
+
+    /**
+     * Adds or replaces saved glossary terms.
+     */
+    public void indexGlossaryTerms(Collection<GlossaryTerm> terms) {
+        List<Document> documents = new ArrayList<>(terms.size());
+        for (GlossaryTerm term : terms) {
+            documents.add(glossaryTermDocument(term.getId(), term.getTerm(), term.getDefinition(),
+                    term.getPageNumber()));
+        }
+        apply(writer -> {
+            for (Document document : documents) {
+                writer.updateDocument(idTerm(document), document);
+            }
+        });
+    }
+
+    /**
+     * Removes every document whose text starts within a page range.
+     */
+    public void deletePages(int startPage, int endPage) {
+        apply(writer -> writer.deleteDocuments(IntPoint.newRangeQuery(PAGE, startPage, endPage)));
+    }
+
+    /**
+     * Removes every document of the given types.
+     */
+    public void deleteTypes(SearchHit.Type... types) {
+        List<Term> terms = new ArrayList<>(types.length);
+        for (SearchHit.Type type : types) {
+            terms.add(new Term(TYPE, typeValue(type)));
+        }
+        apply(writer -> writer.deleteDocuments(terms.toArray(Term[]::new)));
+    }
+
+    /**
+     * Replaces the whole index at once, bypassing transactions.
+     *
+     * @param documents the documents, from {@link #verseDocument},
+     *                  {@link #noteDocument} and {@link #glossaryTermDocument}
+     */
+    void replaceAll(List<Document> documents) {
+        applyNow(List.of(writer -> {
+            writer.deleteAll();
+            writer.addDocuments(documents);
+        }));
+    }
+
+    /**
+     * Returns the number of documents visible to searches.
+     */
+    public int documentCount() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs a query and highlights the matches in each hit.
+     *
+     * @param queryText the query, see the class comment
+     * @param type only hits of this type, or null for all
+     * @param limit the maximum number of hits
+     * @return the hits, best first
+     * @throws IllegalArgumentException if the query has no searchable words
+     */
+    public List<SearchHit> search(String queryText, SearchHit.Type type, int limit) {
+        Query query = parse(queryText);
+        if (type != null) {
+            query = new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(new TermQuery(new Term(TYPE, typeValue(type))), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                SnippetHighlighter highlighter = new SnippetHighlighter(analyzer, TEXT, query);
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    StoredField page = (StoredField) document.getField(PAGE);
+                    hits.add(new SearchHit(SearchHit.Type.parse(document.get(TYPE)), document.get(KEY),
+                            document.get(VERSE_KEY), page != null ? page.numericValue().intValue() : null,
+                            highlighter.snippet(document.get(TEXT)), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed: " + queryText, e);
+        }
+    }
+
+    /**
+     * Parses a query into required clauses on the text field.
+     *
+     * @throws IllegalArgumentException if no part of the query has searchable words
+     */
+    Query parse(String queryText) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int clauses = 0;
+        Matcher matcher = QUERY_PART.matcher(queryText != null ? queryText : "");
+        while (matcher.find()) {
+            Query clause;
+            String word = matcher.group(2);
+            if (matcher.group(1) != null) {
+                clause = queryBuilder.createPhraseQuery(TEXT, matcher.group(1));
+            } else if (word.length() > 1 && word.endsWith("*")) {
+                clause = new PrefixQuery(new Term(TEXT, analyzer.normalize(TEXT, word.substring(0, word.length() - 1))));
+            } else {
+                clause = queryBuilder.createBooleanQuery(TEXT, word, BooleanClause.Occur.MUST);
+            }
+            if (clause != null) {
+                builder.add(clause, BooleanClause.Occur.MUST);
+                clauses++;
+            }
+        }
+        if (clauses == 0) {
+            throw new IllegalArgumentException("Search query '" + queryText + "' has no searchable words");
+        }
+        return builder.build();
+    }
+
+    static Document verseDocument(int id, String verseKey, String text, Integer pageNumber) {
+        return document(SearchHit.Type.VERSE, String.valueOf(id), verseKey, verseKey, text, pageNumber);
+    }
+
+    static Document noteDocument(int id, String noteKey, String text, Integer pageNumber, String verseKey) {
+        return document(SearchHit.Type.NOTE, String.valueOf(id), noteKey, verseKey, text, pageNumber);
+    }
+
+    /**
+     * The term is part of the text, so a search for it finds its entry.
+     */
+    static Document glossaryTermDocument(long id, String term, String definition, Integer pageNumber) {
+        String text = definition != null ? term + ": " + definition : term;
+        return document(SearchHit.Type.GLOSSARY_TERM, String.valueOf(id), term, null, text, pageNumber);
+    }
+
+    private static Document document(SearchHit.Type type, String id, String key, String verseKey,
+                                     String text, Integer pageNumber) {
+        Document document = new Document();
+        document.add(new StringField(ID, typeValue(type) + ":" + id, Field.Store.YES));
+        document.add(new StringField(TYPE, typeValue(type), Field.Store.YES));
+        if (key != null) {
+            document.add(new StoredField(KEY, key));
+        }
+        if (verseKey != null) {
+            document.add(new StoredField(VERSE_KEY, verseKey));
+        }
+        if (pageNumber != null) {
+            document.add(new IntPoint(PAGE, pageNumber));
+            document.add(new StoredField(PAGE, pageNumber));
+        }
+        document.add(new TextField(TEXT, text != null ? text : "", Field.Store.YES));
+        return document;
+    }
+
+    private static String typeValue(SearchHit.Type type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static Term idTerm(Document document) {
+        return new Term(ID, document.get(ID));
+    }
+
+    /**
+     * Applies a change when the current transaction commits, or at once outside one.
+     */
+    private void apply(IndexChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyNow(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<IndexChange> pending = (List<IndexChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<IndexChange> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SearchIndex.this);
+                    if (status == STATUS_COMMITTED) {
+                        applyNow(created);
+                    }
+                }
+            });
+            pending = created;
+        }
+        pending.add(change);
+    }
+
+    private void applyNow(List<IndexChange> changes) {
+        try {
+            for (IndexChange change : changes) {
+                change.applyTo(writer);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Search index update failed; searches may miss recent changes: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * A change to the index.
+     */
+    @FunctionalInterface
+    private interface IndexChange {
+        void applyTo(IndexWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,94 @@
+package edu.minghualiu.oahspe.search;
+
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.repositories.GlossaryTermRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over verses, notes and glossary terms.
+ *
+ * The {@link SearchIndex} is rebuilt from the database when the application
+ * is ready, and from then on kept current by the ingestion services as they
+ * save and delete rows.
+ *
+ * Usage:
+ * <pre>
+ * List&lt;SearchHit&gt; hits = searchService.search("\"voice of jehovih\" angel*", SearchHit.Type.VERSE, 20);
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    /** Largest number of hits one search returns */
+    public static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+    private final VerseRepository verseRepository;
+    private final NoteRepository noteRepository;
+    private final GlossaryTermRepository glossaryTermRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Searches verse, note and glossary term text.
+     *
+     * @param query the query: words, "quoted phrases" and prefix* words, all required
+     * @param type only hits of this type, or null for all
+     * @param limit the maximum number of hits, at most {@link #MAX_LIMIT}
+     * @return the hits, best first
+     * @throws IllegalArgumentException if the query has no searchable words or the limit is out of range
+     */
+    public List<SearchHit> search(String query, SearchHit.Type type, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT + ", was " + limit);
+        }
+        return searchIndex.search(query, type, limit);
+    }
+
+    /**
+     * Reads every verse, note and glossary term in one transaction and
+     * replaces the index with them.
+     *
+     * @return the number of documents indexed
+     */
+    public int rebuild() {
+        long started = System.currentTimeMillis();
+        List<Document> documents = transactionTemplate.execute(status -> {
+            List<Document> read = new ArrayList<>();
+            for (VerseRepository.CorpusVerseView verse : verseRepository.findAllCorpusViews()) {
+                read.add(SearchIndex.verseDocument(verse.getId(), verse.getVerseKey(), verse.getText(),
+                        verse.getPageNumber()));
+            }
+            for (NoteRepository.CorpusNoteView note : noteRepository.findAllCorpusViews()) {
+                read.add(SearchIndex.noteDocument(note.getId(), note.getNoteKey(), note.getText(),
+                        note.getPageNumber(), note.getVerseKey()));
+            }
+            for (GlossaryTerm term : glossaryTermRepository.findAll()) {
+                read.add(SearchIndex.glossaryTermDocument(term.getId(), term.getTerm(), term.getDefinition(),
+                        term.getPageNumber()));
+            }
+            return read;
+        });
+        searchIndex.replaceAll(documents);
+        log.info("Search index rebuilt: {} documents in {} ms", documents.size(),
+                System.currentTimeMillis() - started);
+        return documents.size();
+    }
+}
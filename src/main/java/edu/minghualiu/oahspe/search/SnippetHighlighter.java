@@ -0,0 +1,183 @@
+package edu.minghualiu.oahspe.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.automaton.ByteRunAutomaton;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Marks the words of a text that a query matches, for {@link SearchIndex}.
+ *
+ * The query's terms and prefix automata are collected once; each hit's text
+ * is then re-analyzed and every matching token wrapped in {@code <b>} tags;
+ * the rest of the text is HTML-escaped, so the snippet can be rendered as is.
+ * Phrase words are marked one by one. A text longer than
+ * {@link #SNIPPET_LENGTH} is cut to a window around its first match.
+ *
+ * Verse and note texts are a few hundred characters, so re-analyzing them is
+ * cheaper than Lucene's passage highlighters, which set up offsets and
+ * break iterators per call.
+ */
+final class SnippetHighlighter {
+
+    static final int SNIPPET_LENGTH = 240;
+
+    /** Characters kept before the first match when a text is cut */
+    private static final int LEAD = 60;
+
+    private static final String ELLIPSIS = "...";
+
+    private final Analyzer analyzer;
+    private final String field;
+    private final Set<BytesRef> terms = new HashSet<>();
+    private final List<ByteRunAutomaton> automata = new ArrayList<>();
+
+    SnippetHighlighter(Analyzer analyzer, String field, Query query) {
+        this.analyzer = analyzer;
+        this.field = field;
+        query.visit(new QueryVisitor() {
+            @Override
+            public boolean acceptField(String visited) {
+                return field.equals(visited);
+            }
+
+            @Override
+            public void consumeTerms(Query query, Term... visitedTerms) {
+                for (Term term : visitedTerms) {
+                    terms.add(term.bytes());
+                }
+            }
+
+            @Override
+            public void consumeTermsMatching(Query query, String visited, Supplier<ByteRunAutomaton> automaton) {
+                automata.add(automaton.get());
+            }
+
+            @Override
+            public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+                return occur == BooleanClause.Occur.MUST_NOT ? EMPTY_VISITOR : this;
+            }
+        });
+    }
+
+    /**
+     * Returns the text, or the window around its first match, HTML-escaped with matches marked.
+     */
+    String snippet(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        List<int[]> matches = matches(text);
+        int start = 0;
+        int end = text.length();
+        if (end > SNIPPET_LENGTH) {
+            int first = matches.isEmpty() ? 0 : matches.getFirst()[0];
+            start = first <= LEAD ? 0 : wordStart(text, first - LEAD);
+            end = Math.min(text.length(), wordEnd(text, start + SNIPPET_LENGTH));
+        }
+
+        StringBuilder snippet = new StringBuilder(end - start + 16);
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        int position = start;
+        for (int[] match : matches) {
+            if (match[0] < start || match[1] > end) {
+                continue;
+            }
+            escape(snippet, text, position, match[0]);
+            snippet.append("<b>");
+            escape(snippet, text, match[0], match[1]);
+            snippet.append("</b>");
+            position = match[1];
+        }
+        escape(snippet, text, position, end);
+        if (end < text.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * Returns the start and end offsets of the matching tokens, in text order.
+     */
+    private List<int[]> matches(String text) {
+        List<int[]> matches = new ArrayList<>();
+        if (terms.isEmpty() && automata.isEmpty()) {
+            return matches;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            OffsetAttribute offset = tokens.addAttribute(OffsetAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                if (matches(new BytesRef(term))) {
+                    matches.add(new int[]{offset.startOffset(), offset.endOffset()});
+                }
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return matches;
+    }
+
+    private boolean matches(BytesRef token) {
+        if (terms.contains(token)) {
+            return true;
+        }
+        for (ByteRunAutomaton automaton : automata) {
+            if (automaton.run(token.bytes, token.offset, token.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a slice of the text with HTML special characters escaped.
+     */
+    private static void escape(StringBuilder out, String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static int wordStart(String text, int index) {
+        int start = index;
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+            start--;
+        }
+        return start;
+    }
+
+    private static int wordEnd(String text, int index) {
+        int end = Math.min(index, text.length());
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+}
@@ -97,4 +97,50 @@ class PageContentTest {
         // This will be tested in integration tests
         assertThat(page.getExtractedAt()).isNull();
     }
+    
+    @Test
+    void testMarkIngested_recordsHashAndParserVersion() {
+        PageContent page = PageContent.builder()
+                .pageNumber(100)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText("Sample text")
+                .build();
+        
+        page.markIngested("oahspe-1");
+        
+        assertThat(page.getContentHash()).hasSize(64);
+        assertThat(page.getIngestedHash()).isEqualTo(page.getContentHash());
+        assertThat(page.getParserVersion()).isEqualTo("oahspe-1");
+        assertThat(page.isChangedSinceIngestion("oahspe-1")).isFalse();
+    }
+    
+    @Test
+    void testIsChangedSinceIngestion() {
+        PageContent page = PageContent.builder()
+                .pageNumber(100)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText("Sample text")
+                .build();
+        
+        assertThat(page.isChangedSinceIngestion("oahspe-1")).isFalse();
+        
+        page.markIngested("oahspe-1");
+        assertThat(page.isChangedSinceIngestion("oahspe-2")).isTrue();
+        
+        page.setRawText("Corrected text");
+        assertThat(page.isChangedSinceIngestion("oahspe-1")).isTrue();
+    }
+    
+    @Test
+    void testIsChangedSinceIngestion_ingestedWithoutHash() {
+        PageContent page = PageContent.builder()
+                .pageNumber(100)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText("Sample text")
+                .build();
+        
+        page.markIngested();
+        
+        assertThat(page.isChangedSinceIngestion("oahspe-1")).isTrue();
+    }
 }
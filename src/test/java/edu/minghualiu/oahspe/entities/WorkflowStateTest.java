@@ -105,4 +105,37 @@ class WorkflowStateTest {
         
         assertThat(workflow.isTerminal()).isTrue();
     }
+    
+    @Test
+    void testRecordCheckpoint_keepsHighestPage() {
+        WorkflowState workflow = WorkflowState.builder()
+                .workflowName("test-workflow")
+                .currentPhase(WorkflowPhase.CONTENT_INGESTION)
+                .build();
+        
+        workflow.recordCheckpoint(PageCategory.OAHSPE_BOOKS, 120);
+        workflow.recordCheckpoint(PageCategory.OAHSPE_BOOKS, 90);
+        
+        assertThat(workflow.getCheckpoint(PageCategory.OAHSPE_BOOKS)).isEqualTo(120);
+        assertThat(workflow.getCheckpoint(PageCategory.INDEX)).isZero();
+        
+        workflow.clearCheckpoints();
+        
+        assertThat(workflow.getCheckpoint(PageCategory.OAHSPE_BOOKS)).isZero();
+    }
+    
+    @Test
+    void testIsResumable() {
+        WorkflowState workflow = WorkflowState.builder()
+                .status(WorkflowStatus.FAILED)
+                .build();
+        
+        assertThat(workflow.isResumable()).isFalse();
+        
+        workflow.setSourcePath("/data/oahspe.pdf");
+        assertThat(workflow.isResumable()).isTrue();
+        
+        workflow.markCompleted();
+        assertThat(workflow.isResumable()).isFalse();
+    }
 }
@@ -0,0 +1,94 @@
+package edu.minghualiu.oahspe.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round-trip tests for ColumnarWriter and ColumnarReader.
+ */
+class ColumnarFormatTest {
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+            ExportColumn.ofInt("id"), ExportColumn.ofLong("parentId"), ExportColumn.ofString("text"));
+
+    @Test
+    @DisplayName("Rows spanning several row groups read back unchanged, including nulls")
+    void testRoundTrip() throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= ColumnarWriter.ROW_GROUP_SIZE * 2 + 3; i++) {
+            rows.add(new Object[]{
+                    i,
+                    i % 7 == 0 ? null : (i % 2 == 0 ? Long.MAX_VALUE - i : -1_000_000_000_000L + i),
+                    i % 5 == 0 ? null : (i % 3 == 0 ? "" : "Verse " + i + " – 天")});
+        }
+
+        List<Object[]> read = readAll(write(rows));
+
+        assertThat(read).hasSameSizeAs(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(read.get(i)).as("row %d", i).containsExactly(rows.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("The header keeps column names and types; an empty table has no rows")
+    void testEmptyTable() throws IOException {
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(write(List.of())))) {
+            assertThat(reader.columns()).isEqualTo(COLUMNS);
+            assertThat(reader.next()).isNull();
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Ascending ids are stored in about one byte per row")
+    void testDeltaEncoding() throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1_000_000; i < 1_000_000 + ColumnarWriter.ROW_GROUP_SIZE; i++) {
+            rows.add(new Object[]{i, (long) i, null});
+        }
+        assertThat(write(rows).length).isLessThan(ColumnarWriter.ROW_GROUP_SIZE);
+    }
+
+    @Test
+    @DisplayName("Other files and truncated files are rejected")
+    void testInvalidFiles() throws IOException {
+        assertThatThrownBy(() -> new ColumnarReader(new ByteArrayInputStream("{\"id\":1}".getBytes())))
+                .isInstanceOf(IOException.class);
+
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1, 2L, "text"});
+        byte[] file = write(rows);
+        byte[] truncated = Arrays.copyOf(file, file.length - 3);
+        assertThatThrownBy(() -> readAll(truncated)).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] write(List<Object[]> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ColumnarWriter writer = new ColumnarWriter(out, COLUMNS)) {
+            for (Object[] row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Object[]> readAll(byte[] file) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(file))) {
+            for (Object[] row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,193 @@
+package edu.minghualiu.oahspe.export;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.entities.IndexEntry;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.GlossaryTermRepository;
+import edu.minghualiu.oahspe.repositories.IndexEntryRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for CorpusExporter.
+ * Not @Transactional: every export page runs in its own transaction and must see committed rows.
+ * A page size of 2 makes every table span several keyset pages.
+ */
+@SpringBootTest(properties = "oahspe.export.page-size=2")
+@ActiveProfiles("test")
+class CorpusExporterIntegrationTest {
+
+    @Autowired
+    private CorpusExporter corpusExporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private GlossaryTermRepository glossaryTermRepository;
+
+    @Autowired
+    private IndexEntryRepository indexEntryRepository;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        dataCleanup.cleanupAllIngestedData();
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = bookRepository.save(Book.builder().title("Book of Jehovih").pageNumber(10).build());
+            Chapter chapter = chapterRepository.save(Chapter.builder().title("Chapter 1").book(book).pageNumber(10).build());
+            Verse first = null;
+            for (int i = 1; i <= 5; i++) {
+                Verse verse = verseRepository.save(Verse.builder().verseKey("14/1." + i).chapter(chapter)
+                        .pageNumber(10 + i).text("Verse " + i).textInChinese(i == 1 ? "第一节" : null).build());
+                first = first != null ? first : verse;
+            }
+            noteRepository.save(Note.builder().noteKey("1").verse(first).pageNumber(11).text("A note.").build());
+            noteRepository.save(Note.builder().noteKey("2").pageNumber(12).text("An orphaned note.").build());
+            GlossaryTerm term = glossaryTermRepository.save(GlossaryTerm.builder().term("Corpor").pageNumber(1800)
+                    .definition("Corporeal; \"of the earth\".").build());
+            indexEntryRepository.save(IndexEntry.builder().topic("Corpor").pageReferences("11, 14-15")
+                    .glossaryTerm(term).extractedFromPage(1700).build());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataCleanup.cleanupAllIngestedData();
+    }
+
+    @Test
+    @DisplayName("Every table is exported across keyset pages to JSONL and columnar files with the same rows")
+    void testExport() throws IOException {
+        ExportResult result = corpusExporter.export(directory);
+
+        assertThat(result.rowCounts()).containsExactly(
+                entry("books", 1L), entry("chapters", 1L), entry("verses", 5L), entry("notes", 2L),
+                entry("glossary_terms", 1L), entry("index_entries", 1L));
+        assertThat(result.totalRows()).isEqualTo(11);
+        for (String table : result.rowCounts().keySet()) {
+            List<JsonNode> jsonl = readJsonl(directory.resolve(table + CorpusExporter.JSONL_SUFFIX));
+            List<Object[]> columnar = readColumnar(directory.resolve(table + CorpusExporter.COLUMNAR_SUFFIX));
+            assertThat(jsonl).as(table).hasSize(result.rowCounts().get(table).intValue());
+            assertThat(columnar).as(table).hasSameSizeAs(jsonl);
+            assertThat(jsonl).extracting(row -> row.get("id").asLong()).as(table).isSorted().doesNotHaveDuplicates();
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString())).noneMatch(name -> name.endsWith(".part"))
+                    .contains(CorpusExporter.MANIFEST);
+        }
+
+        List<JsonNode> verses = readJsonl(directory.resolve("verses" + CorpusExporter.JSONL_SUFFIX));
+        assertThat(verses).extracting(row -> row.get("verseKey").asString())
+                .containsExactly("14/1.1", "14/1.2", "14/1.3", "14/1.4", "14/1.5");
+        assertThat(verses.get(0).get("textInChinese").asString()).isEqualTo("第一节");
+        assertThat(verses.get(1).get("textInChinese").isNull()).isTrue();
+
+        List<Object[]> notes = readColumnar(directory.resolve("notes" + CorpusExporter.COLUMNAR_SUFFIX));
+        assertThat(notes.get(0)[1]).isEqualTo(verses.get(0).get("id").asInt());
+        assertThat(notes.get(1)[1]).isNull();
+        assertThat(notes.get(1)[3]).isEqualTo("An orphaned note.");
+
+        List<JsonNode> entries = readJsonl(directory.resolve("index_entries" + CorpusExporter.JSONL_SUFFIX));
+        JsonNode terms = readJsonl(directory.resolve("glossary_terms" + CorpusExporter.JSONL_SUFFIX)).getFirst();
+        assertThat(entries.getFirst().get("glossaryTermId").asLong()).isEqualTo(terms.get("id").asLong());
+        assertThat(terms.get("definition").asString()).isEqualTo("Corporeal; \"of the earth\".");
+
+        JsonNode manifest = objectMapper.readTree(directory.resolve(CorpusExporter.MANIFEST).toFile());
+        assertThat(manifest.get("tables")).hasSize(6);
+        assertThat(manifest.get("tables").get(2).get("rows").asLong()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("An empty corpus exports empty files, and a second export replaces the first")
+    void testEmptyCorpusReplacesFiles() throws IOException {
+        corpusExporter.export(directory);
+        dataCleanup.cleanupAllIngestedData();
+
+        ExportResult result = corpusExporter.export(directory);
+
+        assertThat(result.totalRows()).isZero();
+        assertThat(readJsonl(directory.resolve("verses" + CorpusExporter.JSONL_SUFFIX))).isEmpty();
+        try (ColumnarReader reader = new ColumnarReader(
+                Files.newInputStream(directory.resolve("verses" + CorpusExporter.COLUMNAR_SUFFIX)))) {
+            assertThat(reader.columns()).extracting(ExportColumn::name)
+                    .containsExactly("id", "chapterId", "verseKey", "text", "textInChinese", "pageNumber");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    private List<JsonNode> readJsonl(Path file) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private static List<Object[]> readColumnar(Path file) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        try (ColumnarReader reader = new ColumnarReader(Files.newInputStream(file))) {
+            for (Object[] row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Map.Entry<String, Long> entry(String table, long rows) {
+        return Map.entry(table, rows);
+    }
+}
@@ -0,0 +1,171 @@
+package edu.minghualiu.oahspe.ingestion;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.Image;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
+import edu.minghualiu.oahspe.reader.VerseCache;
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.ImageRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import edu.minghualiu.oahspe.search.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OahspeIngestionService's buffering of continuation lines.
+ *
+ * <p>Verse and note text spanning several PDF lines must be written once per entity,
+ * with the same concatenated text as before.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OahspeIngestionService - Continuation Line Tests")
+class OahspeIngestionServiceContinuationTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ChapterRepository chapterRepository;
+
+    @Mock
+    private VerseRepository verseRepository;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageNoteLinker imageNoteLinker;
+
+    @Mock
+    private VerseCache verseCache;
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @InjectMocks
+    private OahspeIngestionService ingestionService;
+
+    @BeforeEach
+    void setup() {
+        lenient().when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(chapterRepository.save(any(Chapter.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(verseRepository.save(any(Verse.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should save a multi-line verse once with joined text")
+    void shouldSaveMultiLineVerseOnce() {
+        ingestionService.ingestEvents(List.of(
+                new OahspeEvent.BookStart("Book of Jehovih"),
+                new OahspeEvent.ChapterStart("Chapter 1"),
+                new OahspeEvent.Verse("1/1.1", "All was"),
+                new OahspeEvent.Verse(null, "and is"),
+                new OahspeEvent.Verse(null, "and ever shall be")
+        ), 10);
+
+        ArgumentCaptor<Verse> verseCaptor = ArgumentCaptor.forClass(Verse.class);
+        verify(verseRepository, times(1)).save(verseCaptor.capture());
+        assertThat(verseCaptor.getValue().getVerseKey()).isEqualTo("1/1.1");
+        assertThat(verseCaptor.getValue().getText()).isEqualTo("All was and is and ever shall be");
+    }
+
+    @Test
+    @DisplayName("Should save a multi-line note once, after its verse")
+    void shouldSaveMultiLineNoteOnceAfterVerse() {
+        ingestionService.ingestEvents(List.of(
+                new OahspeEvent.BookStart("Book of Jehovih"),
+                new OahspeEvent.ChapterStart("Chapter 1"),
+                new OahspeEvent.Verse("1/1.1", "All was"),
+                new OahspeEvent.Verse(null, "Sound"),
+                new OahspeEvent.Note("1", "The first"),
+                new OahspeEvent.Note(null, "note text"),
+                new OahspeEvent.Verse("1/1.2", "Next verse")
+        ), 10);
+
+        InOrder inOrder = inOrder(verseRepository, noteRepository);
+        ArgumentCaptor<Verse> verseCaptor = ArgumentCaptor.forClass(Verse.class);
+        ArgumentCaptor<Note> noteCaptor = ArgumentCaptor.forClass(Note.class);
+        inOrder.verify(verseRepository).save(verseCaptor.capture());
+        inOrder.verify(noteRepository).save(noteCaptor.capture());
+        inOrder.verify(verseRepository).save(verseCaptor.capture());
+        verifyNoMoreInteractions(noteRepository);
+
+        assertThat(verseCaptor.getAllValues().get(0).getText()).isEqualTo("All was Sound");
+        assertThat(noteCaptor.getValue().getText()).isEqualTo("The first note text");
+        assertThat(noteCaptor.getValue().getVerse()).isSameAs(verseCaptor.getAllValues().get(0));
+        assertThat(verseCaptor.getAllValues().get(1).getText()).isEqualTo("Next verse");
+    }
+
+    @Test
+    @DisplayName("Should flush at page end and re-open a verse continued on the next page")
+    void shouldReopenVerseContinuedOnNextPage() {
+        ingestionService.ingestEvents(List.of(
+                new OahspeEvent.BookStart("Book of Jehovih"),
+                new OahspeEvent.ChapterStart("Chapter 1"),
+                new OahspeEvent.Verse("1/1.1", "End of page")
+        ), 10);
+        verify(verseRepository, times(1)).save(any(Verse.class));
+
+        ingestionService.ingestEvents(List.of(
+                new OahspeEvent.Verse(null, "start of next page")
+        ), 11);
+
+        ArgumentCaptor<Verse> verseCaptor = ArgumentCaptor.forClass(Verse.class);
+        verify(verseRepository, times(2)).save(verseCaptor.capture());
+        assertThat(verseCaptor.getValue().getText()).isEqualTo("End of page start of next page");
+    }
+
+    @Test
+    @DisplayName("Should complete note text before linking an image")
+    void shouldFlushNoteBeforeImageLink() {
+        ingestionService.ingestEvents(List.of(
+                new OahspeEvent.BookStart("Book of Jehovih"),
+                new OahspeEvent.ChapterStart("Chapter 1"),
+                new OahspeEvent.Verse("1/1.1", "Verse"),
+                new OahspeEvent.Note("1", "See the"),
+                new OahspeEvent.Note(null, "figure below"),
+                new OahspeEvent.ImageRef("i001", "Figure")
+        ), 10);
+
+        ArgumentCaptor<Note> noteCaptor = ArgumentCaptor.forClass(Note.class);
+        verify(imageNoteLinker).linkImageToNote(noteCaptor.capture(), any(Image.class));
+        assertThat(noteCaptor.getValue().getText()).isEqualTo("See the figure below");
+        verify(noteRepository, times(1)).save(any(Note.class));
+    }
+
+    @Test
+    @DisplayName("Should write buffered text on finishIngestion")
+    void shouldFlushOnFinishIngestion() {
+        ingestionService.ingestEvents(List.of(
+                new OahspeEvent.BookStart("Book of Jehovih"),
+                new OahspeEvent.ChapterStart("Chapter 1"),
+                new OahspeEvent.Verse("1/1.1", "Last verse")
+        ), 10);
+        ingestionService.finishIngestion();
+
+        verify(verseRepository, times(1)).save(any(Verse.class));
+    }
+}
@@ -4,11 +4,13 @@ import edu.minghualiu.oahspe.entities.Book;
 import edu.minghualiu.oahspe.entities.Chapter;
 import edu.minghualiu.oahspe.entities.Verse;
 import edu.minghualiu.oahspe.ingestion.parser.OahspeEvent;
+import edu.minghualiu.oahspe.reader.VerseCache;
 import edu.minghualiu.oahspe.repositories.BookRepository;
 import edu.minghualiu.oahspe.repositories.ChapterRepository;
 import edu.minghualiu.oahspe.repositories.ImageRepository;
 import edu.minghualiu.oahspe.repositories.NoteRepository;
 import edu.minghualiu.oahspe.repositories.VerseRepository;
+import edu.minghualiu.oahspe.search.SearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -54,6 +56,12 @@ class OahspeIngestionServiceOrphanedContentTest {
     @Mock
     private ImageNoteLinker imageNoteLinker;
     
+    @Mock
+    private VerseCache verseCache;
+    
+    @Mock
+    private SearchIndex searchIndex;
+    
     @InjectMocks
     private OahspeIngestionService ingestionService;
     
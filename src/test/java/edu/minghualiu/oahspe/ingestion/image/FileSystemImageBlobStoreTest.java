@@ -0,0 +1,81 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FileSystemImageBlobStore Tests")
+class FileSystemImageBlobStoreTest {
+
+    private static final String HASH = "3fa2" + "0".repeat(58) + "e1";
+
+    @TempDir
+    Path root;
+
+    private FileSystemImageBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemImageBlobStore(root);
+    }
+
+    @Test
+    @DisplayName("Put: Bytes land in a sharded file with no temporary leftovers")
+    void test_PutShardsAndLeavesNoTempFiles() throws IOException {
+        store.put(HASH, new byte[] {1, 2, 3});
+        store.put(HASH, new byte[] {1, 2, 3});
+
+        Path file = root.resolve("3f").resolve("a2").resolve(HASH);
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(file));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Read: open and transferTo return the stored bytes")
+    void test_OpenAndTransfer() throws IOException {
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        store.put(HASH, data);
+
+        try (InputStream in = store.open(HASH)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(data.length, store.transferTo(HASH, Channels.newChannel(out)));
+        assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Delete: Files are removed and missing hashes ignored")
+    void test_Delete() throws IOException {
+        store.put(HASH, new byte[] {1});
+
+        store.delete(List.of(HASH, "ab" + "0".repeat(62)));
+
+        assertThrows(NoSuchFileException.class, () -> store.open(HASH));
+    }
+
+    @Test
+    @DisplayName("Keys: Anything but a SHA-256 hex hash is rejected")
+    void test_RejectsInvalidHash() {
+        assertThrows(IllegalArgumentException.class, () -> store.put("../../etc/passwd", new byte[] {1}));
+        assertThrows(IllegalArgumentException.class, () -> store.open("ABC"));
+    }
+}
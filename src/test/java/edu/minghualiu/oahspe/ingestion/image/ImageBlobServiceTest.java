@@ -0,0 +1,109 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import edu.minghualiu.oahspe.repositories.ImageBlobDataRepository;
+import edu.minghualiu.oahspe.repositories.ImageBlobRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageBlobService Encoding Tests")
+class ImageBlobServiceTest {
+
+    @Mock
+    private ImageBlobRepository imageBlobRepository;
+
+    @Mock
+    private ImageBlobDataRepository imageBlobDataRepository;
+
+    private ImageBlobService imageBlobService;
+
+    @BeforeEach
+    void setUp() {
+        imageBlobService = new ImageBlobService(imageBlobRepository,
+                List.of(new DatabaseImageBlobStore(imageBlobDataRepository)), DatabaseImageBlobStore.NAME);
+    }
+
+    @Test
+    @DisplayName("Passthrough: A plain RGB JPEG is stored byte for byte")
+    void test_JpegPassthrough() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDImageXObject jpeg = JPEGFactory.createFromImage(document, image(BufferedImage.TYPE_INT_RGB));
+
+            EncodedImage encoded = imageBlobService.encode(jpeg);
+
+            assertEquals("image/jpeg", encoded.mimeType());
+            try (InputStream raw = jpeg.getCOSObject().createRawInputStream()) {
+                assertArrayEquals(raw.readAllBytes(), encoded.data());
+            }
+            assertEquals((byte) 0xFF, encoded.data()[0]);
+            assertEquals((byte) 0xD8, encoded.data()[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Fallback: Masked JPEGs, lossless images and RENDER mode become PNG")
+    void test_RenderFallback() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            // An alpha channel becomes an SMask that the JPEG file does not carry
+            PDImageXObject masked = JPEGFactory.createFromImage(document, image(BufferedImage.TYPE_INT_ARGB));
+            PDImageXObject lossless = LosslessFactory.createFromImage(document, image(BufferedImage.TYPE_INT_RGB));
+            assertFalse(ImageBlobService.isBrowserJpeg(masked));
+            assertEquals("image/png", imageBlobService.encode(masked).mimeType());
+            assertEquals("image/png", imageBlobService.encode(lossless).mimeType());
+
+            imageBlobService.setMode(ImageExtractionMode.RENDER);
+            PDImageXObject jpeg = JPEGFactory.createFromImage(document, image(BufferedImage.TYPE_INT_RGB));
+            EncodedImage rendered = imageBlobService.encode(jpeg);
+            assertEquals("image/png", rendered.mimeType());
+            assertEquals((byte) 0x89, rendered.data()[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Stored: A known hash is returned without encoding")
+    void test_StoredHashSkipsEncoding() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDImageXObject jpeg = JPEGFactory.createFromImage(document, image(BufferedImage.TYPE_INT_RGB));
+            String hash = ImageDigest.sha256(jpeg);
+            ImageBlobRepository.HashView view = mock(ImageBlobRepository.HashView.class);
+            when(view.getId()).thenReturn(7L);
+            when(view.getContentHash()).thenReturn(hash);
+            when(view.getMimeType()).thenReturn("image/jpeg");
+            when(imageBlobRepository.findAllViews()).thenReturn(List.of(view));
+
+            imageBlobService.loadStoredHashes();
+            EncodedImage encoded = imageBlobService.encode(jpeg);
+
+            assertTrue(encoded.isStored());
+            assertEquals(hash, encoded.contentHash());
+            assertEquals("image/jpeg", encoded.mimeType());
+        }
+    }
+
+    private static BufferedImage image(int type) {
+        BufferedImage image = new BufferedImage(16, 16, type);
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                int alpha = type == BufferedImage.TYPE_INT_ARGB && x < 8 ? 0x40 : 0xFF;
+                image.setRGB(x, y, alpha << 24 | (x * 16) << 16 | (y * 16) << 8 | 0x80);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,67 @@
+package edu.minghualiu.oahspe.ingestion.image;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ImageDigest Tests")
+class ImageDigestTest {
+
+    @Test
+    @DisplayName("Identical images in separate objects have the same hash")
+    void test_IdenticalImagesMatch() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDImageXObject first = LosslessFactory.createFromImage(document, image(Color.RED, false));
+            PDImageXObject second = LosslessFactory.createFromImage(document, image(Color.RED, false));
+
+            String hash = ImageDigest.sha256(first);
+            assertEquals(64, hash.length());
+            assertEquals(hash, ImageDigest.sha256(second));
+        }
+    }
+
+    @Test
+    @DisplayName("Different pixels, masks or decode arrays change the hash")
+    void test_DifferencesChangeHash() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            String red = ImageDigest.sha256(LosslessFactory.createFromImage(document, image(Color.RED, false)));
+            String blue = ImageDigest.sha256(LosslessFactory.createFromImage(document, image(Color.BLUE, false)));
+            String redWithAlpha = ImageDigest.sha256(
+                    LosslessFactory.createFromImage(document, image(Color.RED, true)));
+            assertNotEquals(red, blue);
+            assertNotEquals(red, redWithAlpha);
+
+            // Same stream bytes, but an inverted Decode array renders different pixels
+            PDImageXObject inverted = LosslessFactory.createFromImage(document, image(Color.RED, false));
+            COSArray decode = new COSArray();
+            for (int i = 0; i < 3; i++) {
+                decode.add(COSInteger.ONE);
+                decode.add(COSInteger.ZERO);
+            }
+            inverted.getCOSObject().setItem(COSName.DECODE, decode);
+            assertNotEquals(red, ImageDigest.sha256(inverted));
+        }
+    }
+
+    private static BufferedImage image(Color color, boolean alpha) {
+        BufferedImage image = new BufferedImage(8, 8,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                image.setRGB(x, y, alpha && x < 4 ? 0x80000000 | (color.getRGB() & 0xFFFFFF) : color.getRGB());
+            }
+        }
+        return image;
+    }
+}
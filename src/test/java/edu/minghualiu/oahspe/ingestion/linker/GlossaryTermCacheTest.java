@@ -0,0 +1,107 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.repositories.GlossaryTermRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GlossaryTermCache Tests")
+class GlossaryTermCacheTest {
+
+    @Mock
+    private GlossaryTermRepository glossaryTermRepository;
+
+    private GlossaryTermCache glossaryTermCache;
+
+    @BeforeEach
+    void setUp() {
+        glossaryTermCache = new GlossaryTermCache(glossaryTermRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Load: Terms are found ignoring case and surrounding whitespace")
+    void test_LoadAndFind() {
+        when(glossaryTermRepository.findAllTermViews()).thenReturn(List.of(view(1L, "Jehovih"), view(2L, "Es")));
+
+        glossaryTermCache.load();
+
+        assertEquals(Optional.of(1L), glossaryTermCache.findId("JEHOVIH"));
+        assertEquals(Optional.of(2L), glossaryTermCache.findId(" es "));
+        assertFalse(glossaryTermCache.contains("Corpor"));
+        assertFalse(glossaryTermCache.contains(null));
+        assertEquals(2, glossaryTermCache.size());
+    }
+
+    @Test
+    @DisplayName("LoadIfNeeded: The database is read once")
+    void test_LoadIfNeeded() {
+        when(glossaryTermRepository.findAllTermViews()).thenReturn(List.of());
+
+        glossaryTermCache.loadIfNeeded();
+        glossaryTermCache.loadIfNeeded();
+
+        verify(glossaryTermRepository, times(1)).findAllTermViews();
+    }
+
+    @Test
+    @DisplayName("AddAll: Saved terms are found without a query")
+    void test_AddAll() {
+        glossaryTermCache.addAll(List.of(term(7L, "Corpor")));
+
+        assertEquals(Optional.of(7L), glossaryTermCache.findId("corpor"));
+        verifyNoInteractions(glossaryTermRepository);
+    }
+
+    @Test
+    @DisplayName("Rollback: Terms added in a rolled-back transaction are forgotten")
+    void test_RollbackForgetsTerms() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        glossaryTermCache.addAll(List.of(term(7L, "Corpor")));
+        assertTrue(glossaryTermCache.contains("Corpor"));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertFalse(glossaryTermCache.contains("Corpor"));
+    }
+
+    private static GlossaryTerm term(Long id, String term) {
+        return GlossaryTerm.builder().id(id).term(term).build();
+    }
+
+    private static GlossaryTermRepository.TermView view(Long id, String term) {
+        return new GlossaryTermRepository.TermView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTerm() {
+                return term;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.*;
+import edu.minghualiu.oahspe.repositories.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for linking PageImages to Image entities by source page and sequence.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PageImageLinkingIntegrationTest {
+
+    @Autowired
+    private PageIngestionLinker pageIngestionLinker;
+
+    @Autowired
+    private PageContentRepository pageContentRepository;
+
+    @Autowired
+    private PageImageRepository pageImageRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+
+    private PageContent page20;
+    private PageImage page20First;
+    private PageImage page20Second;
+    private PageImage page21Only;
+    private PageImage page22Only;
+    private Image image20a;
+    private Image image20b;
+    private Image image21;
+
+    @BeforeEach
+    void setUp() {
+        page20 = savePage(20);
+        PageContent page21 = savePage(21);
+        PageContent page22 = savePage(22);
+
+        page20First = savePageImage(page20, 1);
+        page20Second = savePageImage(page20, 2);
+        page21Only = savePageImage(page21, 1);
+        page22Only = savePageImage(page22, 1);
+
+        image20a = saveImage("i901", 20);
+        image20b = saveImage("i902", 20);
+        image21 = saveImage("i903", 21);
+
+        entityManager.flush();
+    }
+
+    @Test
+    void testLinkPageImagesForCategory_linksBySequence() {
+        int linked = pageIngestionLinker.linkPageImagesForCategory(PageCategory.OAHSPE_BOOKS);
+
+        assertThat(linked).isEqualTo(3);
+        entityManager.clear();
+
+        assertThat(linkedImageId(page20First)).isEqualTo(image20a.getId());
+        assertThat(linkedImageId(page20Second)).isEqualTo(image20b.getId());
+        assertThat(linkedImageId(page21Only)).isEqualTo(image21.getId());
+        assertThat(linkedImageId(page22Only)).isNull();
+    }
+
+    @Test
+    void testLinkPageImagesForCategory_isIdempotent() {
+        pageIngestionLinker.linkPageImagesForCategory(PageCategory.OAHSPE_BOOKS);
+
+        int linkedAgain = pageIngestionLinker.linkPageImagesForCategory(PageCategory.OAHSPE_BOOKS);
+
+        assertThat(linkedAgain).isZero();
+    }
+
+    @Test
+    void testLinkPageImagesForCategory_otherCategoryUntouched() {
+        int linked = pageIngestionLinker.linkPageImagesForCategory(PageCategory.INDEX);
+
+        assertThat(linked).isZero();
+        entityManager.clear();
+        assertThat(linkedImageId(page20First)).isNull();
+    }
+
+    @Test
+    void testLinkPageImagesToImageEntities_singlePage() {
+        pageIngestionLinker.linkPageImagesToImageEntities(page20);
+        entityManager.clear();
+
+        assertThat(linkedImageId(page20First)).isEqualTo(image20a.getId());
+        assertThat(linkedImageId(page20Second)).isEqualTo(image20b.getId());
+        assertThat(linkedImageId(page21Only)).isNull();
+    }
+
+    private Integer linkedImageId(PageImage pageImage) {
+        Image linked = pageImageRepository.findById(pageImage.getId()).orElseThrow().getLinkedImage();
+        return linked != null ? linked.getId() : null;
+    }
+
+    private PageContent savePage(int pageNumber) {
+        return pageContentRepository.save(PageContent.builder()
+                .pageNumber(pageNumber)
+                .category(PageCategory.fromPageNumber(pageNumber))
+                .rawText("Test text page " + pageNumber)
+                .build());
+    }
+
+    private PageImage savePageImage(PageContent pageContent, int sequence) {
+        return pageImageRepository.save(PageImage.builder()
+                .pageContent(pageContent)
+                .imageSequence(sequence)
+                .blob(saveBlob(pageContent.getPageNumber() + "-" + sequence))
+                .mimeType("image/png")
+                .build());
+    }
+
+    private ImageBlob saveBlob(String contentHash) {
+        return imageBlobRepository.save(ImageBlob.builder()
+                .contentHash(contentHash)
+                .mimeType("image/png")
+                .sizeBytes(3)
+                .storage("database")
+                .build());
+    }
+    
+    private Image saveImage(String imageKey, int sourcePage) {
+        return imageRepository.save(Image.builder()
+                .imageKey(imageKey)
+                .title(imageKey)
+                .description(imageKey)
+                .sourcePage(sourcePage)
+                .build());
+    }
+}
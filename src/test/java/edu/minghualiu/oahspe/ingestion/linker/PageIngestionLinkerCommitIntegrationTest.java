@@ -0,0 +1,103 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.PageCategory;
+import edu.minghualiu.oahspe.entities.PageContent;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.entities.WorkflowPhase;
+import edu.minghualiu.oahspe.entities.WorkflowState;
+import edu.minghualiu.oahspe.entities.WorkflowStatus;
+import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import edu.minghualiu.oahspe.repositories.PageContentRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import edu.minghualiu.oahspe.repositories.WorkflowStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the per-page transactions of PageIngestionLinker's checkpointed category ingestion.
+ * Not @Transactional: each page must commit or roll back on its own, as in a real workflow run.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PageIngestionLinkerCommitIntegrationTest {
+
+    private static final int FAILING_PAGE = 9;
+
+    @Autowired
+    private PageIngestionLinker pageIngestionLinker;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private PageContentRepository pageContentRepository;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private WorkflowStateRepository workflowStateRepository;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataCleanup.cleanupAllIngestedData();
+        pageContentRepository.deleteAll();
+        workflowStateRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Failing page: Earlier pages and their checkpoint are committed, the failing page is rolled back")
+    void testPagesCommitIndividually() {
+        WorkflowState workflow = workflowStateRepository.save(WorkflowState.builder()
+                .workflowName("commit-test")
+                .currentPhase(WorkflowPhase.CONTENT_INGESTION)
+                .status(WorkflowStatus.IN_PROGRESS)
+                .build());
+        saveBookPage(7, "Book of Apollo\nChapter 1\n1/1.1 First verse.");
+        saveBookPage(8, "1/1.2 Second verse.");
+        saveBookPage(FAILING_PAGE, "1/1.3 Third verse.");
+        saveBookPage(10, "1/1.4 Fourth verse.");
+
+        // Saves the checkpoint like WorkflowOrchestrator, then fails inside the page's transaction
+        IngestionContext context = pageIngestionLinker.ingestCategoryPages(PageCategory.OAHSPE_BOOKS, null,
+                pageNumber -> {
+                    workflow.recordCheckpoint(PageCategory.OAHSPE_BOOKS, pageNumber);
+                    workflowStateRepository.save(workflow);
+                    if (pageNumber == FAILING_PAGE) {
+                        throw new IllegalStateException("Simulated failure on page " + pageNumber);
+                    }
+                });
+
+        assertThat(context.getTotalErrorsEncountered()).isEqualTo(1);
+        assertThat(context.getPageErrors()).singleElement().asString().contains(String.valueOf(FAILING_PAGE));
+        assertThat(workflowStateRepository.findByWorkflowName("commit-test").orElseThrow()
+                .getCheckpoint(PageCategory.OAHSPE_BOOKS)).isEqualTo(8);
+        assertThat(pageContentRepository.findByCategoryAndIngestedFalseOrderByPageNumberAsc(PageCategory.OAHSPE_BOOKS))
+                .extracting(PageContent::getPageNumber)
+                .containsExactly(FAILING_PAGE, 10);
+        assertThat(verseRepository.findAll())
+                .extracting(Verse::getVerseKey)
+                .containsExactlyInAnyOrder("1/1.1", "1/1.2");
+    }
+
+    private void saveBookPage(int pageNumber, String rawText) {
+        pageContentRepository.save(PageContent.builder()
+                .pageNumber(pageNumber)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText(rawText)
+                .build());
+    }
+}
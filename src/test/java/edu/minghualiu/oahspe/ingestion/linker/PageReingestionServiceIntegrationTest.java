@@ -0,0 +1,180 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.PageCategory;
+import edu.minghualiu.oahspe.entities.PageContent;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.PageContentRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for PageReingestionService.
+ * Not @Transactional: every range is rebuilt in its own transaction, and a failing one must roll back alone.
+ *
+ * The corpus is one chapter over pages 10-13: page 11 continues a verse from page 10,
+ * and page 13 opens with a note on the last verse of page 12, then starts chapter 2.
+ * Changing page 12 rebuilds pages 10-12, so the verse, note and chapter started on
+ * page 13 must be moved to the rebuilt book, chapter and verse.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PageReingestionServiceIntegrationTest {
+
+    @Autowired
+    private PageReingestionService reingestionService;
+
+    @Autowired
+    private PageIngestionLinker pageIngestionLinker;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PageContentRepository pageContentRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        savePage(10, "Book of Apollo\nChapter 1\n1/1.1 First verse.\n1/1.2 Second verse");
+        savePage(11, "continues on page 11.\n1/1.3 Third verse.");
+        savePage(12, "1/1.4 Fourth verse.\n(1) A note on the fourth verse.");
+        savePage(13, "(2) Another note on the fourth verse.\n1/1.5 Fifth verse.\nChapter 2\n1/2.1 Sixth verse.");
+
+        IngestionContext context = pageIngestionLinker.ingestAllPageContents(null);
+
+        assertThat(context.getTotalErrorsEncountered()).isZero();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataCleanup.cleanupAllIngestedData();
+        pageContentRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Nothing changed: Nothing is re-ingested")
+    void testNoChanges() {
+        IngestionContext context = reingestionService.reingestChangedPages(null);
+
+        assertThat(context.getTotalPages()).isZero();
+        assertThat(verseRepository.count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Changed mid-chapter page: Its range is rebuilt and later entities keep their chapter and verse")
+    void testReingestChangedPage() {
+        changePage(12, "1/1.4 Fourth verse, revised.\n(1) A note on the fourth verse.");
+
+        IngestionContext context = reingestionService.reingestChangedPages(null);
+
+        assertThat(context.getTotalErrorsEncountered()).isZero();
+        assertThat(context.getTotalPages()).isEqualTo(3);
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(bookRepository.count()).isEqualTo(1);
+            assertThat(chapterRepository.count()).isEqualTo(2);
+            assertThat(verseRepository.count()).isEqualTo(6);
+            assertThat(noteRepository.count()).isEqualTo(2);
+
+            Book book = bookRepository.findByPageNumber(10).getFirst();
+            Chapter chapter = chapterRepository.findByPageNumber(10).getFirst();
+            Verse revised = verseRepository.findByPageNumber(12).getFirst();
+            assertThat(revised.getVerseKey()).isEqualTo("1/1.4");
+            assertThat(revised.getText()).isEqualTo("Fourth verse, revised.");
+            assertThat(revised.getChapter().getId()).isEqualTo(chapter.getId());
+            assertThat(noteRepository.findByPageNumber(12)).singleElement()
+                    .extracting(note -> note.getVerse().getId()).isEqualTo(revised.getId());
+            assertThat(verseRepository.findByPageNumber(10)).extracting(Verse::getText)
+                    .containsExactly("First verse.", "Second verse continues on page 11.");
+
+            // Unchanged page 13 now points at the rebuilt entities
+            Note laterNote = noteRepository.findByPageNumber(13).getFirst();
+            assertThat(laterNote.getNoteKey()).isEqualTo("2");
+            assertThat(laterNote.getVerse().getId()).isEqualTo(revised.getId());
+            assertThat(verseRepository.findByPageNumber(13))
+                    .extracting(Verse::getVerseKey, verse -> verse.getChapter().getTitle())
+                    .containsExactly(tuple("1/1.5", "Chapter 1"), tuple("1/2.1", "Chapter 2"));
+            assertThat(verseRepository.findByPageNumber(13).getFirst().getChapter().getId())
+                    .isEqualTo(chapter.getId());
+            assertThat(chapterRepository.findByPageNumber(13)).singleElement()
+                    .extracting(later -> later.getBook().getId()).isEqualTo(book.getId());
+        });
+
+        PageContent page = pageContentRepository.findByPageNumber(12).orElseThrow();
+        assertThat(page.isChangedSinceIngestion(PageIngestionLinker.parserVersion(12, PageCategory.OAHSPE_BOOKS)))
+                .isFalse();
+        assertThat(reingestionService.reingestChangedPages(null).getTotalPages()).isZero();
+    }
+
+    @Test
+    @DisplayName("Failing range: Rolled back, the previous entities are kept and the page stays changed")
+    void testFailingRangeRollsBack() {
+        // Page 12 would end the range outside any chapter, but page 13 still has verses in chapter 1
+        changePage(12, "Book of Jehovih");
+
+        IngestionContext context = reingestionService.reingestChangedPages(null);
+
+        assertThat(context.getTotalErrorsEncountered()).isEqualTo(1);
+        assertThat(context.getPageErrors()).singleElement().asString().contains("10");
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(bookRepository.findAll()).extracting(Book::getTitle).containsExactly("Book of Apollo");
+            assertThat(chapterRepository.count()).isEqualTo(2);
+            assertThat(verseRepository.count()).isEqualTo(6);
+
+            Verse fourth = verseRepository.findByPageNumber(12).getFirst();
+            assertThat(fourth.getText()).isEqualTo("Fourth verse.");
+            assertThat(noteRepository.findByPageNumber(13)).singleElement()
+                    .extracting(note -> note.getVerse().getId()).isEqualTo(fourth.getId());
+        });
+
+        PageContent page = pageContentRepository.findByPageNumber(12).orElseThrow();
+        assertThat(page.isChangedSinceIngestion(PageIngestionLinker.parserVersion(12, PageCategory.OAHSPE_BOOKS)))
+                .isTrue();
+    }
+
+    private void savePage(int pageNumber, String rawText) {
+        pageContentRepository.save(PageContent.builder()
+                .pageNumber(pageNumber)
+                .category(PageCategory.fromPageNumber(pageNumber))
+                .rawText(rawText)
+                .build());
+    }
+
+    private void changePage(int pageNumber, String rawText) {
+        PageContent page = pageContentRepository.findByPageNumber(pageNumber).orElseThrow();
+        page.setRawText(rawText);
+        pageContentRepository.save(page);
+    }
+}
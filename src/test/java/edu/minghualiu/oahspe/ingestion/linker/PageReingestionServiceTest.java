@@ -0,0 +1,134 @@
+package edu.minghualiu.oahspe.ingestion.linker;
+
+import edu.minghualiu.oahspe.entities.PageCategory;
+import edu.minghualiu.oahspe.entities.PageContent;
+import edu.minghualiu.oahspe.ingestion.parser.OahspeParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for how PageReingestionService groups changed pages into ranges.
+ *
+ * <p>Book pages 10-16 alternate between pages that open with a verse and pages
+ * that continue the verse before them; a book range must start and end on
+ * those structural boundaries.</p>
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PageReingestionService - Changed Range Tests")
+class PageReingestionServiceTest {
+
+    @Spy
+    private OahspeParser oahspeParser = new OahspeParser();
+
+    @InjectMocks
+    private PageReingestionService reingestionService;
+
+    @Test
+    @DisplayName("No changed page: No range")
+    void test_NoChanges() {
+        List<PageContent> pages = bookPages();
+
+        assertThat(reingestionService.findChangedRanges(PageCategory.OAHSPE_BOOKS, pages)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Changed mid page: Widened back to the page opening its verse and forward to the next verse")
+    void test_WidenedToStructure() {
+        List<PageContent> pages = bookPages();
+        change(pages, 13);
+
+        assertThat(pageNumbers(reingestionService.findChangedRanges(PageCategory.OAHSPE_BOOKS, pages)))
+                .containsExactly(List.of(12, 13));
+    }
+
+    @Test
+    @DisplayName("Changed structured page: Starts at the structured page before it, ends before the next one")
+    void test_ChangedStructuredPage() {
+        List<PageContent> pages = bookPages();
+        change(pages, 14);
+
+        assertThat(pageNumbers(reingestionService.findChangedRanges(PageCategory.OAHSPE_BOOKS, pages)))
+                .containsExactly(List.of(12, 13, 14, 15));
+    }
+
+    @Test
+    @DisplayName("Changed first and last pages: Ranges stop at the ends of the category")
+    void test_ChangedFirstAndLastPages() {
+        List<PageContent> pages = bookPages();
+        change(pages, 10);
+        pages.getLast().setParserVersion("oahspe-0");
+
+        assertThat(pageNumbers(reingestionService.findChangedRanges(PageCategory.OAHSPE_BOOKS, pages)))
+                .containsExactly(List.of(10, 11), List.of(14, 15, 16));
+    }
+
+    @Test
+    @DisplayName("Changed neighbouring pages: Merged into one range, or split on a structured page")
+    void test_AdjacentRanges() {
+        List<PageContent> merged = bookPages();
+        change(merged, 11);
+        change(merged, 12);
+
+        List<PageContent> split = bookPages();
+        change(split, 11);
+        change(split, 13);
+
+        assertThat(pageNumbers(reingestionService.findChangedRanges(PageCategory.OAHSPE_BOOKS, merged)))
+                .containsExactly(List.of(10, 11, 12, 13));
+        assertThat(pageNumbers(reingestionService.findChangedRanges(PageCategory.OAHSPE_BOOKS, split)))
+                .containsExactly(List.of(10, 11), List.of(12, 13));
+    }
+
+    @Test
+    @DisplayName("Glossary pages: Rebuilt exactly, without widening")
+    void test_GlossaryNotWidened() {
+        List<PageContent> pages = List.of(
+                page(1670, "continued definition."), page(1671, "Corpor, corporeal."),
+                page(1672, "continued definition."), page(1673, "continued definition."));
+        change(pages, 1671);
+        change(pages, 1672);
+
+        assertThat(pageNumbers(reingestionService.findChangedRanges(PageCategory.GLOSSARIES, pages)))
+                .containsExactly(List.of(1671, 1672));
+    }
+
+    /**
+     * Even pages open with a verse, odd pages continue the verse before them.
+     */
+    private static List<PageContent> bookPages() {
+        return List.of(
+                page(10, "1/1.1 First verse"), page(11, "continued on page 11."),
+                page(12, "1/1.2 Second verse"), page(13, "continued on page 13."),
+                page(14, "1/1.3 Third verse"), page(15, "continued on page 15."),
+                page(16, "1/1.4 Fourth verse."));
+    }
+
+    private static PageContent page(int pageNumber, String rawText) {
+        PageContent page = PageContent.builder()
+                .pageNumber(pageNumber)
+                .category(PageCategory.fromPageNumber(pageNumber))
+                .rawText(rawText)
+                .build();
+        page.markIngested(PageIngestionLinker.parserVersion(pageNumber, page.getCategory()));
+        return page;
+    }
+
+    private static void change(List<PageContent> pages, int pageNumber) {
+        PageContent page = pages.stream().filter(p -> p.getPageNumber() == pageNumber).findFirst().orElseThrow();
+        page.setRawText(page.getRawText() + " Revised.");
+    }
+
+    private static List<List<Integer>> pageNumbers(List<List<PageContent>> ranges) {
+        return ranges.stream()
+                .map(range -> range.stream().map(PageContent::getPageNumber).toList())
+                .toList();
+    }
+}
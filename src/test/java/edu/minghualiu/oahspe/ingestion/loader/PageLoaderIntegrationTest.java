@@ -0,0 +1,212 @@
+package edu.minghualiu.oahspe.ingestion.loader;
+
+import edu.minghualiu.oahspe.entities.PageContent;
+import edu.minghualiu.oahspe.entities.PageImage;
+import edu.minghualiu.oahspe.ingestion.runner.IngestionContext;
+import edu.minghualiu.oahspe.ingestion.runner.ProgressCallback;
+import edu.minghualiu.oahspe.repositories.ImageBlobRepository;
+import edu.minghualiu.oahspe.repositories.PageContentRepository;
+import edu.minghualiu.oahspe.repositories.PageImageRepository;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for PageLoader single-threaded and parallel modes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PageLoaderIntegrationTest {
+
+    private static final int PAGE_COUNT = 230;
+
+    @Autowired
+    private PageLoader pageLoader;
+
+    @Autowired
+    private PageContentRepository pageContentRepository;
+
+    @Autowired
+    private PageImageRepository pageImageRepository;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private String pdfPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pageImageRepository.deleteAll();
+        pageContentRepository.deleteAll();
+
+        pdfPath = tempDir.resolve("pages.pdf").toString();
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= PAGE_COUNT; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, 12);
+                    stream.newLineAtOffset(50, 700);
+                    stream.showText("Page text " + i);
+                    stream.endText();
+                }
+            }
+            document.save(pdfPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel load writes every page with its own text")
+    void testParallelLoadMatchesPageOrder() {
+        IngestionContext context = pageLoader.loadAllPages(pdfPath, null, 4);
+
+        assertThat(context.getTotalErrorsEncountered()).isZero();
+        assertThat(context.getTotalEventsProcessed()).isEqualTo(PAGE_COUNT);
+        assertThat(pageContentRepository.count()).isEqualTo(PAGE_COUNT);
+
+        for (int page : new int[] {1, 100, 101, 230}) {
+            PageContent content = pageContentRepository.findByPageNumber(page).orElseThrow();
+            assertThat(content.getRawText()).isEqualTo("Page text " + page);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel load reports progress in page order")
+    void testParallelLoadCallbackOrder() {
+        List<Integer> started = new ArrayList<>();
+        List<Integer> completed = new ArrayList<>();
+
+        pageLoader.loadAllPages(pdfPath, new ProgressCallback() {
+            @Override
+            public void onPageStart(int pageNumber, int totalPages) {
+                started.add(pageNumber);
+            }
+
+            @Override
+            public void onPageComplete(int pageNumber, int eventsProcessed) {
+                completed.add(pageNumber);
+            }
+
+            @Override
+            public void onPageError(int pageNumber, Exception exception) {
+            }
+
+            @Override
+            public void onIngestionComplete(IngestionContext context) {
+            }
+        }, 3);
+
+        assertThat(started).containsExactly(50, 100, 150, 200);
+        assertThat(completed).containsExactly(50, 100, 150, 200);
+    }
+
+    @Test
+    @DisplayName("Reloading with workers keeps existing pages")
+    void testParallelReloadIsIdempotent() {
+        pageLoader.loadAllPages(pdfPath, null);
+        pageLoader.loadAllPages(pdfPath, null, 4);
+
+        assertThat(pageContentRepository.count()).isEqualTo(PAGE_COUNT);
+    }
+
+    @Test
+    @DisplayName("Reloading only extracts batches with missing pages")
+    void testReloadSkipsLoadedBatches() {
+        pageLoader.loadAllPages(pdfPath, null);
+        pageContentRepository.delete(pageContentRepository.findByPageNumber(150).orElseThrow());
+        List<Integer> started = new ArrayList<>();
+
+        IngestionContext context = pageLoader.loadAllPages(pdfPath, new ProgressCallback() {
+            @Override
+            public void onPageStart(int pageNumber, int totalPages) {
+                started.add(pageNumber);
+            }
+
+            @Override
+            public void onPageComplete(int pageNumber, int eventsProcessed) {
+            }
+
+            @Override
+            public void onPageError(int pageNumber, Exception exception) {
+            }
+
+            @Override
+            public void onIngestionComplete(IngestionContext context) {
+            }
+        }, 3);
+
+        assertThat(started).containsExactly(150, 200);
+        assertThat(context.getTotalEventsProcessed()).isEqualTo(PAGE_COUNT);
+        assertThat(pageContentRepository.findByPageNumber(150).orElseThrow().getRawText())
+                .isEqualTo("Page text 150");
+    }
+
+    @Test
+    @DisplayName("Repeated images are stored once and shared by their PageImages")
+    void testRepeatedImagesShareBlob() throws IOException {
+        pageContentRepository.deleteAll();
+        String imagesPdf = tempDir.resolve("images.pdf").toString();
+        try (PDDocument document = new PDDocument()) {
+            // Pages 1 and 2 embed separate but identical image objects; page 3 a different one
+            addImagePage(document, LosslessFactory.createFromImage(document, solidImage(Color.RED)));
+            addImagePage(document, LosslessFactory.createFromImage(document, solidImage(Color.RED)));
+            addImagePage(document, LosslessFactory.createFromImage(document, solidImage(Color.BLUE)));
+            document.save(imagesPdf);
+        }
+
+        IngestionContext context = pageLoader.loadAllPages(imagesPdf, null);
+
+        assertThat(context.getTotalErrorsEncountered()).isZero();
+        assertThat(pageImageRepository.count()).isEqualTo(3);
+        assertThat(imageBlobRepository.count()).isEqualTo(2);
+
+        List<PageImage> images = new ArrayList<>(pageImageRepository.findAll());
+        images.sort((a, b) -> a.getPageNumber() - b.getPageNumber());
+        assertThat(images.get(0).getBlob().getId()).isEqualTo(images.get(1).getBlob().getId());
+        assertThat(images.get(2).getBlob().getId()).isNotEqualTo(images.get(0).getBlob().getId());
+        assertThat(images.get(0).getBlob().getMimeType()).isEqualTo("image/png");
+    }
+
+    private static BufferedImage solidImage(Color color) {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        return image;
+    }
+
+    private static void addImagePage(PDDocument document, PDImageXObject image) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+            stream.drawImage(image, 50, 600);
+        }
+    }
+}
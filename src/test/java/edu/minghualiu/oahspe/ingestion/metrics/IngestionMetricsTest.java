@@ -0,0 +1,86 @@
+package edu.minghualiu.oahspe.ingestion.metrics;
+
+import edu.minghualiu.oahspe.entities.WorkflowPhase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IngestionMetrics Tests")
+class IngestionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private IngestionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new IngestionMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Nested steps: Inner time is subtracted from the outer step")
+    void test_NestedStepsAreExclusive() throws InterruptedException {
+        long outerStart = System.nanoTime();
+        try (IngestionMetrics.StepTimer persist = metrics.step(IngestionStep.PERSIST)) {
+            try (IngestionMetrics.StepTimer parse = metrics.step(IngestionStep.PARSE)) {
+                Thread.sleep(30);
+            }
+        }
+        double wallMs = (System.nanoTime() - outerStart) / 1_000_000.0;
+
+        double parseMs = stepTime(IngestionStep.PARSE);
+        double persistMs = stepTime(IngestionStep.PERSIST);
+        assertTrue(parseMs >= 30, "parse " + parseMs);
+        assertTrue(persistMs < parseMs, "persist " + persistMs);
+        assertTrue(parseMs + persistMs <= wallMs + 0.001, "steps exceed wall time");
+    }
+
+    @Test
+    @DisplayName("Pages: Statements are spread over the pages of a unit of work")
+    void test_PagesCompleted() {
+        metrics.pagesCompleted(WorkflowPhase.PAGE_LOADING, 4, 10);
+        metrics.pagesCompleted(WorkflowPhase.PAGE_LOADING, 0, 99);
+
+        assertEquals(4, registry.get(IngestionMetrics.PAGES_COUNTER).tag("phase", "page-loading")
+                .counter().count());
+        var perPage = registry.get(IngestionMetrics.STATEMENTS_SUMMARY).tag("phase", "page-loading")
+                .summary();
+        assertEquals(4, perPage.count());
+        assertEquals(2.5, perPage.mean(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Summary: Phases, steps, pages and statements are rendered")
+    @SuppressWarnings("unchecked")
+    void test_Summary() {
+        try (IngestionMetrics.PhaseTimer timer = metrics.phase(WorkflowPhase.CONTENT_INGESTION)) {
+            try (IngestionMetrics.StepTimer step = metrics.step(IngestionStep.LINK)) {
+                // nothing
+            }
+        }
+        metrics.pagesCompleted(WorkflowPhase.CONTENT_INGESTION, 2, 6);
+
+        Map<String, Object> summary = metrics.summary();
+
+        Map<String, Object> phases = (Map<String, Object>) summary.get("phases");
+        assertEquals(1L, ((Map<String, Object>) phases.get("content-ingestion")).get("count"));
+        Map<String, Object> steps = (Map<String, Object>) summary.get("steps");
+        assertEquals(IngestionStep.values().length, steps.size());
+        assertEquals(1L, ((Map<String, Object>) steps.get("link")).get("count"));
+        assertEquals(2L, ((Map<String, Object>) summary.get("pages")).get("content-ingestion"));
+        Map<String, Object> statements = (Map<String, Object>)
+                ((Map<String, Object>) summary.get("statementsPerPage")).get("content-ingestion");
+        assertEquals(3.0, statements.get("meanPerPage"));
+    }
+
+    private double stepTime(IngestionStep step) {
+        return registry.get(IngestionMetrics.STEP_TIMER).tag("step", step.getTag())
+                .timer().totalTime(TimeUnit.MILLISECONDS);
+    }
+}
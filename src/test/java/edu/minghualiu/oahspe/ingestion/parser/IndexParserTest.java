@@ -0,0 +1,68 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+import edu.minghualiu.oahspe.entities.IndexEntry;
+import edu.minghualiu.oahspe.entities.PageRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IndexParser's page reference parsing.
+ */
+@DisplayName("IndexParser Unit Tests")
+class IndexParserTest {
+
+    private IndexParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new IndexParser();
+    }
+
+    @Test
+    @DisplayName("Pages and ranges are parsed in citation order")
+    void testPagesAndRanges() {
+        assertThat(parser.parsePageReferences("42, 108, 234-240"))
+                .containsExactly(PageRange.of(42), PageRange.of(108), new PageRange(234, 240));
+    }
+
+    @Test
+    @DisplayName("Abbreviated range ends take the leading digits of the start")
+    void testAbbreviatedRange() {
+        assertThat(parser.parsePageReferences("234-40, 1098-9, 99–101"))
+                .containsExactly(new PageRange(234, 240), new PageRange(1098, 1099), new PageRange(99, 101));
+    }
+
+    @Test
+    @DisplayName("Duplicates, reversed ranges and non-pages are dropped")
+    void testInvalidReferences() {
+        assertThat(parser.parsePageReferences("42, , 42, 240-234, 7-, abc, 99999999999, 8"))
+                .containsExactly(PageRange.of(42), PageRange.of(8));
+        assertThat(parser.parsePageReferences(null)).isEmpty();
+        assertThat(parser.parsePageReferences("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Parsed entries carry their page ranges")
+    void testEntriesCarryRanges() {
+        List<IndexEntry> entries = parser.parseIndexPage("""
+                Angels, 42, 108, 234-240
+                Creation, see also Genesis, 15, 67
+
+                Jehovih
+                12
+                14-16
+                """, 1700);
+
+        assertThat(entries).extracting(IndexEntry::getTopic)
+                .containsExactly("Angels", "Creation (see also: Genesis)", "Jehovih");
+        assertThat(entries.get(0).getPageRanges()).hasSize(3);
+        assertThat(entries.get(0).getEstimatedReferenceCount()).isEqualTo(3);
+        assertThat(entries.get(1).getPageRanges()).containsExactly(PageRange.of(15), PageRange.of(67));
+        assertThat(entries.get(2).getPageRanges()).containsExactly(PageRange.of(12), new PageRange(14, 16));
+    }
+}
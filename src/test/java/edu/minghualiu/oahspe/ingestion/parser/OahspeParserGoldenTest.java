@@ -0,0 +1,133 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression tests pinning OahspeParser output to the original regex cascade.
+ *
+ * golden/oahspe-book-golden.events was produced by the cascade parser (every
+ * line tried against all five patterns) from golden/oahspe-book-golden.txt, a
+ * synthetic book with edge-case lines mixed in. The randomized test compares
+ * against {@link RegexCascadeParser}, a copy of that cascade.
+ */
+@DisplayName("OahspeParser Golden Output Tests")
+class OahspeParserGoldenTest {
+
+    private static final String PAGE_MARKER = "--- page ";
+
+    private OahspeParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new OahspeParser();
+    }
+
+    @Test
+    @DisplayName("Golden: Full book produces the recorded event stream")
+    void test_GoldenBook() throws IOException {
+        List<String> input = readLines("golden/oahspe-book-golden.txt");
+        List<String> expected = readLines("golden/oahspe-book-golden.events");
+
+        List<String> actual = new ArrayList<>();
+        ParserSession session = parser.newSession();
+        List<String> page = null;
+        int pageNumber = 0;
+        for (String line : input) {
+            if (line.startsWith(PAGE_MARKER)) {
+                if (page != null) {
+                    parser.parse(session, page, pageNumber).forEach(event -> actual.add(event.toString()));
+                }
+                pageNumber = Integer.parseInt(line.replaceAll("\\D", ""));
+                page = new ArrayList<>();
+            } else {
+                page.add(line);
+            }
+        }
+        parser.parse(session, page, pageNumber).forEach(event -> actual.add(event.toString()));
+
+        assertEquals(expected.size(), actual.size(), "Event count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i), "Event " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Differential: Random lines match the regex cascade")
+    void test_RandomLinesMatchCascade() {
+        String[] fragments = {
+            "Book of ", "Book", "之", "书", "第", "三", "十", "章", "Chapter", "C", "B", "i", "I",
+            " ", "  ", "\t", "0", "1", "7", "12", "/", ".", "Ap", "ab", "(", ")", "001", "99",
+            "text", "Jehovih", "\u0085", " ", "x"
+        };
+        String[] templates = {
+            "Book of Apollo", "启示之书", "Chapter 7", "第七章", "14/7.1 Verse text", "3/Ap.12. Verse",
+            "(1) Note text", "1) Note text", "i002 Caption", "Continuation text"
+        };
+        Random random = new Random(1891);
+        RegexCascadeParser reference = new RegexCascadeParser();
+        ParserSession session = parser.newSession();
+
+        for (int page = 1; page <= 200; page++) {
+            List<String> lines = new ArrayList<>();
+            for (int l = 0; l < 50; l++) {
+                // A well-formed line with up to two random edits, or random fragments
+                StringBuilder line = new StringBuilder();
+                if (random.nextBoolean()) {
+                    line.append(templates[random.nextInt(templates.length)]);
+                    for (int edit = random.nextInt(3); edit > 0; edit--) {
+                        int at = random.nextInt(line.length() + 1);
+                        if (random.nextBoolean() && at < line.length()) {
+                            line.deleteCharAt(at);
+                        } else {
+                            line.insert(at, fragments[random.nextInt(fragments.length)]);
+                        }
+                    }
+                } else {
+                    for (int parts = 1 + random.nextInt(6); parts > 0; parts--) {
+                        line.append(fragments[random.nextInt(fragments.length)]);
+                    }
+                }
+                lines.add(line.toString());
+            }
+
+            assertEquals(reference.parse(lines, page), parser.parse(session, lines, page),
+                    "Page " + page + ": " + lines);
+        }
+    }
+
+    @Test
+    @DisplayName("Classifier: Continuation text has no candidate rule")
+    void test_ClassifierRejectsText() {
+        for (String line : List.of("And Jehovih said", "12 men went forth", "Caption line", "chapter 4",
+                "image i004", "i", "第3", "(", "42")) {
+            assertFalse(LineClassifier.isBookCandidate(line), line);
+            if (!line.equals("(")) {
+                assertEquals(LineClassifier.Rule.TEXT, LineClassifier.candidate(line), line);
+            }
+        }
+        assertEquals(LineClassifier.Rule.VERSE, LineClassifier.candidate("14/7.1 text"));
+        assertEquals(LineClassifier.Rule.NOTE, LineClassifier.candidate("1) text"));
+        assertEquals(LineClassifier.Rule.NOTE, LineClassifier.candidate("(12) text"));
+        assertEquals(LineClassifier.Rule.CHAPTER, LineClassifier.candidate("第七章"));
+        assertEquals(LineClassifier.Rule.IMAGE, LineClassifier.candidate("i002 Caption"));
+        assertTrue(LineClassifier.isBookCandidate("启示之书"));
+    }
+
+    private List<String> readLines(String resource) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull(in, "Missing test resource " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,10 +32,12 @@ import static org.junit.jupiter.api.Assertions.*;
 class OahspeParserTest {
 
     private OahspeParser parser;
+    private ParserSession session;
 
     @BeforeEach
     void setUp() {
         parser = new OahspeParser();
+        session = parser.newSession();
     }
 
     // ============ Test Group P1: Book Title Detection ============
@@ -41,7 +46,7 @@ class OahspeParserTest {
     @DisplayName("P1: Should detect 'Book of Apollo' title")
     void test_P1_DetectBookTitles_Apollo() {
         List<String> input = List.of("Book of Apollo");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size(), "Should have PageBreak + BookStart");
         assertInstanceOf(OahspeEvent.PageBreak.class, events.get(0));
@@ -55,7 +60,7 @@ class OahspeParserTest {
     @DisplayName("P1: Should detect 'Book of Jehovih' title")
     void test_P1_DetectBookTitles_Jehovih() {
         List<String> input = List.of("Book of Jehovih");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.BookStart book = (OahspeEvent.BookStart) events.get(1);
@@ -66,7 +71,7 @@ class OahspeParserTest {
     @DisplayName("P1: Should detect 'Book of Oahspe' title")
     void test_P1_DetectBookTitles_Oahspe() {
         List<String> input = List.of("Book of Oahspe");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.BookStart book = (OahspeEvent.BookStart) events.get(1);
@@ -79,7 +84,7 @@ class OahspeParserTest {
     @DisplayName("P2: Should detect 'Chapter 7' header")
     void test_P2_DetectChapterTitles_Chapter7() {
         List<String> input = List.of("Chapter 7");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size(), "Should have PageBreak + ChapterStart");
         assertInstanceOf(OahspeEvent.PageBreak.class, events.get(0));
@@ -93,7 +98,7 @@ class OahspeParserTest {
     @DisplayName("P2: Should detect 'Chapter 1' header")
     void test_P2_DetectChapterTitles_Chapter1() {
         List<String> input = List.of("Chapter 1");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.ChapterStart chapter = (OahspeEvent.ChapterStart) events.get(1);
@@ -104,7 +109,7 @@ class OahspeParserTest {
     @DisplayName("P2: Should detect 'Chapter 42' header")
     void test_P2_DetectChapterTitles_Chapter42() {
         List<String> input = List.of("Chapter 42");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.ChapterStart chapter = (OahspeEvent.ChapterStart) events.get(1);
@@ -117,7 +122,7 @@ class OahspeParserTest {
     @DisplayName("P3: Should detect verse with key 14/7.1")
     void test_P3_DetectVerseLines_Standard() {
         List<String> input = List.of("14/7.1 In the beginning...");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size(), "Should have PageBreak + Verse");
         assertInstanceOf(OahspeEvent.Verse.class, events.get(1));
@@ -131,7 +136,7 @@ class OahspeParserTest {
     @DisplayName("P3: Should detect verse with key 1/0.1")
     void test_P3_DetectVerseLines_Low() {
         List<String> input = List.of("1/0.1 Jehovih said...");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.Verse verse = (OahspeEvent.Verse) events.get(1);
@@ -143,7 +148,7 @@ class OahspeParserTest {
     @DisplayName("P3: Should detect verse with key 48/7.99")
     void test_P3_DetectVerseLines_High() {
         List<String> input = List.of("48/7.99 Far future...");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.Verse verse = (OahspeEvent.Verse) events.get(1);
@@ -157,7 +162,7 @@ class OahspeParserTest {
     @DisplayName("P4: Should detect note with parentheses (1)")
     void test_P4_DetectNoteLines_WithParentheses() {
         List<String> input = List.of("(1) This refers to...");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size(), "Should have PageBreak + Note");
         assertInstanceOf(OahspeEvent.Note.class, events.get(1));
@@ -171,7 +176,7 @@ class OahspeParserTest {
     @DisplayName("P4: Should detect note without parentheses 1)")
     void test_P4_DetectNoteLines_WithoutOpenParenthesis() {
         List<String> input = List.of("1) Also valid format");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.Note note = (OahspeEvent.Note) events.get(1);
@@ -183,7 +188,7 @@ class OahspeParserTest {
     @DisplayName("P4: Should detect multi-digit note (42)")
     void test_P4_DetectNoteLines_MultiDigit() {
         List<String> input = List.of("(42) Multi-digit note");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.Note note = (OahspeEvent.Note) events.get(1);
@@ -197,7 +202,7 @@ class OahspeParserTest {
     @DisplayName("P5: Should detect image reference i002")
     void test_P5_DetectImageReferences_i002() {
         List<String> input = List.of("i002 Etherea Roadway");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size(), "Should have PageBreak + ImageRef");
         assertInstanceOf(OahspeEvent.ImageRef.class, events.get(1));
@@ -211,7 +216,7 @@ class OahspeParserTest {
     @DisplayName("P5: Should detect image reference i045")
     void test_P5_DetectImageReferences_i045() {
         List<String> input = List.of("i045 The divine plate");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.ImageRef image = (OahspeEvent.ImageRef) events.get(1);
@@ -223,7 +228,7 @@ class OahspeParserTest {
     @DisplayName("P5: Should detect image reference i001")
     void test_P5_DetectImageReferences_i001() {
         List<String> input = List.of("i001 Opening image");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.ImageRef image = (OahspeEvent.ImageRef) events.get(1);
@@ -240,7 +245,7 @@ class OahspeParserTest {
             "14/7.1 Jehovih said...",
             "and the Lords answered..."
         );
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(3, events.size(), "Should have PageBreak + 2 Verses");
         assertInstanceOf(OahspeEvent.Verse.class, events.get(1));
@@ -262,7 +267,7 @@ class OahspeParserTest {
             "that spans multiple",
             "lines of text"
         );
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(4, events.size(), "Should have PageBreak + 3 Notes");
         assertInstanceOf(OahspeEvent.Note.class, events.get(1));
@@ -288,7 +293,7 @@ class OahspeParserTest {
             "14/7.1 In the beginning...",
             "and it was good"
         );
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(5, events.size(), "Should have PageBreak + BookStart + ChapterStart + Verse + Verse continuation");
         assertTrue(events.get(0) instanceof OahspeEvent.PageBreak);
@@ -305,7 +310,7 @@ class OahspeParserTest {
     @DisplayName("Edge Case: Empty input list")
     void test_EdgeCase_EmptyInput() {
         List<String> input = List.of();
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(1, events.size(), "Should have only PageBreak");
         assertInstanceOf(OahspeEvent.PageBreak.class, events.get(0));
@@ -315,7 +320,7 @@ class OahspeParserTest {
     @DisplayName("Edge Case: Whitespace only lines")
     void test_EdgeCase_WhitespaceOnly() {
         List<String> input = List.of("   ", "\t\t", "  \t  ");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(1, events.size(), "Should skip all whitespace lines");
         assertInstanceOf(OahspeEvent.PageBreak.class, events.get(0));
@@ -325,7 +330,7 @@ class OahspeParserTest {
     @DisplayName("Edge Case: Leading/trailing whitespace trimmed")
     void test_EdgeCase_TrimmedWhitespace() {
         List<String> input = List.of("  Book of Apollo  ");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(2, events.size());
         OahspeEvent.BookStart book = (OahspeEvent.BookStart) events.get(1);
@@ -336,7 +341,7 @@ class OahspeParserTest {
     @DisplayName("Edge Case: Multiple spaces in verse text")
     void test_EdgeCase_MultipleSpaces() {
         List<String> input = List.of("14/7.1   Multiple   spaces   inside");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         OahspeEvent.Verse verse = (OahspeEvent.Verse) events.get(1);
         assertEquals("Multiple   spaces   inside", verse.text(), "Internal spaces preserved");
@@ -358,7 +363,7 @@ class OahspeParserTest {
             "14/7.3 And it was good..."
         );
 
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(9, events.size(), "Full page should have 9 events");
         assertTrue(events.get(0) instanceof OahspeEvent.PageBreak);
@@ -378,7 +383,7 @@ class OahspeParserTest {
     @DisplayName("Invalid: Random text that doesn't match")
     void test_InvalidPatterns_RandomText() {
         List<String> input = List.of("This is random text that matches nothing");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(1, events.size(), "Random text should be ignored");
     }
@@ -387,7 +392,7 @@ class OahspeParserTest {
     @DisplayName("Invalid: Verse with wrong format (missing decimal)")
     void test_InvalidPatterns_WrongVerseFormat() {
         List<String> input = List.of("14/7 wrong format");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(1, events.size(), "Malformed verse should not match");
     }
@@ -396,7 +401,7 @@ class OahspeParserTest {
     @DisplayName("Invalid: Image with 2 digits instead of 3")
     void test_InvalidPatterns_ImageWrongDigits() {
         List<String> input = List.of("i02 only two digits");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(1, events.size(), "Image number must be exactly 3 digits");
     }
@@ -405,7 +410,7 @@ class OahspeParserTest {
     @DisplayName("Invalid: Image with 4 digits instead of 3")
     void test_InvalidPatterns_ImageTooManyDigits() {
         List<String> input = List.of("i9999 too many digits");
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
 
         assertEquals(1, events.size(), "Image number must be exactly 3 digits");
     }
@@ -417,18 +422,18 @@ class OahspeParserTest {
     void test_StateMachine_InitialState() {
         // When parsing a verse, state should transition to IN_VERSE
         List<String> input = List.of("14/7.1 Verse");
-        parser.parse(input, 1);
+        parser.parse(session, input, 1);
 
-        assertEquals(ParserState.IN_VERSE, parser.getState());
+        assertEquals(ParserState.IN_VERSE, session.getState());
     }
 
     @Test
     @DisplayName("State: OUTSIDE_BOOK → IN_BOOK when book detected")
     void test_StateMachine_BookTransition() {
         List<String> input = List.of("Book of Apollo");
-        parser.parse(input, 1);
+        parser.parse(session, input, 1);
 
-        assertEquals(ParserState.IN_BOOK, parser.getState());
+        assertEquals(ParserState.IN_BOOK, session.getState());
     }
 
     @Test
@@ -438,9 +443,9 @@ class OahspeParserTest {
             "Book of Apollo",
             "Chapter 7"
         );
-        parser.parse(input, 1);
+        parser.parse(session, input, 1);
 
-        assertEquals(ParserState.IN_CHAPTER, parser.getState());
+        assertEquals(ParserState.IN_CHAPTER, session.getState());
     }
 
     @Test
@@ -451,9 +456,9 @@ class OahspeParserTest {
             "Chapter 7",
             "14/7.1 Text"
         );
-        parser.parse(input, 1);
+        parser.parse(session, input, 1);
 
-        assertEquals(ParserState.IN_VERSE, parser.getState());
+        assertEquals(ParserState.IN_VERSE, session.getState());
     }
 
     @Test
@@ -465,9 +470,9 @@ class OahspeParserTest {
             "14/7.1 Verse text",
             "(1) Note text"
         );
-        parser.parse(input, 1);
+        parser.parse(session, input, 1);
 
-        assertEquals(ParserState.IN_NOTE, parser.getState());
+        assertEquals(ParserState.IN_NOTE, session.getState());
     }
 
     // ============ Test Group: Performance ============
@@ -486,7 +491,7 @@ class OahspeParserTest {
         }
 
         long startTime = System.nanoTime();
-        List<OahspeEvent> events = parser.parse(input, 1);
+        List<OahspeEvent> events = parser.parse(session, input, 1);
         long endTime = System.nanoTime();
 
         long durationMs = (endTime - startTime) / 1_000_000;
@@ -496,4 +501,139 @@ class OahspeParserTest {
         assertTrue(durationMs < 1000, 
             "Parser took " + durationMs + "ms (should be < 1000ms)");
     }
+
+    // ============ Test Group: Parser Sessions ============
+
+    @Test
+    @DisplayName("Session: State carries across pages of the same session")
+    void test_Session_StateCarriesAcrossPages() {
+        ParserSession session = parser.newSession();
+
+        parser.parse(session, List.of("Book of Apollo", "Chapter 7", "14/7.1 Verse text"), 10);
+        List<OahspeEvent> events = parser.parse(session, List.of("continued verse text"), 11);
+
+        assertEquals(ParserState.IN_VERSE, session.getState());
+        assertEquals(11, session.getLastPageNumber());
+        assertTrue(events.contains(new OahspeEvent.Verse(null, "continued verse text")));
+    }
+
+    @Test
+    @DisplayName("Session: Separate sessions do not share state")
+    void test_Session_Independent() {
+        ParserSession first = parser.newSession();
+        ParserSession second = parser.newSession();
+
+        parser.parse(first, List.of("Book of Apollo", "Chapter 7", "(1) Note text"), 1);
+        List<OahspeEvent> events = parser.parse(second, List.of("stray line"), 1);
+
+        assertEquals(ParserState.IN_NOTE, first.getState());
+        assertEquals(ParserState.OUTSIDE_BOOK, second.getState());
+        assertEquals(1, events.size(), "Only the PageBreak is emitted outside a book");
+    }
+
+    @Test
+    @DisplayName("Session: Reset returns to OUTSIDE_BOOK")
+    void test_Session_Reset() {
+        ParserSession session = parser.newSession();
+        parser.parse(session, List.of("Book of Apollo"), 5);
+
+        session.reset();
+
+        assertEquals(ParserState.OUTSIDE_BOOK, session.getState());
+        assertEquals(0, session.getLastPageNumber());
+    }
+
+    @Test
+    @DisplayName("Session: Shared parser gives identical results across threads")
+    void test_Session_ConcurrentRuns() throws Exception {
+        List<List<String>> pages = new ArrayList<>();
+        for (int p = 0; p < 50; p++) {
+            List<String> lines = new ArrayList<>();
+            if (p % 10 == 0) {
+                lines.add("Book of Apollo");
+            }
+            lines.add("Chapter " + (p + 1));
+            for (int v = 1; v <= 10; v++) {
+                lines.add(String.format("%d/%d.%d Verse text", v, p + 1, v));
+                lines.add("continued");
+            }
+            lines.add("(1) Note text");
+            lines.add("note continued");
+            pages.add(lines);
+        }
+
+        ParserSession reference = parser.newSession();
+        List<OahspeEvent> expected = new ArrayList<>();
+        for (int p = 0; p < pages.size(); p++) {
+            expected.addAll(parser.parse(reference, pages.get(p), p + 1));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<OahspeEvent>>> runs = new ArrayList<>();
+            for (int run = 0; run < 8; run++) {
+                runs.add(executor.submit(() -> {
+                    ParserSession session = parser.newSession();
+                    List<OahspeEvent> events = new ArrayList<>();
+                    for (int p = 0; p < pages.size(); p++) {
+                        events.addAll(parser.parse(session, pages.get(p), p + 1));
+                    }
+                    return events;
+                }));
+            }
+            for (Future<List<OahspeEvent>> run : runs) {
+                assertEquals(expected, run.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Session: Null session is rejected")
+    void test_Session_NullRejected() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(null, List.of("line"), 1));
+    }
+
+    @Test
+    @DisplayName("Streaming: Parsing raw text emits the same events as parsing its split lines")
+    void test_Streaming_TextMatchesLines() {
+        String text = "Book of Apollo\r\n\r\n  Chapter 7  \r\n14/7.1 In the beginning\n"
+                + "continued text\r\n(1) A note\n\t\n more note \ni003 Divine throne\n";
+
+        List<OahspeEvent> expected = parser.parse(parser.newSession(),
+                List.of(text.split("\\r?\\n")), 4);
+
+        List<OahspeEvent> streamed = new ArrayList<>();
+        ParserSession session = parser.newSession();
+        int count = parser.parse(session, text, 4, streamed::add);
+
+        assertEquals(expected, streamed);
+        assertEquals(expected.size(), count);
+        assertEquals(ParserState.IN_NOTE, session.getState());
+        assertEquals(4, session.getLastPageNumber());
+    }
+
+    @Test
+    @DisplayName("Streaming: Events reach the sink in detection order, page break first")
+    void test_Streaming_SinkOrder() {
+        List<OahspeEvent> streamed = new ArrayList<>();
+        int count = parser.parse(parser.newSession(), "Chapter 1\n01/1.1 Text", 9, streamed::add);
+
+        assertEquals(3, count);
+        assertEquals(new OahspeEvent.PageBreak(9), streamed.get(0));
+        assertEquals(new OahspeEvent.ChapterStart("Chapter 1"), streamed.get(1));
+        assertEquals(new OahspeEvent.Verse("01/1.1", "Text"), streamed.get(2));
+    }
+
+    @Test
+    @DisplayName("Streaming: Empty text emits only the page break")
+    void test_Streaming_EmptyText() {
+        List<OahspeEvent> streamed = new ArrayList<>();
+
+        assertEquals(1, parser.parse(parser.newSession(), "", 2, streamed::add));
+        assertEquals(List.of(new OahspeEvent.PageBreak(2)), streamed);
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(parser.newSession(), (String) null, 2, streamed::add));
+    }
 }
@@ -0,0 +1,67 @@
+package edu.minghualiu.oahspe.ingestion.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OahspeParser as it was before line classification: every line is tried
+ * against each pattern in turn. Kept as the reference for differential tests
+ * and as the baseline in OahspeParserBenchmark.
+ */
+final class RegexCascadeParser {
+
+    private static final Pattern BOOK = Pattern.compile("^(Book of .+|.*?之.*?书)$");
+    private static final Pattern CHAPTER = Pattern.compile("^(Chapter\\s+\\d+|第[一二三四五六七八九十百]+章)$");
+    private static final Pattern VERSE = Pattern.compile("^(\\d+/[A-Za-z0-9]+\\.\\d+)\\.?\\s+(.*)$");
+    private static final Pattern NOTE = Pattern.compile("^\\(?([0-9]+)\\)?\\s+(.*)$");
+    private static final Pattern IMAGE = Pattern.compile("^i(\\d{3})\\s+(.*)$");
+
+    private ParserState state = ParserState.OUTSIDE_BOOK;
+
+    List<OahspeEvent> parse(List<String> lines, int pageNumber) {
+        List<OahspeEvent> events = new ArrayList<>();
+        events.add(new OahspeEvent.PageBreak(pageNumber));
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (BOOK.matcher(line).matches()) {
+                state = ParserState.IN_BOOK;
+                events.add(new OahspeEvent.BookStart(line));
+                continue;
+            }
+            if (CHAPTER.matcher(line).matches()) {
+                state = ParserState.IN_CHAPTER;
+                events.add(new OahspeEvent.ChapterStart(line));
+                continue;
+            }
+            Matcher verse = VERSE.matcher(line);
+            if (verse.matches()) {
+                state = ParserState.IN_VERSE;
+                events.add(new OahspeEvent.Verse(verse.group(1), verse.group(2)));
+                continue;
+            }
+            Matcher note = NOTE.matcher(line);
+            if (note.matches() && (line.startsWith("(")
+                    || (line.charAt(0) >= '0' && line.charAt(0) <= '9' && line.length() > 1 && line.charAt(1) == ')'))) {
+                state = ParserState.IN_NOTE;
+                events.add(new OahspeEvent.Note(note.group(1), note.group(2)));
+                continue;
+            }
+            Matcher image = IMAGE.matcher(line);
+            if (image.matches()) {
+                events.add(new OahspeEvent.ImageRef("IMG" + image.group(1), image.group(2)));
+                continue;
+            }
+            if (state == ParserState.IN_VERSE) {
+                events.add(new OahspeEvent.Verse(null, line));
+            } else if (state == ParserState.IN_NOTE) {
+                events.add(new OahspeEvent.Note(null, line));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,184 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+import edu.minghualiu.oahspe.entities.Image;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import edu.minghualiu.oahspe.repositories.ImageRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for OahspeIngestionRunner sequential and pipelined modes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OahspeIngestionRunnerIntegrationTest {
+
+    private static final int PAGE_COUNT = 65;
+    private static final List<Integer> IMAGE_PAGES = List.of(10, 30, 50);
+    private static final int CORRUPT_PAGE = 12;
+
+    @Autowired
+    private OahspeIngestionRunner ingestionRunner;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private String pdfPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataCleanup.cleanupAllIngestedData();
+
+        // One verse per page, with an image on a few pages
+        pdfPath = tempDir.resolve("book.pdf").toString();
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= PAGE_COUNT; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, 12);
+                    stream.newLineAtOffset(50, 700);
+                    if (i == 1) {
+                        stream.showText("Book of Tests");
+                        stream.newLineAtOffset(0, -20);
+                        stream.showText("Chapter 1");
+                        stream.newLineAtOffset(0, -20);
+                    }
+                    stream.showText("01/1." + i + " Verse " + i);
+                    stream.endText();
+                    if (IMAGE_PAGES.contains(i)) {
+                        stream.drawImage(LosslessFactory.createFromImage(document, solidImage(i)), 50, 300);
+                    }
+                }
+            }
+            document.save(pdfPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Sequential mode ingests every verse and image")
+    void testSequentialIngestion() throws PDFExtractionException {
+        IngestionContext context = ingestionRunner.ingestPdfWithProgress(pdfPath, null, 1);
+
+        assertIngested(context);
+    }
+
+    @Test
+    @DisplayName("Pipelined mode writes the same entities in page order")
+    void testPipelinedIngestion() throws PDFExtractionException {
+        IngestionContext context = ingestionRunner.ingestPdfWithProgress(pdfPath, null, 3);
+
+        assertIngested(context);
+    }
+
+    @Test
+    @DisplayName("Sequential mode records an unreadable page and ingests the pages after it")
+    void testSequentialIngestionWithCorruptPage() throws IOException, PDFExtractionException {
+        IngestionContext context = ingestionRunner.ingestPdfWithProgress(corruptPage(CORRUPT_PAGE), null, 1);
+
+        assertIngestedExceptCorruptPage(context);
+    }
+
+    @Test
+    void testPipelinedIngestionWithCorruptPage() throws IOException, PDFExtractionException {
+        IngestionContext context = ingestionRunner.ingestPdfWithProgress(corruptPage(CORRUPT_PAGE), null, 3);
+
+        assertIngestedExceptCorruptPage(context);
+    }
+
+    private void assertIngestedExceptCorruptPage(IngestionContext context) {
+        assertThat(context.getTotalErrorsEncountered()).isEqualTo(1);
+        assertThat(context.getPageErrors()).singleElement().asString().contains(String.valueOf(CORRUPT_PAGE));
+        assertThat(context.getTotalImagesExtracted()).isEqualTo(IMAGE_PAGES.size());
+        assertThat(verseRepository.findByPageNumberBetween(1, PAGE_COUNT))
+                .extracting(Verse::getPageNumber)
+                .hasSize(PAGE_COUNT - 1)
+                .doesNotContain(CORRUPT_PAGE)
+                .contains(CORRUPT_PAGE - 1, CORRUPT_PAGE + 1, PAGE_COUNT);
+    }
+
+    /**
+     * Replaces a page's content with a stream whose filter PDFBox cannot decode,
+     * so extracting that page's text fails with an IOException.
+     */
+    private String corruptPage(int pageNumber) throws IOException {
+        String corruptPath = tempDir.resolve("corrupt.pdf").toString();
+        try (PDDocument document = PDDocument.load(new File(pdfPath))) {
+            PDStream contents = new PDStream(document);
+            try (OutputStream out = contents.createOutputStream()) {
+                out.write("BT /F1 12 Tf (unreadable) Tj ET".getBytes());
+            }
+            contents.getCOSObject().setItem(COSName.FILTER, COSName.getPDFName("BogusDecode"));
+            document.getPage(pageNumber - 1).setContents(contents);
+            document.save(corruptPath);
+        }
+        return corruptPath;
+    }
+
+    private void assertIngested(IngestionContext context) {
+        assertThat(context.getTotalErrorsEncountered()).isZero();
+        assertThat(context.getTotalImagesExtracted()).isEqualTo(IMAGE_PAGES.size());
+
+        List<Verse> verses = verseRepository.findByPageNumberBetween(1, PAGE_COUNT);
+        assertThat(verses).hasSize(PAGE_COUNT);
+        for (Verse verse : verses) {
+            int page = verse.getPageNumber();
+            assertThat(verse.getVerseKey()).isEqualTo("01/1." + page);
+            assertThat(verse.getText()).isEqualTo("Verse " + page);
+        }
+
+        List<Image> images = imageRepository.findAll().stream()
+                .sorted(Comparator.comparing(Image::getImageKey))
+                .toList();
+        assertThat(images).extracting(Image::getImageKey).containsExactly("i001", "i002", "i003");
+        assertThat(images).extracting(Image::getSourcePage).containsExactlyElementsOf(IMAGE_PAGES);
+    }
+
+    private static BufferedImage solidImage(int seed) {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        Color color = new Color(seed * 4, 0, 255 - seed * 4);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        return image;
+    }
+}
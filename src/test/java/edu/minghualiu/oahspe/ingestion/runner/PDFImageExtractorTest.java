@@ -1,6 +1,7 @@
 package edu.minghualiu.oahspe.ingestion.runner;
 
 import edu.minghualiu.oahspe.entities.Image;
+import edu.minghualiu.oahspe.ingestion.image.ImageBlobService;
 import edu.minghualiu.oahspe.repositories.ImageRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +33,9 @@ class PDFImageExtractorTest {
     @Mock
     private ImageRepository imageRepository;
 
+    @Mock
+    private ImageBlobService imageBlobService;
+
     private PDFImageExtractor imageExtractor;
 
     @TempDir
@@ -39,7 +43,8 @@ class PDFImageExtractorTest {
 
     @BeforeEach
     void setUp() {
-        imageExtractor = new PDFImageExtractor(imageRepository);
+        imageExtractor = new PDFImageExtractor(imageRepository, new PDFTextExtractor(), imageBlobService,
+                new PageTaskExecutor(false, 1, 1));
     }
 
     // ========== generateImageKey Tests ==========
@@ -8,10 +8,13 @@ import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 
+import org.springframework.util.unit.DataSize;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -152,6 +155,68 @@ public class PDFTextExtractorTest {
         assertEquals(0, exception.getPageNumber());
     }
 
+    @Test
+    @DisplayName("T8: Session range pass matches per-page extraction")
+    void testSessionRangeMatchesPerPageExtraction() throws PDFExtractionException {
+        String testPath = TEST_RESOURCES + "/test-sample.pdf";
+        try (PdfDocumentSession session = extractor.openSession(testPath)) {
+            List<String> pages = session.extractAllPages();
+
+            assertEquals(session.getPageCount(), pages.size());
+            for (int i = 1; i <= session.getPageCount(); i++) {
+                assertEquals(session.extractText(i), pages.get(i - 1),
+                        "Streamed text differs on page " + i);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("T9: Session streams pages in order")
+    void testSessionStreamsPagesInOrder() throws PDFExtractionException {
+        String testPath = TEST_RESOURCES + "/test-sample.pdf";
+        List<Integer> seen = new ArrayList<>();
+        try (PdfDocumentSession session = extractor.openSession(testPath)) {
+            session.streamPageText(2, 3, (pageNumber, text) -> seen.add(pageNumber));
+        }
+        assertEquals(List.of(2, 3), seen);
+    }
+
+    @Test
+    @DisplayName("T10: Every loading mode extracts the same text")
+    void testLoadingModesExtractSameText() throws PDFExtractionException {
+        String testPath = TEST_RESOURCES + "/test-sample.pdf";
+        List<String> expected = extractor.extractAllPages(testPath);
+
+        for (PdfLoadingMode mode : PdfLoadingMode.values()) {
+            // A 1-byte heap budget forces every decoded stream into the scratch file
+            PDFTextExtractor modeExtractor = new PDFTextExtractor(
+                    new PdfLoadOptions(mode, 1, Paths.get("target", "pdf-scratch"), false));
+            assertEquals(expected, modeExtractor.extractAllPages(testPath), "Text differs in " + mode);
+        }
+    }
+
+    @Test
+    @DisplayName("T11: Unknown loading mode is rejected")
+    void testUnknownLoadingMode() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new PDFTextExtractor("disk", DataSize.ofMegabytes(64), "", true));
+        assertTrue(exception.getMessage().contains("disk"));
+    }
+
+    @Test
+    @DisplayName("T12: Consumer exceptions are not reported as extraction errors")
+    void testStreamConsumerExceptionPropagates() throws PDFExtractionException {
+        String testPath = TEST_RESOURCES + "/test-sample.pdf";
+        IllegalStateException failure = new IllegalStateException("consumer failed");
+        try (PdfDocumentSession session = extractor.openSession(testPath)) {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> session.streamPageText(1, 3, (pageNumber, text) -> {
+                        throw failure;
+                    }));
+            assertSame(failure, exception);
+        }
+    }
+
     // Helper methods
 
     private void generateTestSamplePdf(String outputPath) throws IOException {
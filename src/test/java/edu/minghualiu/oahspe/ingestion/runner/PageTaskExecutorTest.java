@@ -0,0 +1,78 @@
+package edu.minghualiu.oahspe.ingestion.runner;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PageTaskExecutor Tests")
+class PageTaskExecutorTest {
+
+    @Test
+    @DisplayName("Platform mode: Tasks run on named daemon threads")
+    void test_PlatformWorkers() throws Exception {
+        PageTaskExecutor executor = new PageTaskExecutor(false, 2, 2);
+
+        try (PageTaskExecutor.Workers workers = executor.openWorkers("page-loader", 2)) {
+            Thread thread = workers.submit(Thread::currentThread).get();
+
+            assertFalse(thread.isVirtual());
+            assertTrue(thread.isDaemon());
+            assertTrue(thread.getName().startsWith("page-loader-"));
+        }
+    }
+
+    @Test
+    @DisplayName("Virtual mode: Tasks run on virtual threads")
+    void test_VirtualWorkers() throws Exception {
+        PageTaskExecutor executor = new PageTaskExecutor(true, 2, 2);
+
+        try (PageTaskExecutor.Workers workers = executor.openWorkers("page-loader", 2)) {
+            assertTrue(workers.submit(Thread::currentThread).get().isVirtual());
+            assertTrue(executor.isVirtualThreads());
+        }
+    }
+
+    @Test
+    @DisplayName("Permits: No more encodes run at once than there are permits")
+    void test_EncodePermits() throws Exception {
+        PageTaskExecutor executor = new PageTaskExecutor(true, 2, 10);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (PageTaskExecutor.Workers workers = executor.openWorkers("encoder", 1)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(workers.submit(() -> executor.encode(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    return running.decrementAndGet();
+                })));
+            }
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        }
+
+        assertTrue(maxRunning.get() <= 2, "at most 2 concurrent encodes, saw " + maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("Pool size: Read from Hikari, default for other data sources")
+    void test_PoolSize() throws Exception {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(7);
+        DataSource other = mock(DataSource.class);
+
+        assertEquals(7, PageTaskExecutor.poolSize(hikari));
+        assertEquals(PageTaskExecutor.DEFAULT_POOL_SIZE, PageTaskExecutor.poolSize(other));
+    }
+}
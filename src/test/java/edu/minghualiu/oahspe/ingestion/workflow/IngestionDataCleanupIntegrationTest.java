@@ -1,6 +1,8 @@
 package edu.minghualiu.oahspe.ingestion.workflow;
 
 import edu.minghualiu.oahspe.entities.*;
+import edu.minghualiu.oahspe.ingestion.image.EncodedImage;
+import edu.minghualiu.oahspe.ingestion.image.ImageBlobService;
 import edu.minghualiu.oahspe.repositories.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -49,6 +54,15 @@ class IngestionDataCleanupIntegrationTest {
     @Autowired
     private IndexEntryRepository indexEntryRepository;
     
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+    
+    @Autowired
+    private ImageBlobDataRepository imageBlobDataRepository;
+    
+    @Autowired
+    private ImageBlobService imageBlobService;
+    
     @BeforeEach
     void setUp() {
         // Clean all tables
@@ -196,7 +210,7 @@ class IngestionDataCleanupIntegrationTest {
         PageImage pageImage = PageImage.builder()
                 .pageContent(page)
                 .imageSequence(1)
-                .imageData(new byte[]{1, 2, 3})
+                .blob(saveBlob("a", new byte[]{1, 2, 3}))
                 .build();
         pageImageRepository.save(pageImage);
         
@@ -208,6 +222,110 @@ class IngestionDataCleanupIntegrationTest {
         assertThat(pageImageRepository.count()).isEqualTo(1);
     }
     
+    @Test
+    void testCleanupAllIngestedData_returnsExactCountsAndKeepsPages() throws IOException {
+        // Pages and page images that must survive the cleanup
+        PageContent page = pageContentRepository.save(PageContent.builder()
+                .pageNumber(100)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText("Test text")
+                .ingested(true)
+                .build());
+        PageContent secondPage = pageContentRepository.save(PageContent.builder()
+                .pageNumber(101)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText("Second page")
+                .build());
+        
+        // Ingested content with every FK the cleanup has to unwind
+        Book book = bookRepository.save(Book.builder().title("Test Book").pageNumber(100).build());
+        Chapter chapter = chapterRepository.save(Chapter.builder()
+                .book(book).title("Test Chapter").pageNumber(100).build());
+        Verse verse = verseRepository.save(Verse.builder()
+                .chapter(chapter).verseKey("1/1.1").text("Test verse").pageNumber(100).build());
+        verseRepository.save(Verse.builder()
+                .chapter(chapter).verseKey("1/1.2").text("Second verse").pageNumber(100).build());
+        // The first image shares its blob with a PageImage; the second blob is referenced by no page
+        ImageBlob sharedBlob = saveBlob("shared", new byte[]{1, 2, 3});
+        Image image = imageRepository.save(Image.builder()
+                .imageKey("i001").title("Figure").description("Figure").sourcePage(100)
+                .blob(sharedBlob).build());
+        Image secondImage = imageRepository.save(Image.builder()
+                .imageKey("i002").title("Figure 2").description("Figure 2").sourcePage(101)
+                .blob(saveBlob("image-only", new byte[]{9})).build());
+        Note note = Note.builder().noteKey("1").text("Test note").verse(verse).pageNumber(100).build();
+        note.getImages().add(image);
+        note.getImages().add(secondImage);
+        noteRepository.save(note);
+        
+        pageImageRepository.save(PageImage.builder()
+                .pageContent(page)
+                .imageSequence(1)
+                .blob(sharedBlob)
+                .linkedImage(image)
+                .build());
+        pageImageRepository.save(PageImage.builder()
+                .pageContent(secondPage)
+                .imageSequence(1)
+                .blob(saveBlob("second", new byte[]{4, 5}))
+                .build());
+        
+        GlossaryTerm term = glossaryTermRepository.save(GlossaryTerm.builder()
+                .term("TEST").definition("Test definition").pageNumber(1670).build());
+        indexEntryRepository.save(IndexEntry.builder()
+                .topic("Test Topic").pageReferences("100").extractedFromPage(1700)
+                .glossaryTerm(term).build());
+        
+        CleanupResult result = dataCleanup.cleanupAllIngestedData();
+        
+        assertThat(result.getBooks()).isEqualTo(1);
+        assertThat(result.getChapters()).isEqualTo(1);
+        assertThat(result.getVerses()).isEqualTo(2);
+        assertThat(result.getNotes()).isEqualTo(1);
+        assertThat(result.getImages()).isEqualTo(2);
+        assertThat(result.getImageBlobs()).isEqualTo(1);
+        assertThat(result.getNoteImageLinks()).isEqualTo(2);
+        assertThat(result.getPageImagesUnlinked()).isEqualTo(1);
+        assertThat(result.getGlossaryTerms()).isEqualTo(1);
+        assertThat(result.getIndexEntries()).isEqualTo(1);
+        assertThat(result.getTotalDeleted()).isEqualTo(12);
+        
+        // Domain tables are empty
+        assertThat(bookRepository.count()).isZero();
+        assertThat(imageRepository.count()).isZero();
+        assertThat(indexEntryRepository.count()).isZero();
+        
+        // page_contents and page_images keep every row and value
+        assertThat(pageContentRepository.count()).isEqualTo(2);
+        PageContent keptPage = pageContentRepository.findByPageNumber(100).orElseThrow();
+        assertThat(keptPage.getRawText()).isEqualTo("Test text");
+        assertThat(keptPage.getIngested()).isTrue();
+        
+        assertThat(pageImageRepository.count()).isEqualTo(2);
+        PageImage keptImage = pageImageRepository.findByPageContentId(keptPage.getId()).get(0);
+        try (InputStream data = imageBlobService.open(keptImage.getBlob())) {
+            assertThat(data.readAllBytes()).containsExactly(1, 2, 3);
+        }
+        assertThat(imageBlobRepository.count()).isEqualTo(2);
+        assertThat(imageBlobDataRepository.existsById("image-only")).isFalse();
+        assertThat(imageBlobDataRepository.count()).isEqualTo(2);
+        assertThat(keptImage.getImageSequence()).isEqualTo(1);
+        assertThat(keptImage.isLinked()).isFalse();
+    }
+    
+    @Test
+    void testCleanupContentOnly_returnsCounts() {
+        Book book = bookRepository.save(Book.builder().title("Test Book").pageNumber(100).build());
+        chapterRepository.save(Chapter.builder().book(book).title("Test Chapter").pageNumber(100).build());
+        
+        CleanupResult result = dataCleanup.cleanupContentOnly();
+        
+        assertThat(result.getBooks()).isEqualTo(1);
+        assertThat(result.getChapters()).isEqualTo(1);
+        assertThat(result.getGlossaryTerms()).isZero();
+        assertThat(result.getIndexEntries()).isZero();
+    }
+    
     @Test
     void testCleanupContentOnly_preservesGlossaryAndIndex() {
         // Create Books
@@ -242,4 +360,8 @@ class IngestionDataCleanupIntegrationTest {
         assertThat(glossaryTermRepository.count()).isEqualTo(1);
         assertThat(indexEntryRepository.count()).isEqualTo(1);
     }
+    
+    private ImageBlob saveBlob(String contentHash, byte[] data) {
+        return imageBlobService.store(new EncodedImage(contentHash, "image/png", data));
+    }
 }
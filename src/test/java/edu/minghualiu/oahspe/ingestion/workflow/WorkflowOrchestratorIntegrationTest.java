@@ -1,15 +1,26 @@
 package edu.minghualiu.oahspe.ingestion.workflow;
 
 import edu.minghualiu.oahspe.entities.*;
+import edu.minghualiu.oahspe.ingestion.OahspeIngestionService;
+import edu.minghualiu.oahspe.ingestion.linker.PageIngestionLinker;
 import edu.minghualiu.oahspe.repositories.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * Integration tests for WorkflowOrchestrator.
@@ -37,6 +48,18 @@ class WorkflowOrchestratorIntegrationTest {
     @Autowired
     private VerseRepository verseRepository;
     
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private PageIngestionLinker pageIngestionLinker;
+    
+    @Autowired
+    private OahspeIngestionService oahspeIngestionService;
+    
+    @TempDir
+    Path tempDir;
+    
     @BeforeEach
     void setUp() {
         // Clean up before each test
@@ -179,4 +202,97 @@ class WorkflowOrchestratorIntegrationTest {
         
         assertThat(resumed.getStatus()).isEqualTo(WorkflowStatus.COMPLETED);
     }
+    
+    @Test
+    void testResumeWorkflow_withoutSourcePath() {
+        workflowStateRepository.save(WorkflowState.builder()
+                .workflowName("test-workflow")
+                .currentPhase(WorkflowPhase.CONTENT_INGESTION)
+                .status(WorkflowStatus.FAILED)
+                .build());
+        
+        assertThatThrownBy(() -> workflowOrchestrator.resumeWorkflow("test-workflow"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not record its PDF");
+    }
+    
+    @Test
+    void testResumeWorkflow_pdfChanged() throws Exception {
+        Path pdf = Files.write(tempDir.resolve("oahspe.pdf"), "%PDF-1.4 edited".getBytes());
+        workflowStateRepository.save(WorkflowState.builder()
+                .workflowName("test-workflow")
+                .currentPhase(WorkflowPhase.CONTENT_INGESTION)
+                .status(WorkflowStatus.IN_PROGRESS)
+                .sourcePath(pdf.toString())
+                .sourceHash("0".repeat(64))
+                .build());
+        
+        assertThatThrownBy(() -> workflowOrchestrator.resumeWorkflow("test-workflow"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PDF has changed");
+    }
+    
+    @Test
+    void testResumeWorkflow_continuesAfterLastCommittedPage() throws Exception {
+        Path pdf = Files.write(tempDir.resolve("oahspe.pdf"), "%PDF-1.4 test".getBytes());
+        WorkflowState workflow = workflowStateRepository.save(WorkflowState.builder()
+                .workflowName("test-workflow")
+                .currentPhase(WorkflowPhase.CONTENT_INGESTION)
+                .status(WorkflowStatus.IN_PROGRESS)
+                .sourcePath(pdf.toString())
+                .sourceHash(HexFormat.of().formatHex(
+                        MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(pdf))))
+                .build());
+        
+        // The interrupted run committed pages 7-8, ending inside note (1)
+        saveBookPage(7, "Book of Apollo\nChapter 1\n1/1.1 First verse starts");
+        saveBookPage(8, "continues here\n1/1.2 Second verse\n(1) A note");
+        pageIngestionLinker.ingestCategoryPages(PageCategory.OAHSPE_BOOKS, null,
+                page -> workflow.recordCheckpoint(PageCategory.OAHSPE_BOOKS, page));
+        workflowStateRepository.save(workflow);
+        // A new process starts without any in-memory context
+        oahspeIngestionService.finishIngestion();
+        saveBookPage(9, "note continues\nChapter 2\n1/2.1 Third verse");
+        saveBookPage(10, "more text");
+        
+        WorkflowState resumed = workflowOrchestrator.resumeWorkflow("test-workflow");
+        
+        assertThat(resumed.getStatus()).isEqualTo(WorkflowStatus.COMPLETED);
+        assertThat(resumed.getCheckpoint(PageCategory.OAHSPE_BOOKS)).isEqualTo(10);
+        assertThat(bookRepository.count()).isEqualTo(1);
+        assertThat(chapterRepository.count()).isEqualTo(2);
+        
+        List<Note> notes = noteRepository.findAll();
+        assertThat(notes).hasSize(1);
+        assertThat(notes.get(0).getText()).isEqualTo("A note note continues");
+        assertThat(verseRepository.findAll())
+                .extracting(Verse::getVerseKey, Verse::getText)
+                .containsExactlyInAnyOrder(
+                        tuple("1/1.1", "First verse starts continues here"),
+                        tuple("1/1.2", "Second verse"),
+                        tuple("1/2.1", "Third verse more text"));
+    }
+    
+    private void saveBookPage(int pageNumber, String rawText) {
+        pageContentRepository.save(PageContent.builder()
+                .pageNumber(pageNumber)
+                .category(PageCategory.OAHSPE_BOOKS)
+                .rawText(rawText)
+                .build());
+    }
+    
+    @Test
+    void testGenerateStatistics_isJsonWithMetrics() {
+        saveBookPage(7, "Book of Apollo");
+        PageContent ingested = pageContentRepository.findByPageNumber(7).orElseThrow();
+        ingested.markIngested();
+        pageContentRepository.save(ingested);
+        saveBookPage(8, "Chapter 1");
+        
+        String statistics = workflowOrchestrator.generateStatistics();
+        
+        assertThat(statistics).startsWith("{\"totalPages\":2,\"ingestedPages\":1,\"metrics\":{");
+        assertThat(statistics).contains("\"steps\":{\"text-extraction\":");
+        assertThat(statistics).contains("\"statementsPerPage\":");
+    }
 }
@@ -0,0 +1,86 @@
+package edu.minghualiu.oahspe.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CorpusSnapshot Tests")
+class CorpusSnapshotTest {
+
+    private static CorpusSnapshot.Builder sample() {
+        return CorpusSnapshot.builder(7)
+                .addBook(1, "Book of Jehovih")
+                .addChapter(10L, "Chapter 7", 1)
+                .addChapter(11L, "Chapter 70", null)
+                // Out of order, and chapter 70 shares the "14/7" prefix
+                .addVerse(3, "14/7.12", "Verse 12", null, 21, 10L)
+                .addVerse(1, "14/7.1", "Verse 1", "第一节", 20, 10L)
+                .addVerse(4, "14/70.1", "Other chapter", null, null, 11L)
+                .addVerse(2, "14/7.2", "Verse 2", null, 20, 10L)
+                .addNote(2, "43", "Second note", null)
+                .addNote(2, "42", "First note", "注")
+                .addNote(99, "44", "Note of a missing verse", null);
+    }
+
+    @Test
+    @DisplayName("Lookup: Verse with book, chapter, page and notes in key order")
+    void test_FindVerse() {
+        CorpusSnapshot snapshot = sample().build();
+
+        VerseView verse = snapshot.findVerse(VerseKey.parse("14/7.2")).orElseThrow();
+
+        assertEquals("Verse 2", verse.text());
+        assertEquals("Book of Jehovih", verse.bookTitle());
+        assertEquals("Chapter 7", verse.chapterTitle());
+        assertEquals(20, verse.pageNumber());
+        assertEquals(List.of(new VerseView.NoteView("42", "First note", "注"),
+                new VerseView.NoteView("43", "Second note", null)), verse.notes());
+        assertEquals("第一节", snapshot.findVerse(VerseKey.parse("14/7.1")).orElseThrow().textInChinese());
+        assertTrue(snapshot.findVerse(VerseKey.parse("14/7.3")).isEmpty());
+        assertTrue(snapshot.findVerse(VerseKey.parse("15/1.1")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lookup: Nulls are kept; a chapter may have no book")
+    void test_Nulls() {
+        VerseView verse = sample().build().findVerse(VerseKey.parse("14/70.1")).orElseThrow();
+
+        assertNull(verse.textInChinese());
+        assertNull(verse.pageNumber());
+        assertNull(verse.bookTitle());
+        assertEquals("Chapter 70", verse.chapterTitle());
+        assertTrue(verse.notes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Range: Verse order, bounds inclusive, other chapters excluded")
+    void test_FindRange() {
+        CorpusSnapshot snapshot = sample().build();
+
+        assertEquals(List.of("14/7.1", "14/7.2", "14/7.12"),
+                snapshot.findRange(VerseKey.Range.parse("14/7.1..14/7.12")).stream().map(VerseView::verseKey).toList());
+        assertEquals(List.of("14/7.2"),
+                snapshot.findRange(VerseKey.Range.parse("14/7.2..14/7.11")).stream().map(VerseView::verseKey).toList());
+        assertTrue(snapshot.findRange(VerseKey.Range.parse("14/7.3..14/7.11")).isEmpty());
+        assertTrue(snapshot.findRange(VerseKey.Range.parse("14/8.1..14/8.5")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Build: Counts, generation, malformed and duplicate keys")
+    void test_Build() {
+        CorpusSnapshot.Builder builder = sample()
+                .addVerse(5, "not a key", "Skipped", null, 1, 10L)
+                .addVerse(6, "14/7.01", "Duplicate of 14/7.1", null, 1, 10L);
+        CorpusSnapshot snapshot = builder.build();
+
+        assertEquals(1, builder.skippedVerses());
+        assertEquals(4, snapshot.verseCount());
+        assertEquals(2, snapshot.noteCount());
+        assertEquals(7, snapshot.generation());
+        assertThrows(IllegalArgumentException.class,
+                () -> CorpusSnapshot.builder(0).addVerse(1, "14/7.1", "Verse", null, 1, 10L));
+    }
+}
@@ -0,0 +1,51 @@
+package edu.minghualiu.oahspe.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VerseKey Tests")
+class VerseKeyTest {
+
+    @Test
+    @DisplayName("Parse: Book, alphanumeric chapter and verse")
+    void test_Parse() {
+        VerseKey key = VerseKey.parse("14/7a.12");
+
+        assertEquals("14", key.book());
+        assertEquals("7a", key.chapter());
+        assertEquals(12, key.verse());
+        assertEquals("14/7a", key.chapterKey());
+        assertEquals("14/7a.12", key.toString());
+    }
+
+    @Test
+    @DisplayName("Parse: Malformed keys are rejected")
+    void test_ParseMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> VerseKey.parse("14.7.1"));
+        assertThrows(IllegalArgumentException.class, () -> VerseKey.parse("14/7"));
+        assertThrows(IllegalArgumentException.class, () -> VerseKey.parse(null));
+        assertNull(VerseKey.tryParse("not a key"));
+    }
+
+    @Test
+    @DisplayName("Range: Inclusive, a single key is one verse")
+    void test_Range() {
+        VerseKey.Range range = VerseKey.Range.parse("14/7.2..14/7.5");
+        VerseKey.Range single = VerseKey.Range.parse("14/7.3");
+
+        assertTrue(range.contains(2));
+        assertTrue(range.contains(5));
+        assertFalse(range.contains(6));
+        assertEquals(range.first(), VerseKey.parse("14/7.2"));
+        assertEquals(single.first(), single.last());
+    }
+
+    @Test
+    @DisplayName("Range: Spanning chapters or reversed is rejected")
+    void test_RangeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> VerseKey.Range.parse("14/7.1..14/8.1"));
+        assertThrows(IllegalArgumentException.class, () -> VerseKey.Range.parse("14/7.5..14/7.1"));
+    }
+}
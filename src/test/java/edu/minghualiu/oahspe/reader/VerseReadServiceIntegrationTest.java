@@ -0,0 +1,179 @@
+package edu.minghualiu.oahspe.reader;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for VerseReadService and its two-tier VerseCache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class VerseReadServiceIntegrationTest {
+
+    @Autowired
+    private VerseReadService verseReadService;
+
+    @Autowired
+    private VerseCache verseCache;
+
+    @Autowired
+    private CorpusSnapshotService corpusSnapshotService;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Chapter chapter;
+
+    @BeforeEach
+    void setUp() {
+        dataCleanup.cleanupAllIngestedData();
+
+        Book book = bookRepository.save(Book.builder().title("Book of Jehovih").pageNumber(10).build());
+        chapter = chapterRepository.save(Chapter.builder().title("Chapter 7").book(book).pageNumber(10).build());
+        // Saved out of order; chapter 70 shares the "14/7" prefix
+        for (int verse : new int[]{3, 1, 12, 2}) {
+            verseRepository.save(verse("14/7." + verse, "Verse " + verse));
+        }
+        verseRepository.save(verse("14/70.1", "Other chapter"));
+        Verse annotated = verseRepository.findAll().stream()
+                .filter(v -> v.getVerseKey().equals("14/7.2")).findFirst().orElseThrow();
+        noteRepository.save(Note.builder().noteKey("42").text("A note").verse(annotated).pageNumber(10).build());
+        // Reload from the database so verses see their notes
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("A verse is found with its notes, book and chapter")
+    void testFindVerse() {
+        VerseView verse = verseReadService.findVerse("14/7.2").orElseThrow();
+
+        assertThat(verse.text()).isEqualTo("Verse 2");
+        assertThat(verse.bookTitle()).isEqualTo("Book of Jehovih");
+        assertThat(verse.chapterTitle()).isEqualTo("Chapter 7");
+        assertThat(verse.notes()).extracting(VerseView.NoteView::text).containsExactly("A note");
+        assertThat(verseReadService.findVerse("14/7.99")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A range is returned in verse order without other chapters")
+    void testFindRange() {
+        List<VerseView> verses = verseReadService.findRange("14/7.2..14/7.12");
+
+        assertThat(verses).extracting(VerseView::verseKey).containsExactly("14/7.2", "14/7.3", "14/7.12");
+        assertThat(verseReadService.findRange("14/70.1")).extracting(VerseView::text)
+                .containsExactly("Other chapter");
+    }
+
+    @Test
+    @DisplayName("Repeated reads are served from the cache")
+    void testCacheHits() {
+        verseReadService.findVerse("14/7.1");
+        long verseHits = verseCache.verseStats().hitCount();
+        long chapterHits = verseCache.chapterStats().hitCount();
+
+        verseReadService.findVerse("14/7.1");
+        verseReadService.findVerse("14/7.3");
+        verseReadService.findRange("14/7.1..14/7.3");
+
+        assertThat(verseCache.verseStats().hitCount()).isEqualTo(verseHits + 1);
+        assertThat(verseCache.chapterStats().hitCount()).isEqualTo(chapterHits + 2);
+    }
+
+    @Test
+    @DisplayName("Invalidating a verse reloads its chapter")
+    void testInvalidate() {
+        assertThat(verseReadService.findVerse("14/7.1").orElseThrow().text()).isEqualTo("Verse 1");
+
+        Verse verse = verseRepository.findAll().stream()
+                .filter(v -> v.getVerseKey().equals("14/7.1")).findFirst().orElseThrow();
+        verse.setText("Revised");
+        verseRepository.saveAndFlush(verse);
+        verseCache.invalidate("14/7.1");
+
+        assertThat(verseReadService.findVerse("14/7.1").orElseThrow().text()).isEqualTo("Revised");
+    }
+
+    @Test
+    @DisplayName("Reads are served from a rebuilt snapshot until the next write")
+    void testSnapshot() {
+        assertThat(corpusSnapshotService.current()).isEmpty();
+
+        CorpusSnapshot snapshot = corpusSnapshotService.rebuild().orElseThrow();
+        long verseMisses = verseCache.verseStats().missCount();
+
+        assertThat(snapshot.verseCount()).isEqualTo(5);
+        assertThat(corpusSnapshotService.current()).containsSame(snapshot);
+        assertThat(verseReadService.findVerse("14/7.2").orElseThrow().notes()).hasSize(1);
+        assertThat(verseReadService.findRange("14/7.1..14/7.3")).extracting(VerseView::verseKey)
+                .containsExactly("14/7.1", "14/7.2", "14/7.3");
+        assertThat(verseCache.verseStats().missCount()).isEqualTo(verseMisses);
+
+        verseCache.invalidate("14/7.1");
+
+        assertThat(corpusSnapshotService.current()).isEmpty();
+        assertThat(verseReadService.findVerse("14/7.1")).isPresent();
+        assertThat(verseCache.verseStats().missCount()).isEqualTo(verseMisses + 1);
+    }
+
+    @Test
+    @DisplayName("Cleanup empties the cache")
+    void testCleanupInvalidates() {
+        assertThat(verseReadService.findVerse("14/7.1")).isPresent();
+
+        dataCleanup.cleanupAllIngestedData();
+
+        assertThat(verseReadService.findVerse("14/7.1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Malformed keys and ranges are rejected")
+    void testMalformedInput() {
+        assertThatThrownBy(() -> verseReadService.findVerse("chapter 7"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> verseReadService.findRange("14/7.1..14/8.2"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> verseReadService.findRange("14/7.9..14/7.2"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Verse verse(String key, String text) {
+        return Verse.builder().verseKey(key).text(text).chapter(chapter).pageNumber(10).build();
+    }
+}
@@ -0,0 +1,116 @@
+package edu.minghualiu.oahspe.repositories;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.IndexEntry;
+import edu.minghualiu.oahspe.entities.PageRange;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the page reference queries of IndexEntryRepository.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class IndexEntryRepositoryIntegrationTest {
+
+    @Autowired
+    private IndexEntryRepository indexEntryRepository;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private IndexEntry angels;
+
+    @BeforeEach
+    void setUp() {
+        dataCleanup.cleanupAllIngestedData();
+
+        Book book = bookRepository.save(Book.builder().title("Book of Jehovih").pageNumber(10).build());
+        Chapter chapter = chapterRepository.save(Chapter.builder().title("Chapter 1").book(book).pageNumber(10).build());
+        int verse = 1;
+        for (int page : new int[]{41, 42, 42, 43, 500, 501, 502, 503}) {
+            verseRepository.save(Verse.builder().verseKey("14/1." + verse).text("Verse " + verse)
+                    .pageNumber(page).chapter(chapter).build());
+            verse++;
+        }
+
+        angels = indexEntryRepository.save(entry("Angels", PageRange.of(42), new PageRange(500, 502)));
+        indexEntryRepository.save(entry("Beasts", new PageRange(490, 500)));
+        indexEntryRepository.save(entry("Corpor", PageRange.of(1000)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Entries citing a page are found through their ranges")
+    void testFindCitingPage() {
+        assertThat(indexEntryRepository.findCitingPage(500)).extracting(IndexEntry::getTopic)
+                .containsExactly("Angels", "Beasts");
+        assertThat(indexEntryRepository.findCitingPage(501)).extracting(IndexEntry::getTopic)
+                .containsExactly("Angels");
+        assertThat(indexEntryRepository.findCitingPage(42)).extracting(IndexEntry::getTopic)
+                .containsExactly("Angels");
+        assertThat(indexEntryRepository.findCitingPage(43)).isEmpty();
+        assertThat(indexEntryRepository.findCitingPagesBetween(503, 1000)).extracting(IndexEntry::getTopic)
+                .containsExactly("Corpor");
+    }
+
+    @Test
+    @DisplayName("Verses on the cited pages are found in page order")
+    void testFindCitedVerses() {
+        assertThat(verseRepository.findCitedByIndexEntry(angels.getId())).extracting(Verse::getVerseKey)
+                .containsExactly("14/1.2", "14/1.3", "14/1.5", "14/1.6", "14/1.7");
+    }
+
+    @Test
+    @DisplayName("Cleanup deletes page ranges with their entries")
+    void testCleanupDeletesRanges() {
+        assertThat(dataCleanup.cleanupAllIngestedData().getIndexPageRanges()).isEqualTo(4);
+        assertThat(indexEntryRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleting entries by source page deletes their page ranges first")
+    void testDeleteByExtractedFromPage() {
+        assertThat(indexEntryRepository.deletePageRangesByExtractedFromPageBetween(1700, 1700)).isEqualTo(3);
+        assertThat(indexEntryRepository.deleteByExtractedFromPageBetween(1700, 1700)).isEqualTo(2);
+        assertThat(indexEntryRepository.findCitingPage(1000)).extracting(IndexEntry::getTopic)
+                .containsExactly("Corpor");
+    }
+
+    private static IndexEntry entry(String topic, PageRange... ranges) {
+        return IndexEntry.builder()
+                .topic(topic)
+                .pageReferences(String.join(", ", List.of(ranges).stream().map(PageRange::toString).toList()))
+                .pageRanges(new ArrayList<>(List.of(ranges)))
+                .extractedFromPage(topic.equals("Corpor") ? 1701 : 1700)
+                .build();
+    }
+}
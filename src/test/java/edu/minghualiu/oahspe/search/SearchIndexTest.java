@@ -0,0 +1,101 @@
+package edu.minghualiu.oahspe.search;
+
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearchIndex Tests")
+class SearchIndexTest {
+
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex();
+        Verse verse = Verse.builder().id(1).verseKey("01/1.1").pageNumber(10)
+                .text("All was. All is. All ever shall be. The Spirit moved, and the Voice of Jehovih spake.").build();
+        searchIndex.index(verse);
+        searchIndex.index(Verse.builder().id(2).verseKey("01/1.2").pageNumber(11)
+                .text("And the angels of heaven descended to the earth.").build());
+        searchIndex.index(Note.builder().id(1).noteKey("7").pageNumber(11).verse(verse)
+                .text("Jehovih, the Creator; the voice is heard in the soul.").build());
+        searchIndex.indexGlossaryTerms(List.of(GlossaryTerm.builder().id(1L).term("Angel").pageNumber(1800)
+                .definition("A spirit of the dead, risen in wisdom.").build()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    @DisplayName("Words: Case-insensitive, every word required, hits tied to verse and page")
+    void test_Words() {
+        List<SearchHit> hits = searchIndex.search("JEHOVIH spirit", null, 10);
+
+        assertEquals(1, hits.size());
+        SearchHit hit = hits.getFirst();
+        assertEquals(SearchHit.Type.VERSE, hit.type());
+        assertEquals("01/1.1", hit.key());
+        assertEquals("01/1.1", hit.verseKey());
+        assertEquals(10, hit.pageNumber());
+        assertTrue(hit.snippet().contains("<b>Jehovih</b>"), hit.snippet());
+        assertTrue(hit.score() > 0);
+    }
+
+    @Test
+    @DisplayName("Phrase: Words must be adjacent and in order")
+    void test_Phrase() {
+        List<SearchHit> hits = searchIndex.search("\"voice of jehovih\"", null, 10);
+
+        assertEquals(List.of("01/1.1"), hits.stream().map(SearchHit::key).toList());
+        assertTrue(hits.getFirst().snippet().contains("<b>Voice</b> <b>of</b> <b>Jehovih</b>"), hits.getFirst().snippet());
+        assertTrue(searchIndex.search("\"jehovih voice\"", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Prefix: Matches every type; a note hit carries its verse key")
+    void test_Prefix() {
+        List<SearchHit> hits = searchIndex.search("angel*", null, 10);
+
+        assertEquals(2, hits.size());
+        assertTrue(hits.stream().anyMatch(hit -> hit.type() == SearchHit.Type.GLOSSARY_TERM && hit.key().equals("Angel")));
+
+        SearchHit note = searchIndex.search("creator", SearchHit.Type.NOTE, 10).getFirst();
+        assertEquals("7", note.key());
+        assertEquals("01/1.1", note.verseKey());
+    }
+
+    @Test
+    @DisplayName("Type filter, page deletion, replacement and deletion by type")
+    void test_Updates() {
+        assertEquals(1, searchIndex.search("angel*", SearchHit.Type.VERSE, 10).size());
+
+        searchIndex.deletePages(11, 11);
+        assertTrue(searchIndex.search("angels", null, 10).isEmpty());
+        assertEquals(2, searchIndex.documentCount());
+
+        searchIndex.index(Verse.builder().id(1).verseKey("01/1.1").pageNumber(10).text("Revised text").build());
+        assertTrue(searchIndex.search("jehovih", SearchHit.Type.VERSE, 10).isEmpty());
+        assertEquals(2, searchIndex.documentCount());
+
+        searchIndex.deleteTypes(SearchHit.Type.VERSE, SearchHit.Type.NOTE);
+        assertEquals(List.of("Angel"), searchIndex.search("angel*", null, 10).stream().map(SearchHit::key).toList());
+    }
+
+    @Test
+    @DisplayName("Parse: Queries without searchable words are rejected")
+    void test_EmptyQuery() {
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("  ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("\"\" ;", null, 10));
+    }
+}
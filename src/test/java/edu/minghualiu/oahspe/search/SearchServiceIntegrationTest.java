@@ -0,0 +1,134 @@
+package edu.minghualiu.oahspe.search;
+
+import edu.minghualiu.oahspe.entities.Book;
+import edu.minghualiu.oahspe.entities.Chapter;
+import edu.minghualiu.oahspe.entities.GlossaryTerm;
+import edu.minghualiu.oahspe.entities.Note;
+import edu.minghualiu.oahspe.entities.Verse;
+import edu.minghualiu.oahspe.ingestion.workflow.IngestionDataCleanup;
+import edu.minghualiu.oahspe.repositories.BookRepository;
+import edu.minghualiu.oahspe.repositories.ChapterRepository;
+import edu.minghualiu.oahspe.repositories.GlossaryTermRepository;
+import edu.minghualiu.oahspe.repositories.NoteRepository;
+import edu.minghualiu.oahspe.repositories.VerseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for SearchService and the transactional updates of SearchIndex.
+ * Not @Transactional: index changes are applied only when a transaction commits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchServiceIntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IngestionDataCleanup dataCleanup;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private VerseRepository verseRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private GlossaryTermRepository glossaryTermRepository;
+
+    @AfterEach
+    void tearDown() {
+        dataCleanup.cleanupAllIngestedData();
+        searchService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Rebuild indexes verses, notes, orphaned notes and glossary terms from the database")
+    void testRebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Book book = bookRepository.save(Book.builder().title("Book of Tests").pageNumber(10).build());
+            Chapter chapter = chapterRepository.save(Chapter.builder().title("Chapter 1").book(book).pageNumber(10).build());
+            Verse verse = verseRepository.save(Verse.builder().verseKey("01/1.1").chapter(chapter).pageNumber(10)
+                    .text("The Voice of Jehovih spake to the angels.").build());
+            noteRepository.save(Note.builder().noteKey("1").verse(verse).pageNumber(10).text("Angels of light.").build());
+            noteRepository.save(Note.builder().noteKey("2").pageNumber(12).text("An orphaned angel note.").build());
+            glossaryTermRepository.save(GlossaryTerm.builder().term("Angelic").pageNumber(1800)
+                    .definition("Of the angels.").build());
+        });
+
+        assertThat(searchService.rebuild()).isEqualTo(4);
+
+        List<SearchHit> hits = searchService.search("angel*", null, 10);
+        assertThat(hits).extracting(SearchHit::type).containsExactlyInAnyOrder(SearchHit.Type.VERSE,
+                SearchHit.Type.NOTE, SearchHit.Type.NOTE, SearchHit.Type.GLOSSARY_TERM);
+        assertThat(searchService.search("\"voice of jehovih\"", SearchHit.Type.VERSE, 10))
+                .extracting(SearchHit::verseKey, SearchHit::pageNumber)
+                .containsExactly(tuple("01/1.1", 10));
+        assertThat(searchService.search("light", SearchHit.Type.NOTE, 10))
+                .extracting(SearchHit::verseKey).containsExactly("01/1.1");
+    }
+
+    @Test
+    @DisplayName("Changes are applied when the transaction commits, never after a rollback")
+    void testTransactionalUpdates() {
+        transactionTemplate.executeWithoutResult(status -> {
+            searchIndex.index(Verse.builder().id(-1).verseKey("99/1.1").pageNumber(1).text("Committed words").build());
+            assertThat(searchIndex.search("committed", null, 10)).isEmpty();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            searchIndex.index(Verse.builder().id(-2).verseKey("99/1.2").pageNumber(1).text("Rolled back words").build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(searchService.search("committed", null, 10)).extracting(SearchHit::key).containsExactly("99/1.1");
+        assertThat(searchService.search("rolled", null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Content cleanup keeps glossary terms, full cleanup removes everything")
+    void testCleanup() {
+        searchIndex.index(Verse.builder().id(-1).verseKey("99/1.1").pageNumber(1).text("Some words").build());
+        searchIndex.indexGlossaryTerms(List.of(GlossaryTerm.builder().id(-1L).term("Word").pageNumber(1800).build()));
+        assertThat(searchIndex.documentCount()).isEqualTo(2);
+
+        dataCleanup.cleanupContentOnly();
+        assertThat(searchService.search("word*", null, 10)).extracting(SearchHit::type)
+                .containsExactly(SearchHit.Type.GLOSSARY_TERM);
+
+        dataCleanup.cleanupAllIngestedData();
+        assertThat(searchIndex.documentCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Limits outside 1 to MAX_LIMIT are rejected")
+    void testLimit() {
+        assertThatThrownBy(() -> searchService.search("angel", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("angel", null, SearchService.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package edu.minghualiu.oahspe.search;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SnippetHighlighter Tests")
+class SnippetHighlighterTest {
+
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    private String snippet(String query, String text) {
+        return new SnippetHighlighter(new StandardAnalyzer(), SearchIndex.TEXT, searchIndex.parse(query)).snippet(text);
+    }
+
+    @Test
+    @DisplayName("Words, phrases and prefixes are marked in the original case")
+    void test_Marks() {
+        assertEquals("The <b>Voice</b> <b>of</b> <b>Jehovih</b> spake to the <b>angels</b>.",
+                snippet("\"voice of jehovih\" angel*", "The Voice of Jehovih spake to the angels."));
+        assertEquals("No match here", snippet("angel", "No match here"));
+        assertNull(snippet("angel", null));
+    }
+
+    @Test
+    @DisplayName("Text around and inside matches is HTML-escaped")
+    void test_Escapes() {
+        assertEquals("a &lt; b &amp; <b>angel</b> &amp; c&gt;",
+                snippet("angel", "a < b & angel & c>"));
+        assertEquals("&lt;<b>angel</b>&gt; &quot;x&quot; &amp;&#39;",
+                snippet("angel", "<angel> \"x\" &'"));
+        assertEquals("a &lt;script&gt; b", snippet("angel", "a <script> b"));
+    }
+
+    @Test
+    @DisplayName("Long text: Cut to a window around the first match, on word boundaries")
+    void test_Window() {
+        String text = "word ".repeat(100) + "angel " + "word ".repeat(100);
+
+        String snippet = snippet("angel", text);
+
+        assertTrue(snippet.startsWith("...word "), snippet);
+        assertTrue(snippet.endsWith("word..."), snippet);
+        assertTrue(snippet.contains(" <b>angel</b> "), snippet);
+        assertTrue(snippet.length() <= SnippetHighlighter.SNIPPET_LENGTH + 16, snippet);
+    }
+}